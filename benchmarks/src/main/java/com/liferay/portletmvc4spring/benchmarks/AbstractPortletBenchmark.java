@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.benchmarks;
+
+import java.util.function.Consumer;
+
+import jakarta.portlet.PortletContext;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.springframework.beans.BeansException;
+
+import org.springframework.context.ApplicationContext;
+
+import com.liferay.portletmvc4spring.DispatcherPortlet;
+import com.liferay.portletmvc4spring.context.StaticPortletApplicationContext;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockPortletConfig;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockPortletContext;
+
+
+/**
+ * Base class for benchmarks that drive a fully initialized {@link DispatcherPortlet} with the mock requests of the
+ * {@code com.liferay.portletmvc4spring.test} module.
+ *
+ * <p>Each benchmark method creates its own request and response objects, just like a portlet container does. Their
+ * construction is part of every measured operation and contributes a constant amount to the allocation rate reported
+ * by the GC profiler.
+ *
+ * @author  Neil Griffin
+ * @since   6.0
+ */
+@State(Scope.Benchmark)
+public abstract class AbstractPortletBenchmark {
+
+	protected DispatcherPortlet portlet;
+
+	@TearDown
+	public void destroyPortlet() {
+
+		if (this.portlet != null) {
+			this.portlet.destroy();
+			this.portlet = null;
+		}
+	}
+
+	/**
+	 * Create and initialize a {@link DispatcherPortlet} for the default mock portlet context.
+	 *
+	 * @param   beanRegistrar  callback that registers the beans of the portlet application context
+	 *
+	 * @throws  Exception  if the portlet could not be initialized
+	 */
+	protected void initPortlet(Consumer<StaticPortletApplicationContext> beanRegistrar) throws Exception {
+		initPortlet(new MockPortletContext(), beanRegistrar);
+	}
+
+	/**
+	 * Create and initialize a {@link DispatcherPortlet} for the given portlet context.
+	 *
+	 * @param   portletContext  the portlet context that provides the request dispatchers
+	 * @param   beanRegistrar   callback that registers the beans of the portlet application context
+	 *
+	 * @throws  Exception  if the portlet could not be initialized
+	 */
+	protected void initPortlet(PortletContext portletContext,
+		final Consumer<StaticPortletApplicationContext> beanRegistrar) throws Exception {
+
+		DispatcherPortlet portlet = new DispatcherPortlet() {
+				@Override
+				protected ApplicationContext createPortletApplicationContext(ApplicationContext parent)
+					throws BeansException {
+					StaticPortletApplicationContext wac = new StaticPortletApplicationContext();
+					wac.setPortletConfig(getPortletConfig());
+					beanRegistrar.accept(wac);
+					wac.refresh();
+
+					return wac;
+				}
+			};
+		portlet.init(new MockPortletConfig(portletContext));
+		this.portlet = portlet;
+	}
+
+}
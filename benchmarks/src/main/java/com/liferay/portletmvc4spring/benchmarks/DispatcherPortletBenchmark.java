@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import jakarta.portlet.PortletMode;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.beans.MutablePropertyValues;
+
+import com.liferay.portletmvc4spring.handler.HandlerInterceptorAdapter;
+import com.liferay.portletmvc4spring.mvc.annotation.DefaultAnnotationHandlerMapping;
+import com.liferay.portletmvc4spring.mvc.method.annotation.PortletRequestMappingHandlerAdapter;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockActionRequest;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockActionResponse;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockEvent;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockEventRequest;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockEventResponse;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockRenderRequest;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockRenderResponse;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockResourceRequest;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockResourceResponse;
+
+
+/**
+ * Measures the throughput of the {@link com.liferay.portletmvc4spring.DispatcherPortlet} for each of the four portlet
+ * phases, dispatching to an annotated controller through the default handler mapping and a
+ * {@link PortletRequestMappingHandlerAdapter}.
+ *
+ * <p>The {@code controller} parameter selects between a {@link SmallController} with one handler method per phase and
+ * a {@link LargeController} with many handler methods per phase. The {@code interceptors} parameter sets the number of
+ * pass-through interceptors in the handler execution chain. The {@code cacheInvocationPlans} parameter switches the
+ * invocation plans of the {@link PortletRequestMappingHandlerAdapter} on and off, so that their effect can be compared
+ * within a single run. The render phase includes view resolution and the include of the view renderer URL, but not
+ * the rendering of the view itself (see {@link ViewRenderingBenchmark}).
+ *
+ * @author  Neil Griffin
+ * @since   6.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Measurement(iterations = 5, time = 2)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+public class DispatcherPortletBenchmark extends AbstractPortletBenchmark {
+
+	@Param({ "true", "false" })
+	public boolean cacheInvocationPlans;
+
+	@Param({ "small", "large" })
+	public String controller;
+
+	@Param({ "0", "4" })
+	public int interceptors;
+
+	private String actionName;
+
+	private String eventName;
+
+	private String page;
+
+	private String resourceID;
+
+	@Benchmark
+	public MockActionResponse action() throws Exception {
+		MockActionRequest request = new MockActionRequest(this.actionName);
+		request.setParameter("name", "value");
+
+		MockActionResponse response = new MockActionResponse();
+		this.portlet.processAction(request, response);
+
+		return response;
+	}
+
+	@Benchmark
+	public MockEventResponse event() throws Exception {
+		MockEventRequest request = new MockEventRequest(new MockEvent(this.eventName));
+		MockEventResponse response = new MockEventResponse();
+		this.portlet.processEvent(request, response);
+
+		return response;
+	}
+
+	@Benchmark
+	public MockRenderResponse render() throws Exception {
+		MockRenderRequest request = new MockRenderRequest(PortletMode.VIEW);
+
+		if (this.page != null) {
+			request.setParameter("page", this.page);
+		}
+
+		MockRenderResponse response = new MockRenderResponse();
+		this.portlet.render(request, response);
+
+		return response;
+	}
+
+	@Benchmark
+	public MockResourceResponse resource() throws Exception {
+		MockResourceRequest request = new MockResourceRequest(this.resourceID);
+		MockResourceResponse response = new MockResourceResponse();
+		this.portlet.serveResource(request, response);
+
+		return response;
+	}
+
+	@Setup
+	public void setUp() throws Exception {
+		final Class<?> controllerClass;
+
+		if ("large".equals(this.controller)) {
+			controllerClass = LargeController.class;
+			this.actionName = "submit8";
+			this.eventName = "refresh8";
+			this.page = "16";
+			this.resourceID = "data8";
+		}
+		else {
+			controllerClass = SmallController.class;
+			this.actionName = "submit";
+			this.eventName = "refresh";
+			this.resourceID = "data";
+		}
+
+		final Object[] handlerInterceptors = new Object[this.interceptors];
+
+		for (int i = 0; i < handlerInterceptors.length; i++) {
+			handlerInterceptors[i] = new PassThroughInterceptor();
+		}
+
+		initPortlet(wac -> {
+				wac.registerSingleton("controller", controllerClass);
+				wac.registerSingleton("handlerMapping", DefaultAnnotationHandlerMapping.class,
+					new MutablePropertyValues().add("interceptors", handlerInterceptors));
+				wac.registerSingleton("handlerAdapter", PortletRequestMappingHandlerAdapter.class,
+					new MutablePropertyValues().add("cacheInvocationPlans", this.cacheInvocationPlans));
+			});
+	}
+
+	/**
+	 * Interceptor that lets every request pass without doing anything, for measuring the cost of the handler execution
+	 * chain itself.
+	 */
+	public static class PassThroughInterceptor extends HandlerInterceptorAdapter {
+	}
+
+}
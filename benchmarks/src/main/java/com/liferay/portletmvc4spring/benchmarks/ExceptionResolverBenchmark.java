@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import jakarta.portlet.PortletMode;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.beans.MutablePropertyValues;
+
+import org.springframework.stereotype.Controller;
+
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import com.liferay.portletmvc4spring.bind.annotation.RenderMapping;
+import com.liferay.portletmvc4spring.bind.annotation.ResourceMapping;
+import com.liferay.portletmvc4spring.handler.SimpleMappingExceptionResolver;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockRenderRequest;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockRenderResponse;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockResourceRequest;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockResourceResponse;
+
+
+/**
+ * Measures the throughput of the {@link com.liferay.portletmvc4spring.DispatcherPortlet} for handlers that throw an
+ * exception in the render and resource phases, which the configured exception resolver turns into an error view.
+ *
+ * <p>The {@code resolver} parameter selects between a {@link SimpleMappingExceptionResolver} with a default error view
+ * ({@code simpleMapping}) and an {@link ExceptionHandler} method on the controller, invoked by the default {@link
+ * com.liferay.portletmvc4spring.mvc.annotation.AnnotationMethodHandlerExceptionResolver} ({@code exceptionHandler}).
+ *
+ * @author  Neil Griffin
+ * @since   6.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Measurement(iterations = 5, time = 2)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+public class ExceptionResolverBenchmark extends AbstractPortletBenchmark {
+
+	@Param({ "simpleMapping", "exceptionHandler" })
+	public String resolver;
+
+	@Benchmark
+	public MockRenderResponse render() throws Exception {
+		MockRenderRequest request = new MockRenderRequest(PortletMode.VIEW);
+		MockRenderResponse response = new MockRenderResponse();
+		this.portlet.render(request, response);
+
+		return response;
+	}
+
+	@Benchmark
+	public MockResourceResponse resource() throws Exception {
+		MockResourceRequest request = new MockResourceRequest("data");
+		MockResourceResponse response = new MockResourceResponse();
+		this.portlet.serveResource(request, response);
+
+		return response;
+	}
+
+	@Setup
+	public void setUp() throws Exception {
+
+		if ("exceptionHandler".equals(this.resolver)) {
+			initPortlet(wac -> wac.registerSingleton("controller", ExceptionHandlingController.class));
+		}
+		else {
+			initPortlet(wac -> {
+					wac.registerSingleton("controller", FailingController.class);
+					wac.registerSingleton("exceptionResolver", SimpleMappingExceptionResolver.class,
+						new MutablePropertyValues().add("defaultErrorView", "error"));
+				});
+		}
+	}
+
+	/**
+	 * Controller that handles the exceptions of its handler methods with an {@link ExceptionHandler} method.
+	 */
+	@Controller
+	@RequestMapping("VIEW")
+	public static class ExceptionHandlingController extends FailingController {
+
+		@ExceptionHandler
+		public String handleException(IllegalStateException ex) {
+			return "error";
+		}
+
+	}
+
+	/**
+	 * Controller with handler methods that always fail.
+	 */
+	@Controller
+	@RequestMapping("VIEW")
+	public static class FailingController {
+
+		@ResourceMapping("data")
+		public void serveData() {
+			throw new IllegalStateException("Resource failure");
+		}
+
+		@RenderMapping
+		public String view() {
+			throw new IllegalStateException("Render failure");
+		}
+
+	}
+
+}
@@ -0,0 +1,270 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.benchmarks;
+
+import java.io.IOException;
+
+import jakarta.portlet.ResourceResponse;
+
+import org.springframework.stereotype.Controller;
+
+import org.springframework.ui.Model;
+
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import com.liferay.portletmvc4spring.bind.annotation.ActionMapping;
+import com.liferay.portletmvc4spring.bind.annotation.EventMapping;
+import com.liferay.portletmvc4spring.bind.annotation.RenderMapping;
+import com.liferay.portletmvc4spring.bind.annotation.ResourceMapping;
+
+
+/**
+ * Annotated controller with many handler methods per portlet phase. The benchmarks target the handler methods with the
+ * highest number, i.e. {@code submit8}, {@code refresh8}, {@code data8} and {@code page=16}, which share their lookup
+ * keys with all of the other handler methods of the same phase.
+ *
+ * @author  Neil Griffin
+ * @since   6.0
+ */
+@Controller
+@RequestMapping("VIEW")
+public class LargeController {
+
+	@EventMapping("refresh1")
+	public void refresh01() {
+	}
+
+	@EventMapping("refresh2")
+	public void refresh02() {
+	}
+
+	@EventMapping("refresh3")
+	public void refresh03() {
+	}
+
+	@EventMapping("refresh4")
+	public void refresh04() {
+	}
+
+	@EventMapping("refresh5")
+	public void refresh05() {
+	}
+
+	@EventMapping("refresh6")
+	public void refresh06() {
+	}
+
+	@EventMapping("refresh7")
+	public void refresh07() {
+	}
+
+	@EventMapping("refresh8")
+	public void refresh08() {
+	}
+
+	@RenderMapping(params = "page=1")
+	public String renderPage01(Model model) {
+		model.addAttribute("page", 1);
+
+		return "page";
+	}
+
+	@RenderMapping(params = "page=2")
+	public String renderPage02(Model model) {
+		model.addAttribute("page", 2);
+
+		return "page";
+	}
+
+	@RenderMapping(params = "page=3")
+	public String renderPage03(Model model) {
+		model.addAttribute("page", 3);
+
+		return "page";
+	}
+
+	@RenderMapping(params = "page=4")
+	public String renderPage04(Model model) {
+		model.addAttribute("page", 4);
+
+		return "page";
+	}
+
+	@RenderMapping(params = "page=5")
+	public String renderPage05(Model model) {
+		model.addAttribute("page", 5);
+
+		return "page";
+	}
+
+	@RenderMapping(params = "page=6")
+	public String renderPage06(Model model) {
+		model.addAttribute("page", 6);
+
+		return "page";
+	}
+
+	@RenderMapping(params = "page=7")
+	public String renderPage07(Model model) {
+		model.addAttribute("page", 7);
+
+		return "page";
+	}
+
+	@RenderMapping(params = "page=8")
+	public String renderPage08(Model model) {
+		model.addAttribute("page", 8);
+
+		return "page";
+	}
+
+	@RenderMapping(params = "page=9")
+	public String renderPage09(Model model) {
+		model.addAttribute("page", 9);
+
+		return "page";
+	}
+
+	@RenderMapping(params = "page=10")
+	public String renderPage10(Model model) {
+		model.addAttribute("page", 10);
+
+		return "page";
+	}
+
+	@RenderMapping(params = "page=11")
+	public String renderPage11(Model model) {
+		model.addAttribute("page", 11);
+
+		return "page";
+	}
+
+	@RenderMapping(params = "page=12")
+	public String renderPage12(Model model) {
+		model.addAttribute("page", 12);
+
+		return "page";
+	}
+
+	@RenderMapping(params = "page=13")
+	public String renderPage13(Model model) {
+		model.addAttribute("page", 13);
+
+		return "page";
+	}
+
+	@RenderMapping(params = "page=14")
+	public String renderPage14(Model model) {
+		model.addAttribute("page", 14);
+
+		return "page";
+	}
+
+	@RenderMapping(params = "page=15")
+	public String renderPage15(Model model) {
+		model.addAttribute("page", 15);
+
+		return "page";
+	}
+
+	@RenderMapping(params = "page=16")
+	public String renderPage16(Model model) {
+		model.addAttribute("page", 16);
+
+		return "page";
+	}
+
+	@ResourceMapping("data1")
+	public void serveData01(ResourceResponse response) throws IOException {
+		response.getWriter().write("data1");
+	}
+
+	@ResourceMapping("data2")
+	public void serveData02(ResourceResponse response) throws IOException {
+		response.getWriter().write("data2");
+	}
+
+	@ResourceMapping("data3")
+	public void serveData03(ResourceResponse response) throws IOException {
+		response.getWriter().write("data3");
+	}
+
+	@ResourceMapping("data4")
+	public void serveData04(ResourceResponse response) throws IOException {
+		response.getWriter().write("data4");
+	}
+
+	@ResourceMapping("data5")
+	public void serveData05(ResourceResponse response) throws IOException {
+		response.getWriter().write("data5");
+	}
+
+	@ResourceMapping("data6")
+	public void serveData06(ResourceResponse response) throws IOException {
+		response.getWriter().write("data6");
+	}
+
+	@ResourceMapping("data7")
+	public void serveData07(ResourceResponse response) throws IOException {
+		response.getWriter().write("data7");
+	}
+
+	@ResourceMapping("data8")
+	public void serveData08(ResourceResponse response) throws IOException {
+		response.getWriter().write("data8");
+	}
+
+	@ActionMapping("submit1")
+	public void submit01(@RequestParam(name = "name", required = false) String name) {
+	}
+
+	@ActionMapping("submit2")
+	public void submit02(@RequestParam(name = "name", required = false) String name) {
+	}
+
+	@ActionMapping("submit3")
+	public void submit03(@RequestParam(name = "name", required = false) String name) {
+	}
+
+	@ActionMapping("submit4")
+	public void submit04(@RequestParam(name = "name", required = false) String name) {
+	}
+
+	@ActionMapping("submit5")
+	public void submit05(@RequestParam(name = "name", required = false) String name) {
+	}
+
+	@ActionMapping("submit6")
+	public void submit06(@RequestParam(name = "name", required = false) String name) {
+	}
+
+	@ActionMapping("submit7")
+	public void submit07(@RequestParam(name = "name", required = false) String name) {
+	}
+
+	@ActionMapping("submit8")
+	public void submit08(@RequestParam(name = "name", required = false) String name) {
+	}
+
+	@RenderMapping
+	public String view(Model model) {
+		model.addAttribute("greeting", "Hello");
+
+		return "view";
+	}
+
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * Entry point of the benchmarks jar. Accepts the standard JMH command line options, but unless specified otherwise
+ * enables the GC profiler (for the normalized allocation rate per operation, {@code gc.alloc.rate.norm}) and writes the
+ * results in JSON format to {@value #DEFAULT_RESULT_FILE}, so that the results of different releases can be compared.
+ *
+ * <p>Example: {@code java -jar benchmarks/target/benchmarks.jar -rff 6.0.0.json DispatcherPortletBenchmark}
+ *
+ * @author  Neil Griffin
+ * @since   6.0
+ */
+public class PortletBenchmarks {
+
+	/** File name of the JSON results, relative to the working directory */
+	public static final String DEFAULT_RESULT_FILE = "portletmvc4spring-benchmarks.json";
+
+	public static void main(String[] args) throws Exception {
+		CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+
+		if (commandLineOptions.shouldHelp()) {
+			commandLineOptions.showHelp();
+
+			return;
+		}
+
+		ChainedOptionsBuilder optionsBuilder = new OptionsBuilder().parent(commandLineOptions);
+
+		if (commandLineOptions.getProfilers().isEmpty()) {
+			optionsBuilder.addProfiler(GCProfiler.class);
+		}
+
+		if (!commandLineOptions.getResultFormat().hasValue()) {
+			optionsBuilder.resultFormat(ResultFormatType.JSON);
+		}
+
+		if (!commandLineOptions.getResult().hasValue()) {
+			optionsBuilder.result(DEFAULT_RESULT_FILE);
+		}
+
+		Runner runner = new Runner(optionsBuilder.build());
+
+		if (commandLineOptions.shouldList()) {
+			runner.list();
+		}
+		else {
+			runner.run();
+		}
+	}
+
+}
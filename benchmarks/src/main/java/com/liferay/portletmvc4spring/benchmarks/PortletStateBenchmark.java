@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.portlet.PortletMode;
+import jakarta.portlet.WindowState;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.liferay.portletmvc4spring.util.PortletStateRegistry;
+
+
+/**
+ * Compares the canonical instances of the {@link PortletStateRegistry} with instances created by {@code new
+ * PortletMode(String)} and {@code new WindowState(String)}, for both the resolution of a name and the lookup of the
+ * request's portlet mode in a map keyed by the resolved instance, like the handler maps of the handler mappings.
+ *
+ * <p>Each pair of benchmark methods is an A/B comparison: {@code registry*} versus {@code new*}. Besides the
+ * throughput, compare the normalized allocation rate per operation ({@code gc.alloc.rate.norm}) that the GC profiler
+ * reports, which {@link PortletBenchmarks} enables by default: resolving a name through the registry allocates
+ * nothing.
+ *
+ * <p>The {@code names} parameter selects between standard names ({@code view} and {@code maximized}), for which the
+ * registry returns the constants of the Portlet API that the portlet container also returns from the request, and
+ * custom names, for which the request's portlet mode is a distinct instance created by the portlet container.
+ *
+ * @author  Neil Griffin
+ * @since   6.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Measurement(iterations = 5, time = 2)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+public class PortletStateBenchmark {
+
+	@Param({ "standard", "custom" })
+	public String names;
+
+	private Map<PortletMode, Object> newHandlerMap;
+
+	private String portletModeName;
+
+	private Map<PortletMode, Object> registryHandlerMap;
+
+	private PortletMode requestPortletMode;
+
+	private String windowStateName;
+
+	@Benchmark
+	public Object lookupNewKey() {
+		return this.newHandlerMap.get(this.requestPortletMode);
+	}
+
+	@Benchmark
+	public Object lookupRegistryKey() {
+		return this.registryHandlerMap.get(this.requestPortletMode);
+	}
+
+	@Benchmark
+	public PortletMode newPortletMode() {
+		return new PortletMode(this.portletModeName);
+	}
+
+	@Benchmark
+	public WindowState newWindowState() {
+		return new WindowState(this.windowStateName);
+	}
+
+	@Benchmark
+	public PortletMode registryPortletMode() {
+		return PortletStateRegistry.getPortletMode(this.portletModeName);
+	}
+
+	@Benchmark
+	public WindowState registryWindowState() {
+		return PortletStateRegistry.getWindowState(this.windowStateName);
+	}
+
+	@Setup
+	public void setUp() {
+
+		if ("custom".equals(this.names)) {
+			this.portletModeName = "print";
+			this.windowStateName = "exclusive";
+			this.requestPortletMode = new PortletMode(this.portletModeName);
+		}
+		else {
+			this.portletModeName = "view";
+			this.windowStateName = "maximized";
+			this.requestPortletMode = PortletMode.VIEW;
+		}
+
+		Object handler = new Object();
+
+		this.newHandlerMap = new HashMap<PortletMode, Object>();
+		this.newHandlerMap.put(new PortletMode(this.portletModeName), handler);
+
+		this.registryHandlerMap = new HashMap<PortletMode, Object>();
+		this.registryHandlerMap.put(PortletStateRegistry.getPortletMode(this.portletModeName), handler);
+	}
+
+}
@@ -0,0 +1,65 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.benchmarks;
+
+import java.io.IOException;
+
+import jakarta.portlet.ResourceResponse;
+
+import org.springframework.stereotype.Controller;
+
+import org.springframework.ui.Model;
+
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import com.liferay.portletmvc4spring.bind.annotation.ActionMapping;
+import com.liferay.portletmvc4spring.bind.annotation.EventMapping;
+import com.liferay.portletmvc4spring.bind.annotation.RenderMapping;
+import com.liferay.portletmvc4spring.bind.annotation.ResourceMapping;
+
+
+/**
+ * Annotated controller with a single handler method per portlet phase.
+ *
+ * @author  Neil Griffin
+ * @since   6.0
+ */
+@Controller
+@RequestMapping("VIEW")
+public class SmallController {
+
+	@ActionMapping("submit")
+	public void submit(@RequestParam(name = "name", required = false) String name) {
+	}
+
+	@EventMapping("refresh")
+	public void refresh() {
+	}
+
+	@ResourceMapping("data")
+	public void serveData(ResourceResponse response) throws IOException {
+		response.getWriter().write("data");
+	}
+
+	@RenderMapping
+	public String view(Model model) {
+		model.addAttribute("greeting", "Hello");
+
+		return "view";
+	}
+
+}
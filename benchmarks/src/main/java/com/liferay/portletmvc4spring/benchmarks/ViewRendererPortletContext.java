@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.benchmarks;
+
+import java.io.IOException;
+import java.util.Enumeration;
+
+import jakarta.portlet.MimeResponse;
+import jakarta.portlet.PortletException;
+import jakarta.portlet.PortletRequest;
+import jakarta.portlet.PortletRequestDispatcher;
+import jakarta.portlet.PortletResponse;
+import jakarta.portlet.RenderRequest;
+import jakarta.portlet.RenderResponse;
+
+import jakarta.servlet.ServletException;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+
+import com.liferay.portletmvc4spring.ViewRendererServlet;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockMimeResponse;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockPortletContext;
+
+
+/**
+ * Mock portlet context that emulates the include of the {@link ViewRendererServlet} performed by a portlet container:
+ * the request attributes are exposed to a servlet request, the servlet renders the view and its output is written to
+ * the portlet response.
+ *
+ * @author  Neil Griffin
+ * @since   6.0
+ */
+public class ViewRendererPortletContext extends MockPortletContext {
+
+	private final MockServletContext servletContext = new MockServletContext();
+
+	private final ViewRendererServlet viewRendererServlet = new ViewRendererServlet();
+
+	@Override
+	public PortletRequestDispatcher getRequestDispatcher(String path) {
+		return new ViewRendererRequestDispatcher(path);
+	}
+
+	private class ViewRendererRequestDispatcher implements PortletRequestDispatcher {
+
+		private final String path;
+
+		public ViewRendererRequestDispatcher(String path) {
+			this.path = path;
+		}
+
+		@Override
+		public void forward(PortletRequest request, PortletResponse response) throws PortletException, IOException {
+			include(request, response);
+		}
+
+		@Override
+		public void include(PortletRequest request, PortletResponse response) throws PortletException, IOException {
+			MockHttpServletRequest httpRequest = new MockHttpServletRequest(servletContext, "GET", this.path);
+			Enumeration<String> attributeNames = request.getAttributeNames();
+
+			while (attributeNames.hasMoreElements()) {
+				String attributeName = attributeNames.nextElement();
+				httpRequest.setAttribute(attributeName, request.getAttribute(attributeName));
+			}
+
+			MockHttpServletResponse httpResponse = new MockHttpServletResponse();
+
+			try {
+				viewRendererServlet.service(httpRequest, httpResponse);
+			}
+			catch (ServletException ex) {
+				throw new PortletException(ex);
+			}
+
+			((MimeResponse) response).getWriter().write(httpResponse.getContentAsString());
+
+			if (httpResponse.getForwardedUrl() != null) {
+				((MockMimeResponse) response).setIncludedUrl(httpResponse.getForwardedUrl());
+			}
+		}
+
+		@Override
+		public void include(RenderRequest request, RenderResponse response) throws PortletException, IOException {
+			include((PortletRequest) request, (PortletResponse) response);
+		}
+	}
+
+}
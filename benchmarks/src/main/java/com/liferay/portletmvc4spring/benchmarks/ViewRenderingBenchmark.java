@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import jakarta.portlet.PortletMode;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.beans.MutablePropertyValues;
+
+import org.springframework.web.servlet.view.InternalResourceViewResolver;
+
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockRenderRequest;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockRenderResponse;
+
+
+/**
+ * Measures the throughput of the render phase of the {@link com.liferay.portletmvc4spring.DispatcherPortlet} including
+ * view rendering: the view name returned by the {@link SmallController} is resolved by an {@link
+ * InternalResourceViewResolver} and the resulting view is rendered through the {@link
+ * com.liferay.portletmvc4spring.ViewRendererServlet} (see {@link ViewRendererPortletContext}).
+ *
+ * <p>The {@code viewCache} parameter enables or disables the view cache of the view resolver.
+ *
+ * @author  Neil Griffin
+ * @since   6.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Measurement(iterations = 5, time = 2)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+public class ViewRenderingBenchmark extends AbstractPortletBenchmark {
+
+	@Param({ "true", "false" })
+	public boolean viewCache;
+
+	@Benchmark
+	public MockRenderResponse render() throws Exception {
+		MockRenderRequest request = new MockRenderRequest(PortletMode.VIEW);
+		MockRenderResponse response = new MockRenderResponse();
+		this.portlet.render(request, response);
+
+		return response;
+	}
+
+	@Setup
+	public void setUp() throws Exception {
+		initPortlet(new ViewRendererPortletContext(),
+			wac -> {
+				wac.registerSingleton("controller", SmallController.class);
+				wac.registerSingleton("viewResolver", InternalResourceViewResolver.class,
+					new MutablePropertyValues().add("prefix", "/WEB-INF/views/").add("suffix", ".jsp").add("cache",
+						this.viewCache));
+			});
+	}
+
+}
@@ -0,0 +1,55 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring;
+
+import jakarta.portlet.ResourceRequest;
+import jakarta.portlet.ResourceResponse;
+
+
+/**
+ * Extends {@code HandlerInterceptor} with a callback method invoked after the start of asynchronous handling of a
+ * resource request, e.g. when a handler method returns a {@link java.util.concurrent.Callable}, a {@link
+ * java.util.concurrent.CompletionStage} or a streaming response body.
+ *
+ * <p>When a handler starts asynchronous handling, the {@code DispatcherPortlet} exits without invoking {@code
+ * postHandleResource} and {@code afterResourceCompletion}, as the result of the handler is not yet ready. It invokes
+ * {@link #afterConcurrentResourceHandlingStarted} instead, e.g. for clearing thread-bound state. Once asynchronous
+ * handling completes, the request is dispatched to the portlet again, which invokes {@code preHandleResource}, {@code
+ * postHandleResource} and {@code afterResourceCompletion} as usual.
+ *
+ * @author  Neil Griffin
+ * @since   6.0
+ * @see     org.springframework.web.context.request.async.WebAsyncManager
+ */
+public interface AsyncHandlerInterceptor extends HandlerInterceptor {
+
+	/**
+	 * Called instead of {@code postHandleResource} and {@code afterResourceCompletion} when the handler started
+	 * asynchronous handling of the resource request.
+	 *
+	 * <p>The default implementation is empty.
+	 *
+	 * @param   request   current portlet resource request
+	 * @param   response  current portlet resource response
+	 * @param   handler   the handler that started asynchronous handling
+	 *
+	 * @throws  Exception  in case of errors
+	 */
+	default void afterConcurrentResourceHandlingStarted(ResourceRequest request, ResourceResponse response,
+		Object handler) throws Exception {
+	}
+
+}
@@ -0,0 +1,60 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring;
+
+import java.util.Set;
+
+
+/**
+ * Extension of the {@link HandlerMapping} interface to be implemented by handler mappings whose result depends on
+ * nothing but a well-defined routing signature of the request: the lifecycle phase, the portlet mode, the window
+ * state, the action name, the resource ID, the event QName, and the values of a fixed set of request parameters.
+ *
+ * <p>Allows {@link DispatcherPortlet} to memoize the resolved {@link HandlerExecutionChain} per routing signature, see
+ * {@link DispatcherPortlet#setHandlerCacheLimit}.
+ *
+ * @author  Neil Griffin
+ * @since   6.0
+ * @see     DispatcherPortlet#setHandlerCacheLimit
+ */
+public interface CacheableHandlerMapping extends HandlerMapping {
+
+	/**
+	 * Return the names of the request parameters that this mapping evaluates in addition to the lifecycle phase, the
+	 * portlet mode, the window state, the action name, the resource ID and the event QName.
+	 *
+	 * @return  the parameter names (possibly empty), or {@code null} if the handler determined by this mapping may not
+	 *          be cached for the current configuration (for example, because it depends on request headers or because
+	 *          a handler bean is not a singleton)
+	 */
+	Set<String> getRoutingParameterNames();
+
+	/**
+	 * Return the values that this mapping compares the given routing parameter with. Any other value of the parameter
+	 * leads to the same handler as its mere presence, so that it need not become part of the routing signature.
+	 *
+	 * <p>The default implementation returns {@code null}, indicating that the handler may depend on any value.
+	 *
+	 * @param   parameterName  one of the names returned by {@link #getRoutingParameterNames()}
+	 *
+	 * @return  the values (empty if only the presence of the parameter is checked), or {@code null} if the handler may
+	 *          depend on any value of the parameter
+	 */
+	default Set<String> getRoutingParameterValues(String parameterName) {
+		return null;
+	}
+
+}
@@ -0,0 +1,41 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring;
+
+import java.util.Set;
+
+
+/**
+ * Extension of the {@link HandlerMapping} interface to be implemented by handler mappings that detect their handlers
+ * among the beans of the application context, for example by their annotations.
+ *
+ * <p>Allows {@link DispatcherPortlet} to warm up the {@link WarmableHandlerAdapter WarmableHandlerAdapters} for the
+ * detected handlers, see {@link DispatcherPortlet#setWarmUpHandlerAdapters}.
+ *
+ * @author  Neil Griffin
+ * @since   6.0
+ * @see     DispatcherPortlet#setWarmUpHandlerAdapters
+ */
+public interface DetectingHandlerMapping extends HandlerMapping {
+
+	/**
+	 * Return the names of the handler beans that this mapping has detected, in detection order.
+	 *
+	 * @return  the bean names (never {@code null})
+	 */
+	Set<String> getDetectedHandlerBeanNames();
+
+}
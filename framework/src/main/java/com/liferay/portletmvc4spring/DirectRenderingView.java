@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring;
+
+import java.util.Map;
+
+import jakarta.portlet.MimeResponse;
+import jakarta.portlet.PortletRequest;
+
+import org.springframework.web.servlet.View;
+
+
+/**
+ * Extension of the {@link View} interface for views that need no servlet request and response, such as views that
+ * write JSON or process a template into the response. The {@link DispatcherPortlet} renders such views directly to
+ * the writer or output stream of the render or resource response, rather than including the {@link
+ * ViewRendererServlet}, which saves the round trip through the request dispatcher, the servlet wrappers of the portlet
+ * container and any servlet filters mapped to the view renderer URL.
+ *
+ * @author  Neil Griffin
+ * @since   6.0
+ * @see     DispatcherPortlet#setDirectRendering
+ * @see     PortletInternalResourceView
+ */
+public interface DirectRenderingView extends View {
+
+	/**
+	 * Render the view given the specified model to the given portlet response.
+	 *
+	 * @param   model     a Map with name Strings as keys and corresponding model objects as values (the Map can also be
+	 *                    {@code null} in case of an empty model)
+	 * @param   request   current portlet render or resource request
+	 * @param   response  the portlet response to write the content to
+	 *
+	 * @throws  Exception  if rendering failed
+	 */
+	void render(Map<String, ?> model, PortletRequest request, MimeResponse response) throws Exception;
+
+}
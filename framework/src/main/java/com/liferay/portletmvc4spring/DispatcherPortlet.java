@@ -20,18 +20,33 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Enumeration;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 import jakarta.portlet.ActionRequest;
 import jakarta.portlet.ActionResponse;
+import jakarta.portlet.Event;
 import jakarta.portlet.EventRequest;
 import jakarta.portlet.EventResponse;
 import jakarta.portlet.MimeResponse;
 import jakarta.portlet.PortletException;
+import jakarta.portlet.PortletMode;
 import jakarta.portlet.PortletRequest;
 import jakarta.portlet.PortletRequestDispatcher;
 import jakarta.portlet.PortletResponse;
@@ -41,6 +56,7 @@ import jakarta.portlet.RenderResponse;
 import jakarta.portlet.ResourceRequest;
 import jakarta.portlet.ResourceResponse;
 import jakarta.portlet.StateAwareResponse;
+import jakarta.portlet.WindowState;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -57,8 +73,11 @@ import org.springframework.core.io.support.PropertiesLoaderUtils;
 import org.springframework.core.style.StylerUtils;
 
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
 import org.springframework.web.multipart.MultipartException;
 import org.springframework.web.servlet.View;
 import org.springframework.web.servlet.ViewResolver;
@@ -66,6 +85,11 @@ import org.springframework.web.servlet.ViewResolver;
 import com.liferay.portletmvc4spring.multipart.MultipartActionRequest;
 import com.liferay.portletmvc4spring.multipart.MultipartResourceRequest;
 import com.liferay.portletmvc4spring.multipart.PortletMultipartResolver;
+import com.liferay.portletmvc4spring.observation.PortletObservation;
+import com.liferay.portletmvc4spring.observation.PortletObservation.Stage;
+import com.liferay.portletmvc4spring.observation.PortletObservationRegistry;
+import com.liferay.portletmvc4spring.util.PortletResponseBufferPool;
+import com.liferay.portletmvc4spring.util.PortletUtils;
 
 
 /**
@@ -101,6 +125,9 @@ import com.liferay.portletmvc4spring.multipart.PortletMultipartResolver;
  *   <li>The dispatcher's strategy for resolving multipart requests is determined by a {@link
  *     com.liferay.portletmvc4spring.multipart.PortletMultipartResolver} implementation.
  *     The MultipartResolver bean name is "portletMultipartResolver"; default is none.</li>
+ *   <li>The time spent in handler lookup, interceptors, handler invocation, exception resolution and view rendering
+ *     can be observed with a {@link com.liferay.portletmvc4spring.observation.PortletObservationRegistry}. The
+ *     PortletObservationRegistry bean name is "portletObservationRegistry"; default is none.</li>
  * </ul>
  *
  * <p><b>NOTE: The {@code @RequestMapping} annotation will only be processed if a corresponding {@code HandlerMapping}
@@ -156,6 +183,13 @@ public class DispatcherPortlet extends FrameworkPortlet {
 	/** Well-known name for the ViewResolver object in the bean factory for this namespace. */
 	public static final String VIEW_RESOLVER_BEAN_NAME = "viewResolver";
 
+	/**
+	 * Well-known name for the PortletObservationRegistry object in the bean factory for this namespace.
+	 *
+	 * @see  #setObservationRegistry
+	 */
+	public static final String OBSERVATION_REGISTRY_BEAN_NAME = "portletObservationRegistry";
+
 	/**
 	 * Default URL to ViewRendererServlet. This bridge servlet is used to convert portlet render requests to servlet
 	 * requests in order to leverage the view support in the {@code org.springframework.web.view} package.
@@ -195,6 +229,9 @@ public class DispatcherPortlet extends FrameworkPortlet {
 
 	private static final Properties defaultStrategies;
 
+	/** Marker for view names that no ViewResolver could resolve, in the view cache. */
+	private static final Object UNRESOLVED_VIEW = new Object();
+
 	static {
 
 		// Load default strategy implementations from properties file.
@@ -209,6 +246,9 @@ public class DispatcherPortlet extends FrameworkPortlet {
 		}
 	}
 
+	/** Cache the HandlerAdapter chosen for each handler class? */
+	private boolean cacheHandlerAdapters = true;
+
 	/** Detect all HandlerMappings or just expect "handlerMapping" bean? */
 	private boolean detectAllHandlerMappings = true;
 
@@ -230,6 +270,27 @@ public class DispatcherPortlet extends FrameworkPortlet {
 	/** URL that points to the ViewRendererServlet */
 	private String viewRendererUrl = DEFAULT_VIEW_RENDERER_URL;
 
+	/** Render DirectRenderingViews without dispatching to the ViewRendererServlet? */
+	private boolean directRendering = true;
+
+	/** Maximum number of resolved HandlerExecutionChains to cache, or 0 to resolve handlers for each request */
+	private int handlerCacheLimit = 0;
+
+	/** Max number of views to cache, 0 for no caching */
+	private int viewCacheLimit = 0;
+
+	/** Initial size of the buffer for rendered views, or 0 for writing views to the portlet response directly */
+	private int renderBufferSize = 0;
+
+	/** Maximum number of idle render buffers to retain */
+	private int renderBufferPoolCapacity = 16;
+
+	/** Whether to warm up the HandlerAdapters for all detected handlers on refresh */
+	private boolean warmUpHandlerAdapters = false;
+
+	/** Maximum number of threads that warm up HandlerAdapters, or 0 for the number of available processors */
+	private int warmUpParallelism = 0;
+
 	/** MultipartResolver used by this portlet */
 	private PortletMultipartResolver multipartResolver;
 
@@ -239,12 +300,111 @@ public class DispatcherPortlet extends FrameworkPortlet {
 	/** List of HandlerAdapters used by this portlet */
 	private List<HandlerAdapter> handlerAdapters;
 
+	/** HandlerAdapters chosen per handler class */
+	private final Map<Class<?>, HandlerAdapter> handlerAdapterCache =
+		new ConcurrentHashMap<Class<?>, HandlerAdapter>(64);
+
 	/** List of HandlerExceptionResolvers used by this portlet */
 	private List<HandlerExceptionResolver> handlerExceptionResolvers;
 
 	/** List of ViewResolvers used by this portlet */
 	private List<ViewResolver> viewResolvers;
 
+	/** Resolved HandlerExecutionChains per routing signature, or null if not caching */
+	private ConcurrentLruMap<HandlerCacheKey, HandlerExecutionChain> handlerCache;
+
+	/** Request parameters that are part of the routing signature */
+	private RoutingParameter[] handlerCacheParameters;
+
+	private final LongAdder handlerCacheHits = new LongAdder();
+
+	private final LongAdder handlerCacheMisses = new LongAdder();
+
+	/** Resolved Views (or the unresolved marker) per view name and locale, or null if not caching */
+	private ConcurrentLruMap<ViewCacheKey, Object> viewCache;
+
+	private final LongAdder viewCacheHits = new LongAdder();
+
+	private final LongAdder viewCacheMisses = new LongAdder();
+
+	/** Pool of buffers for rendered views, or null if not buffering */
+	private PortletResponseBufferPool renderBufferPool;
+
+	/**
+	 * Return the number of requests for which the handler has been taken from the handler cache since the last
+	 * refresh.
+	 *
+	 * @see  #setHandlerCacheLimit
+	 */
+	public long getHandlerCacheHitCount() {
+		return this.handlerCacheHits.sum();
+	}
+
+	/**
+	 * Return the number of requests for which the handler had to be resolved through the HandlerMappings although the
+	 * handler cache is active, since the last refresh.
+	 *
+	 * @see  #setHandlerCacheLimit
+	 */
+	public long getHandlerCacheMissCount() {
+		return this.handlerCacheMisses.sum();
+	}
+
+	/**
+	 * Return the number of views that have been rendered to a render buffer since the last refresh.
+	 *
+	 * @see  #setRenderBufferSize
+	 */
+	public long getRenderBufferAcquireCount() {
+		PortletResponseBufferPool renderBufferPool = this.renderBufferPool;
+
+		return (renderBufferPool != null) ? renderBufferPool.getAcquireCount() : 0;
+	}
+
+	/**
+	 * Return the amount of buffered view content that has been written to the portlet container since the last
+	 * refresh, counting bytes for output stream content and characters for writer content.
+	 *
+	 * @see  #setRenderBufferSize
+	 */
+	public long getRenderBufferBytesWritten() {
+		PortletResponseBufferPool renderBufferPool = this.renderBufferPool;
+
+		return (renderBufferPool != null) ? renderBufferPool.getBytesWritten() : 0;
+	}
+
+	/**
+	 * Return the number of views that have been rendered to a render buffer that was reused from the pool rather than
+	 * allocated, since the last refresh. Together with {@link #getRenderBufferAcquireCount()}, this indicates whether
+	 * the {@link #setRenderBufferPoolCapacity pool capacity} fits the number of concurrent render requests.
+	 *
+	 * @see  #setRenderBufferSize
+	 */
+	public long getRenderBufferReuseCount() {
+		PortletResponseBufferPool renderBufferPool = this.renderBufferPool;
+
+		return (renderBufferPool != null) ? renderBufferPool.getReuseCount() : 0;
+	}
+
+	/**
+	 * Return the number of view names that have been resolved from the view cache since the last refresh.
+	 *
+	 * @see  #setViewCacheLimit
+	 */
+	public long getViewCacheHitCount() {
+		return this.viewCacheHits.sum();
+	}
+
+	/**
+	 * Return the number of view names that had to be resolved through the ViewResolvers although the view cache is
+	 * active, since the last refresh.
+	 *
+	 * @see  #setViewCacheLimit
+	 */
+	public long getViewCacheMissCount() {
+		return this.viewCacheMisses.sum();
+	}
+
 	/**
 	 * Obtain this portlet's PortletMultipartResolver, if any.
 	 *
@@ -263,6 +423,20 @@ public class DispatcherPortlet extends FrameworkPortlet {
 		initStrategies(context);
 	}
 
+	/**
+	 * Set whether to cache the HandlerAdapter chosen for a handler by the handler's class, so that {@link
+	 * HandlerAdapter#supports} only needs to be called for the first request that is dispatched to a handler of that
+	 * class. The cache is cleared whenever the HandlerAdapters are refreshed.
+	 *
+	 * <p>Default is "true". Turn this off if any HandlerAdapter decides support based on the state of the handler
+	 * instance rather than on its class.
+	 *
+	 * @see  #getHandlerAdapter
+	 */
+	public void setCacheHandlerAdapters(boolean cacheHandlerAdapters) {
+		this.cacheHandlerAdapters = cacheHandlerAdapters;
+	}
+
 	/**
 	 * Set whether to detect all HandlerAdapter beans in this portlet's context. Else, just a single bean with name
 	 * "handlerAdapter" will be expected.
@@ -307,6 +481,17 @@ public class DispatcherPortlet extends FrameworkPortlet {
 		this.detectAllViewResolvers = detectAllViewResolvers;
 	}
 
+	/**
+	 * Set whether to render views that implement {@link DirectRenderingView} directly to the portlet response, rather
+	 * than by including the ViewRendererServlet. Turn this off if such views rely on servlet filters mapped to the
+	 * {@link #setViewRendererUrl view renderer URL}.
+	 *
+	 * <p>Default is "true". Other views are always rendered by the ViewRendererServlet.
+	 */
+	public void setDirectRendering(boolean directRendering) {
+		this.directRendering = directRendering;
+	}
+
 	/**
 	 * Set whether to forward exceptions thrown during the action phase to the render phase via a session attribute.
 	 *
@@ -329,6 +514,72 @@ public class DispatcherPortlet extends FrameworkPortlet {
 		this.forwardEventException = forwardEventException;
 	}
 
+	/**
+	 * Set the maximum number of resolved HandlerExecutionChains to cache. The cache key is the routing signature of the
+	 * request: the lifecycle phase, the portlet mode, the window state, the action name, the resource ID, the event
+	 * QName, and the request parameters that the HandlerMappings evaluate. Parameter values that no HandlerMapping
+	 * compares with are only distinguished by their presence, so that the number of routing signatures is bounded by
+	 * the configuration rather than the requests. When the limit is reached, an approximately least recently used entry
+	 * is evicted in constant time. Cache hits do not lock.
+	 *
+	 * <p>Default is 0, meaning that the handler is resolved through the HandlerMappings for each request. The cache is
+	 * only activated if all HandlerMappings implement {@link CacheableHandlerMapping} and declare their routing
+	 * parameters (which is the case for the HandlerMappings included in the framework, unless a handler is a
+	 * non-singleton bean or a type-level {@code @RequestMapping} declares header or request method conditions).
+	 *
+	 * @see  #getHandlerCacheHitCount()
+	 * @see  #getHandlerCacheMissCount()
+	 */
+	public void setHandlerCacheLimit(int handlerCacheLimit) {
+		this.handlerCacheLimit = handlerCacheLimit;
+	}
+
+	/**
+	 * Set the maximum number of idle render buffers that are retained for reuse. Default is 16. Further buffers are
+	 * allocated for concurrent render requests as needed, and discarded afterwards.
+	 *
+	 * @see  #setRenderBufferSize
+	 */
+	public void setRenderBufferPoolCapacity(int renderBufferPoolCapacity) {
+		this.renderBufferPoolCapacity = renderBufferPoolCapacity;
+	}
+
+	/**
+	 * Set the initial size of the buffer, in bytes or characters, that a View is rendered to. The buffered content is
+	 * handed to the portlet container in a single write once the View has been rendered, rather than being flushed in
+	 * small chunks through the wrapper layers of the portlet container and the ViewRendererServlet. The buffers are
+	 * pooled and reused across requests; a buffer grows as needed for larger content. Content that a View rendered
+	 * before failing is discarded.
+	 *
+	 * <p>Default is 0, meaning that Views write to the portlet response directly. Note that a portlet container may
+	 * unwrap the response when including the ViewRendererServlet, in which case the content bypasses the buffer.
+	 *
+	 * @see  #setRenderBufferPoolCapacity
+	 * @see  #getRenderBufferAcquireCount()
+	 * @see  #getRenderBufferBytesWritten()
+	 * @see  #getRenderBufferReuseCount()
+	 */
+	public void setRenderBufferSize(int renderBufferSize) {
+		this.renderBufferSize = renderBufferSize;
+	}
+
+	/**
+	 * Set the maximum number of Views to cache in front of the ViewResolvers, keyed by view name and locale. View names
+	 * that none of the ViewResolvers could resolve are cached as well. When the limit is reached, an approximately
+	 * least recently used entry is evicted. Cache hits do not lock. The cache is cleared when the portlet application
+	 * context is refreshed.
+	 *
+	 * <p>Default is 0, meaning that each view name is resolved through the ViewResolvers. Only activate the cache if
+	 * the resolved View depends on nothing but the view name and the locale, which is not the case for a {@link
+	 * org.springframework.web.servlet.view.ContentNegotiatingViewResolver}, for example.
+	 *
+	 * @see  #getViewCacheHitCount()
+	 * @see  #getViewCacheMissCount()
+	 */
+	public void setViewCacheLimit(int viewCacheLimit) {
+		this.viewCacheLimit = viewCacheLimit;
+	}
+
 	/**
 	 * Set the URL to the ViewRendererServlet. That servlet is used to ultimately render all views in the portlet
 	 * application.
@@ -337,6 +588,32 @@ public class DispatcherPortlet extends FrameworkPortlet {
 		this.viewRendererUrl = viewRendererUrl;
 	}
 
+	/**
+	 * Set whether to warm up the HandlerAdapters on refresh, that is, whether to let each {@link
+	 * WarmableHandlerAdapter} precompute the metadata it caches per handler type for every handler detected by a
+	 * {@link DetectingHandlerMapping}, instead of computing it on first request. The handlers are warmed up in parallel
+	 * and the time taken per handler is logged at debug level.
+	 *
+	 * <p>Default is "false".
+	 *
+	 * @see  #setWarmUpParallelism
+	 */
+	public void setWarmUpHandlerAdapters(boolean warmUpHandlerAdapters) {
+		this.warmUpHandlerAdapters = warmUpHandlerAdapters;
+	}
+
+	/**
+	 * Set the maximum number of threads of the fork-join pool that warms up the HandlerAdapters. The pool is only
+	 * created for the duration of the warm-up.
+	 *
+	 * <p>Default is 0, meaning the number of available processors.
+	 *
+	 * @see  #setWarmUpHandlerAdapters
+	 */
+	public void setWarmUpParallelism(int warmUpParallelism) {
+		this.warmUpParallelism = warmUpParallelism;
+	}
+
 	/**
 	 * Convert the request into a multipart request, and make multipart resolver available. If no multipart resolver is
 	 * set, simply use the existing request.
@@ -425,12 +702,22 @@ public class DispatcherPortlet extends FrameworkPortlet {
 		ActionRequest processedRequest = request;
 		HandlerExecutionChain mappedHandler = null;
 		int interceptorIndex = -1;
+		PortletObservation observation = getObservation(request);
 
 		try {
 			processedRequest = checkMultipart(request);
 
 			// Determine handler for the current request.
-			mappedHandler = getHandler(processedRequest);
+			long startTime = observation.startTimer(Stage.HANDLER_LOOKUP);
+			boolean stageFailed = true;
+
+			try {
+				mappedHandler = getHandler(processedRequest);
+				stageFailed = false;
+			}
+			finally {
+				observation.stopTimer(Stage.HANDLER_LOOKUP, startTime, stageFailed);
+			}
 
 			if ((mappedHandler == null) || (mappedHandler.getHandler() == null)) {
 				noHandlerFound(processedRequest, response);
@@ -438,27 +725,55 @@ public class DispatcherPortlet extends FrameworkPortlet {
 				return;
 			}
 
+			observation.setHandler(mappedHandler.getHandler());
+
 			// Apply preHandle methods of registered interceptors.
 			HandlerInterceptor[] interceptors = mappedHandler.getInterceptors();
 
 			if (interceptors != null) {
+				boolean preHandled = true;
+				startTime = observation.startTimer(Stage.INTERCEPTORS);
+				stageFailed = true;
 
-				for (int i = 0; i < interceptors.length; i++) {
-					HandlerInterceptor interceptor = interceptors[i];
+				try {
+
+					for (int i = 0; i < interceptors.length; i++) {
+						HandlerInterceptor interceptor = interceptors[i];
 
-					if (!interceptor.preHandleAction(processedRequest, response, mappedHandler.getHandler())) {
-						triggerAfterActionCompletion(mappedHandler, interceptorIndex, processedRequest, response, null);
+						if (!interceptor.preHandleAction(processedRequest, response, mappedHandler.getHandler())) {
+							preHandled = false;
 
-						return;
+							break;
+						}
+
+						interceptorIndex = i;
 					}
 
-					interceptorIndex = i;
+					stageFailed = false;
+				}
+				finally {
+					observation.stopTimer(Stage.INTERCEPTORS, startTime, stageFailed);
+				}
+
+				if (!preHandled) {
+					triggerAfterActionCompletion(mappedHandler, interceptorIndex, processedRequest, response, null);
+
+					return;
 				}
 			}
 
 			// Actually invoke the handler.
 			HandlerAdapter ha = getHandlerAdapter(mappedHandler.getHandler());
-			ha.handleAction(processedRequest, response, mappedHandler.getHandler());
+			startTime = observation.startTimer(Stage.HANDLER_INVOCATION);
+			stageFailed = true;
+
+			try {
+				ha.handleAction(processedRequest, response, mappedHandler.getHandler());
+				stageFailed = false;
+			}
+			finally {
+				observation.stopTimer(Stage.HANDLER_INVOCATION, startTime, stageFailed);
+			}
 
 			// Trigger after-completion for successful outcome.
 			triggerAfterActionCompletion(mappedHandler, interceptorIndex, processedRequest, response, null);
@@ -548,11 +863,21 @@ public class DispatcherPortlet extends FrameworkPortlet {
 
 		HandlerExecutionChain mappedHandler = null;
 		int interceptorIndex = -1;
+		PortletObservation observation = getObservation(request);
 
 		try {
 
 			// Determine handler for the current request.
-			mappedHandler = getHandler(request);
+			long startTime = observation.startTimer(Stage.HANDLER_LOOKUP);
+			boolean stageFailed = true;
+
+			try {
+				mappedHandler = getHandler(request);
+				stageFailed = false;
+			}
+			finally {
+				observation.stopTimer(Stage.HANDLER_LOOKUP, startTime, stageFailed);
+			}
 
 			if ((mappedHandler == null) || (mappedHandler.getHandler() == null)) {
 				noHandlerFound(request, response);
@@ -560,27 +885,55 @@ public class DispatcherPortlet extends FrameworkPortlet {
 				return;
 			}
 
+			observation.setHandler(mappedHandler.getHandler());
+
 			// Apply preHandle methods of registered interceptors.
 			HandlerInterceptor[] interceptors = mappedHandler.getInterceptors();
 
 			if (interceptors != null) {
+				boolean preHandled = true;
+				startTime = observation.startTimer(Stage.INTERCEPTORS);
+				stageFailed = true;
 
-				for (int i = 0; i < interceptors.length; i++) {
-					HandlerInterceptor interceptor = interceptors[i];
+				try {
+
+					for (int i = 0; i < interceptors.length; i++) {
+						HandlerInterceptor interceptor = interceptors[i];
 
-					if (!interceptor.preHandleEvent(request, response, mappedHandler.getHandler())) {
-						triggerAfterEventCompletion(mappedHandler, interceptorIndex, request, response, null);
+						if (!interceptor.preHandleEvent(request, response, mappedHandler.getHandler())) {
+							preHandled = false;
 
-						return;
+							break;
+						}
+
+						interceptorIndex = i;
 					}
 
-					interceptorIndex = i;
+					stageFailed = false;
+				}
+				finally {
+					observation.stopTimer(Stage.INTERCEPTORS, startTime, stageFailed);
+				}
+
+				if (!preHandled) {
+					triggerAfterEventCompletion(mappedHandler, interceptorIndex, request, response, null);
+
+					return;
 				}
 			}
 
 			// Actually invoke the handler.
 			HandlerAdapter ha = getHandlerAdapter(mappedHandler.getHandler());
-			ha.handleEvent(request, response, mappedHandler.getHandler());
+			startTime = observation.startTimer(Stage.HANDLER_INVOCATION);
+			stageFailed = true;
+
+			try {
+				ha.handleEvent(request, response, mappedHandler.getHandler());
+				stageFailed = false;
+			}
+			finally {
+				observation.stopTimer(Stage.HANDLER_INVOCATION, startTime, stageFailed);
+			}
 
 			// Trigger after-completion for successful outcome.
 			triggerAfterEventCompletion(mappedHandler, interceptorIndex, request, response, null);
@@ -620,7 +973,8 @@ public class DispatcherPortlet extends FrameworkPortlet {
 	/**
 	 * Actually render the given view.
 	 *
-	 * <p>The default implementation delegates to {@link ViewRendererServlet}.
+	 * <p>The default implementation renders a {@link DirectRenderingView} directly, unless turned off through {@link
+	 * #setDirectRendering}, and otherwise delegates to {@link ViewRendererServlet}.
 	 *
 	 * @param   view      the View to render
 	 * @param   model     the associated model
@@ -635,6 +989,13 @@ public class DispatcherPortlet extends FrameworkPortlet {
 		// Expose Portlet ApplicationContext to view objects.
 		request.setAttribute(ViewRendererServlet.WEB_APPLICATION_CONTEXT_ATTRIBUTE, getPortletApplicationContext());
 
+		// Render to the portlet response if the view does not need a servlet request and response.
+		if (this.directRendering && (view instanceof DirectRenderingView)) {
+			((DirectRenderingView) view).render(model, request, response);
+
+			return;
+		}
+
 		// These attributes are required by the ViewRendererServlet.
 		request.setAttribute(ViewRendererServlet.VIEW_ATTRIBUTE, view);
 		request.setAttribute(ViewRendererServlet.MODEL_ATTRIBUTE, model);
@@ -663,6 +1024,7 @@ public class DispatcherPortlet extends FrameworkPortlet {
 
 		HandlerExecutionChain mappedHandler = null;
 		int interceptorIndex = -1;
+		PortletObservation observation = getObservation(request);
 
 		try {
 			ModelAndView mv;
@@ -670,7 +1032,16 @@ public class DispatcherPortlet extends FrameworkPortlet {
 			try {
 
 				// Determine handler for the current request.
-				mappedHandler = getHandler(request);
+				long startTime = observation.startTimer(Stage.HANDLER_LOOKUP);
+				boolean stageFailed = true;
+
+				try {
+					mappedHandler = getHandler(request);
+					stageFailed = false;
+				}
+				finally {
+					observation.stopTimer(Stage.HANDLER_LOOKUP, startTime, stageFailed);
+				}
 
 				if ((mappedHandler == null) || (mappedHandler.getHandler() == null)) {
 					noHandlerFound(request, response);
@@ -678,21 +1049,46 @@ public class DispatcherPortlet extends FrameworkPortlet {
 					return;
 				}
 
+				observation.setHandler(mappedHandler.getHandler());
+
 				// Apply preHandle methods of registered interceptors.
 				HandlerInterceptor[] interceptors = mappedHandler.getInterceptors();
 
 				if (interceptors != null) {
+					boolean preHandled = true;
+					startTime = observation.startTimer(Stage.INTERCEPTORS);
+					stageFailed = true;
 
-					for (int i = 0; i < interceptors.length; i++) {
-						HandlerInterceptor interceptor = interceptors[i];
+					try {
+
+						for (int i = 0; i < interceptors.length; i++) {
+							HandlerInterceptor interceptor = interceptors[i];
+
+							if (!interceptor.preHandleRender(request, response, mappedHandler.getHandler())) {
+								preHandled = false;
 
-						if (!interceptor.preHandleRender(request, response, mappedHandler.getHandler())) {
-							triggerAfterRenderCompletion(mappedHandler, interceptorIndex, request, response, null);
+								break;
+							}
 
-							return;
+							interceptorIndex = i;
+
+							// Let the interceptor capture the output of the handler and the view.
+							if (interceptor instanceof ResponseWrappingHandlerInterceptor) {
+								response = ((ResponseWrappingHandlerInterceptor) interceptor).wrapRenderResponse(
+									request, response, mappedHandler.getHandler());
+							}
 						}
 
-						interceptorIndex = i;
+						stageFailed = false;
+					}
+					finally {
+						observation.stopTimer(Stage.INTERCEPTORS, startTime, stageFailed);
+					}
+
+					if (!preHandled) {
+						triggerAfterRenderCompletion(mappedHandler, interceptorIndex, request, response, null);
+
+						return;
 					}
 				}
 
@@ -716,14 +1112,33 @@ public class DispatcherPortlet extends FrameworkPortlet {
 
 				// Actually invoke the handler.
 				HandlerAdapter ha = getHandlerAdapter(mappedHandler.getHandler());
-				mv = ha.handleRender(request, response, mappedHandler.getHandler());
+				startTime = observation.startTimer(Stage.HANDLER_INVOCATION);
+				stageFailed = true;
+
+				try {
+					mv = ha.handleRender(request, response, mappedHandler.getHandler());
+					stageFailed = false;
+				}
+				finally {
+					observation.stopTimer(Stage.HANDLER_INVOCATION, startTime, stageFailed);
+				}
 
 				// Apply postHandle methods of registered interceptors.
 				if (interceptors != null) {
+					startTime = observation.startTimer(Stage.INTERCEPTORS);
+					stageFailed = true;
 
-					for (int i = interceptors.length - 1; i >= 0; i--) {
-						HandlerInterceptor interceptor = interceptors[i];
-						interceptor.postHandleRender(request, response, mappedHandler.getHandler(), mv);
+					try {
+
+						for (int i = interceptors.length - 1; i >= 0; i--) {
+							HandlerInterceptor interceptor = interceptors[i];
+							interceptor.postHandleRender(request, response, mappedHandler.getHandler(), mv);
+						}
+
+						stageFailed = false;
+					}
+					finally {
+						observation.stopTimer(Stage.INTERCEPTORS, startTime, stageFailed);
 					}
 				}
 			}
@@ -788,6 +1203,7 @@ public class DispatcherPortlet extends FrameworkPortlet {
 		ResourceRequest processedRequest = request;
 		HandlerExecutionChain mappedHandler = null;
 		int interceptorIndex = -1;
+		PortletObservation observation = getObservation(request);
 
 		try {
 			processedRequest = checkMultipart(request);
@@ -797,7 +1213,16 @@ public class DispatcherPortlet extends FrameworkPortlet {
 			try {
 
 				// Determine handler for the current request.
-				mappedHandler = getHandler(processedRequest);
+				long startTime = observation.startTimer(Stage.HANDLER_LOOKUP);
+				boolean stageFailed = true;
+
+				try {
+					mappedHandler = getHandler(processedRequest);
+					stageFailed = false;
+				}
+				finally {
+					observation.stopTimer(Stage.HANDLER_LOOKUP, startTime, stageFailed);
+				}
 
 				if ((mappedHandler == null) || (mappedHandler.getHandler() == null)) {
 					noHandlerFound(processedRequest, response);
@@ -805,35 +1230,88 @@ public class DispatcherPortlet extends FrameworkPortlet {
 					return;
 				}
 
+				observation.setHandler(mappedHandler.getHandler());
+
 				// Apply preHandle methods of registered interceptors.
 				HandlerInterceptor[] interceptors = mappedHandler.getInterceptors();
 
 				if (interceptors != null) {
+					boolean preHandled = true;
+					startTime = observation.startTimer(Stage.INTERCEPTORS);
+					stageFailed = true;
 
-					for (int i = 0; i < interceptors.length; i++) {
-						HandlerInterceptor interceptor = interceptors[i];
+					try {
+
+						for (int i = 0; i < interceptors.length; i++) {
+							HandlerInterceptor interceptor = interceptors[i];
+
+							if (!interceptor.preHandleResource(processedRequest, response,
+											mappedHandler.getHandler())) {
 
-						if (!interceptor.preHandleResource(processedRequest, response, mappedHandler.getHandler())) {
-							triggerAfterResourceCompletion(mappedHandler, interceptorIndex, processedRequest, response,
-								null);
+								preHandled = false;
 
-							return;
+								break;
+							}
+
+							interceptorIndex = i;
+
+							// Let the interceptor capture the output of the handler and the view.
+							if (interceptor instanceof ResponseWrappingHandlerInterceptor) {
+								response = ((ResponseWrappingHandlerInterceptor) interceptor).wrapResourceResponse(
+									processedRequest, response, mappedHandler.getHandler());
+							}
 						}
 
-						interceptorIndex = i;
+						stageFailed = false;
+					}
+					finally {
+						observation.stopTimer(Stage.INTERCEPTORS, startTime, stageFailed);
+					}
+
+					if (!preHandled) {
+						triggerAfterResourceCompletion(mappedHandler, interceptorIndex, processedRequest, response,
+							null);
+
+						return;
 					}
 				}
 
 				// Actually invoke the handler.
 				HandlerAdapter ha = getHandlerAdapter(mappedHandler.getHandler());
-				mv = ha.handleResource(processedRequest, response, mappedHandler.getHandler());
+				startTime = observation.startTimer(Stage.HANDLER_INVOCATION);
+				stageFailed = true;
+
+				try {
+					mv = ha.handleResource(processedRequest, response, mappedHandler.getHandler());
+					stageFailed = false;
+				}
+				finally {
+					observation.stopTimer(Stage.HANDLER_INVOCATION, startTime, stageFailed);
+				}
+
+				// The handler continues asynchronously: the result is processed on the async dispatch.
+				if (isConcurrentHandlingStarted(processedRequest)) {
+					applyAfterConcurrentHandlingStarted(mappedHandler, interceptorIndex, processedRequest, response);
+
+					return;
+				}
 
 				// Apply postHandle methods of registered interceptors.
 				if (interceptors != null) {
+					startTime = observation.startTimer(Stage.INTERCEPTORS);
+					stageFailed = true;
 
-					for (int i = interceptors.length - 1; i >= 0; i--) {
-						HandlerInterceptor interceptor = interceptors[i];
-						interceptor.postHandleResource(processedRequest, response, mappedHandler.getHandler(), mv);
+					try {
+
+						for (int i = interceptors.length - 1; i >= 0; i--) {
+							HandlerInterceptor interceptor = interceptors[i];
+							interceptor.postHandleResource(processedRequest, response, mappedHandler.getHandler(), mv);
+						}
+
+						stageFailed = false;
+					}
+					finally {
+						observation.stopTimer(Stage.INTERCEPTORS, startTime, stageFailed);
 					}
 				}
 			}
@@ -877,8 +1355,9 @@ public class DispatcherPortlet extends FrameworkPortlet {
 		}
 		finally {
 
-			// Clean up any resources used by a multipart request.
-			if ((processedRequest instanceof MultipartResourceRequest) && (processedRequest != request)) {
+			// Clean up any resources used by a multipart request, unless still in use by async processing.
+			if ((processedRequest instanceof MultipartResourceRequest) && (processedRequest != request) &&
+					!isConcurrentHandlingStarted(processedRequest)) {
 				this.multipartResolver.cleanupMultipart((MultipartResourceRequest) processedRequest);
 			}
 		}
@@ -1003,6 +1482,22 @@ public class DispatcherPortlet extends FrameworkPortlet {
 	 * @return  the HandlerExecutionChain, or null if no handler could be found
 	 */
 	protected HandlerExecutionChain getHandler(PortletRequest request) throws Exception {
+		ConcurrentLruMap<HandlerCacheKey, HandlerExecutionChain> handlerCache = this.handlerCache;
+		HandlerCacheKey cacheKey = null;
+
+		if (handlerCache != null) {
+			cacheKey = new HandlerCacheKey(request, this.handlerCacheParameters);
+
+			HandlerExecutionChain handler = handlerCache.get(cacheKey);
+
+			if (handler != null) {
+				this.handlerCacheHits.increment();
+
+				return handler;
+			}
+
+			this.handlerCacheMisses.increment();
+		}
 
 		for (HandlerMapping hm : this.handlerMappings) {
 
@@ -1014,6 +1509,11 @@ public class DispatcherPortlet extends FrameworkPortlet {
 			HandlerExecutionChain handler = hm.getHandler(request);
 
 			if (handler != null) {
+
+				if (cacheKey != null) {
+					handlerCache.put(cacheKey, handler);
+				}
+
 				return handler;
 			}
 		}
@@ -1024,12 +1524,23 @@ public class DispatcherPortlet extends FrameworkPortlet {
 	/**
 	 * Return the HandlerAdapter for this handler object.
 	 *
+	 * <p>Unless turned off through {@link #setCacheHandlerAdapters}, the adapter found for a handler is cached by the
+	 * handler's class.
+	 *
 	 * @param   handler  the handler object to find an adapter for
 	 *
 	 * @throws  PortletException  if no HandlerAdapter can be found for the handler. This is a fatal error.
 	 */
 	protected HandlerAdapter getHandlerAdapter(Object handler) throws PortletException {
 
+		if (this.cacheHandlerAdapters) {
+			HandlerAdapter ha = this.handlerAdapterCache.get(handler.getClass());
+
+			if (ha != null) {
+				return ha;
+			}
+		}
+
 		for (HandlerAdapter ha : this.handlerAdapters) {
 
 			if (logger.isDebugEnabled()) {
@@ -1037,6 +1548,11 @@ public class DispatcherPortlet extends FrameworkPortlet {
 			}
 
 			if (ha.supports(handler)) {
+
+				if (this.cacheHandlerAdapters) {
+					this.handlerAdapterCache.put(handler.getClass(), ha);
+				}
+
 				return ha;
 			}
 		}
@@ -1053,9 +1569,14 @@ public class DispatcherPortlet extends FrameworkPortlet {
 	protected void initStrategies(ApplicationContext context) {
 		initMultipartResolver(context);
 		initHandlerMappings(context);
+		initHandlerCache();
 		initHandlerAdapters(context);
 		initHandlerExceptionResolvers(context);
 		initViewResolvers(context);
+		initViewCache();
+		initRenderBufferPool();
+		initObservationRegistry(context);
+		warmUpHandlerAdapters(context);
 	}
 
 	/**
@@ -1094,12 +1615,23 @@ public class DispatcherPortlet extends FrameworkPortlet {
 	protected ModelAndView processHandlerException(RenderRequest request, RenderResponse response, Object handler,
 		Exception ex) throws Exception {
 
+		PortletObservation observation = getObservation(request);
+		long startTime = observation.startTimer(Stage.EXCEPTION_RESOLUTION);
+		boolean failed = true;
 		ModelAndView exMv = null;
 
-		for (Iterator<HandlerExceptionResolver> it = this.handlerExceptionResolvers.iterator();
-				(exMv == null) && it.hasNext();) {
-			HandlerExceptionResolver resolver = it.next();
-			exMv = resolver.resolveException(request, response, handler, ex);
+		try {
+
+			for (Iterator<HandlerExceptionResolver> it = this.handlerExceptionResolvers.iterator();
+					(exMv == null) && it.hasNext();) {
+				HandlerExceptionResolver resolver = it.next();
+				exMv = resolver.resolveException(request, response, handler, ex);
+			}
+
+			failed = false;
+		}
+		finally {
+			observation.stopTimer(Stage.EXCEPTION_RESOLUTION, startTime, failed);
 		}
 
 		if (exMv != null) {
@@ -1133,12 +1665,23 @@ public class DispatcherPortlet extends FrameworkPortlet {
 	protected ModelAndView processHandlerException(ResourceRequest request, ResourceResponse response, Object handler,
 		Exception ex) throws Exception {
 
+		PortletObservation observation = getObservation(request);
+		long startTime = observation.startTimer(Stage.EXCEPTION_RESOLUTION);
+		boolean failed = true;
 		ModelAndView exMv = null;
 
-		for (Iterator<HandlerExceptionResolver> it = this.handlerExceptionResolvers.iterator();
-				(exMv == null) && it.hasNext();) {
-			HandlerExceptionResolver resolver = it.next();
-			exMv = resolver.resolveException(request, response, handler, ex);
+		try {
+
+			for (Iterator<HandlerExceptionResolver> it = this.handlerExceptionResolvers.iterator();
+					(exMv == null) && it.hasNext();) {
+				HandlerExceptionResolver resolver = it.next();
+				exMv = resolver.resolveException(request, response, handler, ex);
+			}
+
+			failed = false;
+		}
+		finally {
+			observation.stopTimer(Stage.EXCEPTION_RESOLUTION, startTime, failed);
 		}
 
 		if (exMv != null) {
@@ -1167,69 +1710,99 @@ public class DispatcherPortlet extends FrameworkPortlet {
 	 * @throws  Exception  if there's a problem rendering the view
 	 */
 	protected void render(ModelAndView mv, PortletRequest request, MimeResponse response) throws Exception {
-		View view;
+		PortletObservation observation = getObservation(request);
+		long startTime = observation.startTimer(Stage.VIEW_RENDERING);
+		boolean failed = true;
 
-		if (mv.isReference()) {
-
-			// We need to resolve the view name.
-			view = resolveViewName(mv.getViewName(), mv.getModelInternal(), request);
+		try {
+			View view;
 
-			if (view == null) {
-				throw new PortletException("Could not resolve view with name '" + mv.getViewName() +
-					"' in portlet with name '" + getPortletName() + "'");
-			}
-		}
-		else {
+			if (mv.isReference()) {
 
-			// No need to lookup: the ModelAndView object contains the actual View object.
-			Object viewObject = mv.getView();
+				// We need to resolve the view name.
+				view = resolveViewName(mv.getViewName(), mv.getModelInternal(), request);
 
-			if (viewObject == null) {
-				throw new PortletException("ModelAndView [" + mv + "] neither contains a view name nor a " +
-					"View object in portlet with name '" + getPortletName() + "'");
+				if (view == null) {
+					throw new PortletException("Could not resolve view with name '" + mv.getViewName() +
+						"' in portlet with name '" + getPortletName() + "'");
+				}
 			}
+			else {
 
-			if (!(viewObject instanceof View)) {
-				throw new PortletException("View object [" + viewObject +
-					"] is not an instance of [org.springframework.web.servlet.View] - " +
-					"DispatcherPortlet does not support any other view types");
-			}
+				// No need to lookup: the ModelAndView object contains the actual View object.
+				Object viewObject = mv.getView();
 
-			view = (View) viewObject;
-		}
+				if (viewObject == null) {
+					throw new PortletException("ModelAndView [" + mv + "] neither contains a view name nor a " +
+						"View object in portlet with name '" + getPortletName() + "'");
+				}
 
-		// Set the content type on the response if needed and if possible.
-		// The Portlet spec requires the content type to be set on the RenderResponse;
-		// it's not sufficient to let the View set it on the ServletResponse.
-		if (response.getContentType() != null) {
+				if (!(viewObject instanceof View)) {
+					throw new PortletException("View object [" + viewObject +
+						"] is not an instance of [org.springframework.web.servlet.View] - " +
+						"DispatcherPortlet does not support any other view types");
+				}
 
-			if (logger.isDebugEnabled()) {
-				logger.debug("Portlet response content type already set to [" + response.getContentType() + "]");
+				view = (View) viewObject;
 			}
-		}
-		else {
-
-			// No Portlet content type specified yet -> use the view-determined type.
-			String contentType = view.getContentType();
 
-			if (contentType != null) {
+			// Set the content type on the response if needed and if possible.
+			// The Portlet spec requires the content type to be set on the RenderResponse;
+			// it's not sufficient to let the View set it on the ServletResponse.
+			if (response.getContentType() != null) {
 
 				if (logger.isDebugEnabled()) {
-					logger.debug("Setting portlet response content type to view-determined type [" + contentType + "]");
+					logger.debug("Portlet response content type already set to [" + response.getContentType() + "]");
 				}
+			}
+			else {
 
-				response.setContentType(contentType);
+				// No Portlet content type specified yet -> use the view-determined type.
+				String contentType = view.getContentType();
+
+				if (contentType != null) {
+
+					if (logger.isDebugEnabled()) {
+						logger.debug("Setting portlet response content type to view-determined type [" + contentType +
+							"]");
+					}
+
+					response.setContentType(contentType);
+				}
 			}
-		}
 
-		doRender(view, mv.getModelInternal(), request, response);
+			PortletResponseBufferPool renderBufferPool = this.renderBufferPool;
+
+			if (renderBufferPool != null) {
+				PortletResponseBufferPool.Buffer buffer = renderBufferPool.acquire(response);
+
+				try {
+					doRender(view, mv.getModelInternal(), request, buffer.getResponse());
+
+					// Hand the content to the portlet container in a single write.
+					buffer.commit();
+				}
+				finally {
+					renderBufferPool.release(buffer);
+				}
+			}
+			else {
+				doRender(view, mv.getModelInternal(), request, response);
+			}
+
+			failed = false;
+		}
+		finally {
+			observation.stopTimer(Stage.VIEW_RENDERING, startTime, failed);
+		}
 	}
 
 	/**
 	 * Resolve the given view name into a View object (to be rendered).
 	 *
-	 * <p>Default implementations asks all ViewResolvers of this dispatcher. Can be overridden for custom resolution
-	 * strategies, potentially based on specific model attributes or request parameters.
+	 * <p>Default implementations asks all ViewResolvers of this dispatcher, unless the view cache holds the outcome
+	 * for the view name and the locale of the request. Can be overridden for custom resolution strategies, potentially
+	 * based on specific model attributes or request parameters.
 	 *
 	 * @param   viewName  the name of the view to resolve
 	 * @param   model     the model to be passed to the view
@@ -1242,18 +1815,73 @@ public class DispatcherPortlet extends FrameworkPortlet {
 	 * @see     ViewResolver#resolveViewName
 	 */
 	protected View resolveViewName(String viewName, Map<String, ?> model, PortletRequest request) throws Exception {
+		Locale locale = request.getLocale();
+		ConcurrentLruMap<ViewCacheKey, Object> viewCache = this.viewCache;
+		ViewCacheKey cacheKey = null;
+
+		if (viewCache != null) {
+			cacheKey = new ViewCacheKey(viewName, locale);
+
+			Object view = viewCache.get(cacheKey);
+
+			if (view != null) {
+				this.viewCacheHits.increment();
+
+				return (view != UNRESOLVED_VIEW) ? (View) view : null;
+			}
+
+			this.viewCacheMisses.increment();
+		}
 
 		for (ViewResolver viewResolver : this.viewResolvers) {
-			View view = viewResolver.resolveViewName(viewName, request.getLocale());
+			View view = viewResolver.resolveViewName(viewName, locale);
 
 			if (view != null) {
+
+				if (cacheKey != null) {
+					viewCache.put(cacheKey, view);
+				}
+
 				return view;
 			}
 		}
 
+		if (cacheKey != null) {
+			viewCache.put(cacheKey, UNRESOLVED_VIEW);
+		}
+
 		return null;
 	}
 
+	/**
+	 * Invoke the {@link AsyncHandlerInterceptor} callbacks of the mapped interceptors whose preHandle invocation has
+	 * successfully completed and returned true, in reverse order. Failures are logged rather than propagated, as the
+	 * handling of the request continues asynchronously.
+	 */
+	private void applyAfterConcurrentHandlingStarted(HandlerExecutionChain mappedHandler, int interceptorIndex,
+		ResourceRequest request, ResourceResponse response) {
+
+		HandlerInterceptor[] interceptors = mappedHandler.getInterceptors();
+
+		if (interceptors == null) {
+			return;
+		}
+
+		for (int i = interceptorIndex; i >= 0; i--) {
+
+			if (interceptors[i] instanceof AsyncHandlerInterceptor) {
+
+				try {
+					((AsyncHandlerInterceptor) interceptors[i]).afterConcurrentResourceHandlingStarted(request,
+						response, mappedHandler.getHandler());
+				}
+				catch (Throwable ex) {
+					logger.error("AsyncHandlerInterceptor.afterConcurrentResourceHandlingStarted threw exception", ex);
+				}
+			}
+		}
+	}
+
 	/**
 	 * Initialize the HandlerAdapters used by this class.
 	 *
@@ -1262,6 +1890,7 @@ public class DispatcherPortlet extends FrameworkPortlet {
 	 */
 	private void initHandlerAdapters(ApplicationContext context) {
 		this.handlerAdapters = null;
+		this.handlerAdapterCache.clear();
 
 		if (this.detectAllHandlerAdapters) {
 
@@ -1298,6 +1927,71 @@ public class DispatcherPortlet extends FrameworkPortlet {
 		}
 	}
 
+	/**
+	 * Initialize the handler cache for the HandlerMappings used by this class, if a cache limit has been specified.
+	 *
+	 * <p>The cache remains inactive if any HandlerMapping does not declare its routing parameters.
+	 */
+	private void initHandlerCache() {
+		this.handlerCache = null;
+		this.handlerCacheParameters = null;
+		this.handlerCacheHits.reset();
+		this.handlerCacheMisses.reset();
+
+		if (this.handlerCacheLimit <= 0) {
+			return;
+		}
+
+		// Values per parameter name, where null stands for any value.
+		Map<String, Set<String>> parameterValues = new LinkedHashMap<String, Set<String>>();
+
+		for (HandlerMapping hm : this.handlerMappings) {
+			Set<String> routingParameterNames = null;
+
+			if (hm instanceof CacheableHandlerMapping) {
+				routingParameterNames = ((CacheableHandlerMapping) hm).getRoutingParameterNames();
+			}
+
+			if (routingParameterNames == null) {
+
+				if (logger.isInfoEnabled()) {
+					logger.info("Handler cache not active in portlet '" + getPortletName() + "': handler mapping [" +
+						hm + "] does not support caching");
+				}
+
+				return;
+			}
+
+			for (String parameterName : routingParameterNames) {
+				Set<String> values = ((CacheableHandlerMapping) hm).getRoutingParameterValues(parameterName);
+
+				if (values == null) {
+					parameterValues.put(parameterName, null);
+				}
+				else if (!parameterValues.containsKey(parameterName)) {
+					parameterValues.put(parameterName, new HashSet<String>(values));
+				}
+				else if (parameterValues.get(parameterName) != null) {
+					parameterValues.get(parameterName).addAll(values);
+				}
+			}
+		}
+
+		List<RoutingParameter> parameters = new ArrayList<RoutingParameter>(parameterValues.size());
+
+		for (Map.Entry<String, Set<String>> entry : parameterValues.entrySet()) {
+			parameters.add(new RoutingParameter(entry.getKey(), entry.getValue()));
+		}
+
+		this.handlerCacheParameters = parameters.toArray(new RoutingParameter[parameters.size()]);
+		this.handlerCache = new ConcurrentLruMap<HandlerCacheKey, HandlerExecutionChain>(this.handlerCacheLimit);
+
+		if (logger.isDebugEnabled()) {
+			logger.debug("Caching up to " + this.handlerCacheLimit + " handlers in portlet '" + getPortletName() +
+				"' with routing parameters " + parameterValues);
+		}
+	}
+
 	/**
 	 * Initialize the HandlerExceptionResolver used by this class.
 	 *
@@ -1414,6 +2108,67 @@ public class DispatcherPortlet extends FrameworkPortlet {
 		}
 	}
 
+	/**
+	 * Initialize the PortletObservationRegistry used by this class.
+	 *
+	 * <p>If no bean is defined with the given name in the BeanFactory for this namespace, the registry set via {@link
+	 * #setObservationRegistry} is kept, which disables observation by default.
+	 */
+	private void initObservationRegistry(ApplicationContext context) {
+
+		try {
+			setObservationRegistry(context.getBean(OBSERVATION_REGISTRY_BEAN_NAME, PortletObservationRegistry.class));
+
+			if (logger.isDebugEnabled()) {
+				logger.debug("Using PortletObservationRegistry [" + getObservationRegistry() + "]");
+			}
+		}
+		catch (NoSuchBeanDefinitionException ex) {
+
+			if (logger.isDebugEnabled()) {
+				logger.debug("Unable to locate PortletObservationRegistry with name '" +
+					OBSERVATION_REGISTRY_BEAN_NAME + "': using [" + getObservationRegistry() + "]");
+			}
+		}
+	}
+
+	/**
+	 * Initialize the pool of buffers for rendered views, if a render buffer size has been specified.
+	 */
+	private void initRenderBufferPool() {
+		this.renderBufferPool = null;
+
+		if (this.renderBufferSize <= 0) {
+			return;
+		}
+
+		this.renderBufferPool = new PortletResponseBufferPool(this.renderBufferSize, this.renderBufferPoolCapacity);
+
+		if (logger.isDebugEnabled()) {
+			logger.debug("Buffering rendered views with a buffer size of " + this.renderBufferSize + " in portlet '" +
+				getPortletName() + "'");
+		}
+	}
+
+	/**
+	 * Initialize the view cache in front of the ViewResolvers used by this class, if a cache limit has been specified.
+	 */
+	private void initViewCache() {
+		this.viewCache = null;
+		this.viewCacheHits.reset();
+		this.viewCacheMisses.reset();
+
+		if (this.viewCacheLimit <= 0) {
+			return;
+		}
+
+		this.viewCache = new ConcurrentLruMap<ViewCacheKey, Object>(this.viewCacheLimit);
+
+		if (logger.isDebugEnabled()) {
+			logger.debug("Caching up to " + this.viewCacheLimit + " views in portlet '" + getPortletName() + "'");
+		}
+	}
+
 	/**
 	 * Initialize the ViewResolvers used by this class.
 	 *
@@ -1458,6 +2213,17 @@ public class DispatcherPortlet extends FrameworkPortlet {
 		}
 	}
 
+	/**
+	 * Determine whether the handler of the given request started concurrent handling, without creating a {@link
+	 * WebAsyncManager} for the request.
+	 */
+	private static boolean isConcurrentHandlingStarted(PortletRequest request) {
+		Object asyncManager = request.getAttribute(WebAsyncUtils.WEB_ASYNC_MANAGER_ATTRIBUTE);
+
+		return (asyncManager instanceof WebAsyncManager) &&
+			((WebAsyncManager) asyncManager).isConcurrentHandlingStarted();
+	}
+
 	/**
 	 * Trigger afterCompletion callbacks on the mapped HandlerInterceptors. Will just invoke afterCompletion for all
 	 * interceptors whose preHandle invocation has successfully completed and returned true.
@@ -1476,6 +2242,8 @@ public class DispatcherPortlet extends FrameworkPortlet {
 			HandlerInterceptor[] interceptors = mappedHandler.getInterceptors();
 
 			if (interceptors != null) {
+				PortletObservation observation = getObservation(request);
+				long startTime = observation.startTimer(Stage.INTERCEPTORS);
 
 				for (int i = interceptorIndex; i >= 0; i--) {
 					HandlerInterceptor interceptor = interceptors[i];
@@ -1487,6 +2255,8 @@ public class DispatcherPortlet extends FrameworkPortlet {
 						logger.error("HandlerInterceptor.afterCompletion threw exception", ex2);
 					}
 				}
+
+				observation.stopTimer(Stage.INTERCEPTORS, startTime, false);
 			}
 		}
 	}
@@ -1509,6 +2279,8 @@ public class DispatcherPortlet extends FrameworkPortlet {
 			HandlerInterceptor[] interceptors = mappedHandler.getInterceptors();
 
 			if (interceptors != null) {
+				PortletObservation observation = getObservation(request);
+				long startTime = observation.startTimer(Stage.INTERCEPTORS);
 
 				for (int i = interceptorIndex; i >= 0; i--) {
 					HandlerInterceptor interceptor = interceptors[i];
@@ -1520,6 +2292,8 @@ public class DispatcherPortlet extends FrameworkPortlet {
 						logger.error("HandlerInterceptor.afterCompletion threw exception", ex2);
 					}
 				}
+
+				observation.stopTimer(Stage.INTERCEPTORS, startTime, false);
 			}
 		}
 	}
@@ -1542,6 +2316,8 @@ public class DispatcherPortlet extends FrameworkPortlet {
 			HandlerInterceptor[] interceptors = mappedHandler.getInterceptors();
 
 			if (interceptors != null) {
+				PortletObservation observation = getObservation(request);
+				long startTime = observation.startTimer(Stage.INTERCEPTORS);
 
 				for (int i = interceptorIndex; i >= 0; i--) {
 					HandlerInterceptor interceptor = interceptors[i];
@@ -1553,6 +2329,8 @@ public class DispatcherPortlet extends FrameworkPortlet {
 						logger.error("HandlerInterceptor.afterCompletion threw exception", ex2);
 					}
 				}
+
+				observation.stopTimer(Stage.INTERCEPTORS, startTime, false);
 			}
 		}
 	}
@@ -1575,6 +2353,8 @@ public class DispatcherPortlet extends FrameworkPortlet {
 			HandlerInterceptor[] interceptors = mappedHandler.getInterceptors();
 
 			if (interceptors != null) {
+				PortletObservation observation = getObservation(request);
+				long startTime = observation.startTimer(Stage.INTERCEPTORS);
 
 				for (int i = interceptorIndex; i >= 0; i--) {
 					HandlerInterceptor interceptor = interceptors[i];
@@ -1586,8 +2366,327 @@ public class DispatcherPortlet extends FrameworkPortlet {
 						logger.error("HandlerInterceptor.afterCompletion threw exception", ex2);
 					}
 				}
+
+				observation.stopTimer(Stage.INTERCEPTORS, startTime, false);
+			}
+		}
+	}
+
+	/**
+	 * Let the WarmableHandlerAdapters precompute their metadata for the handlers detected by the
+	 * DetectingHandlerMappings, in parallel on a bounded fork-join pool, if enabled.
+	 */
+	private void warmUpHandlerAdapters(ApplicationContext context) {
+
+		if (!this.warmUpHandlerAdapters) {
+			return;
+		}
+
+		List<WarmableHandlerAdapter> warmableHandlerAdapters = new ArrayList<WarmableHandlerAdapter>();
+
+		for (HandlerAdapter ha : this.handlerAdapters) {
+
+			if (ha instanceof WarmableHandlerAdapter) {
+				warmableHandlerAdapters.add((WarmableHandlerAdapter) ha);
 			}
 		}
+
+		Set<String> handlerBeanNames = new LinkedHashSet<String>();
+
+		for (HandlerMapping hm : this.handlerMappings) {
+
+			if (hm instanceof DetectingHandlerMapping) {
+				handlerBeanNames.addAll(((DetectingHandlerMapping) hm).getDetectedHandlerBeanNames());
+			}
+		}
+
+		if (warmableHandlerAdapters.isEmpty() || handlerBeanNames.isEmpty()) {
+			return;
+		}
+
+		List<Callable<Object>> tasks = new ArrayList<Callable<Object>>(handlerBeanNames.size());
+
+		for (String beanName : handlerBeanNames) {
+			tasks.add(Executors.callable(() -> warmUpHandlerAdapters(context, beanName, warmableHandlerAdapters)));
+		}
+
+		int parallelism = this.warmUpParallelism;
+
+		if (parallelism <= 0) {
+			parallelism = Runtime.getRuntime().availableProcessors();
+		}
+
+		long startTime = System.nanoTime();
+		ForkJoinPool forkJoinPool = new ForkJoinPool(Math.min(parallelism, tasks.size()));
+
+		try {
+			forkJoinPool.invokeAll(tasks);
+		}
+		finally {
+			forkJoinPool.shutdown();
+		}
+
+		if (logger.isInfoEnabled()) {
+			logger.info("Warmed up HandlerAdapters for " + tasks.size() + " handlers in portlet '" + getPortletName() +
+				"' in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) + " ms");
+		}
+	}
+
+	private void warmUpHandlerAdapters(ApplicationContext context, String beanName,
+		List<WarmableHandlerAdapter> warmableHandlerAdapters) {
+
+		long startTime = System.nanoTime();
+
+		try {
+			Class<?> handlerType = context.getType(beanName);
+
+			if (handlerType == null) {
+				return;
+			}
+
+			for (WarmableHandlerAdapter ha : warmableHandlerAdapters) {
+				ha.warmUp(handlerType);
+			}
+
+			if (logger.isDebugEnabled()) {
+				logger.debug("Warmed up HandlerAdapters for handler '" + beanName + "' in " +
+					TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startTime) + " us");
+			}
+		}
+		catch (RuntimeException ex) {
+
+			// Warm-up is an optimization only: the metadata will be computed on first request instead.
+			logger.warn("Could not warm up HandlerAdapters for handler '" + beanName + "'", ex);
+		}
+	}
+
+	/**
+	 * Bounded map for the handler and view caches that does not lock on lookups. Eviction follows the CLOCK
+	 * approximation of least recently used: entries are queued in insertion order and marked as referenced when
+	 * accessed. When the limit is exceeded, the entry at the head of the queue is evicted unless it has been
+	 * referenced since it last passed the head, in which case it loses the mark and moves to the tail. Each mark is
+	 * cleared at most once, so evictions take constant time on average.
+	 */
+	private static final class ConcurrentLruMap<K, V> {
+
+		private final Map<K, CacheEntry<K, V>> entries = new ConcurrentHashMap<K, CacheEntry<K, V>>();
+
+		private final Queue<CacheEntry<K, V>> evictionQueue = new ConcurrentLinkedQueue<CacheEntry<K, V>>();
+
+		private final int limit;
+
+		public ConcurrentLruMap(int limit) {
+			this.limit = limit;
+		}
+
+		public V get(K key) {
+			CacheEntry<K, V> entry = this.entries.get(key);
+
+			if (entry == null) {
+				return null;
+			}
+
+			// Avoid writing to the entry of a frequently used key for every hit.
+			if (!entry.referenced) {
+				entry.referenced = true;
+			}
+
+			return entry.value;
+		}
+
+		public void put(K key, V value) {
+			CacheEntry<K, V> entry = new CacheEntry<K, V>(key, value);
+
+			// Keep an entry added concurrently for the same key, so that each entry is queued once.
+			if (this.entries.putIfAbsent(key, entry) != null) {
+				return;
+			}
+
+			this.evictionQueue.offer(entry);
+
+			if (this.entries.size() > this.limit) {
+
+				synchronized (this.evictionQueue) {
+
+					while (this.entries.size() > this.limit) {
+						CacheEntry<K, V> candidate = this.evictionQueue.poll();
+
+						if (candidate == null) {
+							break;
+						}
+
+						if (candidate.referenced) {
+							candidate.referenced = false;
+							this.evictionQueue.offer(candidate);
+						}
+						else {
+							this.entries.remove(candidate.key, candidate);
+						}
+					}
+				}
+			}
+		}
+
+		private static final class CacheEntry<K, V> {
+
+			private final K key;
+
+			// New entries count as referenced, so that they survive until the next pass of the clock.
+			private volatile boolean referenced = true;
+
+			private final V value;
+
+			public CacheEntry(K key, V value) {
+				this.key = key;
+				this.value = value;
+			}
+		}
+	}
+
+	/**
+	 * Key for the handler cache, representing the routing signature of a request.
+	 */
+	private static final class HandlerCacheKey {
+
+		/** Marker for a parameter that is present with a value that no HandlerMapping compares with */
+		private static final Object PRESENT_PARAMETER = new Object();
+
+		private final int hashCode;
+
+		private final Object[] parameterValues;
+
+		private final String phase;
+
+		private final PortletMode portletMode;
+
+		private final String target;
+
+		private final WindowState windowState;
+
+		public HandlerCacheKey(PortletRequest request, RoutingParameter[] parameters) {
+			this.phase = (String) request.getAttribute(PortletRequest.LIFECYCLE_PHASE);
+			this.portletMode = request.getPortletMode();
+			this.windowState = request.getWindowState();
+
+			if (PortletRequest.ACTION_PHASE.equals(this.phase)) {
+				this.target = request.getParameter(ActionRequest.ACTION_NAME);
+			}
+			else if (PortletRequest.RESOURCE_PHASE.equals(this.phase)) {
+				this.target = ((ResourceRequest) request).getResourceID();
+			}
+			else if (PortletRequest.EVENT_PHASE.equals(this.phase)) {
+				Event event = ((EventRequest) request).getEvent();
+				this.target = ((event != null) ? event.getQName().toString() : null);
+			}
+			else {
+				this.target = null;
+			}
+
+			// Other than mapped values, only the presence of a parameter counts, including image submit suffixes.
+			this.parameterValues = new Object[parameters.length];
+
+			for (int i = 0; i < parameters.length; i++) {
+				RoutingParameter parameter = parameters[i];
+				String value = request.getParameter(parameter.name);
+
+				if (value == null) {
+
+					if (PortletUtils.getSubmitParameter(request, parameter.name) != null) {
+						this.parameterValues[i] = PRESENT_PARAMETER;
+					}
+				}
+				else if ((parameter.values == null) || parameter.values.contains(value)) {
+					this.parameterValues[i] = value;
+				}
+				else {
+					this.parameterValues[i] = PRESENT_PARAMETER;
+				}
+			}
+
+			int hashCode = ObjectUtils.nullSafeHashCode(this.phase);
+			hashCode = (31 * hashCode) + ObjectUtils.nullSafeHashCode(this.portletMode);
+			hashCode = (31 * hashCode) + ObjectUtils.nullSafeHashCode(this.windowState);
+			hashCode = (31 * hashCode) + ObjectUtils.nullSafeHashCode(this.target);
+			this.hashCode = (31 * hashCode) + Arrays.hashCode(this.parameterValues);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+
+			if (this == other) {
+				return true;
+			}
+
+			if (!(other instanceof HandlerCacheKey)) {
+				return false;
+			}
+
+			HandlerCacheKey otherKey = (HandlerCacheKey) other;
+
+			return ((this.hashCode == otherKey.hashCode) && ObjectUtils.nullSafeEquals(this.phase, otherKey.phase) &&
+					ObjectUtils.nullSafeEquals(this.portletMode, otherKey.portletMode) &&
+					ObjectUtils.nullSafeEquals(this.windowState, otherKey.windowState) &&
+					ObjectUtils.nullSafeEquals(this.target, otherKey.target) &&
+					Arrays.equals(this.parameterValues, otherKey.parameterValues));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+	}
+
+	/**
+	 * Request parameter that is part of the routing signature of a request, together with the values that the
+	 * HandlerMappings compare it with ({@code null} for any value).
+	 */
+	private static final class RoutingParameter {
+
+		private final String name;
+
+		private final Set<String> values;
+
+		public RoutingParameter(String name, Set<String> values) {
+			this.name = name;
+			this.values = values;
+		}
+	}
+
+	/**
+	 * Key for the view cache.
+	 */
+	private static final class ViewCacheKey {
+
+		private final Locale locale;
+
+		private final String viewName;
+
+		public ViewCacheKey(String viewName, Locale locale) {
+			this.viewName = viewName;
+			this.locale = locale;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+
+			if (this == other) {
+				return true;
+			}
+
+			if (!(other instanceof ViewCacheKey)) {
+				return false;
+			}
+
+			ViewCacheKey otherKey = (ViewCacheKey) other;
+
+			return (this.viewName.equals(otherKey.viewName) &&
+					ObjectUtils.nullSafeEquals(this.locale, otherKey.locale));
+		}
+
+		@Override
+		public int hashCode() {
+			return (31 * this.viewName.hashCode()) + ObjectUtils.nullSafeHashCode(this.locale);
+		}
 	}
 
 }
@@ -18,6 +18,7 @@ package com.liferay.portletmvc4spring;
 import java.io.IOException;
 import java.security.Principal;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import jakarta.portlet.ActionRequest;
 import jakarta.portlet.ActionResponse;
@@ -38,10 +39,15 @@ import org.springframework.context.ApplicationContextException;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.GenericApplicationListener;
+import org.springframework.context.event.GenericApplicationListenerAdapter;
 import org.springframework.context.event.SourceFilteringListener;
 import org.springframework.context.i18n.LocaleContext;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.context.i18n.SimpleLocaleContext;
+import org.springframework.context.support.AbstractApplicationContext;
+
+import org.springframework.core.ResolvableType;
 
 import org.springframework.core.env.ConfigurableEnvironment;
 
@@ -49,12 +55,15 @@ import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import com.liferay.portletmvc4spring.context.BufferedEventPublisher;
 import com.liferay.portletmvc4spring.context.ConfigurablePortletApplicationContext;
 import com.liferay.portletmvc4spring.context.PortletApplicationContextUtils;
 import com.liferay.portletmvc4spring.context.PortletRequestAttributes;
 import com.liferay.portletmvc4spring.context.PortletRequestHandledEvent;
 import com.liferay.portletmvc4spring.context.StandardPortletEnvironment;
 import com.liferay.portletmvc4spring.context.XmlPortletApplicationContext;
+import com.liferay.portletmvc4spring.observation.PortletObservation;
+import com.liferay.portletmvc4spring.observation.PortletObservationRegistry;
 
 
 /**
@@ -140,6 +149,15 @@ public abstract class FrameworkPortlet extends GenericPortletBean
 	/** Should we publish a PortletRequestHandledEvent at the end of each request? */
 	private boolean publishEvents = true;
 
+	/** Capacity of the buffer for asynchronous delivery of PortletRequestHandledEvents, or 0 for synchronous delivery */
+	private int eventBufferCapacity = 0;
+
+	/** Buffer for asynchronous delivery of PortletRequestHandledEvents, if enabled */
+	private BufferedEventPublisher bufferedEventPublisher;
+
+	/** Whether a listener for PortletRequestHandledEvents is registered, or null if not determined yet */
+	private volatile Boolean requestHandledEventListened;
+
 	/** Expose LocaleContext and RequestAttributes as inheritable for child threads? */
 	private boolean threadContextInheritable = false;
 
@@ -152,8 +170,11 @@ public abstract class FrameworkPortlet extends GenericPortletBean
 	/** Flag used to detect whether onRefresh has already been called */
 	private boolean refreshEventReceived = false;
 
+	/** Registry that creates an observation for each request */
+	private PortletObservationRegistry observationRegistry = PortletObservationRegistry.NOOP;
+
 	/**
-	 * Close the ApplicationContext of this portlet.
+	 * Deliver the buffered PortletRequestHandledEvents, if any, and close the ApplicationContext of this portlet.
 	 *
 	 * @see  org.springframework.context.ConfigurableApplicationContext#close()
 	 */
@@ -161,6 +182,18 @@ public abstract class FrameworkPortlet extends GenericPortletBean
 	public void destroy() {
 		getPortletContext().log("Destroying Spring FrameworkPortlet '" + getPortletName() + "'");
 
+		if (this.bufferedEventPublisher != null) {
+
+			try {
+				this.bufferedEventPublisher.destroy();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+
+			this.bufferedEventPublisher = null;
+		}
+
 		if (this.portletApplicationContext instanceof ConfigurableApplicationContext) {
 			((ConfigurableApplicationContext) this.portletApplicationContext).close();
 		}
@@ -180,6 +213,17 @@ public abstract class FrameworkPortlet extends GenericPortletBean
 		return this.contextConfigLocation;
 	}
 
+	/**
+	 * Return the number of PortletRequestHandledEvents that were dropped because the event buffer was full.
+	 *
+	 * @see  #setEventBufferCapacity
+	 */
+	public long getDroppedEventCount() {
+		BufferedEventPublisher bufferedEventPublisher = this.bufferedEventPublisher;
+
+		return (bufferedEventPublisher != null) ? bufferedEventPublisher.getDroppedEventCount() : 0;
+	}
+
 	/**
 	 * Return the namespace for this portlet, falling back to default scheme if no custom namespace was set. (e.g.
 	 * "test-portlet" for a portlet named "test")
@@ -188,6 +232,13 @@ public abstract class FrameworkPortlet extends GenericPortletBean
 		return (this.namespace != null) ? this.namespace : (getPortletName() + DEFAULT_NAMESPACE_SUFFIX);
 	}
 
+	/**
+	 * Return the registry that creates an observation for each request.
+	 */
+	public PortletObservationRegistry getObservationRegistry() {
+		return this.observationRegistry;
+	}
+
 	/**
 	 * Return this portlet's ApplicationContext.
 	 */
@@ -219,6 +270,7 @@ public abstract class FrameworkPortlet extends GenericPortletBean
 	@Override
 	public void onApplicationEvent(ContextRefreshedEvent event) {
 		this.refreshEventReceived = true;
+		this.requestHandledEventListened = null;
 		onRefresh(event.getApplicationContext());
 	}
 
@@ -278,6 +330,19 @@ public abstract class FrameworkPortlet extends GenericPortletBean
 		this.contextConfigLocation = contextConfigLocation;
 	}
 
+	/**
+	 * Set the capacity of the buffer that is used for delivering PortletRequestHandledEvents asynchronously, i.e. on a
+	 * background thread rather than on the request thread. Default is 0, which delivers the events synchronously.
+	 *
+	 * <p>When the buffer is full, further events are dropped rather than blocking the request thread, and counted in
+	 * {@link #getDroppedEventCount()}. Applies to the next initialization of this portlet.
+	 *
+	 * @see  #setPublishEvents
+	 */
+	public void setEventBufferCapacity(int eventBufferCapacity) {
+		this.eventBufferCapacity = eventBufferCapacity;
+	}
+
 	/**
 	 * Set a custom namespace for this portlet, to be used for building a default context config location.
 	 */
@@ -285,6 +350,17 @@ public abstract class FrameworkPortlet extends GenericPortletBean
 		this.namespace = namespace;
 	}
 
+	/**
+	 * Set the registry that creates an observation for each request, e.g. for recording timers per portlet, phase,
+	 * portlet mode and handler method. Default is {@link PortletObservationRegistry#NOOP}, which disables observation.
+	 *
+	 * @see  com.liferay.portletmvc4spring.observation.SimplePortletObservationRegistry
+	 */
+	public void setObservationRegistry(PortletObservationRegistry observationRegistry) {
+		this.observationRegistry = (observationRegistry != null) ? observationRegistry
+																 : PortletObservationRegistry.NOOP;
+	}
+
 	/**
 	 * Set whether to publish this portlet's context as a PortletContext attribute, available to all objects in the web
 	 * container. Default is true.
@@ -301,6 +377,10 @@ public abstract class FrameworkPortlet extends GenericPortletBean
 	 * can be turned off for a slight performance improvement, provided that no ApplicationListeners rely on such
 	 * events.
 	 *
+	 * <p>Even when turned on, the event is only created if an ApplicationListener that supports it is registered in
+	 * the portlet's ApplicationContext or one of its ancestors. The listeners are detected on the first request after
+	 * each refresh of the context.
+	 *
 	 * @see  com.liferay.portletmvc4spring.context.PortletRequestHandledEvent
 	 */
 	public void setPublishEvents(boolean publishEvents) {
@@ -484,6 +564,22 @@ public abstract class FrameworkPortlet extends GenericPortletBean
 		processRequest(request, response);
 	}
 
+	/**
+	 * Return the observation of the given request.
+	 *
+	 * @param   request  current portlet request
+	 *
+	 * @return  the observation, or {@link PortletObservation#NOOP} if observation is disabled
+	 */
+	protected final PortletObservation getObservation(PortletRequest request) {
+
+		if (this.observationRegistry == PortletObservationRegistry.NOOP) {
+			return PortletObservation.NOOP;
+		}
+
+		return PortletObservation.getObservation(request);
+	}
+
 	/**
 	 * Overridden for friendlier behavior in unit tests.
 	 */
@@ -608,6 +704,11 @@ public abstract class FrameworkPortlet extends GenericPortletBean
 		try {
 			this.portletApplicationContext = initPortletApplicationContext();
 			initFrameworkPortlet();
+
+			if (this.publishEvents && (this.eventBufferCapacity > 0)) {
+				this.bufferedEventPublisher = new BufferedEventPublisher(this.portletApplicationContext,
+						this.eventBufferCapacity, "PortletRequestHandledEvent-" + getPortletName());
+			}
 		}
 		catch (PortletException ex) {
 			logger.error("Context initialization failed", ex);
@@ -663,9 +764,16 @@ public abstract class FrameworkPortlet extends GenericPortletBean
 	protected final void processRequest(PortletRequest request, PortletResponse response) throws PortletException,
 		IOException {
 
-		long startTime = System.currentTimeMillis();
+		long startTime = System.nanoTime();
+		String phase = (String) request.getAttribute(PortletRequest.LIFECYCLE_PHASE);
 		Throwable failureCause = null;
 
+		PortletObservation observation = this.observationRegistry.start(getPortletName(), request);
+
+		if (observation != PortletObservation.NOOP) {
+			request.setAttribute(PortletObservation.OBSERVATION_ATTRIBUTE, observation);
+		}
+
 		// Expose current LocaleResolver and request as LocaleContext.
 		LocaleContext previousLocaleContext = LocaleContextHolder.getLocaleContext();
 		LocaleContextHolder.setLocaleContext(buildLocaleContext(request), this.threadContextInheritable);
@@ -686,7 +794,6 @@ public abstract class FrameworkPortlet extends GenericPortletBean
 		}
 
 		try {
-			String phase = (String) request.getAttribute(PortletRequest.LIFECYCLE_PHASE);
 
 			if (PortletRequest.ACTION_PHASE.equals(phase)) {
 				doActionService((ActionRequest) request, (ActionResponse) response);
@@ -730,6 +837,11 @@ public abstract class FrameworkPortlet extends GenericPortletBean
 				logger.trace("Cleared thread-bound resource request context: " + request);
 			}
 
+			if (observation != PortletObservation.NOOP) {
+				request.removeAttribute(PortletObservation.OBSERVATION_ATTRIBUTE);
+				observation.stop(failureCause);
+			}
+
 			if (failureCause != null) {
 				logger.error("Could not complete request", failureCause);
 			}
@@ -740,13 +852,102 @@ public abstract class FrameworkPortlet extends GenericPortletBean
 			if (this.publishEvents) {
 
 				// Whether or not we succeeded, publish an event.
-				long processingTime = System.currentTimeMillis() - startTime;
-				this.portletApplicationContext.publishEvent(new PortletRequestHandledEvent(this,
-						getPortletConfig().getPortletName(), request.getPortletMode().toString(),
-						((request instanceof ActionRequest) ? "action" : "render"), request.getRequestedSessionId(),
-						getUsernameForRequest(request), processingTime, failureCause));
+				publishRequestHandledEvent(request, phase, startTime, failureCause);
+			}
+		}
+	}
+
+	private static String getRequestType(String phase) {
+
+		if (PortletRequest.ACTION_PHASE.equals(phase)) {
+			return "action";
+		}
+		else if (PortletRequest.EVENT_PHASE.equals(phase)) {
+			return "event";
+		}
+		else if (PortletRequest.RESOURCE_PHASE.equals(phase)) {
+			return "resource";
+		}
+
+		return "render";
+	}
+
+	private boolean isListened(ApplicationContext context, ResolvableType eventType) {
+
+		// Listeners of unknown context implementations cannot be determined, so assume that there are some.
+		if (!(context instanceof AbstractApplicationContext)) {
+			return true;
+		}
+
+		for (ApplicationListener<?> listener : ((AbstractApplicationContext) context).getApplicationListeners()) {
+
+			if (supportsEventType(listener, eventType)) {
+				return true;
 			}
 		}
+
+		for (String beanName : context.getBeanNamesForType(ApplicationListener.class, true, false)) {
+
+			// Prototype and scoped listeners can only be checked per event.
+			if (!context.isSingleton(beanName) ||
+					supportsEventType(context.getBean(beanName, ApplicationListener.class), eventType)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private boolean isRequestHandledEventListened() {
+		Boolean requestHandledEventListened = this.requestHandledEventListened;
+
+		if (requestHandledEventListened == null) {
+			requestHandledEventListened = false;
+
+			ResolvableType eventType = ResolvableType.forClass(PortletRequestHandledEvent.class);
+			ApplicationContext context = this.portletApplicationContext;
+
+			while ((context != null) && !requestHandledEventListened) {
+				requestHandledEventListened = isListened(context, eventType);
+				context = context.getParent();
+			}
+
+			this.requestHandledEventListened = requestHandledEventListened;
+		}
+
+		return requestHandledEventListened;
+	}
+
+	private void publishRequestHandledEvent(PortletRequest request, String phase, long startTime,
+		Throwable failureCause) {
+
+		// Skip determining the username etc. if nobody listens.
+		if (!isRequestHandledEventListened()) {
+			return;
+		}
+
+		long processingTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+		PortletRequestHandledEvent event = new PortletRequestHandledEvent(this, getPortletConfig().getPortletName(),
+				request.getPortletMode().toString(), getRequestType(phase), request.getRequestedSessionId(),
+				getUsernameForRequest(request), processingTime, failureCause);
+
+		BufferedEventPublisher bufferedEventPublisher = this.bufferedEventPublisher;
+
+		if (bufferedEventPublisher != null) {
+			bufferedEventPublisher.publishEvent(event);
+		}
+		else {
+			this.portletApplicationContext.publishEvent(event);
+		}
+	}
+
+	private static boolean supportsEventType(ApplicationListener<?> listener, ResolvableType eventType) {
+
+		if (listener instanceof GenericApplicationListener) {
+			return ((GenericApplicationListener) listener).supportsEventType(eventType);
+		}
+
+		return new GenericApplicationListenerAdapter(listener).supportsEventType(eventType);
 	}
 
 }
@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import jakarta.portlet.MimeResponse;
+import jakarta.portlet.PortletException;
+import jakarta.portlet.PortletRequest;
+import jakarta.portlet.PortletRequestDispatcher;
+
+import org.springframework.web.servlet.view.InternalResourceView;
+
+
+/**
+ * {@link InternalResourceView} that the {@link DispatcherPortlet} renders directly, by including the JSP or other
+ * resource of the portlet application through a {@link PortletRequestDispatcher}. The model is exposed as attributes
+ * of the portlet request. This saves the include of the {@link ViewRendererServlet} and the nested include of the
+ * resource through the servlet request dispatcher.
+ *
+ * <p>To use this view for all JSPs, set it as view class of a {@link
+ * org.springframework.web.servlet.view.InternalResourceViewResolver}. If the view is rendered by the {@link
+ * ViewRendererServlet} instead (for example if {@link DispatcherPortlet#setDirectRendering direct rendering} is turned
+ * off), it behaves like a regular {@link InternalResourceView}.
+ *
+ * <p>Note that the direct rendering does not expose the helpers of {@link #exposeHelpers} and the {@link
+ * #setRequestContextAttribute request context}, which require a servlet request. Use a {@link PortletJstlView} for
+ * JSPs that need the JSTL localization context.
+ *
+ * @author  Neil Griffin
+ * @since   6.0
+ */
+public class PortletInternalResourceView extends InternalResourceView implements DirectRenderingView {
+
+	/**
+	 * Constructor for use as a bean.
+	 *
+	 * @see  #setUrl
+	 */
+	public PortletInternalResourceView() {
+	}
+
+	/**
+	 * Create a new PortletInternalResourceView with the given URL.
+	 *
+	 * @param  url  the URL of the resource to include
+	 */
+	public PortletInternalResourceView(String url) {
+		super(url);
+	}
+
+	@Override
+	public void render(Map<String, ?> model, PortletRequest request, MimeResponse response) throws Exception {
+		Map<String, Object> mergedModel = new LinkedHashMap<String, Object>(getStaticAttributes());
+
+		if (model != null) {
+			mergedModel.putAll(model);
+		}
+
+		exposeModelAsRequestAttributes(mergedModel, request);
+
+		String url = getUrl();
+		PortletRequestDispatcher requestDispatcher = request.getPortletContext().getRequestDispatcher(url);
+
+		if (requestDispatcher == null) {
+			throw new PortletException("Could not get PortletRequestDispatcher for [" + url +
+				"]: Check that the corresponding file exists within your web application archive!");
+		}
+
+		if (logger.isDebugEnabled()) {
+			logger.debug("Including [" + url + "] in PortletInternalResourceView '" + getBeanName() + "'");
+		}
+
+		requestDispatcher.include(request, response);
+	}
+
+	/**
+	 * Expose the model objects in the given map as portlet request attributes. Attributes with a {@code null} value
+	 * are removed from the request.
+	 *
+	 * @param  model    the model objects to expose
+	 * @param  request  current portlet request
+	 */
+	protected void exposeModelAsRequestAttributes(Map<String, Object> model, PortletRequest request) {
+
+		for (Map.Entry<String, Object> entry : model.entrySet()) {
+			String name = entry.getKey();
+			Object value = entry.getValue();
+
+			if (value != null) {
+				request.setAttribute(name, value);
+			}
+			else {
+				request.removeAttribute(name);
+			}
+		}
+	}
+
+}
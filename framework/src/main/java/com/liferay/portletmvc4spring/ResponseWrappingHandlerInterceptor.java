@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring;
+
+import jakarta.portlet.RenderRequest;
+import jakarta.portlet.RenderResponse;
+import jakarta.portlet.ResourceRequest;
+import jakarta.portlet.ResourceResponse;
+
+
+/**
+ * Extends {@code HandlerInterceptor} with callback methods for wrapping the render and the resource response, e.g. for
+ * capturing the content that the handler and its view produce.
+ *
+ * <p>The {@code DispatcherPortlet} invokes {@link #wrapRenderResponse} (or {@link #wrapResourceResponse}) right after
+ * {@code preHandleRender} (or {@code preHandleResource}) returned {@code true}, and passes the returned response to the
+ * handler, to the view and to the {@code postHandle} and {@code afterCompletion} callbacks of all interceptors, so that
+ * an interceptor can inspect the captured content on completion.
+ *
+ * @author  Neil Griffin
+ * @since   6.0
+ * @see     com.liferay.portletmvc4spring.handler.RenderFragmentCacheInterceptor
+ * @see     com.liferay.portletmvc4spring.handler.ShallowEtagHeaderInterceptor
+ */
+public interface ResponseWrappingHandlerInterceptor extends HandlerInterceptor {
+
+	/**
+	 * Wrap the response of the given render request.
+	 *
+	 * <p>The default implementation returns the given response.
+	 *
+	 * @param   request   current portlet render request
+	 * @param   response  current portlet render response, possibly wrapped by a preceding interceptor
+	 * @param   handler   chosen handler to execute
+	 *
+	 * @return  the response to render to, or the given response if no wrapping is necessary
+	 *
+	 * @throws  Exception  in case of errors
+	 */
+	default RenderResponse wrapRenderResponse(RenderRequest request, RenderResponse response, Object handler)
+		throws Exception {
+
+		return response;
+	}
+
+	/**
+	 * Wrap the response of the given resource request.
+	 *
+	 * <p>The default implementation returns the given response.
+	 *
+	 * @param   request   current portlet resource request
+	 * @param   response  current portlet resource response, possibly wrapped by a preceding interceptor
+	 * @param   handler   chosen handler to execute
+	 *
+	 * @return  the response to serve the resource to, or the given response if no wrapping is necessary
+	 *
+	 * @throws  Exception  in case of errors
+	 */
+	default ResourceResponse wrapResourceResponse(ResourceRequest request, ResourceResponse response, Object handler)
+		throws Exception {
+
+		return response;
+	}
+
+}
@@ -0,0 +1,41 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring;
+
+/**
+ * Extension of the {@link HandlerAdapter} interface to be implemented by handler adapters that introspect handler
+ * types and cache the resulting metadata (such as handler method resolution or {@code @InitBinder} methods) on first
+ * request.
+ *
+ * <p>Allows {@link DispatcherPortlet} to compute that metadata at context refresh instead, see {@link
+ * DispatcherPortlet#setWarmUpHandlerAdapters}.
+ *
+ * @author  Neil Griffin
+ * @since   6.0
+ * @see     DetectingHandlerMapping
+ * @see     DispatcherPortlet#setWarmUpHandlerAdapters
+ */
+public interface WarmableHandlerAdapter extends HandlerAdapter {
+
+	/**
+	 * Precompute the metadata that this adapter caches for the given handler type. Must be safe to call concurrently
+	 * for different handler types. Handler types that this adapter does not support are ignored.
+	 *
+	 * @param  handlerType  the type of a handler bean
+	 */
+	void warmUp(Class<?> handlerType);
+
+}
@@ -23,6 +23,8 @@ import java.lang.annotation.Target;
 
 import org.springframework.web.bind.annotation.Mapping;
 
+import com.liferay.portletmvc4spring.handler.PortletETagGenerator;
+
 
 /**
  * Annotation for mapping Portlet resource requests onto handler methods.
@@ -46,4 +48,39 @@ public @interface ResourceMapping {
 	 */
 	String value() default "";
 
+	/**
+	 * The number of seconds that the portlet container may cache the content for, {@code -1} for content that never
+	 * expires, or {@code 0} to disable caching.
+	 *
+	 * <p>If not specified, the expiration cache of the portlet configuration applies.
+	 *
+	 * @since  6.0
+	 * @see    jakarta.portlet.CacheControl#setExpirationTime(int)
+	 */
+	int expirationCache() default Integer.MIN_VALUE;
+
+	/**
+	 * The scope of the cached content: {@code "PUBLIC"} for content that may be shared among all users of the portlet,
+	 * or {@code "PRIVATE"} for content that is specific to the current user.
+	 *
+	 * <p>If not specified, the cache scope of the portlet configuration applies.
+	 *
+	 * @since  6.0
+	 * @see    jakarta.portlet.CacheControl#setPublicScope(boolean)
+	 */
+	String cacheScope() default "";
+
+	/**
+	 * The type of the generator that computes the validation token of the content. If the portlet container holds
+	 * cached content with the same validation token, the handler method is not invoked and the portlet container
+	 * serves the cached resource.
+	 *
+	 * <p>If not specified, the content is not validated, unless the handler method calls {@link
+	 * org.springframework.web.context.request.WebRequest#checkNotModified(String)} itself.
+	 *
+	 * @since  6.0
+	 * @see    jakarta.portlet.CacheControl#setETag(String)
+	 */
+	Class<? extends PortletETagGenerator> etagGenerator() default PortletETagGenerator.class;
+
 }
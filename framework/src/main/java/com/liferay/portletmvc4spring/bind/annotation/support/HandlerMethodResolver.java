@@ -136,7 +136,7 @@ public class HandlerMethodResolver {
 							modelAttributeMethods.add(specificMethod);
 						}
 					}
-				}, ReflectionUtils.USER_DECLARED_METHODS);
+				}, getMethodFilter(handlerType));
 		}
 
 		this.typeLevelMapping = AnnotationUtils.findAnnotation(handlerType, RequestMapping.class);
@@ -162,6 +162,20 @@ public class HandlerMethodResolver {
 		}
 	}
 
+	/**
+	 * Return the filter for the methods to introspect in the type hierarchy of the given handler type. The default
+	 * implementation restricts introspection to the methods listed in the {@link PortletMappingIndex}, if the handler
+	 * type has a valid index entry. Subclasses that detect methods by other annotations should return {@link
+	 * ReflectionUtils#USER_DECLARED_METHODS} instead.
+	 *
+	 * @param   handlerType  the handler type to introspect
+	 *
+	 * @return  the method filter
+	 */
+	protected ReflectionUtils.MethodFilter getMethodFilter(Class<?> handlerType) {
+		return PortletMappingIndex.forClassLoader(handlerType.getClassLoader()).getMethodFilter(handlerType);
+	}
+
 	protected boolean isHandlerMethod(Method method) {
 		return AnnotationUtils.findAnnotation(method, RequestMapping.class) != null;
 	}
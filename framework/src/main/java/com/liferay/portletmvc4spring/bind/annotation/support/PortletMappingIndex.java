@@ -0,0 +1,366 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.bind.annotation.support;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.SpringProperties;
+
+import org.springframework.lang.Nullable;
+
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
+
+
+/**
+ * Index of the handler methods, {@code @InitBinder} methods and {@code @ModelAttribute} methods of handler types, as
+ * generated at build time by {@link PortletMappingIndexProcessor} into {@value #INDEX_LOCATION}.
+ *
+ * <p>Allows handler introspection to inspect only the indexed methods of a handler type rather than every method of
+ * its type hierarchy. Each entry records a fingerprint of the methods declared by the handler type and its supertypes,
+ * including the mapping annotations of these methods with their attribute values, so that an entry that is stale with
+ * regard to the class found at runtime is ignored. Handler types without a valid entry are introspected by reflection
+ * as before.
+ *
+ * <p>The index can be ignored by setting the {@value #IGNORE_INDEX} system property (or Spring property) to "true".
+ *
+ * @author  Neil Griffin
+ * @since   6.0
+ * @see     PortletMappingIndexProcessor
+ */
+public final class PortletMappingIndex {
+
+	/**
+	 * System property that instructs the framework to ignore the index, i.e. to always introspect handler types by
+	 * reflection.
+	 */
+	public static final String IGNORE_INDEX = "portletmvc4spring.index.ignore";
+
+	/**
+	 * The location of the index file. Index files in several jars of a class loader are merged.
+	 */
+	public static final String INDEX_LOCATION = "META-INF/portletmvc4spring.idx";
+
+	/**
+	 * The annotation types that mark the methods to index, either directly or as meta-annotations.
+	 */
+	static final Set<String> MAPPING_ANNOTATION_TYPES = new HashSet<String>(Arrays.asList(
+				"com.liferay.portletmvc4spring.bind.annotation.ActionMapping",
+				"com.liferay.portletmvc4spring.bind.annotation.EventMapping",
+				"com.liferay.portletmvc4spring.bind.annotation.RenderMapping",
+				"com.liferay.portletmvc4spring.bind.annotation.ResourceMapping",
+				"org.springframework.web.bind.annotation.InitBinder",
+				"org.springframework.web.bind.annotation.ModelAttribute",
+				"org.springframework.web.bind.annotation.RequestMapping"));
+
+	private static final PortletMappingIndex EMPTY = new PortletMappingIndex(Collections.emptyMap());
+
+	private static final ConcurrentMap<ClassLoader, PortletMappingIndex> cache =
+		new ConcurrentReferenceHashMap<ClassLoader, PortletMappingIndex>();
+
+	private static final Log logger = LogFactory.getLog(PortletMappingIndex.class);
+
+	private final Map<String, Entry> entries;
+
+	private PortletMappingIndex(Map<String, Entry> entries) {
+		this.entries = entries;
+	}
+
+	/**
+	 * Return the index of the given class loader, loading it on first access.
+	 *
+	 * @param   classLoader  the class loader of the handler type (may be {@code null} for the default class loader)
+	 *
+	 * @return  the index (never {@code null}, but possibly empty)
+	 */
+	public static PortletMappingIndex forClassLoader(@Nullable ClassLoader classLoader) {
+
+		if (SpringProperties.getFlag(IGNORE_INDEX)) {
+			return EMPTY;
+		}
+
+		ClassLoader classLoaderToUse = (classLoader != null) ? classLoader : ClassUtils.getDefaultClassLoader();
+
+		if (classLoaderToUse == null) {
+			return EMPTY;
+		}
+
+		return cache.computeIfAbsent(classLoaderToUse, PortletMappingIndex::load);
+	}
+
+	/**
+	 * Return the filter for the methods to introspect in the type hierarchy of the given handler type: the
+	 * user-declared methods whose names are indexed for the handler type, or all user-declared methods if the handler
+	 * type has no entry or if its entry is stale.
+	 *
+	 * @param   handlerType  the handler type to introspect
+	 *
+	 * @return  the method filter (never {@code null})
+	 *
+	 * @see     ReflectionUtils#USER_DECLARED_METHODS
+	 */
+	public ReflectionUtils.MethodFilter getMethodFilter(Class<?> handlerType) {
+		Entry entry = this.entries.get(handlerType.getName());
+
+		if (entry == null) {
+			return ReflectionUtils.USER_DECLARED_METHODS;
+		}
+
+		if (entry.fingerprint != getFingerprint(handlerType)) {
+
+			if (logger.isDebugEnabled()) {
+				logger.debug("Ignoring stale index entry for handler type [" + handlerType.getName() + "]");
+			}
+
+			return ReflectionUtils.USER_DECLARED_METHODS;
+		}
+
+		Set<String> methodNames = entry.methodNames;
+
+		return ReflectionUtils.USER_DECLARED_METHODS.and(method -> methodNames.contains(method.getName()));
+	}
+
+	/**
+	 * Return whether this index has no entries.
+	 */
+	public boolean isEmpty() {
+		return this.entries.isEmpty();
+	}
+
+	/**
+	 * Compute the fingerprint of the methods declared by the given type and its supertypes (except {@link Object}) and
+	 * of their mapping annotations, which is order-independent and ignores synthetic methods. Must be kept consistent
+	 * with {@link PortletMappingIndexProcessor}.
+	 */
+	static int getFingerprint(Class<?> type) {
+		Set<Class<?>> types = new LinkedHashSet<Class<?>>();
+		collectTypes(type, types);
+
+		int fingerprint = 0;
+
+		for (Class<?> currentType : types) {
+
+			for (Method method : currentType.getDeclaredMethods()) {
+
+				if (!method.isSynthetic()) {
+					fingerprint += getFingerprint(method.getName(), method.getParameterCount(),
+							getMappingAnnotations(method));
+				}
+			}
+		}
+
+		return fingerprint;
+	}
+
+	/**
+	 * Compute the fingerprint of a method from its name, its parameter count and the descriptions of its mapping
+	 * annotations, as returned by {@link #getMappingAnnotations(Method)}. The annotations are hashed together with the
+	 * method, so that moving an annotation to another method of the type hierarchy changes the fingerprint.
+	 */
+	static int getFingerprint(String methodName, int parameterCount, Set<String> mappingAnnotations) {
+		return (methodName + "/" + parameterCount + new TreeSet<String>(mappingAnnotations)).hashCode();
+	}
+
+	/**
+	 * Return the descriptions of the mapping annotations declared on the given method, each consisting of the
+	 * annotation type name and of all attribute values (including default values) sorted by attribute name. Values
+	 * that the processor describes differently only make the entry of the handler type stale.
+	 */
+	static Set<String> getMappingAnnotations(Method method) {
+		Set<String> mappingAnnotations = new HashSet<String>();
+
+		for (Annotation annotation : method.getDeclaredAnnotations()) {
+
+			if (isMappingAnnotation(annotation.annotationType(), new HashSet<String>())) {
+				mappingAnnotations.add(getDescription(annotation));
+			}
+		}
+
+		return mappingAnnotations;
+	}
+
+	/**
+	 * Read the index from the given lines, in the format written by {@link PortletMappingIndexProcessor}: one {@code
+	 * className=fingerprint,methodName,...} line per handler type, with {@code #} comment lines.
+	 */
+	static PortletMappingIndex read(Iterable<String> lines) {
+		Map<String, Entry> entries = new HashMap<String, Entry>();
+
+		for (String line : lines) {
+			line = line.trim();
+
+			if (line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+
+			int separatorIndex = line.indexOf('=');
+
+			if (separatorIndex <= 0) {
+				throw new IllegalArgumentException("Invalid index line: " + line);
+			}
+
+			String[] values = line.substring(separatorIndex + 1).split(",");
+			Set<String> methodNames = new HashSet<String>(Arrays.asList(values).subList(1, values.length));
+
+			entries.put(line.substring(0, separatorIndex), new Entry(Integer.parseInt(values[0]), methodNames));
+		}
+
+		return entries.isEmpty() ? EMPTY : new PortletMappingIndex(entries);
+	}
+
+	private static void collectTypes(Class<?> type, Set<Class<?>> types) {
+
+		if ((type == null) || (type == Object.class) || !types.add(type)) {
+			return;
+		}
+
+		collectTypes(type.getSuperclass(), types);
+
+		for (Class<?> interfaceType : type.getInterfaces()) {
+			collectTypes(interfaceType, types);
+		}
+	}
+
+	private static String getDescription(Annotation annotation) {
+		Map<String, String> attributes = new TreeMap<String, String>();
+
+		for (Method attribute : annotation.annotationType().getDeclaredMethods()) {
+			ReflectionUtils.makeAccessible(attribute);
+			attributes.put(attribute.getName(), getDescription(ReflectionUtils.invokeMethod(attribute, annotation)));
+		}
+
+		return "@" + annotation.annotationType().getName() + attributes;
+	}
+
+	private static String getDescription(Object value) {
+
+		if (value instanceof Annotation) {
+			return getDescription((Annotation) value);
+		}
+
+		if (value instanceof Class) {
+			return ((Class<?>) value).getTypeName();
+		}
+
+		if (value instanceof Enum) {
+			return ((Enum<?>) value).name();
+		}
+
+		if (value.getClass().isArray()) {
+			List<String> elements = new ArrayList<String>();
+
+			for (int i = 0; i < Array.getLength(value); i++) {
+				elements.add(getDescription(Array.get(value, i)));
+			}
+
+			return elements.toString();
+		}
+
+		return String.valueOf(value);
+	}
+
+	private static boolean isMappingAnnotation(Class<? extends Annotation> annotationType,
+		Set<String> visitedAnnotationTypes) {
+
+		String annotationTypeName = annotationType.getName();
+
+		if (MAPPING_ANNOTATION_TYPES.contains(annotationTypeName)) {
+			return true;
+		}
+
+		if (!visitedAnnotationTypes.add(annotationTypeName)) {
+			return false;
+		}
+
+		// Look for meta-annotations, as the processor does.
+		for (Annotation metaAnnotation : annotationType.getAnnotations()) {
+
+			if (isMappingAnnotation(metaAnnotation.annotationType(), visitedAnnotationTypes)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static PortletMappingIndex load(ClassLoader classLoader) {
+
+		try {
+			Enumeration<URL> urls = classLoader.getResources(INDEX_LOCATION);
+			Set<String> lines = new LinkedHashSet<String>();
+
+			while (urls.hasMoreElements()) {
+				URL url = urls.nextElement();
+
+				try (BufferedReader reader = new BufferedReader(
+							new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+
+					reader.lines().forEach(lines::add);
+				}
+			}
+
+			PortletMappingIndex index = read(lines);
+
+			if (logger.isDebugEnabled()) {
+				logger.debug("Loaded " + index.entries.size() + " handler types from " + INDEX_LOCATION);
+			}
+
+			return index;
+		}
+		catch (IOException | RuntimeException ex) {
+			logger.warn("Unable to load " + INDEX_LOCATION + ", introspecting handler types by reflection", ex);
+
+			return EMPTY;
+		}
+	}
+
+	private static final class Entry {
+
+		private final int fingerprint;
+
+		private final Set<String> methodNames;
+
+		public Entry(int fingerprint, Set<String> methodNames) {
+			this.fingerprint = fingerprint;
+			this.methodNames = methodNames;
+		}
+	}
+
+}
@@ -0,0 +1,282 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.bind.annotation.support;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+
+/**
+ * Annotation processor that generates the {@link PortletMappingIndex} of the classes being compiled into {@value
+ * PortletMappingIndex#INDEX_LOCATION}. For each class whose type hierarchy declares methods with mapping annotations
+ * (directly or through meta-annotations), it records the names of those methods along with a fingerprint of the
+ * methods of the type hierarchy and of their mapping annotations.
+ *
+ * <p>The processor is not registered as a service, so that it does not run implicitly in every build that has the
+ * framework on its classpath. It has to be enabled in the build of the application, e.g. with Maven:
+ *
+ * <pre class="code">
+   &lt;plugin&gt;
+     &lt;artifactId&gt;maven-compiler-plugin&lt;/artifactId&gt;
+     &lt;configuration&gt;
+       &lt;annotationProcessors&gt;
+         &lt;annotationProcessor&gt;com.liferay.portletmvc4spring.bind.annotation.support.PortletMappingIndexProcessor&lt;/annotationProcessor&gt;
+       &lt;/annotationProcessors&gt;
+     &lt;/configuration&gt;
+   &lt;/plugin&gt;</pre>
+ *
+ * @author  Neil Griffin
+ * @since   6.0
+ * @see     PortletMappingIndex
+ */
+@SupportedAnnotationTypes("*")
+public class PortletMappingIndexProcessor extends AbstractProcessor {
+
+	private final Map<String, String> entries = new TreeMap<String, String>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+
+		if (roundEnv.processingOver()) {
+
+			if (!this.entries.isEmpty()) {
+				writeIndex();
+			}
+		}
+		else {
+
+			for (Element element : roundEnv.getRootElements()) {
+				indexType(element);
+			}
+		}
+
+		// Never claim any annotations.
+		return false;
+	}
+
+	private void collectTypes(TypeMirror typeMirror, Set<TypeElement> types) {
+
+		if (typeMirror.getKind() != TypeKind.DECLARED) {
+			return;
+		}
+
+		TypeElement typeElement = (TypeElement) ((DeclaredType) typeMirror).asElement();
+
+		if (typeElement.getQualifiedName().contentEquals(Object.class.getName()) || !types.add(typeElement)) {
+			return;
+		}
+
+		collectTypes(typeElement.getSuperclass(), types);
+
+		for (TypeMirror interfaceType : typeElement.getInterfaces()) {
+			collectTypes(interfaceType, types);
+		}
+	}
+
+	/**
+	 * Describe the given annotation as {@link PortletMappingIndex#getMappingAnnotations} does at runtime.
+	 */
+	private String getDescription(AnnotationMirror annotationMirror) {
+		Map<String, String> attributes = new TreeMap<String, String>();
+
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+				this.processingEnv.getElementUtils().getElementValuesWithDefaults(annotationMirror).entrySet()) {
+
+			attributes.put(entry.getKey().getSimpleName().toString(), getDescription(entry.getValue()));
+		}
+
+		return "@" + getDescription(annotationMirror.getAnnotationType()) + attributes;
+	}
+
+	private String getDescription(AnnotationValue annotationValue) {
+		Object value = annotationValue.getValue();
+
+		if (value instanceof AnnotationMirror) {
+			return getDescription((AnnotationMirror) value);
+		}
+
+		if (value instanceof TypeMirror) {
+			return getDescription((TypeMirror) value);
+		}
+
+		if (value instanceof VariableElement) {
+			return ((VariableElement) value).getSimpleName().toString();
+		}
+
+		if (value instanceof List) {
+			List<String> elements = new ArrayList<String>();
+
+			for (Object element : (List<?>) value) {
+				elements.add(getDescription((AnnotationValue) element));
+			}
+
+			return elements.toString();
+		}
+
+		return String.valueOf(value);
+	}
+
+	private String getDescription(TypeMirror typeMirror) {
+
+		if (typeMirror.getKind() == TypeKind.DECLARED) {
+			TypeElement typeElement = (TypeElement) ((DeclaredType) typeMirror).asElement();
+
+			return this.processingEnv.getElementUtils().getBinaryName(typeElement).toString();
+		}
+
+		if (typeMirror.getKind() == TypeKind.ARRAY) {
+			return getDescription(((ArrayType) typeMirror).getComponentType()) + "[]";
+		}
+
+		return typeMirror.toString();
+	}
+
+	private Set<String> getMappingAnnotations(ExecutableElement method) {
+		Set<String> mappingAnnotations = new HashSet<String>();
+
+		for (AnnotationMirror annotationMirror : method.getAnnotationMirrors()) {
+
+			if (isMappingAnnotation((TypeElement) annotationMirror.getAnnotationType().asElement(),
+						new HashSet<String>())) {
+
+				mappingAnnotations.add(getDescription(annotationMirror));
+			}
+		}
+
+		return mappingAnnotations;
+	}
+
+	private void indexType(Element element) {
+
+		if (!(element instanceof TypeElement)) {
+			return;
+		}
+
+		TypeElement typeElement = (TypeElement) element;
+
+		for (TypeElement memberType : ElementFilter.typesIn(typeElement.getEnclosedElements())) {
+			indexType(memberType);
+		}
+
+		if (typeElement.getKind() != ElementKind.CLASS) {
+			return;
+		}
+
+		Set<TypeElement> types = new LinkedHashSet<TypeElement>();
+		collectTypes(typeElement.asType(), types);
+
+		int fingerprint = 0;
+		Set<String> methodNames = new TreeSet<String>();
+
+		for (TypeElement type : types) {
+
+			for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+				String methodName = method.getSimpleName().toString();
+				Set<String> mappingAnnotations = getMappingAnnotations(method);
+				fingerprint += PortletMappingIndex.getFingerprint(methodName, method.getParameters().size(),
+						mappingAnnotations);
+
+				if (!mappingAnnotations.isEmpty()) {
+					methodNames.add(methodName);
+				}
+			}
+		}
+
+		if (!methodNames.isEmpty()) {
+			String typeName = this.processingEnv.getElementUtils().getBinaryName(typeElement).toString();
+
+			this.entries.put(typeName, fingerprint + "," + String.join(",", methodNames));
+		}
+	}
+
+	private boolean isMappingAnnotation(TypeElement annotationType, Set<String> visitedAnnotationTypes) {
+		String annotationTypeName = annotationType.getQualifiedName().toString();
+
+		if (PortletMappingIndex.MAPPING_ANNOTATION_TYPES.contains(annotationTypeName)) {
+			return true;
+		}
+
+		if (!visitedAnnotationTypes.add(annotationTypeName)) {
+			return false;
+		}
+
+		// Look for meta-annotations, as AnnotationUtils.findAnnotation does.
+		for (AnnotationMirror annotationMirror : annotationType.getAnnotationMirrors()) {
+
+			if (isMappingAnnotation((TypeElement) annotationMirror.getAnnotationType().asElement(),
+						visitedAnnotationTypes)) {
+
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private void writeIndex() {
+
+		try {
+			FileObject fileObject = this.processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+					PortletMappingIndex.INDEX_LOCATION);
+
+			try (Writer writer = fileObject.openWriter()) {
+				writer.write("# Generated by " + getClass().getName() + "\n");
+
+				for (Map.Entry<String, String> entry : this.entries.entrySet()) {
+					writer.write(entry.getKey() + "=" + entry.getValue() + "\n");
+				}
+			}
+		}
+		catch (IOException ioe) {
+			this.processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+				"Unable to write " + PortletMappingIndex.INDEX_LOCATION + ": " + ioe);
+		}
+	}
+
+}
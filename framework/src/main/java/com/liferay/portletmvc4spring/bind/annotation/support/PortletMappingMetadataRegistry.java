@@ -0,0 +1,211 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.bind.annotation.support;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import org.springframework.core.annotation.AnnotationUtils;
+
+import org.springframework.lang.Nullable;
+
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.InitBinder;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import com.liferay.portletmvc4spring.bind.annotation.ActionMapping;
+import com.liferay.portletmvc4spring.bind.annotation.EventMapping;
+import com.liferay.portletmvc4spring.bind.annotation.RenderMapping;
+import com.liferay.portletmvc4spring.bind.annotation.ResourceMapping;
+
+
+/**
+ * Registry of the mapping annotations of handler methods, shared by the components of an application context that
+ * introspect handler types: {@link com.liferay.portletmvc4spring.mvc.annotation.DefaultAnnotationHandlerMapping},
+ * {@link com.liferay.portletmvc4spring.mvc.method.annotation.PortletRequestMappingHandlerAdapter} and {@link
+ * com.liferay.portletmvc4spring.mvc.annotation.AnnotationMethodHandlerExceptionResolver}. The annotations of each
+ * method are looked up only once, and methods without mapping annotations share a single metadata instance.
+ *
+ * <p>The registry is held as a singleton named {@value #BEAN_NAME} in the application context, so that it lives as
+ * long as the application context.
+ *
+ * @author  Neil Griffin
+ * @since   6.0
+ */
+public final class PortletMappingMetadataRegistry {
+
+	/**
+	 * The name of the singleton that holds the registry of an application context.
+	 */
+	public static final String BEAN_NAME = PortletMappingMetadataRegistry.class.getName();
+
+	private final Map<Method, MethodMappingMetadata> methodMetadataCache =
+		new ConcurrentHashMap<Method, MethodMappingMetadata>(256);
+
+	/**
+	 * Create a registry that is not shared with other components, e.g. for components that are not used within an
+	 * application context.
+	 */
+	public PortletMappingMetadataRegistry() {
+	}
+
+	/**
+	 * Return the registry of the given application context, registering it on first access.
+	 *
+	 * @param   context  the application context (may be {@code null})
+	 *
+	 * @return  the registry of the application context, or a new registry if the application context is {@code null}
+	 *          or does not allow for registering singletons
+	 */
+	public static PortletMappingMetadataRegistry getRegistry(@Nullable ApplicationContext context) {
+
+		if (!(context instanceof ConfigurableApplicationContext)) {
+			return new PortletMappingMetadataRegistry();
+		}
+
+		ConfigurableListableBeanFactory beanFactory = ((ConfigurableApplicationContext) context).getBeanFactory();
+
+		synchronized (beanFactory) {
+			Object registry = beanFactory.getSingleton(BEAN_NAME);
+
+			if (registry == null) {
+				registry = new PortletMappingMetadataRegistry();
+				beanFactory.registerSingleton(BEAN_NAME, registry);
+			}
+
+			return (PortletMappingMetadataRegistry) registry;
+		}
+	}
+
+	/**
+	 * Return the mapping metadata of the given method.
+	 *
+	 * @param   method  the method to introspect
+	 *
+	 * @return  the metadata (never {@code null})
+	 */
+	public MethodMappingMetadata getMethodMetadata(Method method) {
+		return this.methodMetadataCache.computeIfAbsent(method, MethodMappingMetadata::forMethod);
+	}
+
+	/**
+	 * The mapping annotations of a method, as found by {@link AnnotationUtils#findAnnotation(Method, Class)}.
+	 */
+	public static final class MethodMappingMetadata {
+
+		private static final MethodMappingMetadata NONE = new MethodMappingMetadata(null, null, null, null, null, null,
+				null, null);
+
+		private final ActionMapping actionMapping;
+
+		private final EventMapping eventMapping;
+
+		private final ExceptionHandler exceptionHandler;
+
+		private final InitBinder initBinder;
+
+		private final ModelAttribute modelAttribute;
+
+		private final RenderMapping renderMapping;
+
+		private final RequestMapping requestMapping;
+
+		private final ResourceMapping resourceMapping;
+
+		private MethodMappingMetadata(ActionMapping actionMapping, EventMapping eventMapping,
+			ExceptionHandler exceptionHandler, InitBinder initBinder, ModelAttribute modelAttribute,
+			RenderMapping renderMapping, RequestMapping requestMapping, ResourceMapping resourceMapping) {
+
+			this.actionMapping = actionMapping;
+			this.eventMapping = eventMapping;
+			this.exceptionHandler = exceptionHandler;
+			this.initBinder = initBinder;
+			this.modelAttribute = modelAttribute;
+			this.renderMapping = renderMapping;
+			this.requestMapping = requestMapping;
+			this.resourceMapping = resourceMapping;
+		}
+
+		@Nullable
+		public ActionMapping getActionMapping() {
+			return this.actionMapping;
+		}
+
+		@Nullable
+		public EventMapping getEventMapping() {
+			return this.eventMapping;
+		}
+
+		@Nullable
+		public ExceptionHandler getExceptionHandler() {
+			return this.exceptionHandler;
+		}
+
+		@Nullable
+		public InitBinder getInitBinder() {
+			return this.initBinder;
+		}
+
+		@Nullable
+		public ModelAttribute getModelAttribute() {
+			return this.modelAttribute;
+		}
+
+		@Nullable
+		public RenderMapping getRenderMapping() {
+			return this.renderMapping;
+		}
+
+		@Nullable
+		public RequestMapping getRequestMapping() {
+			return this.requestMapping;
+		}
+
+		@Nullable
+		public ResourceMapping getResourceMapping() {
+			return this.resourceMapping;
+		}
+
+		private static MethodMappingMetadata forMethod(Method method) {
+			ActionMapping actionMapping = AnnotationUtils.findAnnotation(method, ActionMapping.class);
+			EventMapping eventMapping = AnnotationUtils.findAnnotation(method, EventMapping.class);
+			ExceptionHandler exceptionHandler = AnnotationUtils.findAnnotation(method, ExceptionHandler.class);
+			InitBinder initBinder = AnnotationUtils.findAnnotation(method, InitBinder.class);
+			ModelAttribute modelAttribute = AnnotationUtils.findAnnotation(method, ModelAttribute.class);
+			RenderMapping renderMapping = AnnotationUtils.findAnnotation(method, RenderMapping.class);
+			RequestMapping requestMapping = AnnotationUtils.findAnnotation(method, RequestMapping.class);
+			ResourceMapping resourceMapping = AnnotationUtils.findAnnotation(method, ResourceMapping.class);
+
+			if ((actionMapping == null) && (eventMapping == null) && (exceptionHandler == null) &&
+					(initBinder == null) && (modelAttribute == null) && (renderMapping == null) &&
+					(requestMapping == null) && (resourceMapping == null)) {
+
+				return NONE;
+			}
+
+			return new MethodMappingMetadata(actionMapping, eventMapping, exceptionHandler, initBinder, modelAttribute,
+					renderMapping, requestMapping, resourceMapping);
+		}
+	}
+
+}
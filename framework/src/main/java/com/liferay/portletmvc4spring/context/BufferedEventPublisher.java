@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.context;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+
+import org.springframework.util.Assert;
+
+
+/**
+ * Publishes application events asynchronously: events are added to a bounded ring buffer by the request threads and
+ * delivered in batches to the target {@link ApplicationEventPublisher} by a single background thread, so that request
+ * threads never wait for the listeners.
+ *
+ * <p>When the buffer is full, e.g. because the listeners are slower than the rate of incoming requests, new events are
+ * dropped rather than blocking the request thread. The number of dropped events is available via {@link
+ * #getDroppedEventCount()}. On {@link #destroy()}, the background thread is stopped and the buffered events are
+ * delivered by the calling thread.
+ *
+ * @author  Neil Griffin
+ * @since   6.0
+ * @see     com.liferay.portletmvc4spring.FrameworkPortlet#setEventBufferCapacity
+ */
+public class BufferedEventPublisher implements DisposableBean {
+
+	/** Maximum number of events delivered per batch */
+	private static final int MAX_BATCH_SIZE = 64;
+
+	private static final Log logger = LogFactory.getLog(BufferedEventPublisher.class);
+
+	private final BlockingQueue<ApplicationEvent> buffer;
+
+	private final Thread deliveryThread;
+
+	private final LongAdder droppedEventCount = new LongAdder();
+
+	private volatile boolean running = true;
+
+	private final ApplicationEventPublisher target;
+
+	/**
+	 * Create a new BufferedEventPublisher and start its background thread.
+	 *
+	 * @param  target      the publisher that delivers the events to the listeners, e.g. an ApplicationContext
+	 * @param  capacity    the maximum number of buffered events
+	 * @param  threadName  the name of the background thread
+	 */
+	public BufferedEventPublisher(ApplicationEventPublisher target, int capacity, String threadName) {
+		Assert.notNull(target, "ApplicationEventPublisher must not be null");
+		Assert.isTrue(capacity > 0, "Capacity must be greater than 0");
+		this.target = target;
+		this.buffer = new ArrayBlockingQueue<ApplicationEvent>(capacity);
+		this.deliveryThread = new Thread(this::deliverEvents, threadName);
+		this.deliveryThread.setDaemon(true);
+		this.deliveryThread.start();
+	}
+
+	/**
+	 * Stop the background thread and deliver the events that are still buffered.
+	 */
+	@Override
+	public void destroy() throws InterruptedException {
+		this.running = false;
+		this.deliveryThread.interrupt();
+		this.deliveryThread.join();
+
+		List<ApplicationEvent> batch = new ArrayList<ApplicationEvent>(MAX_BATCH_SIZE);
+
+		while (this.buffer.drainTo(batch, MAX_BATCH_SIZE) > 0) {
+			deliver(batch);
+		}
+	}
+
+	/**
+	 * Return the number of events that were dropped because the buffer was full.
+	 */
+	public long getDroppedEventCount() {
+		return this.droppedEventCount.sum();
+	}
+
+	/**
+	 * Add the given event to the buffer, without waiting.
+	 *
+	 * @param   event  the event to publish
+	 *
+	 * @return  {@code true} if the event was buffered, or {@code false} if it was dropped because the buffer was full or
+	 *          this publisher has been destroyed
+	 */
+	public boolean publishEvent(ApplicationEvent event) {
+
+		if (this.running && this.buffer.offer(event)) {
+			return true;
+		}
+
+		this.droppedEventCount.increment();
+
+		return false;
+	}
+
+	private void deliver(List<ApplicationEvent> batch) {
+
+		for (ApplicationEvent event : batch) {
+
+			try {
+				this.target.publishEvent(event);
+			}
+			catch (RuntimeException ex) {
+				logger.error("Could not deliver event " + event, ex);
+			}
+		}
+
+		batch.clear();
+	}
+
+	private void deliverEvents() {
+		List<ApplicationEvent> batch = new ArrayList<ApplicationEvent>(MAX_BATCH_SIZE);
+
+		while (this.running) {
+
+			try {
+				batch.add(this.buffer.take());
+			}
+			catch (InterruptedException ex) {
+
+				// Stopped by destroy(), which delivers the remaining events.
+				return;
+			}
+
+			this.buffer.drainTo(batch, MAX_BATCH_SIZE - 1);
+			deliver(batch);
+		}
+	}
+
+}
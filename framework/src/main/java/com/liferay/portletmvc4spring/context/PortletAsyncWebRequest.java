@@ -0,0 +1,174 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.context;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import jakarta.portlet.PortletAsyncContext;
+import jakarta.portlet.PortletAsyncEvent;
+import jakarta.portlet.PortletAsyncListener;
+import jakarta.portlet.ResourceRequest;
+import jakarta.portlet.ResourceResponse;
+
+import org.springframework.util.Assert;
+
+import org.springframework.web.context.request.async.AsyncWebRequest;
+
+
+/**
+ * Portlet 3.0 based implementation of the {@link AsyncWebRequest} interface, which lets the {@link
+ * org.springframework.web.context.request.async.WebAsyncManager} continue the handling of a resource request on
+ * another thread by means of {@link ResourceRequest#startPortletAsync(ResourceRequest, ResourceResponse)}.
+ *
+ * <p>The concurrent result is processed by dispatching the resource request to the portlet again via {@link
+ * PortletAsyncContext#dispatch()}.
+ *
+ * @author  Neil Griffin
+ * @since   6.0
+ */
+public class PortletAsyncWebRequest extends PortletWebRequest implements AsyncWebRequest, PortletAsyncListener {
+
+	private final AtomicBoolean asyncCompleted = new AtomicBoolean();
+
+	private PortletAsyncContext asyncContext;
+
+	private final List<Runnable> completionHandlers = new ArrayList<Runnable>();
+
+	private final List<Consumer<Throwable>> errorHandlers = new ArrayList<Consumer<Throwable>>();
+
+	private Long timeout;
+
+	private final List<Runnable> timeoutHandlers = new ArrayList<Runnable>();
+
+	/**
+	 * Create a new PortletAsyncWebRequest instance for the given request/response pair.
+	 *
+	 * @param  request   current resource request
+	 * @param  response  current resource response
+	 */
+	public PortletAsyncWebRequest(ResourceRequest request, ResourceResponse response) {
+		super(request, response);
+	}
+
+	@Override
+	public void addCompletionHandler(Runnable runnable) {
+		this.completionHandlers.add(runnable);
+	}
+
+	@Override
+	public void addErrorHandler(Consumer<Throwable> exceptionHandler) {
+		this.errorHandlers.add(exceptionHandler);
+	}
+
+	@Override
+	public void addTimeoutHandler(Runnable timeoutHandler) {
+		this.timeoutHandlers.add(timeoutHandler);
+	}
+
+	@Override
+	public void dispatch() {
+		Assert.state(this.asyncContext != null, "PortletAsyncContext not yet initialized");
+
+		if (!isAsyncComplete()) {
+			this.asyncContext.dispatch();
+		}
+	}
+
+	/**
+	 * Whether async request processing has completed, i.e. the container invoked {@link #onComplete}. It is important
+	 * to avoid use of request and response objects after async processing has completed, as portlet containers may
+	 * recycle them.
+	 */
+	@Override
+	public boolean isAsyncComplete() {
+		return this.asyncCompleted.get();
+	}
+
+	@Override
+	public boolean isAsyncStarted() {
+		return (this.asyncContext != null) && getResourceRequest().isAsyncStarted();
+	}
+
+	@Override
+	public void onComplete(PortletAsyncEvent event) {
+
+		for (Runnable handler : this.completionHandlers) {
+			handler.run();
+		}
+
+		this.asyncContext = null;
+		this.asyncCompleted.set(true);
+	}
+
+	@Override
+	public void onError(PortletAsyncEvent event) {
+
+		for (Consumer<Throwable> handler : this.errorHandlers) {
+			handler.accept(event.getThrowable());
+		}
+	}
+
+	@Override
+	public void onStartAsync(PortletAsyncEvent event) {
+	}
+
+	@Override
+	public void onTimeout(PortletAsyncEvent event) {
+
+		for (Runnable handler : this.timeoutHandlers) {
+			handler.run();
+		}
+	}
+
+	/**
+	 * In Portlet 3.0 async processing, the timeout period begins after the container processing thread has exited.
+	 */
+	@Override
+	public void setTimeout(Long timeout) {
+		Assert.state(!isAsyncStarted(), "Cannot change the timeout with concurrent handling in progress");
+		this.timeout = timeout;
+	}
+
+	@Override
+	public void startAsync() {
+		ResourceRequest resourceRequest = getResourceRequest();
+
+		Assert.state(resourceRequest.isAsyncSupported(),
+			"Async support must be enabled on a portlet and for all filters involved in async request processing. " +
+			"This is done in Java code using the Portlet API or by adding \"<async-supported>true</async-supported>\" " +
+			"to portlet and filter declarations in portlet.xml.");
+		Assert.state(!isAsyncComplete(), "Async processing has already completed");
+
+		if (isAsyncStarted()) {
+			return;
+		}
+
+		this.asyncContext = resourceRequest.startPortletAsync(resourceRequest, (ResourceResponse) getResponse());
+		this.asyncContext.addListener(this);
+
+		if (this.timeout != null) {
+			this.asyncContext.setTimeout(this.timeout);
+		}
+	}
+
+	private ResourceRequest getResourceRequest() {
+		return (ResourceRequest) getRequest();
+	}
+
+}
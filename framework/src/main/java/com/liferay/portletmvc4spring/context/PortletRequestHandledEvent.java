@@ -45,7 +45,7 @@ public class PortletRequestHandledEvent extends RequestHandledEvent {
 	 * @param  source                the component that published the event
 	 * @param  portletName           the name of the portlet that handled the request
 	 * @param  portletMode           the PortletMode of the request (usually 'view', 'edit', or 'help')
-	 * @param  requestType           the type of Portlet request ('action' or 'render')
+	 * @param  requestType           the type of Portlet request ('action', 'event', 'render' or 'resource')
 	 * @param  sessionId             the id of the HTTP session, if any
 	 * @param  userName              the name of the user that was associated with the request, if any (usually the
 	 *                               UserPrincipal)
@@ -66,7 +66,7 @@ public class PortletRequestHandledEvent extends RequestHandledEvent {
 	 * @param  source                the component that published the event
 	 * @param  portletName           the name of the portlet that handled the request
 	 * @param  portletMode           the PortletMode of the request (usually 'view', 'edit', or 'help')
-	 * @param  requestType           the type of Portlet request ('action' or 'render')
+	 * @param  requestType           the type of Portlet request ('action', 'event', 'render' or 'resource')
 	 * @param  sessionId             the id of the HTTP session, if any
 	 * @param  userName              the name of the user that was associated with the request, if any (usually the
 	 *                               UserPrincipal)
@@ -108,7 +108,7 @@ public class PortletRequestHandledEvent extends RequestHandledEvent {
 	}
 
 	/**
-	 * Return the type of Portlet Request ('action' or 'render').
+	 * Return the type of Portlet Request ('action', 'event', 'render' or 'resource').
 	 */
 	public String getRequestType() {
 		return this.requestType;
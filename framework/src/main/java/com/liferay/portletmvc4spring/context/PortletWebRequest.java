@@ -20,9 +20,14 @@ import java.util.Iterator;
 import java.util.Locale;
 import java.util.Map;
 
+import jakarta.portlet.CacheControl;
+import jakarta.portlet.MimeResponse;
 import jakarta.portlet.PortletRequest;
 import jakarta.portlet.PortletResponse;
 import jakarta.portlet.PortletSession;
+import jakarta.portlet.RenderRequest;
+import jakarta.portlet.ResourceRequest;
+import jakarta.portlet.ResourceResponse;
 
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.ObjectUtils;
@@ -41,6 +46,8 @@ import com.liferay.portletmvc4spring.util.PortletUtils;
  */
 public class PortletWebRequest extends PortletRequestAttributes implements NativeWebRequest {
 
+	private boolean notModified = false;
+
 	/**
 	 * Create a new PortletWebRequest instance for the given request.
 	 *
@@ -61,32 +68,88 @@ public class PortletWebRequest extends PortletRequestAttributes implements Nativ
 	}
 
 	/**
-	 * Last-modified handling not supported for portlet requests: As a consequence, this method always returns {@code
-	 * false}.
+	 * Portlet requests carry no last-modified timestamp: the timestamp is used as the validation token instead.
+	 *
+	 * @see  #checkNotModified(String, long)
 	 */
 	@Override
 	public boolean checkNotModified(long lastModifiedTimestamp) {
-		return false;
+		return checkNotModified(null, lastModifiedTimestamp);
 	}
 
 	/**
-	 * Last-modified handling not supported for portlet requests: As a consequence, this method always returns {@code
-	 * false}.
+	 * Check whether the content cached by the portlet container is still valid, based on the given validation token.
+	 *
+	 * @see  #checkNotModified(String, long)
 	 */
 	@Override
 	public boolean checkNotModified(String eTag) {
-		return false;
+		return checkNotModified(eTag, -1);
 	}
 
 	/**
-	 * Last-modified handling not supported for portlet requests: As a consequence, this method always returns {@code
-	 * false}.
+	 * Check whether the content cached by the portlet container is still valid, based on the validation model of the
+	 * Portlet specification: the given ETag, or the given timestamp if no ETag is given, is set as the validation token
+	 * of the {@link CacheControl} of the render or resource response. If it matches the validation token of the cached
+	 * content, as reported by {@link RenderRequest#getETag()} or {@link ResourceRequest#getETag()}, the portlet
+	 * container is told to use the cached content, and the handler should not generate any content.
+	 *
+	 * <p>Resource requests are additionally checked as conditional GET requests of the client, answering them with a
+	 * 304 status code if the content has not been modified.
 	 *
-	 * @since  4.2
+	 * <p>Always returns {@code false} for action and event requests, which have no cached content.
+	 *
+	 * @param   etag                   the validation token of the current content (may be {@code null})
+	 * @param   lastModifiedTimestamp  the last-modified timestamp in milliseconds of the current content, or -1
+	 *
+	 * @return  {@code true} if the cached content can be used and no further processing is necessary
+	 *
+	 * @since   4.2
+	 * @see     PortletUtils#checkNotModified(ResourceRequest, ResourceResponse, String, long)
 	 */
 	@Override
 	public boolean checkNotModified(String etag, long lastModifiedTimestamp) {
-		return false;
+		PortletResponse response = getResponse();
+
+		if (this.notModified || !(response instanceof MimeResponse)) {
+			return this.notModified;
+		}
+
+		String token = etag;
+
+		if (!StringUtils.hasLength(token)) {
+
+			if (lastModifiedTimestamp < 0) {
+				return false;
+			}
+
+			token = Long.toString(lastModifiedTimestamp);
+		}
+
+		CacheControl cacheControl = ((MimeResponse) response).getCacheControl();
+		cacheControl.setETag(token);
+
+		PortletRequest request = getRequest();
+		String requestETag = null;
+
+		if (request instanceof RenderRequest) {
+			requestETag = ((RenderRequest) request).getETag();
+		}
+		else if (request instanceof ResourceRequest) {
+			requestETag = ((ResourceRequest) request).getETag();
+		}
+
+		if (token.equals(requestETag)) {
+			cacheControl.setUseCachedContent(true);
+			this.notModified = true;
+		}
+		else if ((request instanceof ResourceRequest) && (response instanceof ResourceResponse) &&
+				PortletUtils.checkNotModified((ResourceRequest) request, (ResourceResponse) response, etag,
+					lastModifiedTimestamp)) {
+			this.notModified = true;
+		}
+
+		return this.notModified;
 	}
 
 	@Override
@@ -189,6 +252,14 @@ public class PortletWebRequest extends PortletRequestAttributes implements Nativ
 		return getRequest().getUserPrincipal();
 	}
 
+	/**
+	 * Return whether a previous {@code checkNotModified} call found the content cached by the portlet container to be
+	 * valid.
+	 */
+	public boolean isNotModified() {
+		return this.notModified;
+	}
+
 	@Override
 	public boolean isSecure() {
 		return getRequest().isSecure();
@@ -18,6 +18,7 @@ package com.liferay.portletmvc4spring.handler;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 import jakarta.portlet.PortletRequest;
 
@@ -29,9 +30,9 @@ import org.springframework.core.Ordered;
 
 import org.springframework.web.context.request.WebRequestInterceptor;
 
+import com.liferay.portletmvc4spring.CacheableHandlerMapping;
 import com.liferay.portletmvc4spring.HandlerExecutionChain;
 import com.liferay.portletmvc4spring.HandlerInterceptor;
-import com.liferay.portletmvc4spring.HandlerMapping;
 
 
 /**
@@ -46,7 +47,8 @@ import com.liferay.portletmvc4spring.HandlerMapping;
  * @see     #setInterceptors
  * @see     com.liferay.portletmvc4spring.HandlerInterceptor
  */
-public abstract class AbstractHandlerMapping extends ApplicationObjectSupport implements HandlerMapping, Ordered {
+public abstract class AbstractHandlerMapping extends ApplicationObjectSupport implements CacheableHandlerMapping,
+	Ordered {
 
 	private int order = Integer.MAX_VALUE; // default: same as non-Ordered
 
@@ -100,6 +102,19 @@ public abstract class AbstractHandlerMapping extends ApplicationObjectSupport im
 		return this.order;
 	}
 
+	/**
+	 * Return the names of the request parameters that this mapping evaluates, or {@code null} if its result may not be
+	 * cached.
+	 *
+	 * <p>The default implementation returns {@code null}, since the lookup strategy of a subclass is unknown.
+	 *
+	 * @see  com.liferay.portletmvc4spring.DispatcherPortlet#setHandlerCacheLimit
+	 */
+	@Override
+	public Set<String> getRoutingParameterNames() {
+		return null;
+	}
+
 	/**
 	 * Specify whether to apply WebRequestInterceptors to the Portlet render phase only ("true", or whether to apply
 	 * them to the Portlet action phase as well ("false").
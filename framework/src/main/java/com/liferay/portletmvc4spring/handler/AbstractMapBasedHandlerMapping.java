@@ -15,12 +15,14 @@
  */
 package com.liferay.portletmvc4spring.handler;
 
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import jakarta.portlet.PortletException;
 import jakarta.portlet.PortletRequest;
@@ -35,6 +37,10 @@ import org.springframework.util.Assert;
  * caches handler objects per lookup key. Supports arbitrary lookup keys, and automatically resolves handler bean names
  * into handler bean instances.
  *
+ * <p>Handlers registered with a predicate are kept in an immutable bucket per lookup key, with the predicates sorted
+ * once at registration time. Registration replaces the bucket atomically, so that lookups never need to lock, sort or
+ * allocate.
+ *
  * @author  Juergen Hoeller
  * @since   2.0
  * @see     #getLookupKey(jakarta.portlet.PortletRequest)
@@ -44,7 +50,39 @@ public abstract class AbstractMapBasedHandlerMapping<K> extends AbstractHandlerM
 
 	private boolean lazyInitHandlers = false;
 
-	private final Map<K, Object> handlerMap = new HashMap<K, Object>();
+	private final Map<K, Object> handlerMap = new ConcurrentHashMap<K, Object>();
+
+	/**
+	 * Returns the values that the registered predicates compare the given request parameter with.
+	 *
+	 * @see  PortletRequestMappingPredicate#getRoutingParameterValues(String)
+	 */
+	@Override
+	public Set<String> getRoutingParameterValues(String parameterName) {
+		Set<String> values = new HashSet<String>();
+
+		for (Object handler : this.handlerMap.values()) {
+
+			if (handler instanceof PredicateBucket) {
+
+				for (PortletRequestMappingPredicate predicate : ((PredicateBucket) handler).handlers.keySet()) {
+					Set<String> predicateParameterNames = predicate.getRoutingParameterNames();
+
+					if ((predicateParameterNames != null) && predicateParameterNames.contains(parameterName)) {
+						Set<String> predicateValues = predicate.getRoutingParameterValues(parameterName);
+
+						if (predicateValues == null) {
+							return null;
+						}
+
+						values.addAll(predicateValues);
+					}
+				}
+			}
+		}
+
+		return values;
+	}
 
 	/**
 	 * Set whether to lazily initialize handlers. Only applicable to singleton handlers, as prototypes are always lazily
@@ -70,46 +108,78 @@ public abstract class AbstractMapBasedHandlerMapping<K> extends AbstractHandlerM
 	 */
 	protected abstract K getLookupKey(PortletRequest request) throws Exception;
 
+	/**
+	 * Return the lookup keys that handlers have been registered for.
+	 *
+	 * @return  an unmodifiable view of the lookup keys
+	 */
+	protected Set<K> getLookupKeys() {
+		return Collections.unmodifiableSet(this.handlerMap.keySet());
+	}
+
 	/**
 	 * Determines a handler for the computed lookup key for the given request.
 	 *
 	 * @see  #getLookupKey
 	 */
 	@Override
-	@SuppressWarnings("unchecked")
 	protected Object getHandlerInternal(PortletRequest request) throws Exception {
 		K lookupKey = getLookupKey(request);
+
+		// A lookup key may be null, e.g. for an absent request parameter.
+		if (lookupKey == null) {
+			return null;
+		}
+
 		Object handler = this.handlerMap.get(lookupKey);
 
 		if ((handler != null) && logger.isDebugEnabled()) {
 			logger.debug("Key [" + lookupKey + "] -> handler [" + handler + "]");
 		}
 
-		if (handler instanceof Map) {
-			Map<PortletRequestMappingPredicate, Object> predicateMap = (Map<PortletRequestMappingPredicate, Object>)
-				handler;
-			List<PortletRequestMappingPredicate> filtered = new LinkedList<PortletRequestMappingPredicate>();
+		if (handler instanceof PredicateBucket) {
+			return ((PredicateBucket) handler).getHandler(request);
+		}
 
-			for (PortletRequestMappingPredicate predicate : predicateMap.keySet()) {
+		return handler;
+	}
 
-				if (predicate.match(request)) {
-					filtered.add(predicate);
-				}
-			}
+	/**
+	 * Collect the names of the request parameters evaluated by the registered predicates, for use in {@link
+	 * #getRoutingParameterNames()} implementations of subclasses.
+	 *
+	 * @return  the parameter names (possibly empty), or {@code null} if a predicate does not declare its parameter
+	 *          names or if a handler needs to be resolved for each request (i.e. a non-singleton handler bean)
+	 */
+	protected Set<String> getMappedParameterNames() {
 
-			if (filtered.isEmpty()) {
-				return null;
-			}
+		if (!isCacheableHandler(getDefaultHandler())) {
+			return null;
+		}
+
+		Set<String> parameterNames = new LinkedHashSet<String>();
 
-			Collections.sort(filtered);
+		for (Object handler : this.handlerMap.values()) {
 
-			PortletRequestMappingPredicate predicate = filtered.get(0);
-			predicate.validate(request);
+			if (handler instanceof PredicateBucket) {
 
-			return predicateMap.get(predicate);
+				for (Map.Entry<PortletRequestMappingPredicate, Object> entry :
+						((PredicateBucket) handler).handlers.entrySet()) {
+					Set<String> predicateParameterNames = entry.getKey().getRoutingParameterNames();
+
+					if ((predicateParameterNames == null) || !isCacheableHandler(entry.getValue())) {
+						return null;
+					}
+
+					parameterNames.addAll(predicateParameterNames);
+				}
+			}
+			else if (!isCacheableHandler(handler)) {
+				return null;
+			}
 		}
 
-		return handler;
+		return parameterNames;
 	}
 
 	/**
@@ -138,7 +208,6 @@ public abstract class AbstractMapBasedHandlerMapping<K> extends AbstractHandlerM
 	 * @throws  BeansException         if the handler couldn't be registered
 	 * @throws  IllegalStateException  if there is a conflicting handler registered
 	 */
-	@SuppressWarnings("unchecked")
 	protected void registerHandler(K lookupKey, Object handler, PortletRequestMappingPredicate predicate)
 		throws BeansException, IllegalStateException {
 
@@ -156,39 +225,35 @@ public abstract class AbstractMapBasedHandlerMapping<K> extends AbstractHandlerM
 			}
 		}
 
-		// Check for duplicate mapping.
-		Object mappedHandler = this.handlerMap.get(lookupKey);
-
-		if ((mappedHandler != null) && !(mappedHandler instanceof Map)) {
-
-			if (mappedHandler != resolvedHandler) {
-				throw new IllegalStateException("Cannot map handler [" + handler + "] to key [" + lookupKey +
-					"]: There's already handler [" + mappedHandler + "] mapped.");
-			}
-		}
-		else {
+		synchronized (this.handlerMap) {
 
-			if (predicate != null) {
+			// Check for duplicate mapping.
+			Object mappedHandler = this.handlerMap.get(lookupKey);
 
-				// Add the handler to the predicate map.
-				Map<PortletRequestMappingPredicate, Object> predicateMap = (Map<PortletRequestMappingPredicate, Object>)
-					mappedHandler;
+			if ((mappedHandler != null) && !(mappedHandler instanceof PredicateBucket)) {
 
-				if (predicateMap == null) {
-					predicateMap = new LinkedHashMap<PortletRequestMappingPredicate, Object>();
-					this.handlerMap.put(lookupKey, predicateMap);
+				if (mappedHandler != resolvedHandler) {
+					throw new IllegalStateException("Cannot map handler [" + handler + "] to key [" + lookupKey +
+						"]: There's already handler [" + mappedHandler + "] mapped.");
 				}
-
-				predicateMap.put(predicate, resolvedHandler);
 			}
 			else {
 
-				// Add the single handler to the map.
-				this.handlerMap.put(lookupKey, resolvedHandler);
-			}
+				if (predicate != null) {
+
+					// Replace the predicate bucket with one that includes the handler.
+					this.handlerMap.put(lookupKey,
+						new PredicateBucket((PredicateBucket) mappedHandler, predicate, resolvedHandler));
+				}
+				else {
 
-			if (logger.isDebugEnabled()) {
-				logger.debug("Mapped key [" + lookupKey + "] onto handler [" + resolvedHandler + "]");
+					// Add the single handler to the map.
+					this.handlerMap.put(lookupKey, resolvedHandler);
+				}
+
+				if (logger.isDebugEnabled()) {
+					logger.debug("Mapped key [" + lookupKey + "] onto handler [" + resolvedHandler + "]");
+				}
 			}
 		}
 	}
@@ -208,8 +273,20 @@ public abstract class AbstractMapBasedHandlerMapping<K> extends AbstractHandlerM
 		}
 	}
 
+	private boolean isCacheableHandler(Object handler) {
+
+		if (handler instanceof String) {
+			return getApplicationContext().isSingleton((String) handler);
+		}
+
+		return true;
+	}
+
 	/**
 	 * Predicate interface for determining a match with a given request.
+	 *
+	 * <p>The natural order of the predicates registered under a lookup key must be a total order: the predicates are
+	 * sorted once at registration time, and the first matching predicate in that order is chosen for a request.
 	 */
 	protected interface PortletRequestMappingPredicate extends Comparable<PortletRequestMappingPredicate> {
 
@@ -228,6 +305,82 @@ public abstract class AbstractMapBasedHandlerMapping<K> extends AbstractHandlerM
 		 * @throws  PortletException  if validation failed
 		 */
 		void validate(PortletRequest request) throws PortletException;
+
+		/**
+		 * Return the names of the request parameters that this predicate evaluates in addition to the lifecycle phase,
+		 * the portlet mode, the window state, the action name, the resource ID and the event QName.
+		 *
+		 * <p>The default implementation returns {@code null}, indicating that the match may depend on further request
+		 * state and must not be cached.
+		 *
+		 * @return  the parameter names (possibly empty), or {@code null} if unknown
+		 *
+		 * @see     com.liferay.portletmvc4spring.CacheableHandlerMapping#getRoutingParameterNames()
+		 */
+		default Set<String> getRoutingParameterNames() {
+			return null;
+		}
+
+		/**
+		 * Return the values that this predicate compares the given request parameter with.
+		 *
+		 * <p>The default implementation returns {@code null}, indicating that the match may depend on any value.
+		 *
+		 * @param   parameterName  one of the names returned by {@link #getRoutingParameterNames()}
+		 *
+		 * @return  the values (empty if only the presence of the parameter is checked), or {@code null} if unknown
+		 *
+		 * @see     com.liferay.portletmvc4spring.CacheableHandlerMapping#getRoutingParameterValues(String)
+		 */
+		default Set<String> getRoutingParameterValues(String parameterName) {
+			return null;
+		}
+	}
+
+	/**
+	 * Immutable holder for the handlers registered with a predicate under the same lookup key, with the predicates
+	 * presorted by their natural order.
+	 */
+	private static final class PredicateBucket {
+
+		private final Map<PortletRequestMappingPredicate, Object> handlers;
+
+		private final PortletRequestMappingPredicate[] sortedPredicates;
+
+		public PredicateBucket(PredicateBucket bucket, PortletRequestMappingPredicate predicate, Object handler) {
+			Map<PortletRequestMappingPredicate, Object> handlers = new LinkedHashMap<PortletRequestMappingPredicate,
+				Object>();
+
+			if (bucket != null) {
+				handlers.putAll(bucket.handlers);
+			}
+
+			handlers.put(predicate, handler);
+			this.handlers = Collections.unmodifiableMap(handlers);
+
+			// Stable sort: equally ranked predicates keep their registration order.
+			this.sortedPredicates = handlers.keySet().toArray(new PortletRequestMappingPredicate[handlers.size()]);
+			Arrays.sort(this.sortedPredicates);
+		}
+
+		public Object getHandler(PortletRequest request) throws PortletException {
+
+			for (PortletRequestMappingPredicate predicate : this.sortedPredicates) {
+
+				if (predicate.match(request)) {
+					predicate.validate(request);
+
+					return this.handlers.get(predicate);
+				}
+			}
+
+			return null;
+		}
+
+		@Override
+		public String toString() {
+			return this.handlers.toString();
+		}
 	}
 
 }
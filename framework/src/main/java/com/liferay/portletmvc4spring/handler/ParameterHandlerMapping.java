@@ -16,6 +16,7 @@
 package com.liferay.portletmvc4spring.handler;
 
 import java.util.Map;
+import java.util.Set;
 
 import jakarta.portlet.PortletRequest;
 
@@ -60,6 +61,40 @@ public class ParameterHandlerMapping extends AbstractMapBasedHandlerMapping<Stri
 
 	private Map<String, ?> parameterMap;
 
+	/**
+	 * Returns the name of the specified parameter in addition to the parameter names evaluated by the registered
+	 * predicates, if any.
+	 *
+	 * @see  #setParameterName
+	 */
+	@Override
+	public Set<String> getRoutingParameterNames() {
+		Set<String> parameterNames = getMappedParameterNames();
+
+		if (parameterNames != null) {
+			parameterNames.add(this.parameterName);
+		}
+
+		return parameterNames;
+	}
+
+	/**
+	 * Returns the registered parameter values for the specified parameter, in addition to the values compared by the
+	 * registered predicates, if any.
+	 *
+	 * @see  #setParameterName
+	 */
+	@Override
+	public Set<String> getRoutingParameterValues(String parameterName) {
+		Set<String> values = super.getRoutingParameterValues(parameterName);
+
+		if ((values != null) && this.parameterName.equals(parameterName)) {
+			values.addAll(getLookupKeys());
+		}
+
+		return values;
+	}
+
 	/**
 	 * Calls the {@code registerHandlers} method in addition to the superclass's initialization.
 	 *
@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.handler;
+
+import jakarta.portlet.PortletRequest;
+
+
+/**
+ * Strategy for computing the validation token (ETag) of the content that a handler produces for a render or resource
+ * request, declared through the {@code etagGenerator} attribute of {@link
+ * com.liferay.portletmvc4spring.bind.annotation.RenderMapping} and {@link
+ * com.liferay.portletmvc4spring.bind.annotation.ResourceMapping}. If the portlet container holds cached content with
+ * the same validation token, the handler method is not invoked and the cached content is used.
+ *
+ * <p>Implementations are obtained as the unique bean of their type in the application context, or instantiated and
+ * autowired otherwise. They need to be thread-safe, and should be cheaper than generating the content.
+ *
+ * @author  Neil Griffin
+ * @since   6.0
+ * @see     com.liferay.portletmvc4spring.context.PortletWebRequest#checkNotModified(String)
+ */
+public interface PortletETagGenerator {
+
+	/**
+	 * Compute the validation token of the content for the given request.
+	 *
+	 * @param   request  current portlet render or resource request
+	 *
+	 * @return  the validation token, or {@code null} if the content cannot be validated
+	 *
+	 * @throws  Exception  if the validation token could not be computed
+	 */
+	String generateETag(PortletRequest request) throws Exception;
+
+}
@@ -18,6 +18,7 @@ package com.liferay.portletmvc4spring.handler;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 
 import jakarta.portlet.PortletMode;
 import jakarta.portlet.PortletRequest;
@@ -27,6 +28,8 @@ import org.springframework.beans.BeansException;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 
+import com.liferay.portletmvc4spring.util.PortletStateRegistry;
+
 
 /**
  * Implementation of the {@link com.liferay.portletmvc4spring.HandlerMapping} interface to map from the current
@@ -54,6 +57,15 @@ public class PortletModeHandlerMapping extends AbstractMapBasedHandlerMapping<Po
 
 	private final Map<String, Object> portletModeMap = new HashMap<String, Object>();
 
+	/**
+	 * Returns the parameter names evaluated by the registered predicates, if any, since the lookup key is the current
+	 * PortletMode.
+	 */
+	@Override
+	public Set<String> getRoutingParameterNames() {
+		return getMappedParameterNames();
+	}
+
 	/**
 	 * Calls the {@code registerHandlers} method in addition to the superclass's initialization.
 	 *
@@ -100,7 +112,7 @@ public class PortletModeHandlerMapping extends AbstractMapBasedHandlerMapping<Po
 		Assert.notNull(portletModeMap, "'portletModeMap' must not be null");
 
 		for (Map.Entry<String, Object> entry : portletModeMap.entrySet()) {
-			registerHandler(new PortletMode(entry.getKey()), entry.getValue());
+			registerHandler(PortletStateRegistry.getPortletMode(entry.getKey()), entry.getValue());
 		}
 	}
 
@@ -26,6 +26,8 @@ import org.springframework.beans.BeansException;
 
 import org.springframework.util.Assert;
 
+import com.liferay.portletmvc4spring.util.PortletStateRegistry;
+
 
 /**
  * Implementation of the {@link com.liferay.portletmvc4spring.HandlerMapping} interface to map from the current
@@ -88,6 +90,40 @@ public class PortletModeParameterHandlerMapping extends AbstractMapBasedHandlerM
 
 	private final Set<String> parametersUsed = new HashSet<String>();
 
+	/**
+	 * Returns the name of the specified parameter in addition to the parameter names evaluated by the registered
+	 * predicates, if any.
+	 *
+	 * @see  #setParameterName
+	 */
+	@Override
+	public Set<String> getRoutingParameterNames() {
+		Set<String> parameterNames = getMappedParameterNames();
+
+		if (parameterNames != null) {
+			parameterNames.add(this.parameterName);
+		}
+
+		return parameterNames;
+	}
+
+	/**
+	 * Returns the values of the specified parameter registered for any portlet mode, in addition to the values compared
+	 * by the registered predicates, if any.
+	 *
+	 * @see  #setParameterName
+	 */
+	@Override
+	public Set<String> getRoutingParameterValues(String parameterName) {
+		Set<String> values = super.getRoutingParameterValues(parameterName);
+
+		if ((values != null) && this.parameterName.equals(parameterName)) {
+			values.addAll(this.parametersUsed);
+		}
+
+		return values;
+	}
+
 	/**
 	 * Calls the {@code registerHandlers} method in addition to the superclass's initialization.
 	 *
@@ -195,7 +231,7 @@ public class PortletModeParameterHandlerMapping extends AbstractMapBasedHandlerM
 		Assert.notNull(portletModeParameterMap, "'portletModeParameterMap' must not be null");
 
 		for (Map.Entry<String, Map<String, ?>> entry : portletModeParameterMap.entrySet()) {
-			PortletMode mode = new PortletMode(entry.getKey());
+			PortletMode mode = PortletStateRegistry.getPortletMode(entry.getKey());
 			registerHandler(mode, entry.getValue());
 		}
 	}
@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.handler;
+
+import jakarta.portlet.PortletException;
+import jakarta.portlet.PortletRequest;
+import jakarta.portlet.PortletSession;
+
+
+/**
+ * Strategy for serializing the handler invocations of the same client, used by controllers and the {@link
+ * com.liferay.portletmvc4spring.mvc.method.annotation.PortletRequestMappingHandlerAdapter} that are configured to
+ * synchronize on the session, as an alternative to synchronizing on the session mutex.
+ *
+ * @author  Neil Griffin
+ * @since   6.0
+ * @see     StripedPortletSessionLockStrategy
+ * @see     com.liferay.portletmvc4spring.mvc.AbstractController#setSessionLockStrategy
+ */
+public interface PortletSessionLockStrategy {
+
+	/**
+	 * Acquire the lock that guards the handler invocation for the given request, waiting if necessary.
+	 *
+	 * @param   request  current portlet request
+	 * @param   session  the session of the request
+	 *
+	 * @return  the acquired lock, to be closed when the handler invocation is complete
+	 *
+	 * @throws  PortletException  if the lock could not be acquired
+	 */
+	SessionLock lock(PortletRequest request, PortletSession session) throws PortletException;
+
+	/**
+	 * A lock acquired by a {@link PortletSessionLockStrategy}.
+	 */
+	interface SessionLock extends AutoCloseable {
+
+		/**
+		 * Release this lock.
+		 */
+		@Override
+		void close();
+	}
+
+}
@@ -0,0 +1,688 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.handler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import jakarta.portlet.PortletConfig;
+import jakarta.portlet.PortletMode;
+import jakarta.portlet.PortletRequest;
+import jakarta.portlet.PortletSession;
+import jakarta.portlet.RenderParameters;
+import jakarta.portlet.RenderRequest;
+import jakarta.portlet.RenderResponse;
+import jakarta.portlet.WindowState;
+import jakarta.portlet.filter.RenderResponseWrapper;
+
+import org.springframework.util.Assert;
+
+import com.liferay.portletmvc4spring.ModelAndView;
+import com.liferay.portletmvc4spring.ResponseWrappingHandlerInterceptor;
+import com.liferay.portletmvc4spring.context.PortletConfigAware;
+
+
+/**
+ * Interceptor that caches the markup of the render phase, for portlets that render the same markup for all requests
+ * with the same portlet mode, window state, render parameters and locale. Each portlet window has its own entries. On
+ * a cache hit, the cached markup is written to the render response, and neither the handler nor the view are invoked.
+ * On a cache miss, the markup is captured while it is written to the render response, and cached if both the handler
+ * and the view complete without an exception. Markup that an exception resolver rendered for an exception thrown by
+ * the handler is never cached.
+ *
+ * <p>Entries are evicted when their {@link #setTimeToLive time to live} has elapsed, and in approximately least
+ * recently used order when the {@link #setMaxEntries maximum number of entries} is reached. Cache lookups do not lock,
+ * so that concurrent render requests for different portlet windows and users do not contend for the cache. In the
+ * default private scope, entries are cached per user (or per portlet session for unauthenticated users, which are not
+ * cached without a session); in the {@link #setPublicScope public scope}, entries are shared among all users. If the
+ * markup depends on the roles of the user, the roles can be made part of the cache key through {@link #setRoles}.
+ *
+ * <p>Action and event handlers that change the state that the markup is rendered from can inject this interceptor
+ * and call {@link #invalidate()} or {@link #invalidate(PortletRequest)}.
+ *
+ * <p>Note that a portlet container may unwrap the response when including the ViewRendererServlet, in which case the
+ * markup is not captured. Empty markup is never cached.
+ *
+ * @author  Neil Griffin
+ * @since   6.0
+ * @see     com.liferay.portletmvc4spring.ResponseWrappingHandlerInterceptor
+ */
+public class RenderFragmentCacheInterceptor extends HandlerInterceptorAdapter
+	implements ResponseWrappingHandlerInterceptor, PortletConfigAware {
+
+	private static final String CACHE_KEY_ATTRIBUTE = RenderFragmentCacheInterceptor.class.getName() + ".KEY";
+
+	private static final String HANDLED_ATTRIBUTE = RenderFragmentCacheInterceptor.class.getName() + ".HANDLED";
+
+	private final FragmentCache cache = new FragmentCache();
+
+	private final LongAdder hits = new LongAdder();
+
+	private int maxEntries = 256;
+
+	private final LongAdder misses = new LongAdder();
+
+	private String portletName;
+
+	private boolean publicScope = false;
+
+	private String[] roles = new String[0];
+
+	private long timeToLiveNanos = TimeUnit.SECONDS.toNanos(60);
+
+	@Override
+	public void afterRenderCompletion(RenderRequest request, RenderResponse response, Object handler, Exception ex) {
+		FragmentKey key = (FragmentKey) request.getAttribute(CACHE_KEY_ATTRIBUTE);
+
+		if (key == null) {
+			return;
+		}
+
+		boolean handled = (request.getAttribute(HANDLED_ATTRIBUTE) != null);
+		request.removeAttribute(CACHE_KEY_ATTRIBUTE);
+		request.removeAttribute(HANDLED_ATTRIBUTE);
+
+		// Without the postHandleRender callback, the handler threw an exception and the markup is that of an error
+		// view rendered by an exception resolver.
+		CapturingRenderResponse capturingResponse = findCapturingResponse(response);
+
+		if (!handled || (ex != null) || (capturingResponse == null)) {
+			return;
+		}
+
+		Fragment fragment = capturingResponse.toFragment(System.nanoTime() + this.timeToLiveNanos);
+
+		if (fragment != null) {
+			this.cache.put(key, fragment);
+		}
+	}
+
+	/**
+	 * Return the number of render requests that have been served from the cache.
+	 */
+	public long getHitCount() {
+		return this.hits.sum();
+	}
+
+	/**
+	 * Return the number of cacheable render requests that had to be rendered by the handler.
+	 */
+	public long getMissCount() {
+		return this.misses.sum();
+	}
+
+	/**
+	 * Remove all cached markup.
+	 */
+	public void invalidate() {
+		this.cache.clear();
+	}
+
+	/**
+	 * Remove the cached markup that is visible to the user of the given request, e.g. from an action or event handler
+	 * that changed the state that the markup is rendered from. In the public scope, this removes all cached markup.
+	 *
+	 * @param  request  current portlet request of any lifecycle phase
+	 */
+	public void invalidate(PortletRequest request) {
+
+		if (this.publicScope) {
+			invalidate();
+
+			return;
+		}
+
+		String owner = getOwner(request);
+
+		if (owner == null) {
+			return;
+		}
+
+		this.cache.removeOwner(owner);
+	}
+
+	@Override
+	public void postHandleRender(RenderRequest request, RenderResponse response, Object handler,
+		ModelAndView modelAndView) {
+
+		if (request.getAttribute(CACHE_KEY_ATTRIBUTE) != null) {
+			request.setAttribute(HANDLED_ATTRIBUTE, Boolean.TRUE);
+		}
+	}
+
+	@Override
+	public boolean preHandleRender(RenderRequest request, RenderResponse response, Object handler)
+		throws IOException {
+
+		FragmentKey key = createKey(request);
+
+		if (key == null) {
+			return true;
+		}
+
+		// An expired fragment is replaced when the markup has been rendered again.
+		Fragment fragment = this.cache.get(key);
+
+		if ((fragment == null) || (fragment.expirationTime - System.nanoTime() <= 0)) {
+			this.misses.increment();
+			request.setAttribute(CACHE_KEY_ATTRIBUTE, key);
+
+			return true;
+		}
+
+		this.hits.increment();
+		fragment.writeTo(response);
+
+		return false;
+	}
+
+	/**
+	 * Set the maximum number of cached markup fragments. Default is 256. When the limit is reached, a fragment that has
+	 * not been used since the last eviction is evicted.
+	 */
+	public void setMaxEntries(int maxEntries) {
+		Assert.isTrue(maxEntries > 0, "Max entries must be greater than 0");
+		this.maxEntries = maxEntries;
+	}
+
+	@Override
+	public void setPortletConfig(PortletConfig portletConfig) {
+		this.portletName = portletConfig.getPortletName();
+	}
+
+	/**
+	 * Set whether the cached markup is shared among all users. Default is "false", caching the markup per user.
+	 */
+	public void setPublicScope(boolean publicScope) {
+		this.publicScope = publicScope;
+	}
+
+	/**
+	 * Set the roles that the markup depends on. Whether the user is in each of these roles, as evaluated by {@link
+	 * PortletRequest#isUserInRole}, is part of the cache key.
+	 *
+	 * @param  roles  array of role names
+	 */
+	public void setRoles(String... roles) {
+		this.roles = roles;
+	}
+
+	/**
+	 * Set the number of seconds that cached markup is used for. Default is 60.
+	 */
+	public void setTimeToLive(int seconds) {
+		Assert.isTrue(seconds > 0, "Time to live must be greater than 0");
+		this.timeToLiveNanos = TimeUnit.SECONDS.toNanos(seconds);
+	}
+
+	@Override
+	public RenderResponse wrapRenderResponse(RenderRequest request, RenderResponse response, Object handler) {
+
+		if (request.getAttribute(CACHE_KEY_ATTRIBUTE) == null) {
+			return response;
+		}
+
+		return new CapturingRenderResponse(response);
+	}
+
+	private FragmentKey createKey(RenderRequest request) {
+		String owner = null;
+
+		if (!this.publicScope) {
+			owner = getOwner(request);
+
+			if (owner == null) {
+				return null;
+			}
+		}
+
+		boolean[] userRoles = new boolean[this.roles.length];
+
+		for (int i = 0; i < this.roles.length; i++) {
+			userRoles[i] = request.isUserInRole(this.roles[i]);
+		}
+
+		RenderParameters renderParameters = request.getRenderParameters();
+		Map<String, String[]> parameters = new TreeMap<String, String[]>();
+
+		for (String name : renderParameters.getNames()) {
+			parameters.put(name, renderParameters.getValues(name));
+		}
+
+		return new FragmentKey(this.portletName, request.getWindowID(), request.getPortletMode(),
+				request.getWindowState(), request.getLocale(), owner, userRoles, parameters);
+	}
+
+	private CapturingRenderResponse findCapturingResponse(RenderResponse response) {
+
+		while (response instanceof RenderResponseWrapper) {
+
+			if (response instanceof CapturingRenderResponse) {
+				return (CapturingRenderResponse) response;
+			}
+
+			response = ((RenderResponseWrapper) response).getResponse();
+		}
+
+		return null;
+	}
+
+	private String getOwner(PortletRequest request) {
+		String remoteUser = request.getRemoteUser();
+
+		if (remoteUser != null) {
+			return remoteUser;
+		}
+
+		PortletSession session = request.getPortletSession(false);
+
+		return (session != null) ? session.getId() : null;
+	}
+
+	/**
+	 * Render response that captures the content that is written to the wrapped response.
+	 */
+	private static class CapturingRenderResponse extends RenderResponseWrapper {
+
+		private ByteArrayOutputStream bytes;
+
+		private CharArrayWriter chars;
+
+		private String contentType;
+
+		private OutputStream outputStream;
+
+		private String title;
+
+		private PrintWriter writer;
+
+		public CapturingRenderResponse(RenderResponse response) {
+			super(response);
+		}
+
+		@Override
+		public OutputStream getPortletOutputStream() throws IOException {
+
+			if (this.outputStream == null) {
+				final OutputStream target = super.getPortletOutputStream();
+				final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+				this.bytes = bytes;
+				this.outputStream = new OutputStream() {
+
+						@Override
+						public void flush() throws IOException {
+							target.flush();
+						}
+
+						@Override
+						public void write(byte[] b, int off, int len) throws IOException {
+							target.write(b, off, len);
+							bytes.write(b, off, len);
+						}
+
+						@Override
+						public void write(int b) throws IOException {
+							target.write(b);
+							bytes.write(b);
+						}
+					};
+			}
+
+			return this.outputStream;
+		}
+
+		@Override
+		public PrintWriter getWriter() throws IOException {
+
+			if (this.writer == null) {
+				final PrintWriter target = super.getWriter();
+				final CharArrayWriter chars = new CharArrayWriter();
+
+				this.chars = chars;
+				this.writer = new PrintWriter(new Writer() {
+
+							@Override
+							public void close() {
+								target.close();
+							}
+
+							@Override
+							public void flush() {
+								target.flush();
+							}
+
+							@Override
+							public void write(char[] cbuf, int off, int len) {
+								target.write(cbuf, off, len);
+								chars.write(cbuf, off, len);
+							}
+						});
+			}
+
+			return this.writer;
+		}
+
+		@Override
+		public void reset() {
+			super.reset();
+			resetCapture();
+		}
+
+		@Override
+		public void resetBuffer() {
+			super.resetBuffer();
+			resetCapture();
+		}
+
+		@Override
+		public void setContentType(String type) {
+			super.setContentType(type);
+			this.contentType = type;
+		}
+
+		@Override
+		public void setTitle(String title) {
+			super.setTitle(title);
+			this.title = title;
+		}
+
+		public Fragment toFragment(long expirationTime) {
+
+			if (this.writer != null) {
+				this.writer.flush();
+			}
+
+			if ((this.chars != null) && (this.chars.size() > 0)) {
+				return new Fragment(this.contentType, this.title, this.chars.toCharArray(), null, expirationTime);
+			}
+
+			if ((this.bytes != null) && (this.bytes.size() > 0)) {
+				return new Fragment(this.contentType, this.title, null, this.bytes.toByteArray(), expirationTime);
+			}
+
+			return null;
+		}
+
+		private void resetCapture() {
+
+			if (this.bytes != null) {
+				this.bytes.reset();
+			}
+
+			if (this.chars != null) {
+				this.chars.reset();
+			}
+		}
+	}
+
+	/**
+	 * Cached markup, with the content type and the title that were set while rendering it.
+	 */
+	private static class Fragment {
+
+		private final byte[] bytes;
+
+		private final char[] chars;
+
+		private final String contentType;
+
+		private final long expirationTime;
+
+		private final String title;
+
+		public Fragment(String contentType, String title, char[] chars, byte[] bytes, long expirationTime) {
+			this.contentType = contentType;
+			this.title = title;
+			this.chars = chars;
+			this.bytes = bytes;
+			this.expirationTime = expirationTime;
+		}
+
+		public void writeTo(RenderResponse response) throws IOException {
+
+			if (this.contentType != null) {
+				response.setContentType(this.contentType);
+			}
+
+			if (this.title != null) {
+				response.setTitle(this.title);
+			}
+
+			if (this.chars != null) {
+				response.getWriter().write(this.chars);
+			}
+			else {
+				response.getPortletOutputStream().write(this.bytes);
+			}
+		}
+	}
+
+	/**
+	 * Bounded cache of the fragments that does not lock on lookups. Like the handler and view caches of the
+	 * DispatcherPortlet, it evicts entries with the CLOCK approximation of least recently used order: each entry is
+	 * flagged when it is used, and eviction gives flagged entries a second chance. Entries are replaced in place, so
+	 * that re-rendering an expired fragment does not queue its key again. Entries that have been removed through an
+	 * invalidation are dropped from the queue once it holds twice the maximum number of entries.
+	 */
+	private final class FragmentCache {
+
+		private final Map<FragmentKey, CacheEntry> entries = new ConcurrentHashMap<FragmentKey, CacheEntry>();
+
+		private final Queue<CacheEntry> evictionQueue = new ConcurrentLinkedQueue<CacheEntry>();
+
+		private final AtomicInteger queueSize = new AtomicInteger();
+
+		public void clear() {
+			this.entries.clear();
+		}
+
+		public Fragment get(FragmentKey key) {
+			CacheEntry entry = this.entries.get(key);
+
+			if (entry == null) {
+				return null;
+			}
+
+			if (!entry.referenced) {
+				entry.referenced = true;
+			}
+
+			return entry.fragment;
+		}
+
+		public void put(FragmentKey key, Fragment fragment) {
+			CacheEntry entry = this.entries.get(key);
+
+			if (entry == null) {
+				CacheEntry newEntry = new CacheEntry(key, fragment);
+				entry = this.entries.putIfAbsent(key, newEntry);
+
+				if (entry == null) {
+					this.evictionQueue.offer(newEntry);
+
+					if ((this.queueSize.incrementAndGet() > (2 * maxEntries)) || (this.entries.size() > maxEntries)) {
+						evict();
+					}
+
+					return;
+				}
+			}
+
+			entry.fragment = fragment;
+			entry.referenced = true;
+		}
+
+		public void removeOwner(String owner) {
+			this.entries.keySet().removeIf(key -> owner.equals(key.owner));
+		}
+
+		private void evict() {
+
+			synchronized (this.evictionQueue) {
+				int limit = maxEntries;
+
+				// A full pass over the queue drops the entries that are no longer cached.
+				int purgeCount = (this.queueSize.get() > (2 * limit)) ? this.queueSize.get() : 0;
+
+				while ((purgeCount-- > 0) || (this.entries.size() > limit)) {
+					CacheEntry candidate = this.evictionQueue.poll();
+
+					if (candidate == null) {
+						break;
+					}
+
+					this.queueSize.decrementAndGet();
+
+					if (this.entries.get(candidate.key) != candidate) {
+						continue;
+					}
+
+					if (this.entries.size() > limit) {
+
+						if (!candidate.referenced) {
+							this.entries.remove(candidate.key, candidate);
+
+							continue;
+						}
+
+						candidate.referenced = false;
+					}
+
+					this.evictionQueue.offer(candidate);
+					this.queueSize.incrementAndGet();
+				}
+			}
+		}
+
+		private final class CacheEntry {
+
+			private volatile Fragment fragment;
+
+			private final FragmentKey key;
+
+			private volatile boolean referenced = true;
+
+			public CacheEntry(FragmentKey key, Fragment fragment) {
+				this.key = key;
+				this.fragment = fragment;
+			}
+		}
+	}
+
+	/**
+	 * Key for the markup of a portlet window, consisting of the render state, the locale, the owner in the private
+	 * scope and the role memberships that the markup depends on.
+	 */
+	private static final class FragmentKey {
+
+		private final int hashCode;
+
+		private final Locale locale;
+
+		private final String owner;
+
+		private final Map<String, String[]> parameters;
+
+		private final PortletMode portletMode;
+
+		private final String portletName;
+
+		private final boolean[] userRoles;
+
+		private final String windowID;
+
+		private final WindowState windowState;
+
+		public FragmentKey(String portletName, String windowID, PortletMode portletMode, WindowState windowState,
+			Locale locale, String owner, boolean[] userRoles, Map<String, String[]> parameters) {
+
+			this.portletName = portletName;
+			this.windowID = windowID;
+			this.portletMode = portletMode;
+			this.windowState = windowState;
+			this.locale = locale;
+			this.owner = owner;
+			this.userRoles = userRoles;
+			this.parameters = parameters;
+
+			int hashCode = Objects.hash(portletName, windowID, portletMode, windowState, locale, owner);
+			hashCode = (31 * hashCode) + Arrays.hashCode(userRoles);
+
+			for (Map.Entry<String, String[]> entry : parameters.entrySet()) {
+				hashCode = (31 * hashCode) + entry.getKey().hashCode();
+				hashCode = (31 * hashCode) + Arrays.hashCode(entry.getValue());
+			}
+
+			this.hashCode = hashCode;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+
+			if (this == other) {
+				return true;
+			}
+
+			if (!(other instanceof FragmentKey)) {
+				return false;
+			}
+
+			FragmentKey otherKey = (FragmentKey) other;
+
+			if ((this.hashCode != otherKey.hashCode) || !Objects.equals(this.portletName, otherKey.portletName) ||
+					!Objects.equals(this.windowID, otherKey.windowID) ||
+					!Objects.equals(this.portletMode, otherKey.portletMode) ||
+					!Objects.equals(this.windowState, otherKey.windowState) ||
+					!Objects.equals(this.locale, otherKey.locale) || !Objects.equals(this.owner, otherKey.owner) ||
+					!Arrays.equals(this.userRoles, otherKey.userRoles) ||
+					(this.parameters.size() != otherKey.parameters.size())) {
+
+				return false;
+			}
+
+			for (Map.Entry<String, String[]> entry : this.parameters.entrySet()) {
+
+				if (!Arrays.equals(entry.getValue(), otherKey.parameters.get(entry.getKey()))) {
+					return false;
+				}
+			}
+
+			return true;
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+	}
+
+}
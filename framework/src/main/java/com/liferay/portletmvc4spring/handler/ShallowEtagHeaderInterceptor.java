@@ -0,0 +1,339 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.handler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import jakarta.portlet.ResourceRequest;
+import jakarta.portlet.ResourceResponse;
+import jakarta.portlet.filter.ResourceResponseWrapper;
+
+import org.springframework.http.HttpHeaders;
+
+import org.springframework.util.DigestUtils;
+
+import com.liferay.portletmvc4spring.AsyncHandlerInterceptor;
+import com.liferay.portletmvc4spring.ResponseWrappingHandlerInterceptor;
+import com.liferay.portletmvc4spring.util.PortletUtils;
+
+
+/**
+ * Interceptor that generates an {@code ETag} header for resource responses, based on an MD5 hash of the content that
+ * the handler and its view produce. The content is buffered, and if the {@code If-None-Match} header of a conditional
+ * GET request matches the generated ETag, it is discarded in favor of a 304 status code.
+ *
+ * <p>This is the portlet counterpart of Spring's {@code ShallowEtagHeaderFilter}: it saves bandwidth, but not server
+ * performance, since the content is still generated for each request. Handlers that can determine the validity of
+ * their content upfront should call {@code WebRequest.checkNotModified} instead. Responses with a status code other
+ * than 2xx, and responses that already carry an {@code ETag} header, are passed through unchanged. Buffering stops as
+ * soon as the handler starts asynchronous processing, so that streamed content is not held back.
+ *
+ * @author  Neil Griffin
+ * @since   6.0
+ * @see     com.liferay.portletmvc4spring.util.PortletUtils#checkNotModified
+ */
+public class ShallowEtagHeaderInterceptor extends HandlerInterceptorAdapter
+	implements ResponseWrappingHandlerInterceptor, AsyncHandlerInterceptor {
+
+	private boolean writeWeakETag = false;
+
+	@Override
+	public void afterConcurrentResourceHandlingStarted(ResourceRequest request, ResourceResponse response,
+		Object handler) throws Exception {
+
+		BufferingResourceResponse bufferingResponse = findBufferingResponse(response);
+
+		if (bufferingResponse != null) {
+			bufferingResponse.stopBuffering();
+		}
+	}
+
+	@Override
+	public void afterResourceCompletion(ResourceRequest request, ResourceResponse response, Object handler,
+		Exception ex) throws Exception {
+
+		BufferingResourceResponse bufferingResponse = findBufferingResponse(response);
+
+		if ((bufferingResponse == null) || !bufferingResponse.isBuffering()) {
+			return;
+		}
+
+		if ((ex == null) && bufferingResponse.isEligibleForETag()) {
+			byte[] content = bufferingResponse.getContentAsByteArray();
+			StringBuilder etag = new StringBuilder(37);
+
+			if (this.writeWeakETag) {
+				etag.append("W/");
+			}
+
+			etag.append("\"0");
+			DigestUtils.appendMd5DigestAsHex(content, etag);
+			etag.append('"');
+
+			if (PortletUtils.checkNotModified(request, bufferingResponse.getResponse(), etag.toString(), -1)) {
+				return;
+			}
+		}
+
+		bufferingResponse.stopBuffering();
+	}
+
+	/**
+	 * Return whether the generated ETags are weak validators. Default is {@code false}.
+	 */
+	public boolean isWriteWeakETag() {
+		return this.writeWeakETag;
+	}
+
+	/**
+	 * Set whether to generate weak ETags (prefixed with {@code W/}) rather than strong ones, e.g. when the content is
+	 * semantically equivalent but may differ byte by byte due to compression by the portal. Default is {@code false}.
+	 */
+	public void setWriteWeakETag(boolean writeWeakETag) {
+		this.writeWeakETag = writeWeakETag;
+	}
+
+	/**
+	 * Buffer the content of GET and HEAD resource requests, which are the only ones eligible for conditional requests.
+	 */
+	@Override
+	public ResourceResponse wrapResourceResponse(ResourceRequest request, ResourceResponse response, Object handler) {
+		String method = request.getMethod();
+
+		if ("GET".equals(method) || "HEAD".equals(method)) {
+			return new BufferingResourceResponse(response);
+		}
+
+		return response;
+	}
+
+	private BufferingResourceResponse findBufferingResponse(ResourceResponse response) {
+
+		while (response instanceof ResourceResponseWrapper) {
+
+			if (response instanceof BufferingResourceResponse) {
+				return (BufferingResourceResponse) response;
+			}
+
+			response = ((ResourceResponseWrapper) response).getResponse();
+		}
+
+		return null;
+	}
+
+	/**
+	 * Resource response wrapper that holds back the content written to it, as well as its content length, until
+	 * buffering is stopped.
+	 */
+	private static class BufferingResourceResponse extends ResourceResponseWrapper {
+
+		private boolean buffering = true;
+
+		private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+
+		private long contentLength = -1;
+
+		private boolean etagSet;
+
+		private OutputStream outputStream;
+
+		private int status;
+
+		private PrintWriter writer;
+
+		public BufferingResourceResponse(ResourceResponse response) {
+			super(response);
+		}
+
+		@Override
+		public void addProperty(String key, String value) {
+			super.addProperty(key, value);
+			recordProperty(key, value);
+		}
+
+		@Override
+		public void flushBuffer() throws IOException {
+
+			// Flushing would commit the response before the ETag is set.
+			if (!this.buffering) {
+				super.flushBuffer();
+			}
+		}
+
+		public byte[] getContentAsByteArray() {
+
+			if (this.writer != null) {
+				this.writer.flush();
+			}
+
+			return this.content.toByteArray();
+		}
+
+		@Override
+		public OutputStream getPortletOutputStream() throws IOException {
+
+			if (this.outputStream == null) {
+				final OutputStream target = super.getPortletOutputStream();
+
+				this.outputStream = new OutputStream() {
+
+						@Override
+						public void flush() throws IOException {
+
+							if (!buffering) {
+								target.flush();
+							}
+						}
+
+						@Override
+						public void write(byte[] b, int off, int len) throws IOException {
+
+							if (buffering) {
+								content.write(b, off, len);
+							}
+							else {
+								target.write(b, off, len);
+							}
+						}
+
+						@Override
+						public void write(int b) throws IOException {
+
+							if (buffering) {
+								content.write(b);
+							}
+							else {
+								target.write(b);
+							}
+						}
+					};
+			}
+
+			return this.outputStream;
+		}
+
+		@Override
+		public PrintWriter getWriter() throws IOException {
+
+			if (this.writer == null) {
+				String characterEncoding = getCharacterEncoding();
+				Charset charset = StandardCharsets.UTF_8;
+
+				if (characterEncoding != null) {
+					charset = Charset.forName(characterEncoding);
+				}
+
+				// The characters are encoded here, and written as bytes to the wrapped response once buffering stops.
+				this.writer = new PrintWriter(new OutputStreamWriter(getPortletOutputStream(), charset));
+			}
+
+			return this.writer;
+		}
+
+		public boolean isBuffering() {
+			return this.buffering;
+		}
+
+		public boolean isEligibleForETag() {
+			return !this.etagSet && ((this.status == 0) || ((this.status >= 200) && (this.status < 300)));
+		}
+
+		@Override
+		public void reset() {
+			super.reset();
+			this.content.reset();
+		}
+
+		@Override
+		public void resetBuffer() {
+			super.resetBuffer();
+			this.content.reset();
+		}
+
+		@Override
+		public void setContentLength(int len) {
+			setContentLengthLong(len);
+		}
+
+		@Override
+		public void setContentLengthLong(long len) {
+
+			if (this.buffering) {
+				this.contentLength = len;
+			}
+			else {
+				super.setContentLengthLong(len);
+			}
+		}
+
+		@Override
+		public void setProperty(String key, String value) {
+			super.setProperty(key, value);
+			recordProperty(key, value);
+		}
+
+		@Override
+		public void setStatus(int status) {
+			super.setStatus(status);
+			this.status = status;
+		}
+
+		/**
+		 * Write the buffered content to the wrapped response, and pass all further content through.
+		 */
+		public void stopBuffering() throws IOException {
+
+			if (!this.buffering) {
+				return;
+			}
+
+			byte[] bytes = getContentAsByteArray();
+
+			this.buffering = false;
+
+			if (this.contentLength >= 0) {
+				super.setContentLengthLong(this.contentLength);
+			}
+
+			if (bytes.length > 0) {
+				super.getPortletOutputStream().write(bytes);
+			}
+		}
+
+		private void recordProperty(String key, String value) {
+
+			if (HttpHeaders.ETAG.equalsIgnoreCase(key)) {
+				this.etagSet = true;
+			}
+			else if (HTTP_STATUS_CODE.equals(key)) {
+
+				try {
+					this.status = Integer.parseInt(value);
+				}
+				catch (NumberFormatException ex) {
+					// Leave the status to the portlet container.
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,192 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.handler;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import jakarta.portlet.PortletException;
+import jakarta.portlet.PortletRequest;
+import jakarta.portlet.PortletSession;
+import jakarta.portlet.RenderRequest;
+import jakarta.portlet.ResourceRequest;
+
+import org.springframework.util.Assert;
+
+import com.liferay.portletmvc4spring.observation.PortletObservation;
+
+
+/**
+ * {@link PortletSessionLockStrategy} that locks one of a fixed number of {@link ReentrantReadWriteLock} stripes,
+ * selected by the session ID and the portlet window ID of the request. Requests of different portlet windows or
+ * different sessions therefore usually do not block each other, and waiting requests do not pin the carrier thread of
+ * a virtual thread.
+ *
+ * <p>Render and header requests, as well as resource requests with the {@code GET} or {@code HEAD} method, only take a
+ * shared lock, so that they can be processed in parallel. All other requests, like action, event and {@code POST}
+ * resource requests, take an exclusive lock.
+ *
+ * <p>The time spent waiting for a lock is reported as {@link PortletObservation.Stage#SESSION_LOCK} stage of the
+ * current {@link PortletObservation}, and accumulated in {@link #getWaitTimeNanos()}. Note that the locks cannot be
+ * upgraded: a thread that holds a shared lock must not request an exclusive lock for a request of the same stripe.
+ *
+ * @author  Neil Griffin
+ * @since   6.0
+ */
+public class StripedPortletSessionLockStrategy implements PortletSessionLockStrategy {
+
+	private final ReentrantReadWriteLock[] locks;
+
+	private long lockTimeout = -1;
+
+	private final LongAdder timeoutCount = new LongAdder();
+
+	private final LongAdder waitTimeNanos = new LongAdder();
+
+	/**
+	 * Create a new instance with 64 lock stripes.
+	 */
+	public StripedPortletSessionLockStrategy() {
+		this(64);
+	}
+
+	/**
+	 * Create a new instance with the given number of lock stripes.
+	 *
+	 * @param  stripes  the minimum number of lock stripes, rounded up to a power of two
+	 */
+	public StripedPortletSessionLockStrategy(int stripes) {
+		Assert.isTrue(stripes > 0, "Number of stripes must be positive");
+		int size = 1;
+
+		while (size < stripes) {
+			size <<= 1;
+		}
+
+		this.locks = new ReentrantReadWriteLock[size];
+
+		for (int i = 0; i < this.locks.length; i++) {
+			this.locks[i] = new ReentrantReadWriteLock();
+		}
+	}
+
+	/**
+	 * Return the number of lock requests that timed out.
+	 *
+	 * @see  #setLockTimeout
+	 */
+	public long getTimeoutCount() {
+		return this.timeoutCount.sum();
+	}
+
+	/**
+	 * Return the total time in nanoseconds that requests have spent waiting for a lock.
+	 */
+	public long getWaitTimeNanos() {
+		return this.waitTimeNanos.sum();
+	}
+
+	@Override
+	public SessionLock lock(PortletRequest request, PortletSession session) throws PortletException {
+		ReentrantReadWriteLock readWriteLock = this.locks[getStripe(session.getId(), request.getWindowID())];
+		Lock lock = isExclusive(request) ? readWriteLock.writeLock() : readWriteLock.readLock();
+
+		if (!lock.tryLock()) {
+			PortletObservation observation = PortletObservation.getObservation(request);
+			long startTime = observation.startTimer(PortletObservation.Stage.SESSION_LOCK);
+			long waitStartTime = System.nanoTime();
+			boolean failed = true;
+
+			try {
+				boolean locked = true;
+
+				if (this.lockTimeout < 0) {
+					lock.lockInterruptibly();
+				}
+				else {
+					locked = lock.tryLock(this.lockTimeout, TimeUnit.MILLISECONDS);
+				}
+
+				if (!locked) {
+					this.timeoutCount.increment();
+					throw new PortletException("Timed out after " + this.lockTimeout +
+						" ms waiting for the session lock of portlet window [" + request.getWindowID() + "]");
+				}
+
+				failed = false;
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new PortletException("Interrupted while waiting for the session lock of portlet window [" +
+					request.getWindowID() + "]", ex);
+			}
+			finally {
+				this.waitTimeNanos.add(System.nanoTime() - waitStartTime);
+				observation.stopTimer(PortletObservation.Stage.SESSION_LOCK, startTime, failed);
+			}
+		}
+
+		return lock::unlock;
+	}
+
+	/**
+	 * Set the maximum time in milliseconds to wait for a lock, after which the request fails with a {@link
+	 * PortletException}.
+	 *
+	 * <p>Default is -1, waiting indefinitely.
+	 *
+	 * @see  #getTimeoutCount()
+	 */
+	public void setLockTimeout(long lockTimeout) {
+		this.lockTimeout = lockTimeout;
+	}
+
+	/**
+	 * Determine whether the given request requires an exclusive lock.
+	 *
+	 * <p>The default implementation returns {@code false} for render and header requests, and for resource requests
+	 * with the {@code GET} or {@code HEAD} method.
+	 *
+	 * @param   request  current portlet request
+	 *
+	 * @return  {@code true} for an exclusive lock; {@code false} for a shared lock
+	 */
+	protected boolean isExclusive(PortletRequest request) {
+
+		if (request instanceof RenderRequest) {
+			return false;
+		}
+
+		if (request instanceof ResourceRequest) {
+			String method = ((ResourceRequest) request).getMethod();
+
+			return !("GET".equals(method) || "HEAD".equals(method));
+		}
+
+		return true;
+	}
+
+	private int getStripe(String sessionId, String windowId) {
+		int hash = (31 * Objects.hashCode(sessionId)) + Objects.hashCode(windowId);
+
+		// Spread the higher bits, since only the lower bits select the stripe.
+		return (hash ^ (hash >>> 16)) & (this.locks.length - 1);
+	}
+
+}
@@ -25,6 +25,7 @@ import jakarta.portlet.WindowState;
 
 import com.liferay.portletmvc4spring.ModelAndView;
 import com.liferay.portletmvc4spring.handler.PortletContentGenerator;
+import com.liferay.portletmvc4spring.handler.PortletSessionLockStrategy;
 import com.liferay.portletmvc4spring.util.PortletUtils;
 
 
@@ -79,6 +80,12 @@ import com.liferay.portletmvc4spring.util.PortletUtils;
  *       PortletSession.</td>
  *   </tr>
  *   <tr>
+ *     <td>sessionLockStrategy</td>
+ *     <td>null</td>
+ *     <td>the {@link com.liferay.portletmvc4spring.handler.PortletSessionLockStrategy} to lock the session with if
+ *       synchronizeOnSession is true, instead of synchronizing on the session mutex</td>
+ *   </tr>
+ *   <tr>
  *     <td>cacheSeconds</td>
  *     <td>-1</td>
  *     <td>indicates the amount of seconds to specify caching is allowed in the render response generatedby this
@@ -115,6 +122,8 @@ public abstract class AbstractController extends PortletContentGenerator impleme
 
 	private boolean synchronizeOnSession = false;
 
+	private PortletSessionLockStrategy sessionLockStrategy;
+
 	private boolean renderWhenMinimized = false;
 
 	@Override
@@ -128,6 +137,20 @@ public abstract class AbstractController extends PortletContentGenerator impleme
 			PortletSession session = request.getPortletSession(false);
 
 			if (session != null) {
+
+				if (this.sessionLockStrategy != null) {
+					PortletSessionLockStrategy.SessionLock lock = this.sessionLockStrategy.lock(request, session);
+
+					try {
+						handleActionRequestInternal(request, response);
+
+						return;
+					}
+					finally {
+						lock.close();
+					}
+				}
+
 				Object mutex = PortletUtils.getSessionMutex(session);
 
 				synchronized (mutex) {
@@ -157,6 +180,18 @@ public abstract class AbstractController extends PortletContentGenerator impleme
 			PortletSession session = request.getPortletSession(false);
 
 			if (session != null) {
+
+				if (this.sessionLockStrategy != null) {
+					PortletSessionLockStrategy.SessionLock lock = this.sessionLockStrategy.lock(request, session);
+
+					try {
+						return handleRenderRequestInternal(request, response);
+					}
+					finally {
+						lock.close();
+					}
+				}
+
 				Object mutex = PortletUtils.getSessionMutex(session);
 
 				synchronized (mutex) {
@@ -168,6 +203,13 @@ public abstract class AbstractController extends PortletContentGenerator impleme
 		return handleRenderRequestInternal(request, response);
 	}
 
+	/**
+	 * Return the strategy for locking the session, if any.
+	 */
+	public final PortletSessionLockStrategy getSessionLockStrategy() {
+		return this.sessionLockStrategy;
+	}
+
 	/**
 	 * Return whether controller will render when portlet is minimized.
 	 */
@@ -192,6 +234,15 @@ public abstract class AbstractController extends PortletContentGenerator impleme
 		this.renderWhenMinimized = renderWhenMinimized;
 	}
 
+	/**
+	 * Set the strategy for locking the session if {@link #setSynchronizeOnSession synchronizeOnSession} is "true", for
+	 * example a {@link com.liferay.portletmvc4spring.handler.StripedPortletSessionLockStrategy} shared by all
+	 * controllers. Default is none, synchronizing on the session mutex.
+	 */
+	public final void setSessionLockStrategy(PortletSessionLockStrategy sessionLockStrategy) {
+		this.sessionLockStrategy = sessionLockStrategy;
+	}
+
 	/**
 	 * Set if controller execution should be synchronized on the session, to serialize parallel invocations from the
 	 * same client.
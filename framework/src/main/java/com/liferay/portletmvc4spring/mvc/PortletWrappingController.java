@@ -49,6 +49,7 @@ import com.liferay.portletmvc4spring.ModelAndView;
 import com.liferay.portletmvc4spring.NoHandlerFoundException;
 import com.liferay.portletmvc4spring.context.PortletConfigAware;
 import com.liferay.portletmvc4spring.context.PortletContextAware;
+import com.liferay.portletmvc4spring.handler.PortletSessionLockStrategy;
 import com.liferay.portletmvc4spring.util.PortletUtils;
 
 
@@ -148,6 +149,21 @@ public class PortletWrappingController extends AbstractController implements Res
 			PortletSession session = request.getPortletSession(false);
 
 			if (session != null) {
+				PortletSessionLockStrategy sessionLockStrategy = getSessionLockStrategy();
+
+				if (sessionLockStrategy != null) {
+					PortletSessionLockStrategy.SessionLock lock = sessionLockStrategy.lock(request, session);
+
+					try {
+						eventPortlet.processEvent(request, response);
+
+						return;
+					}
+					finally {
+						lock.close();
+					}
+				}
+
 				Object mutex = PortletUtils.getSessionMutex(session);
 
 				synchronized (mutex) {
@@ -179,6 +195,21 @@ public class PortletWrappingController extends AbstractController implements Res
 			PortletSession session = request.getPortletSession(false);
 
 			if (session != null) {
+				PortletSessionLockStrategy sessionLockStrategy = getSessionLockStrategy();
+
+				if (sessionLockStrategy != null) {
+					PortletSessionLockStrategy.SessionLock lock = sessionLockStrategy.lock(request, session);
+
+					try {
+						resourcePortlet.serveResource(request, response);
+
+						return null;
+					}
+					finally {
+						lock.close();
+					}
+				}
+
 				Object mutex = PortletUtils.getSessionMutex(session);
 
 				synchronized (mutex) {
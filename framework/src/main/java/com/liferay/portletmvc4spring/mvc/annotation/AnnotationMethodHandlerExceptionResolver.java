@@ -45,10 +45,14 @@ import jakarta.servlet.ServletRequest;
 import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpSession;
 
+import org.springframework.beans.BeansException;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+
 import org.springframework.core.ExceptionDepthComparator;
 import org.springframework.core.GenericTypeResolver;
 import org.springframework.core.MethodParameter;
-import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.core.annotation.SynthesizingMethodParameter;
 
 import org.springframework.ui.Model;
@@ -64,6 +68,7 @@ import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.View;
 
 import com.liferay.portletmvc4spring.ModelAndView;
+import com.liferay.portletmvc4spring.bind.annotation.support.PortletMappingMetadataRegistry;
 import com.liferay.portletmvc4spring.context.PortletWebRequest;
 import com.liferay.portletmvc4spring.handler.AbstractHandlerExceptionResolver;
 
@@ -78,7 +83,8 @@ import com.liferay.portletmvc4spring.handler.AbstractHandlerExceptionResolver;
  * @author  Juergen Hoeller
  * @since   3.0
  */
-public class AnnotationMethodHandlerExceptionResolver extends AbstractHandlerExceptionResolver {
+public class AnnotationMethodHandlerExceptionResolver extends AbstractHandlerExceptionResolver
+	implements ApplicationContextAware {
 
 	/** Arbitrary {@link Method} reference, indicating no method found in the cache. */
 	private static final Method NO_METHOD_FOUND = ClassUtils.getMethodIfAvailable(System.class, "currentTimeMillis");
@@ -88,6 +94,17 @@ public class AnnotationMethodHandlerExceptionResolver extends AbstractHandlerExc
 
 	private WebArgumentResolver[] customArgumentResolvers;
 
+	private PortletMappingMetadataRegistry mappingMetadataRegistry = new PortletMappingMetadataRegistry();
+
+	/**
+	 * Share the mapping metadata registry of the given application context, see {@link
+	 * PortletMappingMetadataRegistry#getRegistry}.
+	 */
+	@Override
+	public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
+		this.mappingMetadataRegistry = PortletMappingMetadataRegistry.getRegistry(applicationContext);
+	}
+
 	/**
 	 * Set a custom ArgumentResolvers to use for special method parameter types.
 	 *
@@ -152,7 +169,7 @@ public class AnnotationMethodHandlerExceptionResolver extends AbstractHandlerExc
 	@SuppressWarnings("unchecked")
 	protected List<Class<? extends Throwable>> getHandledExceptions(Method method) {
 		List<Class<? extends Throwable>> result = new ArrayList<Class<? extends Throwable>>();
-		ExceptionHandler exceptionHandler = AnnotationUtils.findAnnotation(method, ExceptionHandler.class);
+		ExceptionHandler exceptionHandler = this.mappingMetadataRegistry.getMethodMetadata(method).getExceptionHandler();
 
 		if (exceptionHandler != null) {
 
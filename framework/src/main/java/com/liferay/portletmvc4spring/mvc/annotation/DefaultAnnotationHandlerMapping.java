@@ -16,9 +16,12 @@
 package com.liferay.portletmvc4spring.mvc.annotation;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 
 import jakarta.portlet.ActionRequest;
@@ -39,19 +42,27 @@ import org.springframework.core.annotation.AnnotationUtils;
 
 import org.springframework.stereotype.Controller;
 
+import org.springframework.util.ObjectUtils;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 
+import com.liferay.portletmvc4spring.DetectingHandlerMapping;
 import com.liferay.portletmvc4spring.bind.PortletRequestBindingException;
 import com.liferay.portletmvc4spring.bind.annotation.ActionMapping;
 import com.liferay.portletmvc4spring.bind.annotation.EventMapping;
 import com.liferay.portletmvc4spring.bind.annotation.RenderMapping;
 import com.liferay.portletmvc4spring.bind.annotation.ResourceMapping;
+import com.liferay.portletmvc4spring.bind.annotation.support.PortletMappingIndex;
+import com.liferay.portletmvc4spring.bind.annotation.support.PortletMappingMetadataRegistry;
+import com.liferay.portletmvc4spring.bind.annotation.support.PortletMappingMetadataRegistry.MethodMappingMetadata;
 import com.liferay.portletmvc4spring.handler.AbstractMapBasedHandlerMapping;
 import com.liferay.portletmvc4spring.handler.PortletRequestMethodNotSupportedException;
+import com.liferay.portletmvc4spring.mvc.annotation.PortletAnnotationMappingUtils.HeaderCondition;
+import com.liferay.portletmvc4spring.mvc.annotation.PortletAnnotationMappingUtils.ParameterCondition;
+import com.liferay.portletmvc4spring.util.PortletStateRegistry;
 
 
 /**
@@ -89,7 +100,29 @@ import com.liferay.portletmvc4spring.handler.PortletRequestMethodNotSupportedExc
  * @see     RequestMapping
  * @see     AnnotationMethodHandlerAdapter
  */
-public class DefaultAnnotationHandlerMapping extends AbstractMapBasedHandlerMapping<PortletMode> {
+public class DefaultAnnotationHandlerMapping extends AbstractMapBasedHandlerMapping<PortletMode>
+	implements DetectingHandlerMapping {
+
+	private final Set<String> detectedHandlerBeanNames = new LinkedHashSet<String>();
+
+	private boolean parallelIntrospection = false;
+
+	/**
+	 * Returns the names of the beans that have been registered as handlers by {@link #detectHandlers()}.
+	 */
+	@Override
+	public Set<String> getDetectedHandlerBeanNames() {
+		return Collections.unmodifiableSet(this.detectedHandlerBeanNames);
+	}
+
+	/**
+	 * Returns the parameter names evaluated by the registered predicates, or {@code null} if a type-level mapping
+	 * declares header or request method conditions (which are validated per request).
+	 */
+	@Override
+	public Set<String> getRoutingParameterNames() {
+		return getMappedParameterNames();
+	}
 
 	/**
 	 * Calls the {@code registerHandlers} method in addition to the superclass's initialization.
@@ -102,6 +135,21 @@ public class DefaultAnnotationHandlerMapping extends AbstractMapBasedHandlerMapp
 		detectHandlers();
 	}
 
+	/**
+	 * Set whether to introspect the beans of the application context concurrently when detecting handlers, which
+	 * reduces the initialization time of portlets whose application context holds many beans.
+	 *
+	 * <p>Both modes share the same introspection logic. The handlers are registered only after all beans have been
+	 * introspected, in bean definition order, so that the resulting mappings and the detection of conflicting mappings
+	 * are identical to sequential introspection. Note that {@link #detectHandlerMethods} is not called in this mode, so
+	 * subclasses that override it should not enable it.
+	 *
+	 * <p>Default is "false".
+	 */
+	public void setParallelIntrospection(boolean parallelIntrospection) {
+		this.parallelIntrospection = parallelIntrospection;
+	}
+
 	/**
 	 * Derive portlet mode mappings from the handler's method-level mappings.
 	 *
@@ -113,11 +161,168 @@ public class DefaultAnnotationHandlerMapping extends AbstractMapBasedHandlerMapp
 	 */
 	protected boolean detectHandlerMethods(Class<?> handlerType, final String beanName,
 		final RequestMapping typeMapping) {
-		final Set<Boolean> handlersRegistered = new HashSet<Boolean>(1);
+		List<HandlerRegistration> registrations = introspectHandlerMethods(handlerType, typeMapping);
+
+		for (HandlerRegistration registration : registrations) {
+			registerHandler(registration.portletMode, beanName, registration.predicate);
+		}
+
+		return !registrations.isEmpty();
+	}
+
+	/**
+	 * Register all handlers specified in the Portlet mode map for the corresponding modes.
+	 *
+	 * @throws  org.springframework.beans.BeansException  if the handler couldn't be registered
+	 *
+	 * @see     #setParallelIntrospection
+	 */
+	protected void detectHandlers() throws BeansException {
+		ApplicationContext context = getApplicationContext();
+		String[] beanNames = context.getBeanNamesForType(Object.class);
+
+		this.detectedHandlerBeanNames.clear();
+
+		if (this.parallelIntrospection) {
+			List<HandlerIntrospection> introspections = new ArrayList<HandlerIntrospection>(beanNames.length);
+
+			// Query the bean factory on the calling thread, as it may hold the singleton lock of the bean factory. This
+			// includes registering the shared metadata registry, which the introspection would otherwise do.
+			PortletMappingMetadataRegistry.getRegistry(context);
+
+			for (String beanName : beanNames) {
+				introspections.add(new HandlerIntrospection(beanName, context.getType(beanName),
+						context.findAnnotationOnBean(beanName, RequestMapping.class)));
+			}
+
+			introspections.parallelStream().forEach(HandlerIntrospection::introspect);
+
+			// Register in bean definition order, failing on the first bean that failed sequential introspection.
+			for (HandlerIntrospection introspection : introspections) {
+
+				if (introspection.failure != null) {
+					throw introspection.failure;
+				}
+
+				if (introspection.handler) {
+
+					for (HandlerRegistration registration : introspection.registrations) {
+						registerHandler(registration.portletMode, introspection.beanName, registration.predicate);
+					}
+
+					this.detectedHandlerBeanNames.add(introspection.beanName);
+				}
+			}
+
+			return;
+		}
+
+		for (String beanName : beanNames) {
+			Class<?> handlerType = context.getType(beanName);
+			RequestMapping mapping = context.findAnnotationOnBean(beanName, RequestMapping.class);
+
+			if (detectHandler(handlerType, mapping, new ImmediateHandlerRegistrar(beanName))) {
+				this.detectedHandlerBeanNames.add(beanName);
+			}
+		}
+	}
+
+	/**
+	 * Uses the current PortletMode as lookup key.
+	 */
+	@Override
+	protected PortletMode getLookupKey(PortletRequest request) throws Exception {
+		return request.getPortletMode();
+	}
+
+	/**
+	 * Compare the given predicates by the kind of mapping that they represent. Type-level mappings come first, then the
+	 * mappings of the special request types (ordered by type), then method-level mappings. Since this is a total order,
+	 * the predicates of a lookup key may be sorted once, at registration time.
+	 *
+	 * @return  {@code 0} if both predicates represent the same kind of mapping, to be compared by their specific
+	 *          criteria; otherwise the precedence of the first predicate relative to the second
+	 */
+	private static int compareMappingKinds(PortletRequestMappingPredicate predicate,
+		PortletRequestMappingPredicate other) {
+
+		int result = Integer.compare(getMappingKind(predicate), getMappingKind(other));
+
+		if ((result == 0) && (predicate instanceof SpecialRequestTypePredicate)) {
+			result = predicate.getClass().getName().compareTo(other.getClass().getName());
+		}
+
+		return result;
+	}
+
+	/**
+	 * Detect the mappings of the given bean and pass them to the given registrar. Both sequential and parallel
+	 * introspection go through this method, so that they produce identical mappings.
+	 *
+	 * @param   handlerType  the type of the bean
+	 * @param   mapping      the type level mapping of the bean (if any)
+	 * @param   registrar    the registrar to pass the mappings to
+	 *
+	 * @return  {@code true} if the bean is a handler; {@code false} otherwise
+	 */
+	private boolean detectHandler(Class<?> handlerType, RequestMapping mapping, HandlerRegistrar registrar) {
+
+		if (mapping != null) {
+
+			// @RequestMapping found at type level
+			String[] modeKeys = mapping.value();
+			String[] params = mapping.params();
+			boolean registerHandlerType = true;
+
+			if ((modeKeys.length == 0) || (params.length == 0)) {
+				registerHandlerType = !registrar.registerHandlerMethods(handlerType, mapping);
+			}
+
+			if (registerHandlerType) {
+				AbstractParameterMappingPredicate predicate = new TypeLevelMappingPredicate(params, mapping.headers(),
+						mapping.method());
+
+				for (String modeKey : modeKeys) {
+					registrar.registerHandler(PortletStateRegistry.getPortletMode(modeKey), predicate);
+				}
+			}
+
+			return true;
+		}
+		else if (AnnotationUtils.findAnnotation(handlerType, Controller.class) != null) {
+			return registrar.registerHandlerMethods(handlerType, null);
+		}
+
+		return false;
+	}
+
+	private static int getMappingKind(PortletRequestMappingPredicate predicate) {
+
+		if (predicate instanceof TypeLevelMappingPredicate) {
+			return 0;
+		}
+		else if (predicate instanceof SpecialRequestTypePredicate) {
+			return 1;
+		}
+
+		return 2;
+	}
+
+	/**
+	 * Derive portlet mode mappings from the handler's method-level mappings without registering them, see {@link
+	 * #detectHandlerMethods}.
+	 */
+	private List<HandlerRegistration> introspectHandlerMethods(Class<?> handlerType, final RequestMapping typeMapping) {
+		final List<HandlerRegistration> registrations = new ArrayList<HandlerRegistration>();
 		Set<Class<?>> handlerTypes = new LinkedHashSet<Class<?>>();
 		handlerTypes.add(handlerType);
 		handlerTypes.addAll(Arrays.asList(handlerType.getInterfaces()));
 
+		PortletMappingIndex index = PortletMappingIndex.forClassLoader(handlerType.getClassLoader());
+		ReflectionUtils.MethodFilter methodFilter = index.getMethodFilter(handlerType);
+		final PortletMappingMetadataRegistry registry = PortletMappingMetadataRegistry.getRegistry(
+				getApplicationContext());
+
 		for (Class<?> currentHandlerType : handlerTypes) {
 			ReflectionUtils.doWithMethods(currentHandlerType, new ReflectionUtils.MethodCallback() {
 					@Override
@@ -130,11 +335,12 @@ public class DefaultAnnotationHandlerMapping extends AbstractMapBasedHandlerMapp
 							params = mergeStringArrays(typeMapping.params(), params);
 						}
 
-						ActionMapping actionMapping = AnnotationUtils.findAnnotation(method, ActionMapping.class);
-						RenderMapping renderMapping = AnnotationUtils.findAnnotation(method, RenderMapping.class);
-						ResourceMapping resourceMapping = AnnotationUtils.findAnnotation(method, ResourceMapping.class);
-						EventMapping eventMapping = AnnotationUtils.findAnnotation(method, EventMapping.class);
-						RequestMapping requestMapping = AnnotationUtils.findAnnotation(method, RequestMapping.class);
+						MethodMappingMetadata metadata = registry.getMethodMetadata(method);
+						ActionMapping actionMapping = metadata.getActionMapping();
+						RenderMapping renderMapping = metadata.getRenderMapping();
+						ResourceMapping resourceMapping = metadata.getResourceMapping();
+						EventMapping eventMapping = metadata.getEventMapping();
+						RequestMapping requestMapping = metadata.getRequestMapping();
 
 						if (actionMapping != null) {
 							params = mergeStringArrays(params, actionMapping.params());
@@ -185,62 +391,15 @@ public class DefaultAnnotationHandlerMapping extends AbstractMapBasedHandlerMapp
 							}
 
 							for (String modeKey : modeKeys) {
-								registerHandler(new PortletMode(modeKey), beanName, predicate);
-								handlersRegistered.add(Boolean.TRUE);
+								registrations.add(new HandlerRegistration(PortletStateRegistry.getPortletMode(modeKey),
+										predicate));
 							}
 						}
 					}
-				}, ReflectionUtils.USER_DECLARED_METHODS);
+				}, methodFilter);
 		}
 
-		return !handlersRegistered.isEmpty();
-	}
-
-	/**
-	 * Register all handlers specified in the Portlet mode map for the corresponding modes.
-	 *
-	 * @throws  org.springframework.beans.BeansException  if the handler couldn't be registered
-	 */
-	protected void detectHandlers() throws BeansException {
-		ApplicationContext context = getApplicationContext();
-		String[] beanNames = context.getBeanNamesForType(Object.class);
-
-		for (String beanName : beanNames) {
-			Class<?> handlerType = context.getType(beanName);
-			RequestMapping mapping = context.findAnnotationOnBean(beanName, RequestMapping.class);
-
-			if (mapping != null) {
-
-				// @RequestMapping found at type level
-				String[] modeKeys = mapping.value();
-				String[] params = mapping.params();
-				boolean registerHandlerType = true;
-
-				if ((modeKeys.length == 0) || (params.length == 0)) {
-					registerHandlerType = !detectHandlerMethods(handlerType, beanName, mapping);
-				}
-
-				if (registerHandlerType) {
-					AbstractParameterMappingPredicate predicate = new TypeLevelMappingPredicate(params,
-							mapping.headers(), mapping.method());
-
-					for (String modeKey : modeKeys) {
-						registerHandler(new PortletMode(modeKey), beanName, predicate);
-					}
-				}
-			}
-			else if (AnnotationUtils.findAnnotation(handlerType, Controller.class) != null) {
-				detectHandlerMethods(handlerType, beanName, mapping);
-			}
-		}
-	}
-
-	/**
-	 * Uses the current PortletMode as lookup key.
-	 */
-	@Override
-	protected PortletMode getLookupKey(PortletRequest request) throws Exception {
-		return request.getPortletMode();
+		return registrations;
 	}
 
 	private static String[] mergeStringArrays(String[] array1, String[] array2) {
@@ -257,20 +416,66 @@ public class DefaultAnnotationHandlerMapping extends AbstractMapBasedHandlerMapp
 		return mergedSet.toArray(new String[0]);
 	}
 
+	/**
+	 * Receives the mappings detected by {@link #detectHandler}.
+	 */
+	private interface HandlerRegistrar {
+
+		/**
+		 * Register the given predicate for the handler under the given portlet mode.
+		 */
+		void registerHandler(PortletMode portletMode, PortletRequestMappingPredicate predicate);
+
+		/**
+		 * Register the method-level mappings of the given handler type.
+		 *
+		 * @return  {@code true} if at least 1 handler method has been registered; {@code false} otherwise
+		 */
+		boolean registerHandlerMethods(Class<?> handlerType, RequestMapping typeMapping);
+	}
+
 	private interface SpecialRequestTypePredicate {
 	}
 
 	private abstract static class AbstractParameterMappingPredicate implements PortletRequestMappingPredicate {
 
+		private final ParameterCondition[] parameterConditions;
+
 		private final String[] params;
 
 		public AbstractParameterMappingPredicate(String[] params) {
 			this.params = params;
+			this.parameterConditions = PortletAnnotationMappingUtils.compileParameters(params);
+		}
+
+		@Override
+		public Set<String> getRoutingParameterNames() {
+			Set<String> parameterNames = new LinkedHashSet<String>();
+
+			for (ParameterCondition parameterCondition : this.parameterConditions) {
+				parameterNames.add(parameterCondition.getName());
+			}
+
+			return parameterNames;
+		}
+
+		@Override
+		public Set<String> getRoutingParameterValues(String parameterName) {
+			Set<String> values = new HashSet<String>();
+
+			for (ParameterCondition parameterCondition : this.parameterConditions) {
+
+				if (parameterCondition.getName().equals(parameterName) && (parameterCondition.getValue() != null)) {
+					values.add(parameterCondition.getValue());
+				}
+			}
+
+			return values;
 		}
 
 		@Override
 		public boolean match(PortletRequest request) {
-			return PortletAnnotationMappingUtils.checkParameters(this.params, request);
+			return PortletAnnotationMappingUtils.checkParameters(this.parameterConditions, request);
 		}
 
 		protected int compareParams(AbstractParameterMappingPredicate other) {
@@ -300,10 +505,7 @@ public class DefaultAnnotationHandlerMapping extends AbstractMapBasedHandlerMapp
 		@Override
 		public int compareTo(PortletRequestMappingPredicate other) {
 
-			if (other instanceof TypeLevelMappingPredicate) {
-				return 1;
-			}
-			else if (other instanceof ActionMappingPredicate) {
+			if (other instanceof ActionMappingPredicate) {
 				ActionMappingPredicate otherAction = (ActionMappingPredicate) other;
 				boolean hasActionName = "".equals(this.actionName);
 				boolean otherHasActionName = "".equals(otherAction.actionName);
@@ -316,11 +518,7 @@ public class DefaultAnnotationHandlerMapping extends AbstractMapBasedHandlerMapp
 				}
 			}
 
-			if (other instanceof SpecialRequestTypePredicate) {
-				return this.getClass().getName().compareTo(other.getClass().getName());
-			}
-
-			return -1;
+			return compareMappingKinds(this, other);
 		}
 
 		@Override
@@ -356,11 +554,12 @@ public class DefaultAnnotationHandlerMapping extends AbstractMapBasedHandlerMapp
 				}
 			}
 
-			if (other instanceof SpecialRequestTypePredicate) {
-				return this.getClass().getName().compareTo(other.getClass().getName());
-			}
+			return compareMappingKinds(this, other);
+		}
 
-			return -1;
+		@Override
+		public Set<String> getRoutingParameterNames() {
+			return Collections.emptySet();
 		}
 
 		@Override
@@ -384,6 +583,91 @@ public class DefaultAnnotationHandlerMapping extends AbstractMapBasedHandlerMapp
 		}
 	}
 
+	/**
+	 * Outcome of introspecting a single bean in parallel, see {@link #setParallelIntrospection}. Collects the mappings,
+	 * to be registered on the calling thread.
+	 */
+	private final class HandlerIntrospection implements HandlerRegistrar {
+
+		private final String beanName;
+
+		private RuntimeException failure;
+
+		private boolean handler;
+
+		private final Class<?> handlerType;
+
+		private final RequestMapping mapping;
+
+		private final List<HandlerRegistration> registrations = new ArrayList<HandlerRegistration>();
+
+		public HandlerIntrospection(String beanName, Class<?> handlerType, RequestMapping mapping) {
+			this.beanName = beanName;
+			this.handlerType = handlerType;
+			this.mapping = mapping;
+		}
+
+		public void introspect() {
+
+			try {
+				this.handler = detectHandler(this.handlerType, this.mapping, this);
+			}
+			catch (RuntimeException ex) {
+				this.failure = ex;
+			}
+		}
+
+		@Override
+		public void registerHandler(PortletMode portletMode, PortletRequestMappingPredicate predicate) {
+			this.registrations.add(new HandlerRegistration(portletMode, predicate));
+		}
+
+		@Override
+		public boolean registerHandlerMethods(Class<?> handlerType, RequestMapping typeMapping) {
+			List<HandlerRegistration> methodRegistrations = introspectHandlerMethods(handlerType, typeMapping);
+			this.registrations.addAll(methodRegistrations);
+
+			return !methodRegistrations.isEmpty();
+		}
+	}
+
+	/**
+	 * A predicate to be registered for a handler under the given portlet mode.
+	 */
+	private static final class HandlerRegistration {
+
+		private final PortletMode portletMode;
+
+		private final PortletRequestMappingPredicate predicate;
+
+		public HandlerRegistration(PortletMode portletMode, PortletRequestMappingPredicate predicate) {
+			this.portletMode = portletMode;
+			this.predicate = predicate;
+		}
+	}
+
+	/**
+	 * Registers the mappings of a bean right away, for sequential introspection.
+	 */
+	private final class ImmediateHandlerRegistrar implements HandlerRegistrar {
+
+		private final String beanName;
+
+		public ImmediateHandlerRegistrar(String beanName) {
+			this.beanName = beanName;
+		}
+
+		@Override
+		public void registerHandler(PortletMode portletMode, PortletRequestMappingPredicate predicate) {
+			DefaultAnnotationHandlerMapping.this.registerHandler(portletMode, this.beanName, predicate);
+		}
+
+		@Override
+		public boolean registerHandlerMethods(Class<?> handlerType, RequestMapping typeMapping) {
+			return detectHandlerMethods(handlerType, this.beanName, typeMapping);
+		}
+	}
+
 	private static class MethodLevelMappingPredicate extends AbstractParameterMappingPredicate {
 
 		public MethodLevelMappingPredicate(String[] params) {
@@ -392,7 +676,9 @@ public class DefaultAnnotationHandlerMapping extends AbstractMapBasedHandlerMapp
 
 		@Override
 		public int compareTo(PortletRequestMappingPredicate other) {
-			return ((other instanceof SpecialRequestTypePredicate) ? 1 : compareParams(other));
+			int result = compareMappingKinds(this, other);
+
+			return ((result != 0) ? result : compareParams(other));
 		}
 
 		@Override
@@ -407,16 +693,13 @@ public class DefaultAnnotationHandlerMapping extends AbstractMapBasedHandlerMapp
 
 		public RenderMappingPredicate(String windowState, String[] params) {
 			super(params);
-			this.windowState = ("".equals(windowState) ? null : new WindowState(windowState));
+			this.windowState = ("".equals(windowState) ? null : PortletStateRegistry.getWindowState(windowState));
 		}
 
 		@Override
 		public int compareTo(PortletRequestMappingPredicate other) {
 
-			if (other instanceof TypeLevelMappingPredicate) {
-				return 1;
-			}
-			else if (other instanceof RenderMappingPredicate) {
+			if (other instanceof RenderMappingPredicate) {
 				RenderMappingPredicate otherRender = (RenderMappingPredicate) other;
 				boolean hasWindowState = (this.windowState != null);
 				boolean otherHasWindowState = (otherRender.windowState != null);
@@ -429,11 +712,7 @@ public class DefaultAnnotationHandlerMapping extends AbstractMapBasedHandlerMapp
 				}
 			}
 
-			if (other instanceof SpecialRequestTypePredicate) {
-				return this.getClass().getName().compareTo(other.getClass().getName());
-			}
-
-			return -1;
+			return compareMappingKinds(this, other);
 		}
 
 		@Override
@@ -469,11 +748,12 @@ public class DefaultAnnotationHandlerMapping extends AbstractMapBasedHandlerMapp
 				}
 			}
 
-			if (other instanceof SpecialRequestTypePredicate) {
-				return this.getClass().getName().compareTo(other.getClass().getName());
-			}
+			return compareMappingKinds(this, other);
+		}
 
-			return -1;
+		@Override
+		public Set<String> getRoutingParameterNames() {
+			return Collections.emptySet();
 		}
 
 		@Override
@@ -490,6 +770,8 @@ public class DefaultAnnotationHandlerMapping extends AbstractMapBasedHandlerMapp
 
 	private static class TypeLevelMappingPredicate extends AbstractParameterMappingPredicate {
 
+		private final HeaderCondition[] headerConditions;
+
 		private final String[] headers;
 
 		private final Set<String> methods = new HashSet<String>();
@@ -497,6 +779,7 @@ public class DefaultAnnotationHandlerMapping extends AbstractMapBasedHandlerMapp
 		public TypeLevelMappingPredicate(String[] params, String[] headers, RequestMethod[] methods) {
 			super(params);
 			this.headers = headers;
+			this.headerConditions = PortletAnnotationMappingUtils.compileHeaders(headers);
 
 			if (methods != null) {
 
@@ -508,13 +791,26 @@ public class DefaultAnnotationHandlerMapping extends AbstractMapBasedHandlerMapp
 
 		@Override
 		public int compareTo(PortletRequestMappingPredicate other) {
-			return ((other instanceof SpecialRequestTypePredicate) ? -1 : compareParams(other));
+			int result = compareMappingKinds(this, other);
+
+			return ((result != 0) ? result : compareParams(other));
+		}
+
+		@Override
+		public Set<String> getRoutingParameterNames() {
+
+			// Header and request method conditions are validated for each request.
+			if (!ObjectUtils.isEmpty(this.headers) || !this.methods.isEmpty()) {
+				return null;
+			}
+
+			return super.getRoutingParameterNames();
 		}
 
 		@Override
 		public void validate(PortletRequest request) throws PortletException {
 
-			if (!PortletAnnotationMappingUtils.checkHeaders(this.headers, request)) {
+			if (!PortletAnnotationMappingUtils.checkHeaders(this.headerConditions, request)) {
 				throw new PortletRequestBindingException("Header conditions \"" +
 					StringUtils.arrayToDelimitedString(this.headers, ", ") + "\" not met for actual request");
 			}
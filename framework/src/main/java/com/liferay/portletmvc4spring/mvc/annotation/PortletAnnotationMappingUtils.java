@@ -15,7 +15,6 @@
  */
 package com.liferay.portletmvc4spring.mvc.annotation;
 
-import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
@@ -27,6 +26,7 @@ import org.springframework.http.MediaType;
 import org.springframework.util.ObjectUtils;
 
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.util.WebUtils;
 
 import com.liferay.portletmvc4spring.util.PortletUtils;
 
@@ -34,6 +34,9 @@ import com.liferay.portletmvc4spring.util.PortletUtils;
 /**
  * Helper class for annotation-based request mapping.
  *
+ * <p>Parameter and header conditions can be compiled into {@link ParameterCondition} and {@link HeaderCondition}
+ * objects when a mapping is registered, so that matching a request does not need to parse the conditions again.
+ *
  * @author  Juergen Hoeller
  * @since   2.5.2
  */
@@ -46,55 +49,22 @@ public class PortletAnnotationMappingUtils {
 	 * @param  request  the current HTTP request to check
 	 */
 	public static boolean checkHeaders(String[] headers, PortletRequest request) {
+		return checkHeaders(compileHeaders(headers), request);
+	}
 
-		if (!ObjectUtils.isEmpty(headers)) {
-
-			for (String header : headers) {
-				int separator = header.indexOf('=');
-
-				if (separator == -1) {
-
-					if (header.startsWith("!")) {
-
-						if (request.getProperty(header.substring(1)) != null) {
-							return false;
-						}
-					}
-					else if (request.getProperty(header) == null) {
-						return false;
-					}
-				}
-				else {
-					String key = header.substring(0, separator);
-					String value = header.substring(separator + 1);
-
-					if (isMediaTypeHeader(key)) {
-						List<MediaType> requestMediaTypes = MediaType.parseMediaTypes(request.getProperty(key));
-						List<MediaType> valueMediaTypes = MediaType.parseMediaTypes(value);
-						boolean found = false;
-
-						for (Iterator<MediaType> valIter = valueMediaTypes.iterator(); valIter.hasNext() && !found;) {
-							MediaType valueMediaType = valIter.next();
-
-							for (Iterator<MediaType> reqIter = requestMediaTypes.iterator();
-									reqIter.hasNext() && !found;) {
-								MediaType requestMediaType = reqIter.next();
-
-								if (valueMediaType.includes(requestMediaType)) {
-									found = true;
-								}
-							}
+	/**
+	 * Check whether the given request matches the specified compiled header conditions. The {@code Accept} and {@code
+	 * Content-Type} headers of the request are parsed once per request.
+	 *
+	 * @param  headerConditions  the header conditions, as compiled by {@link #compileHeaders}
+	 * @param  request           the current request to check
+	 */
+	public static boolean checkHeaders(HeaderCondition[] headerConditions, PortletRequest request) {
 
-						}
+		for (int i = 0; i < headerConditions.length; i++) {
 
-						if (!found) {
-							return false;
-						}
-					}
-					else if (!value.equals(request.getProperty(key))) {
-						return false;
-					}
-				}
+			if (!headerConditions[i].match(request)) {
+				return false;
 			}
 		}
 
@@ -109,32 +79,21 @@ public class PortletAnnotationMappingUtils {
 	 * @param  request  the current request to check
 	 */
 	public static boolean checkParameters(String[] params, PortletRequest request) {
+		return checkParameters(compileParameters(params), request);
+	}
 
-		if (!ObjectUtils.isEmpty(params)) {
-
-			for (String param : params) {
-				int separator = param.indexOf('=');
-
-				if (separator == -1) {
-
-					if (param.startsWith("!")) {
+	/**
+	 * Check whether the given request matches the specified compiled parameter conditions.
+	 *
+	 * @param  parameterConditions  the parameter conditions, as compiled by {@link #compileParameters}
+	 * @param  request              the current request to check
+	 */
+	public static boolean checkParameters(ParameterCondition[] parameterConditions, PortletRequest request) {
 
-						if (PortletUtils.hasSubmitParameter(request, param.substring(1))) {
-							return false;
-						}
-					}
-					else if (!PortletUtils.hasSubmitParameter(request, param)) {
-						return false;
-					}
-				}
-				else {
-					String key = param.substring(0, separator);
-					String value = param.substring(separator + 1);
+		for (int i = 0; i < parameterConditions.length; i++) {
 
-					if (!value.equals(request.getParameter(key))) {
-						return false;
-					}
-				}
+			if (!parameterConditions[i].match(request)) {
+				return false;
 			}
 		}
 
@@ -193,6 +152,52 @@ public class PortletAnnotationMappingUtils {
 		return true;
 	}
 
+	/**
+	 * Compile the given header conditions.
+	 *
+	 * @param   headers  the header conditions, following {@link
+	 *                   org.springframework.web.bind.annotation.RequestMapping#headers()} (may be {@code null})
+	 *
+	 * @return  the compiled conditions (never {@code null})
+	 */
+	public static HeaderCondition[] compileHeaders(String[] headers) {
+
+		if (ObjectUtils.isEmpty(headers)) {
+			return new HeaderCondition[0];
+		}
+
+		HeaderCondition[] headerConditions = new HeaderCondition[headers.length];
+
+		for (int i = 0; i < headers.length; i++) {
+			headerConditions[i] = new HeaderCondition(headers[i]);
+		}
+
+		return headerConditions;
+	}
+
+	/**
+	 * Compile the given parameter conditions.
+	 *
+	 * @param   params  the parameter conditions, following {@link
+	 *                  org.springframework.web.bind.annotation.RequestMapping#params()} (may be {@code null})
+	 *
+	 * @return  the compiled conditions (never {@code null})
+	 */
+	public static ParameterCondition[] compileParameters(String[] params) {
+
+		if (ObjectUtils.isEmpty(params)) {
+			return new ParameterCondition[0];
+		}
+
+		ParameterCondition[] parameterConditions = new ParameterCondition[params.length];
+
+		for (int i = 0; i < params.length; i++) {
+			parameterConditions[i] = new ParameterCondition(params[i]);
+		}
+
+		return parameterConditions;
+	}
+
 	/**
 	 * Check whether the given portlet modes matches the specified type-level modes.
 	 *
@@ -226,4 +231,200 @@ public class PortletAnnotationMappingUtils {
 		return "Accept".equalsIgnoreCase(headerName) || "Content-Type".equalsIgnoreCase(headerName);
 	}
 
+	/**
+	 * A compiled header condition: {@code "name"}, {@code "!name"} or {@code "name=value"}, where the value of an
+	 * {@code Accept} or {@code Content-Type} condition is a list of media types.
+	 */
+	public static final class HeaderCondition {
+
+		private static final String MEDIA_TYPES_ATTRIBUTE_PREFIX = HeaderCondition.class.getName() + ".MEDIA_TYPES.";
+
+		private final String expression;
+
+		private final List<MediaType> mediaTypes;
+
+		private final String mediaTypesAttributeName;
+
+		private final String name;
+
+		private final boolean negated;
+
+		private final String value;
+
+		private HeaderCondition(String expression) {
+			this.expression = expression;
+
+			int separator = expression.indexOf('=');
+
+			if (separator == -1) {
+				this.negated = expression.startsWith("!");
+				this.name = this.negated ? expression.substring(1) : expression;
+				this.value = null;
+				this.mediaTypes = null;
+				this.mediaTypesAttributeName = null;
+			}
+			else {
+				this.negated = false;
+				this.name = expression.substring(0, separator);
+				this.value = expression.substring(separator + 1);
+
+				if (isMediaTypeHeader(this.name)) {
+					this.mediaTypes = MediaType.parseMediaTypes(this.value);
+					this.mediaTypesAttributeName = MEDIA_TYPES_ATTRIBUTE_PREFIX + this.name;
+				}
+				else {
+					this.mediaTypes = null;
+					this.mediaTypesAttributeName = null;
+				}
+			}
+		}
+
+		/**
+		 * Return the name of the header that this condition checks.
+		 */
+		public String getName() {
+			return this.name;
+		}
+
+		/**
+		 * Determine whether the given request matches this condition.
+		 *
+		 * @param  request  the current request to check
+		 */
+		public boolean match(PortletRequest request) {
+
+			if (this.value == null) {
+				return (request.getProperty(this.name) != null) != this.negated;
+			}
+
+			if (this.mediaTypes == null) {
+				return this.value.equals(request.getProperty(this.name));
+			}
+
+			List<MediaType> requestMediaTypes = getRequestMediaTypes(request);
+
+			for (int i = 0; i < this.mediaTypes.size(); i++) {
+				MediaType mediaType = this.mediaTypes.get(i);
+
+				for (int j = 0; j < requestMediaTypes.size(); j++) {
+
+					if (mediaType.includes(requestMediaTypes.get(j))) {
+						return true;
+					}
+				}
+			}
+
+			return false;
+		}
+
+		@Override
+		public String toString() {
+			return this.expression;
+		}
+
+		/**
+		 * Return the media types of the header of the given request, parsing them only once per request.
+		 */
+		@SuppressWarnings("unchecked")
+		private List<MediaType> getRequestMediaTypes(PortletRequest request) {
+			List<MediaType> requestMediaTypes = (List<MediaType>) request.getAttribute(this.mediaTypesAttributeName);
+
+			if (requestMediaTypes == null) {
+				requestMediaTypes = MediaType.parseMediaTypes(request.getProperty(this.name));
+				request.setAttribute(this.mediaTypesAttributeName, requestMediaTypes);
+			}
+
+			return requestMediaTypes;
+		}
+	}
+
+	/**
+	 * A compiled parameter condition: {@code "name"}, {@code "!name"} or {@code "name=value"}. The presence of a
+	 * parameter is checked as for a submit parameter, see {@link PortletUtils#hasSubmitParameter}.
+	 */
+	public static final class ParameterCondition {
+
+		private final String expression;
+
+		private final String name;
+
+		private final boolean negated;
+
+		private final String[] submitParameterNames;
+
+		private final String value;
+
+		private ParameterCondition(String expression) {
+			this.expression = expression;
+
+			int separator = expression.indexOf('=');
+
+			if (separator == -1) {
+				this.negated = expression.startsWith("!");
+				this.name = this.negated ? expression.substring(1) : expression;
+				this.value = null;
+
+				// The names under which a submit button or image may have been sent.
+				this.submitParameterNames = new String[WebUtils.SUBMIT_IMAGE_SUFFIXES.length + 1];
+				this.submitParameterNames[0] = this.name;
+
+				for (int i = 0; i < WebUtils.SUBMIT_IMAGE_SUFFIXES.length; i++) {
+					this.submitParameterNames[i + 1] = this.name + WebUtils.SUBMIT_IMAGE_SUFFIXES[i];
+				}
+			}
+			else {
+				this.negated = false;
+				this.name = expression.substring(0, separator);
+				this.value = expression.substring(separator + 1);
+				this.submitParameterNames = null;
+			}
+		}
+
+		/**
+		 * Return the name of the parameter that this condition checks.
+		 */
+		public String getName() {
+			return this.name;
+		}
+
+		/**
+		 * Return the value that this condition compares the parameter with, or {@code null} if it checks the presence
+		 * (or absence) of the parameter only.
+		 */
+		public String getValue() {
+			return this.value;
+		}
+
+		/**
+		 * Determine whether the given request matches this condition.
+		 *
+		 * @param  request  the current request to check
+		 */
+		public boolean match(PortletRequest request) {
+
+			if (this.value != null) {
+				return this.value.equals(request.getParameter(this.name));
+			}
+
+			return hasSubmitParameter(request) != this.negated;
+		}
+
+		@Override
+		public String toString() {
+			return this.expression;
+		}
+
+		private boolean hasSubmitParameter(PortletRequest request) {
+
+			for (int i = 0; i < this.submitParameterNames.length; i++) {
+
+				if (request.getParameter(this.submitParameterNames[i]) != null) {
+					return true;
+				}
+			}
+
+			return false;
+		}
+	}
+
 }
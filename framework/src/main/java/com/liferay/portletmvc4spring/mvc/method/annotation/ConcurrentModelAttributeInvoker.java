@@ -0,0 +1,399 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.mvc.method.annotation;
+
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+
+import org.springframework.core.MethodParameter;
+
+import org.springframework.lang.Nullable;
+
+import org.springframework.ui.Model;
+
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import org.springframework.validation.Errors;
+
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.support.SessionStatus;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.method.annotation.ModelFactory;
+import org.springframework.web.method.support.InvocableHandlerMethod;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+
+/**
+ * Invokes the {@code @ModelAttribute} methods of a handler concurrently, as an alternative to the serial invocation by
+ * {@link ModelFactory#initModel}.
+ *
+ * <p>A method is started on the executor as soon as the attributes that its {@code @ModelAttribute} parameters refer to
+ * are present in the model, or cannot be added by any other method that is still pending or running. Its arguments are
+ * resolved on the calling thread, and its return value is added to the model on the calling thread in the order in
+ * which the methods were started, so that the model is never accessed concurrently. Methods that return {@code void}
+ * or that declare a {@link Model}, {@link Map}, {@link Errors} or {@link SessionStatus} argument are invoked on the
+ * calling thread, since they may access the model directly.
+ *
+ * <p>The {@link RequestContextHolder} and {@link LocaleContextHolder} state of the calling thread is exposed to the
+ * methods that are invoked on the executor.
+ *
+ * @author  Neil Griffin
+ * @since   6.0
+ */
+public class ConcurrentModelAttributeInvoker {
+
+	private final Executor executor;
+
+	private final List<ModelMethod> modelMethods = new ArrayList<>();
+
+	/**
+	 * Create a new instance.
+	 *
+	 * @param  attrMethods  the {@code @ModelAttribute} methods to invoke; methods that are not a {@link
+	 *                      ModelAttributeMethod} are always invoked on the calling thread
+	 * @param  executor     the executor to invoke the methods concurrently with
+	 */
+	public ConcurrentModelAttributeInvoker(List<InvocableHandlerMethod> attrMethods, Executor executor) {
+		Assert.notNull(executor, "Executor must not be null");
+		this.executor = executor;
+
+		for (InvocableHandlerMethod attrMethod : attrMethods) {
+			this.modelMethods.add(new ModelMethod(attrMethod));
+		}
+	}
+
+	/**
+	 * Populate the model with the return values of the {@code @ModelAttribute} methods. The session attributes are
+	 * expected to have been merged into the model already.
+	 *
+	 * @param   request    the current request
+	 * @param   container  the container with the model to populate
+	 *
+	 * @throws  Exception  if a {@code @ModelAttribute} method failed
+	 */
+	public void invokeModelAttributeMethods(NativeWebRequest request, ModelAndViewContainer container)
+		throws Exception {
+
+		List<ModelMethod> pendingMethods = new ArrayList<>(this.modelMethods);
+		Deque<Invocation> invocations = new ArrayDeque<>();
+
+		while (!pendingMethods.isEmpty() || !invocations.isEmpty()) {
+			ModelMethod callingThreadMethod = null;
+			Iterator<ModelMethod> iterator = pendingMethods.iterator();
+
+			while ((callingThreadMethod == null) && iterator.hasNext()) {
+				ModelMethod modelMethod = iterator.next();
+
+				if (!isReady(modelMethod, container, pendingMethods, invocations)) {
+					continue;
+				}
+
+				iterator.remove();
+
+				if (isPresent(modelMethod, container)) {
+					continue;
+				}
+
+				if (modelMethod.concurrent) {
+					invocations.add(startInvocation(modelMethod, request, container));
+				}
+				else {
+					callingThreadMethod = modelMethod;
+				}
+			}
+
+			if (callingThreadMethod != null) {
+				invoke(callingThreadMethod, request, container);
+			}
+			else if (!invocations.isEmpty()) {
+				Invocation invocation = invocations.poll();
+				addReturnValue(invocation.modelMethod, invocation.getReturnValue(), container);
+			}
+			else if (!pendingMethods.isEmpty()) {
+
+				// Unsatisfiable dependencies: proceed with the first method, like the ModelFactory does.
+				ModelMethod modelMethod = pendingMethods.remove(0);
+
+				if (!isPresent(modelMethod, container)) {
+					invoke(modelMethod, request, container);
+				}
+			}
+		}
+	}
+
+	private void addReturnValue(ModelMethod modelMethod, Object returnValue, ModelAndViewContainer container) {
+		String returnValueName = ModelFactory.getNameForReturnValue(returnValue,
+				modelMethod.attrMethod.getReturnType());
+
+		if (!modelMethod.annotation.binding()) {
+			container.setBindingDisabled(returnValueName);
+		}
+
+		if (!container.containsAttribute(returnValueName)) {
+			container.addAttribute(returnValueName, returnValue);
+		}
+	}
+
+	private void invoke(ModelMethod modelMethod, NativeWebRequest request, ModelAndViewContainer container)
+		throws Exception {
+
+		Object returnValue = modelMethod.attrMethod.invokeForRequest(request, container);
+
+		if (!modelMethod.attrMethod.isVoid()) {
+			addReturnValue(modelMethod, returnValue, container);
+		}
+	}
+
+	private boolean isPresent(ModelMethod modelMethod, ModelAndViewContainer container) {
+		String name = modelMethod.annotation.name();
+
+		if (container.containsAttribute(name)) {
+
+			if (!modelMethod.annotation.binding()) {
+				container.setBindingDisabled(name);
+			}
+
+			return true;
+		}
+
+		return false;
+	}
+
+	private boolean isReady(ModelMethod modelMethod, ModelAndViewContainer container, List<ModelMethod> pendingMethods,
+		Deque<Invocation> invocations) {
+
+		for (String dependency : modelMethod.dependencies) {
+
+			if (container.containsAttribute(dependency)) {
+				continue;
+			}
+
+			for (ModelMethod pendingMethod : pendingMethods) {
+
+				if ((pendingMethod != modelMethod) && pendingMethod.mayAdd(dependency)) {
+					return false;
+				}
+			}
+
+			for (Invocation invocation : invocations) {
+
+				if (invocation.modelMethod.mayAdd(dependency)) {
+					return false;
+				}
+			}
+		}
+
+		return true;
+	}
+
+	private Invocation startInvocation(ModelMethod modelMethod, NativeWebRequest request,
+		ModelAndViewContainer container) throws Exception {
+
+		ModelAttributeMethod attrMethod = (ModelAttributeMethod) modelMethod.attrMethod;
+		Object[] args = attrMethod.resolveArguments(request, container);
+		LocaleContext localeContext = LocaleContextHolder.getLocaleContext();
+		RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+
+		CompletableFuture<Object> future = CompletableFuture.supplyAsync(() -> {
+					LocaleContext previousLocaleContext = LocaleContextHolder.getLocaleContext();
+					RequestAttributes previousRequestAttributes = RequestContextHolder.getRequestAttributes();
+
+					LocaleContextHolder.setLocaleContext(localeContext);
+					RequestContextHolder.setRequestAttributes(requestAttributes);
+
+					try {
+						return attrMethod.invoke(args);
+					}
+					catch (Exception ex) {
+						throw new CompletionException(ex);
+					}
+					finally {
+						LocaleContextHolder.setLocaleContext(previousLocaleContext);
+						RequestContextHolder.setRequestAttributes(previousRequestAttributes);
+					}
+				}, this.executor);
+
+		return new Invocation(modelMethod, future);
+	}
+
+	/**
+	 * An {@link InvocableHandlerMethod} for a {@code @ModelAttribute} method that can have its arguments resolved on
+	 * the calling thread and be invoked on another thread.
+	 */
+	public static class ModelAttributeMethod extends InvocableHandlerMethod {
+
+		public ModelAttributeMethod(Object bean, Method method) {
+			super(bean, method);
+		}
+
+		/**
+		 * Invoke the method with the given arguments.
+		 *
+		 * @param   args  the resolved arguments
+		 *
+		 * @return  the raw value returned by the method
+		 *
+		 * @throws  Exception  if the method threw an exception
+		 */
+		public Object invoke(Object[] args) throws Exception {
+			return doInvoke(args);
+		}
+
+		/**
+		 * Resolve the arguments of the method for the given request.
+		 *
+		 * @param   request    the current request
+		 * @param   container  the container with the current model
+		 *
+		 * @return  the resolved arguments
+		 *
+		 * @throws  Exception  if an argument could not be resolved
+		 */
+		public Object[] resolveArguments(NativeWebRequest request, ModelAndViewContainer container)
+			throws Exception {
+			return getMethodArgumentValues(request, container);
+		}
+	}
+
+	/**
+	 * A {@code @ModelAttribute} method started on the executor.
+	 */
+	private static class Invocation {
+
+		private final CompletableFuture<Object> future;
+
+		private final ModelMethod modelMethod;
+
+		public Invocation(ModelMethod modelMethod, CompletableFuture<Object> future) {
+			this.modelMethod = modelMethod;
+			this.future = future;
+		}
+
+		public Object getReturnValue() throws Exception {
+
+			try {
+				return this.future.get();
+			}
+			catch (ExecutionException ex) {
+				Throwable cause = ex.getCause();
+
+				if (cause instanceof CompletionException) {
+					cause = cause.getCause();
+				}
+
+				if (cause instanceof Exception) {
+					throw (Exception) cause;
+				}
+
+				if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+
+				throw ex;
+			}
+		}
+	}
+
+	/**
+	 * A {@code @ModelAttribute} method with the model attributes it depends on and the name of the model attribute it
+	 * adds, determined once.
+	 */
+	private static class ModelMethod {
+
+		private final ModelAttribute annotation;
+
+		private final InvocableHandlerMethod attrMethod;
+
+		private final boolean concurrent;
+
+		private final Set<String> dependencies = new LinkedHashSet<>();
+
+		@Nullable
+		private final String returnValueName;
+
+		public ModelMethod(InvocableHandlerMethod attrMethod) {
+			this.attrMethod = attrMethod;
+			this.annotation = attrMethod.getMethodAnnotation(ModelAttribute.class);
+			Assert.state(this.annotation != null, "No ModelAttribute annotation");
+
+			boolean sharingModel = false;
+
+			for (MethodParameter parameter : attrMethod.getMethodParameters()) {
+
+				if (parameter.hasParameterAnnotation(ModelAttribute.class)) {
+					this.dependencies.add(ModelFactory.getNameForParameter(parameter));
+				}
+
+				Class<?> parameterType = parameter.getParameterType();
+
+				if (Model.class.isAssignableFrom(parameterType) || Map.class.isAssignableFrom(parameterType) ||
+						Errors.class.isAssignableFrom(parameterType) ||
+						SessionStatus.class.isAssignableFrom(parameterType)) {
+					sharingModel = true;
+				}
+			}
+
+			this.concurrent = (attrMethod instanceof ModelAttributeMethod) && !attrMethod.isVoid() && !sharingModel;
+			this.returnValueName = getReturnValueName(attrMethod, this.annotation);
+		}
+
+		/**
+		 * Return whether the method may add the given model attribute, which is the case if the method is void or its
+		 * return value name cannot be determined before invoking it.
+		 */
+		public boolean mayAdd(String name) {
+			return (this.returnValueName == null) || this.returnValueName.equals(name);
+		}
+
+		@Nullable
+		private static String getReturnValueName(InvocableHandlerMethod attrMethod, ModelAttribute annotation) {
+
+			if (attrMethod.isVoid()) {
+				return null;
+			}
+
+			if (StringUtils.hasText(annotation.name())) {
+				return annotation.name();
+			}
+
+			try {
+				return ModelFactory.getNameForReturnValue(null, attrMethod.getReturnType());
+			}
+			catch (IllegalArgumentException ex) {
+
+				// The name depends on the return value, e.g. for a method declared to return Object.
+				return null;
+			}
+		}
+	}
+}
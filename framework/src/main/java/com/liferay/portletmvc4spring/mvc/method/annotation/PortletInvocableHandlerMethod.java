@@ -106,7 +106,7 @@ public class PortletInvocableHandlerMethod extends InvocableHandlerMethod {
 			// Return since there is no reason to invoke a return value handler.
 			return;
 		}
-		else if (StringUtils.hasText(getResponseStatusReason())) {
+		else if (isRequestNotModified(webRequest) || StringUtils.hasText(getResponseStatusReason())) {
 			mavContainer.setRequestHandled(true);
 
 			return;
@@ -151,15 +151,13 @@ public class PortletInvocableHandlerMethod extends InvocableHandlerMethod {
 	}
 
 	/**
-	 * Does the given request qualify as "not modified"?
+	 * Does the given request qualify as "not modified", i.e. is the portlet container to use its cached content?
 	 *
-	 * @see  ServletWebRequest#checkNotModified(long)
-	 * @see  ServletWebRequest#checkNotModified(String)
+	 * @see  PortletWebRequest#checkNotModified(long)
+	 * @see  PortletWebRequest#checkNotModified(String)
 	 */
 	private boolean isRequestNotModified(PortletWebRequest webRequest) {
-
-		// TODO: Possibly implement "not modified" logic for portlets.
-		return false;
+		return webRequest.isNotModified();
 	}
 
 	/**
@@ -0,0 +1,320 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.mvc.method.annotation;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import jakarta.portlet.PortletException;
+import jakarta.portlet.ResourceRequest;
+import jakarta.portlet.ResourceResponse;
+
+import org.springframework.core.MethodParameter;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+
+import org.springframework.lang.Nullable;
+
+import org.springframework.util.Assert;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.StringUtils;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+
+/**
+ * Supports return values of type {@link Flow.Publisher} in the resource phase, by writing each published element to
+ * the output stream of the resource response as soon as it is available.
+ *
+ * <p>Elements are requested one at a time, after the previous element has been written and flushed, so that a
+ * publisher cannot produce faster than the client consumes. Elements of type {@code byte[]}, {@link ByteBuffer} and
+ * {@link CharSequence} are written as-is, the latter using the character encoding of the response. Other elements are
+ * written with the first {@link HttpMessageConverter} that supports the element type and the content type of the
+ * response.
+ *
+ * <p>If the portlet supports async processing, the portlet container thread is released while the publisher emits,
+ * and the request is dispatched to the portlet again when the publisher completes. Otherwise, the calling thread
+ * waits for the publisher to complete, for at most the async request timeout. A publisher that does not complete in
+ * time is cancelled and the request fails with a {@link PortletException}.
+ *
+ * @author  Neil Griffin
+ * @since   6.0
+ */
+public class PortletPublisherReturnValueHandler implements HandlerMethodReturnValueHandler {
+
+	/**
+	 * Default time in milliseconds that the calling thread waits for a publisher to complete if no async request
+	 * timeout is specified, which matches the default async timeout of common portlet containers.
+	 */
+	public static final long DEFAULT_TIMEOUT = 30000;
+
+	private final List<HttpMessageConverter<?>> messageConverters;
+
+	private final long timeout;
+
+	/**
+	 * Create a new PortletPublisherReturnValueHandler that waits for at most {@link #DEFAULT_TIMEOUT} milliseconds for
+	 * a publisher to complete if the portlet does not support async processing.
+	 *
+	 * @param  messageConverters  the converters for writing elements other than bytes and character sequences
+	 */
+	public PortletPublisherReturnValueHandler(List<HttpMessageConverter<?>> messageConverters) {
+		this(messageConverters, null);
+	}
+
+	/**
+	 * Create a new PortletPublisherReturnValueHandler.
+	 *
+	 * @param  messageConverters  the converters for writing elements other than bytes and character sequences
+	 * @param  timeout            the async request timeout in milliseconds, which also bounds the time that the calling
+	 *                            thread waits for a publisher to complete if the portlet does not support async
+	 *                            processing, or {@code null} for {@link #DEFAULT_TIMEOUT}. Zero or less waits
+	 *                            indefinitely, as for an async request.
+	 */
+	public PortletPublisherReturnValueHandler(List<HttpMessageConverter<?>> messageConverters,
+		@Nullable Long timeout) {
+
+		this.messageConverters = messageConverters;
+		this.timeout = ((timeout != null) ? timeout : DEFAULT_TIMEOUT);
+	}
+
+	@Override
+	public void handleReturnValue(Object returnValue, MethodParameter returnType, ModelAndViewContainer mavContainer,
+		NativeWebRequest webRequest) throws Exception {
+
+		mavContainer.setRequestHandled(true);
+
+		if (returnValue == null) {
+			return;
+		}
+
+		ResourceRequest request = webRequest.getNativeRequest(ResourceRequest.class);
+		ResourceResponse response = webRequest.getNativeResponse(ResourceResponse.class);
+		Assert.state((request != null) && (response != null),
+			"Flow.Publisher return values are only supported in the resource phase");
+
+		@SuppressWarnings("unchecked")
+		Flow.Publisher<Object> publisher = (Flow.Publisher<Object>) returnValue;
+		ResponseWritingSubscriber subscriber = new ResponseWritingSubscriber(response);
+
+		if (!request.isAsyncSupported()) {
+			publisher.subscribe(subscriber);
+
+			try {
+
+				if (this.timeout > 0) {
+					subscriber.completion.get(this.timeout, TimeUnit.MILLISECONDS);
+				}
+				else {
+					subscriber.completion.get();
+				}
+			}
+			catch (TimeoutException ex) {
+				subscriber.cancel();
+				throw new PortletException("Timed out after " + this.timeout +
+					" ms waiting for the Flow.Publisher returned by the handler to complete", ex);
+			}
+			catch (InterruptedException ex) {
+				subscriber.cancel();
+				Thread.currentThread().interrupt();
+				throw new PortletException("Interrupted while waiting for the Flow.Publisher returned by the handler " +
+					"to complete", ex);
+			}
+			catch (ExecutionException ex) {
+				Throwable cause = ex.getCause();
+
+				if (cause instanceof Exception) {
+					throw (Exception) cause;
+				}
+
+				throw ex;
+			}
+
+			return;
+		}
+
+		DeferredResult<Object> deferredResult = new DeferredResult<Object>();
+		deferredResult.onTimeout(subscriber::cancel);
+		deferredResult.onError(ex -> subscriber.cancel());
+
+		subscriber.completion.whenComplete((result, ex) -> {
+
+			if (ex != null) {
+				deferredResult.setErrorResult(ex);
+			}
+			else {
+				deferredResult.setResult(null);
+			}
+		});
+
+		WebAsyncUtils.getAsyncManager(webRequest).startDeferredResultProcessing(deferredResult, mavContainer);
+		publisher.subscribe(subscriber);
+	}
+
+	@Override
+	public boolean supportsReturnType(MethodParameter returnType) {
+		return Flow.Publisher.class.isAssignableFrom(returnType.getParameterType());
+	}
+
+	/**
+	 * Writes the elements of a publisher to a resource response, requesting the next element only after the previous
+	 * element has been written.
+	 */
+	private class ResponseWritingSubscriber implements Flow.Subscriber<Object> {
+
+		private final CompletableFuture<Void> completion = new CompletableFuture<Void>();
+
+		private final ResourceResponse response;
+
+		private volatile Flow.Subscription subscription;
+
+		public ResponseWritingSubscriber(ResourceResponse response) {
+			this.response = response;
+		}
+
+		public void cancel() {
+			Flow.Subscription subscription = this.subscription;
+
+			if (subscription != null) {
+				subscription.cancel();
+			}
+		}
+
+		@Override
+		public void onComplete() {
+
+			try {
+				this.response.getPortletOutputStream().flush();
+				this.completion.complete(null);
+			}
+			catch (IOException ex) {
+				this.completion.completeExceptionally(ex);
+			}
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			this.completion.completeExceptionally(throwable);
+		}
+
+		@Override
+		public void onNext(Object element) {
+
+			try {
+				OutputStream outputStream = this.response.getPortletOutputStream();
+				write(element, outputStream);
+				outputStream.flush();
+			}
+			catch (Exception ex) {
+				this.subscription.cancel();
+				this.completion.completeExceptionally(ex);
+
+				return;
+			}
+
+			this.subscription.request(1);
+		}
+
+		@Override
+		public void onSubscribe(Flow.Subscription subscription) {
+			this.subscription = subscription;
+
+			if (this.completion.isDone()) {
+				subscription.cancel();
+			}
+			else {
+				subscription.request(1);
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		private void write(Object element, OutputStream outputStream) throws IOException {
+
+			if (element instanceof byte[]) {
+				outputStream.write((byte[]) element);
+			}
+			else if (element instanceof ByteBuffer) {
+				Channels.newChannel(outputStream).write(((ByteBuffer) element).duplicate());
+			}
+			else if (element instanceof CharSequence) {
+				String characterEncoding = this.response.getCharacterEncoding();
+				Charset charset = StringUtils.hasLength(characterEncoding) ? Charset.forName(characterEncoding)
+																			: StandardCharsets.UTF_8;
+				outputStream.write(element.toString().getBytes(charset));
+			}
+			else {
+				String contentType = this.response.getContentType();
+				MediaType mediaType = StringUtils.hasLength(contentType) ? MediaType.parseMediaType(contentType) : null;
+
+				for (HttpMessageConverter<?> converter : messageConverters) {
+
+					if (converter.canWrite(element.getClass(), mediaType)) {
+						((HttpMessageConverter<Object>) converter).write(element, mediaType,
+							new ResourceOutputMessage(outputStream));
+
+						return;
+					}
+				}
+
+				throw new IllegalStateException("No HttpMessageConverter for element type [" +
+					element.getClass().getName() + "] and content type [" + contentType + "]");
+			}
+		}
+	}
+
+	/**
+	 * Output message for writing a single element. The headers are ignored, as the content type of the response is
+	 * determined by the handler.
+	 */
+	private static class ResourceOutputMessage implements HttpOutputMessage {
+
+		private final OutputStream body;
+
+		private final HttpHeaders headers = new HttpHeaders();
+
+		public ResourceOutputMessage(OutputStream outputStream) {
+			this.body = StreamUtils.nonClosing(outputStream);
+		}
+
+		@Override
+		public OutputStream getBody() {
+			return this.body;
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return this.headers;
+		}
+	}
+
+}
@@ -30,9 +30,11 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
 import jakarta.portlet.ActionRequest;
 import jakarta.portlet.ActionResponse;
+import jakarta.portlet.CacheControl;
 import jakarta.portlet.ClientDataRequest;
 import jakarta.portlet.Event;
 import jakarta.portlet.EventRequest;
@@ -53,18 +55,23 @@ import jakarta.portlet.StateAwareResponse;
 import jakarta.portlet.WindowState;
 import jakarta.servlet.http.HttpServletRequest;
 
+import org.springframework.beans.BeanUtils;
+
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.BeanFactoryUtils;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 
+import org.springframework.context.ApplicationContext;
+
 import org.springframework.core.DefaultParameterNameDiscoverer;
 import org.springframework.core.MethodIntrospector;
+import org.springframework.core.MethodParameter;
 import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.core.ReactiveAdapterRegistry;
 import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
-import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.core.task.SimpleAsyncTaskExecutor;
 
@@ -76,6 +83,8 @@ import org.springframework.http.converter.xml.SourceHttpMessageConverter;
 
 import org.springframework.lang.Nullable;
 
+import org.springframework.stereotype.Controller;
+
 import org.springframework.ui.ModelMap;
 
 import org.springframework.util.ClassUtils;
@@ -85,6 +94,8 @@ import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
 import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.bind.WebDataBinder;
+import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.InitBinder;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -97,7 +108,10 @@ import org.springframework.web.bind.support.SessionStatus;
 import org.springframework.web.bind.support.WebBindingInitializer;
 import org.springframework.web.bind.support.WebDataBinderFactory;
 import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
 import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.context.request.async.WebAsyncUtils;
 import org.springframework.web.method.ControllerAdviceBean;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.method.annotation.ErrorsMethodArgumentResolver;
@@ -139,7 +153,6 @@ import org.springframework.web.servlet.mvc.method.annotation.RequestResponseBody
 import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitterReturnValueHandler;
 import org.springframework.web.servlet.mvc.method.annotation.SessionAttributeMethodArgumentResolver;
-import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBodyReturnValueHandler;
 import org.springframework.web.servlet.mvc.method.annotation.UriComponentsBuilderMethodArgumentResolver;
 import org.springframework.web.servlet.mvc.method.annotation.ViewMethodReturnValueHandler;
 import org.springframework.web.servlet.mvc.method.annotation.ViewNameMethodReturnValueHandler;
@@ -148,14 +161,24 @@ import org.springframework.web.servlet.support.RequestContextUtils;
 
 import com.liferay.portletmvc4spring.ModelAndView;
 import com.liferay.portletmvc4spring.NoHandlerFoundException;
+import com.liferay.portletmvc4spring.WarmableHandlerAdapter;
 import com.liferay.portletmvc4spring.bind.annotation.ActionMapping;
 import com.liferay.portletmvc4spring.bind.annotation.EventMapping;
 import com.liferay.portletmvc4spring.bind.annotation.RenderMapping;
 import com.liferay.portletmvc4spring.bind.annotation.ResourceMapping;
 import com.liferay.portletmvc4spring.bind.annotation.support.HandlerMethodResolver;
+import com.liferay.portletmvc4spring.bind.annotation.support.PortletMappingMetadataRegistry;
+import com.liferay.portletmvc4spring.bind.annotation.support.PortletMappingMetadataRegistry.MethodMappingMetadata;
+import com.liferay.portletmvc4spring.context.PortletAsyncWebRequest;
 import com.liferay.portletmvc4spring.context.PortletWebRequest;
+import com.liferay.portletmvc4spring.handler.PortletETagGenerator;
+import com.liferay.portletmvc4spring.handler.PortletSessionLockStrategy;
 import com.liferay.portletmvc4spring.mvc.annotation.PortletAnnotationMappingUtils;
+import com.liferay.portletmvc4spring.mvc.annotation.PortletAnnotationMappingUtils.HeaderCondition;
+import com.liferay.portletmvc4spring.mvc.annotation.PortletAnnotationMappingUtils.ParameterCondition;
 import com.liferay.portletmvc4spring.mvc.method.AbstractPortletHandlerMethodAdapter;
+import com.liferay.portletmvc4spring.observation.PortletObservation;
+import com.liferay.portletmvc4spring.util.PortletStateRegistry;
 import com.liferay.portletmvc4spring.util.PortletUtils;
 
 
@@ -178,7 +201,7 @@ import com.liferay.portletmvc4spring.util.PortletUtils;
  * @see     HandlerMethodReturnValueHandler
  */
 public class PortletRequestMappingHandlerAdapter extends AbstractPortletHandlerMethodAdapter
-	implements BeanFactoryAware, InitializingBean {
+	implements BeanFactoryAware, InitializingBean, WarmableHandlerAdapter {
 
 	public static final String IMPLICIT_MODEL_SESSION_ATTRIBUTE = PortletRequestMappingHandlerAdapter.class.getName() +
 		".IMPLICIT_MODEL";
@@ -229,7 +252,13 @@ public class PortletRequestMappingHandlerAdapter extends AbstractPortletHandlerM
 
 	private boolean synchronizeOnSession = false;
 
-	private AsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("MvcAsync");
+	@Nullable
+	private PortletSessionLockStrategy sessionLockStrategy;
+
+	private AsyncTaskExecutor taskExecutor = createDefaultTaskExecutor();
+
+	@Nullable
+	private Long asyncRequestTimeout;
 
 	private SessionAttributeStore sessionAttributeStore = new DefaultSessionAttributeStore();
 
@@ -246,10 +275,27 @@ public class PortletRequestMappingHandlerAdapter extends AbstractPortletHandlerM
 
 	private final Map<Class<?>, PortletHandlerMethodResolver> methodResolverCache = new ConcurrentHashMap<>(64);
 
+	private final Map<Class<?>, PortletETagGenerator> etagGeneratorCache = new ConcurrentHashMap<>(16);
+
+	private volatile PortletMappingMetadataRegistry mappingMetadataRegistry;
+
 	private final Map<Class<?>, Set<Method>> modelAttributeCache = new ConcurrentHashMap<>(64);
 
 	private final Map<ControllerAdviceBean, Set<Method>> modelAttributeAdviceCache = new LinkedHashMap<>();
 
+	private final Map<Method, InvocationPlan> invocationPlanCache = new ConcurrentHashMap<>(256);
+
+	private final Set<Method> uncachedInvocationPlanMethods = ConcurrentHashMap.newKeySet();
+
+	private boolean cacheInvocationPlans = true;
+
+	private boolean prototypeAdviceBeans = false;
+
+	private boolean concurrentModelAttributeMethods = false;
+
+	@Nullable
+	private Executor modelAttributeExecutor;
+
 	public PortletRequestMappingHandlerAdapter() {
 		StringHttpMessageConverter stringHttpMessageConverter = new StringHttpMessageConverter();
 		stringHttpMessageConverter.setWriteAcceptCharset(false); // see SPR-7316
@@ -288,6 +334,11 @@ public class PortletRequestMappingHandlerAdapter extends AbstractPortletHandlerM
 			List<HandlerMethodReturnValueHandler> handlers = getDefaultReturnValueHandlers();
 			this.returnValueHandlers = new HandlerMethodReturnValueHandlerComposite().addHandlers(handlers);
 		}
+
+		this.invocationPlanCache.clear();
+		this.uncachedInvocationPlanMethods.clear();
+
+		initArgumentResolverBindings();
 	}
 
 	/**
@@ -371,6 +422,35 @@ public class PortletRequestMappingHandlerAdapter extends AbstractPortletHandlerM
 		}
 	}
 
+	/**
+	 * Specify the amount of time, in milliseconds, before concurrent handling of a resource request should time out.
+	 * The timeout period begins when the portlet container thread has exited.
+	 *
+	 * <p>If this value is not set, the default timeout of the portlet container is used.
+	 *
+	 * <p>The timeout also bounds the time that a resource request waits for a {@link
+	 * java.util.concurrent.Flow.Publisher} returned by a handler method to complete if the portlet does not support
+	 * async processing (default is {@link PortletPublisherReturnValueHandler#DEFAULT_TIMEOUT}).
+	 *
+	 * @param  timeout  the timeout value in milliseconds
+	 */
+	public void setAsyncRequestTimeout(long timeout) {
+		this.asyncRequestTimeout = timeout;
+	}
+
+	/**
+	 * Set whether to cache an invocation plan per handler method: the {@link PortletInvocableHandlerMethod} with its
+	 * argument resolvers and return value handlers, the data binder factory with its {@code @InitBinder} methods, and
+	 * the {@code @ModelAttribute} methods, including those of {@code @ControllerAdvice} beans. Requests then only
+	 * allocate request-scoped state.
+	 *
+	 * <p>Default is "true". Plans are never cached for handler methods that are invoked on different handler instances
+	 * (e.g. prototype beans) or if any {@code @ControllerAdvice} bean is not a singleton.
+	 */
+	public void setCacheInvocationPlans(boolean cacheInvocationPlans) {
+		this.cacheInvocationPlans = cacheInvocationPlans;
+	}
+
 	/**
 	 * A {@link ConfigurableBeanFactory} is expected for resolving expressions in method argument default values.
 	 */
@@ -382,6 +462,23 @@ public class PortletRequestMappingHandlerAdapter extends AbstractPortletHandlerM
 		}
 	}
 
+	/**
+	 * Set whether to invoke the {@code @ModelAttribute} methods of a handler, including those of {@code
+	 * @ControllerAdvice} beans, concurrently rather than one after the other. This reduces the latency of handlers
+	 * with several independent {@code @ModelAttribute} methods that each call a remote service.
+	 *
+	 * <p>A method that consumes the model attribute of another method through a {@code @ModelAttribute} parameter is
+	 * still invoked after that method. Methods that return {@code void} or declare a {@code Model} argument are invoked
+	 * on the calling thread. See {@link ConcurrentModelAttributeInvoker} for details.
+	 *
+	 * <p>Default is "false".
+	 *
+	 * @see  #setModelAttributeExecutor
+	 */
+	public void setConcurrentModelAttributeMethods(boolean concurrentModelAttributeMethods) {
+		this.concurrentModelAttributeMethods = concurrentModelAttributeMethods;
+	}
+
 	/**
 	 * Set the {@link ContentNegotiationManager} to use to determine requested media types. If not set, the default
 	 * constructor is used.
@@ -444,6 +541,16 @@ public class PortletRequestMappingHandlerAdapter extends AbstractPortletHandlerM
 		this.modelAndViewResolvers = modelAndViewResolvers;
 	}
 
+	/**
+	 * Set the {@link Executor} to invoke {@code @ModelAttribute} methods with, if {@link
+	 * #setConcurrentModelAttributeMethods concurrent model attribute methods} are enabled.
+	 *
+	 * <p>By default the {@link #setTaskExecutor task executor} for async request processing is used.
+	 */
+	public void setModelAttributeExecutor(@Nullable Executor modelAttributeExecutor) {
+		this.modelAttributeExecutor = modelAttributeExecutor;
+	}
+
 	/**
 	 * Set the ParameterNameDiscoverer to use for resolving method parameter names if needed (e.g. for default attribute
 	 * names).
@@ -469,6 +576,15 @@ public class PortletRequestMappingHandlerAdapter extends AbstractPortletHandlerM
 		}
 	}
 
+	/**
+	 * Set the strategy for locking the session if {@link #setSynchronizeOnSession synchronizeOnSession} is "true", for
+	 * example a {@link com.liferay.portletmvc4spring.handler.StripedPortletSessionLockStrategy}. Default is none,
+	 * synchronizing on the session mutex.
+	 */
+	public void setSessionLockStrategy(@Nullable PortletSessionLockStrategy sessionLockStrategy) {
+		this.sessionLockStrategy = sessionLockStrategy;
+	}
+
 	/**
 	 * Specify the strategy to store session attributes with. The default is {@link
 	 * org.springframework.web.bind.support.DefaultSessionAttributeStore}, storing session attributes in the HttpSession
@@ -479,11 +595,34 @@ public class PortletRequestMappingHandlerAdapter extends AbstractPortletHandlerM
 	}
 
 	/**
-	 * Set the default {@link AsyncTaskExecutor} to use when a controller method return a {@link Callable}. Controller
-	 * methods can override this default on a per-request basis by returning an {@link WebAsyncTask}.
+	 * Set if controller execution should be synchronized on the session, to serialize parallel invocations from the
+	 * same client.
 	 *
-	 * <p>By default a {@link SimpleAsyncTaskExecutor} instance is used. It's recommended to change that default in
-	 * production as the simple executor does not re-use threads.
+	 * <p>More specifically, the execution of the handler method, including its {@code @ModelAttribute} methods, will
+	 * get synchronized if this flag is "true". Unless a {@link #setSessionLockStrategy session lock strategy} is set,
+	 * the best available session mutex will be used for the synchronization.
+	 *
+	 * @see  com.liferay.portletmvc4spring.util.PortletUtils#getSessionMutex(jakarta.portlet.PortletSession)
+	 */
+	public void setSynchronizeOnSession(boolean synchronizeOnSession) {
+		this.synchronizeOnSession = synchronizeOnSession;
+	}
+
+	/**
+	 * Set the default {@link AsyncTaskExecutor} to use when a controller method return a {@link Callable} or a {@link
+	 * org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody}. Controller methods can override
+	 * this default on a per-request basis by returning an {@link WebAsyncTask}.
+	 *
+	 * <p>Controller methods returning a {@link Callable}, {@link WebAsyncTask}, {@link
+	 * org.springframework.web.context.request.async.DeferredResult}, {@link java.util.concurrent.CompletionStage},
+	 * {@link java.util.concurrent.Flow.Publisher} or {@link
+	 * org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody} are handled asynchronously only in
+	 * the resource phase, provided that the portlet supports async processing (see {@link
+	 * ResourceRequest#isAsyncSupported()}).
+	 *
+	 * <p>By default a {@link SimpleAsyncTaskExecutor} instance is used, which creates a virtual thread per task when
+	 * running on Java 21 or higher, and a platform thread otherwise. In the latter case, it's recommended to change
+	 * that default in production as the simple executor does not re-use threads.
 	 */
 	public void setTaskExecutor(AsyncTaskExecutor taskExecutor) {
 		this.taskExecutor = taskExecutor;
@@ -496,6 +635,20 @@ public class PortletRequestMappingHandlerAdapter extends AbstractPortletHandlerM
 		this.webBindingInitializer = webBindingInitializer;
 	}
 
+	/**
+	 * Precompute the handler method resolver, the {@code @InitBinder} and {@code @ModelAttribute} methods and the
+	 * session attributes handler of the given handler type, which would otherwise be computed on first request.
+	 */
+	@Override
+	public void warmUp(Class<?> handlerType) {
+		Class<?> handlerClass = ClassUtils.getUserClass(handlerType);
+
+		getMethodResolver(handlerClass);
+		selectInitBinderMethods(handlerClass);
+		selectModelAttributeMethods(handlerClass);
+		getSessionAttributesHandler(handlerClass);
+	}
+
 	/**
 	 * Template method to create a new InitBinderDataBinderFactory instance.
 	 *
@@ -533,61 +686,17 @@ public class PortletRequestMappingHandlerAdapter extends AbstractPortletHandlerM
 			return doHandle(request, response, (HandlerMethod) handler);
 		}
 
-		PortletHandlerMethodResolver methodResolver = getMethodResolver(handler);
+		PortletHandlerMethodResolver methodResolver = getMethodResolver(ClassUtils.getUserClass(handler));
 		Method method = methodResolver.resolveHandlerMethod(request);
 
-		return doHandle(request, response, new HandlerMethod(handler, method));
+		return doHandle(request, response, getInvocationPlan(handler, method, null));
 	}
 
 	protected ModelAndView doHandle(PortletRequest request, PortletResponse response, HandlerMethod handlerMethod)
 		throws Exception {
-		ModelMap implicitModel = null;
 
-		if (response instanceof MimeResponse) {
-
-			MimeResponse mimeResponse = (MimeResponse) response;
-
-			// Detect implicit model from associated action phase.
-			if (response instanceof RenderResponse) {
-				PortletSession session = request.getPortletSession(false);
-
-				if (session != null) {
-
-					if (request.getParameter(IMPLICIT_MODEL_RENDER_PARAMETER) != null) {
-						implicitModel = (ModelMap) session.getAttribute(IMPLICIT_MODEL_SESSION_ATTRIBUTE);
-					}
-					else {
-						session.removeAttribute(IMPLICIT_MODEL_SESSION_ATTRIBUTE);
-					}
-				}
-			}
-
-			if (handlerMethod.getBean().getClass().getAnnotation(SessionAttributes.class) != null) {
-
-				// Always prevent caching in case of session attribute management.
-				checkAndPrepare(request, mimeResponse, this.cacheSecondsForSessionAttributeHandlers);
-			}
-			else {
-
-				// Uses configured default cacheSeconds setting.
-				checkAndPrepare(request, mimeResponse);
-			}
-		}
-
-		// Execute invokeHandlerMethod in synchronized block if required.
-		if (this.synchronizeOnSession) {
-			PortletSession session = request.getPortletSession(false);
-
-			if (session != null) {
-				Object mutex = PortletUtils.getSessionMutex(session);
-
-				synchronized (mutex) {
-					return invokeHandlerMethod(request, response, handlerMethod, implicitModel);
-				}
-			}
-		}
-
-		return invokeHandlerMethod(request, response, handlerMethod, implicitModel);
+		return doHandle(request, response,
+				getInvocationPlan(handlerMethod.getBean(), handlerMethod.getMethod(), handlerMethod));
 	}
 
 	/**
@@ -644,7 +753,67 @@ public class PortletRequestMappingHandlerAdapter extends AbstractPortletHandlerM
 			return true;
 		}
 
-		return getMethodResolver(handler).hasHandlerMethods();
+		return getMethodResolver(ClassUtils.getUserClass(handler)).hasHandlerMethods();
+	}
+
+	/**
+	 * Bind each parameter of the given method to the argument resolver that supports it, which caches the resolver
+	 * for the parameter. Parameters of the given provided type are passed in by the caller of the method and skipped.
+	 *
+	 * @return  the number of bound parameters
+	 */
+	private int bindArgumentResolvers(String beanName, Method method, HandlerMethodArgumentResolverComposite resolvers,
+		@Nullable Class<?> providedType, List<String> unresolvedParameters) {
+
+		HandlerMethod handlerMethod = new HandlerMethod(beanName, getApplicationContext(), method);
+		int count = 0;
+
+		for (MethodParameter parameter : handlerMethod.getMethodParameters()) {
+
+			if ((providedType != null) && providedType.isAssignableFrom(parameter.getParameterType())) {
+				continue;
+			}
+
+			if (resolvers.supportsParameter(parameter)) {
+				count++;
+			}
+			else {
+				unresolvedParameters.add("parameter " + parameter.getParameterIndex() + " of " +
+					method.toGenericString());
+			}
+		}
+
+		return count;
+	}
+
+	private static AsyncTaskExecutor createDefaultTaskExecutor() {
+		SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("MvcAsync");
+
+		try {
+			taskExecutor.setVirtualThreads(true);
+		}
+		catch (UnsupportedOperationException ex) {
+			// Virtual threads require Java 21 or higher.
+		}
+
+		return taskExecutor;
+	}
+
+	private PortletETagGenerator createETagGenerator(Class<?> generatorClass) {
+		ApplicationContext context = getApplicationContext();
+
+		if (context == null) {
+			return (PortletETagGenerator) BeanUtils.instantiateClass(generatorClass);
+		}
+
+		// Prefer a generator that is defined as a bean, e.g. for sharing it with the code that updates the content.
+		Object generator = context.getBeanProvider(generatorClass).getIfUnique();
+
+		if (generator == null) {
+			generator = context.getAutowireCapableBeanFactory().createBean(generatorClass);
+		}
+
+		return (PortletETagGenerator) generator;
 	}
 
 	private InvocableHandlerMethod createInitBinderMethod(Object bean, Method method) {
@@ -660,9 +829,90 @@ public class PortletRequestMappingHandlerAdapter extends AbstractPortletHandlerM
 		return binderMethod;
 	}
 
+	private InvocationPlan createInvocationPlan(HandlerMethod handlerMethod) throws Exception {
+		WebDataBinderFactory binderFactory = getDataBinderFactory(handlerMethod);
+		List<InvocableHandlerMethod> attrMethods = getModelAttributeMethods(handlerMethod, binderFactory);
+
+		PortletInvocableHandlerMethod invocableMethod = createInvocableHandlerMethod(handlerMethod);
+
+		if (this.argumentResolvers != null) {
+			invocableMethod.setHandlerMethodArgumentResolvers(this.argumentResolvers);
+		}
+
+		if (this.returnValueHandlers != null) {
+			invocableMethod.setHandlerMethodReturnValueHandlers(this.returnValueHandlers);
+		}
+
+		invocableMethod.setDataBinderFactory(binderFactory);
+		invocableMethod.setParameterNameDiscoverer(this.parameterNameDiscoverer);
+
+		Class<?> beanClass = handlerMethod.getBean().getClass();
+		boolean sessionAttributesAnnotated = (beanClass.getAnnotation(SessionAttributes.class) != null);
+
+		ConcurrentModelAttributeInvoker modelAttributeInvoker = null;
+
+		if (this.concurrentModelAttributeMethods && (attrMethods.size() > 1)) {
+			Executor executor = (this.modelAttributeExecutor != null) ? this.modelAttributeExecutor : this.taskExecutor;
+			modelAttributeInvoker = new ConcurrentModelAttributeInvoker(attrMethods, executor);
+		}
+
+		return new InvocationPlan(handlerMethod.getBean(), invocableMethod, binderFactory, attrMethods,
+				modelAttributeInvoker, getSessionAttributesHandler(handlerMethod.getBeanType()),
+				sessionAttributesAnnotated, createMappedCacheControl(handlerMethod));
+	}
+
+	@Nullable
+	private MappedCacheControl createMappedCacheControl(HandlerMethod handlerMethod) {
+		MethodMappingMetadata metadata = getMappingMetadataRegistry().getMethodMetadata(handlerMethod.getMethod());
+		RenderMapping renderMapping = metadata.getRenderMapping();
+		ResourceMapping resourceMapping = metadata.getResourceMapping();
+		int expirationCache;
+		String cacheScope;
+		Class<? extends PortletETagGenerator> etagGeneratorClass;
+
+		if (renderMapping != null) {
+			expirationCache = renderMapping.expirationCache();
+			cacheScope = renderMapping.cacheScope();
+			etagGeneratorClass = renderMapping.etagGenerator();
+		}
+		else if (resourceMapping != null) {
+			expirationCache = resourceMapping.expirationCache();
+			cacheScope = resourceMapping.cacheScope();
+			etagGeneratorClass = resourceMapping.etagGenerator();
+		}
+		else {
+			return null;
+		}
+
+		Boolean publicScope = null;
+
+		if ("PUBLIC".equalsIgnoreCase(cacheScope)) {
+			publicScope = Boolean.TRUE;
+		}
+		else if ("PRIVATE".equalsIgnoreCase(cacheScope)) {
+			publicScope = Boolean.FALSE;
+		}
+		else if (StringUtils.hasLength(cacheScope)) {
+			throw new IllegalStateException("Invalid cache scope '" + cacheScope + "' on handler method [" +
+				handlerMethod.getMethod() + "]: expected PUBLIC or PRIVATE");
+		}
+
+		PortletETagGenerator etagGenerator = null;
+
+		if (etagGeneratorClass != PortletETagGenerator.class) {
+			etagGenerator = this.etagGeneratorCache.computeIfAbsent(etagGeneratorClass, this::createETagGenerator);
+		}
+
+		if ((expirationCache == Integer.MIN_VALUE) && (publicScope == null) && (etagGenerator == null)) {
+			return null;
+		}
+
+		return new MappedCacheControl(expirationCache, publicScope, etagGenerator);
+	}
+
 	private InvocableHandlerMethod createModelAttributeMethod(WebDataBinderFactory factory, Object bean,
 		Method method) {
-		InvocableHandlerMethod attrMethod = new InvocableHandlerMethod(bean, method);
+		InvocableHandlerMethod attrMethod = new ConcurrentModelAttributeInvoker.ModelAttributeMethod(bean, method);
 
 		if (this.argumentResolvers != null) {
 			attrMethod.setHandlerMethodArgumentResolvers(this.argumentResolvers);
@@ -674,6 +924,73 @@ public class PortletRequestMappingHandlerAdapter extends AbstractPortletHandlerM
 		return attrMethod;
 	}
 
+	private ModelAndView doHandle(PortletRequest request, PortletResponse response, InvocationPlan invocationPlan)
+		throws Exception {
+
+		// Let the observation, if any, identify the handler method rather than the controller.
+		PortletObservation.getObservation(request).setHandler(invocationPlan.invocableMethod);
+
+		ModelMap implicitModel = null;
+
+		if (response instanceof MimeResponse) {
+
+			MimeResponse mimeResponse = (MimeResponse) response;
+
+			// Detect implicit model from associated action phase.
+			if (response instanceof RenderResponse) {
+				PortletSession session = request.getPortletSession(false);
+
+				if (session != null) {
+
+					if (request.getParameter(IMPLICIT_MODEL_RENDER_PARAMETER) != null) {
+						implicitModel = (ModelMap) session.getAttribute(IMPLICIT_MODEL_SESSION_ATTRIBUTE);
+					}
+					else {
+						session.removeAttribute(IMPLICIT_MODEL_SESSION_ATTRIBUTE);
+					}
+				}
+			}
+
+			if (invocationPlan.sessionAttributesAnnotated) {
+
+				// Always prevent caching in case of session attribute management.
+				checkAndPrepare(request, mimeResponse, this.cacheSecondsForSessionAttributeHandlers);
+			}
+			else {
+
+				// Uses configured default cacheSeconds setting.
+				checkAndPrepare(request, mimeResponse);
+			}
+		}
+
+		// Execute invokeHandlerMethod in synchronized block if required.
+		if (this.synchronizeOnSession) {
+			PortletSession session = request.getPortletSession(false);
+
+			if (session != null) {
+
+				if (this.sessionLockStrategy != null) {
+					PortletSessionLockStrategy.SessionLock lock = this.sessionLockStrategy.lock(request, session);
+
+					try {
+						return invokeHandlerMethod(request, response, invocationPlan, implicitModel);
+					}
+					finally {
+						lock.close();
+					}
+				}
+
+				Object mutex = PortletUtils.getSessionMutex(session);
+
+				synchronized (mutex) {
+					return invokeHandlerMethod(request, response, invocationPlan, implicitModel);
+				}
+			}
+		}
+
+		return invokeHandlerMethod(request, response, invocationPlan, implicitModel);
+	}
+
 	// Count all advice, including explicit registrations..
 
 	private int getBodyAdviceCount(Class<?> adviceType) {
@@ -686,12 +1003,7 @@ public class PortletRequestMappingHandlerAdapter extends AbstractPortletHandlerM
 
 	private WebDataBinderFactory getDataBinderFactory(HandlerMethod handlerMethod) throws Exception {
 		Class<?> handlerType = handlerMethod.getBeanType();
-		Set<Method> methods = this.initBinderCache.get(handlerType);
-
-		if (methods == null) {
-			methods = MethodIntrospector.selectMethods(handlerType, INIT_BINDER_METHODS);
-			this.initBinderCache.put(handlerType, methods);
-		}
+		Set<Method> methods = selectInitBinderMethods(handlerType);
 
 		List<InvocableHandlerMethod> initBinderMethods = new ArrayList<>();
 
@@ -806,9 +1118,10 @@ public class PortletRequestMappingHandlerAdapter extends AbstractPortletHandlerM
 		handlers.add(new PortletModelAndViewMethodReturnValueHandler());
 		handlers.add(new ModelMethodProcessor());
 		handlers.add(new ViewMethodReturnValueHandler());
+		handlers.add(new PortletPublisherReturnValueHandler(getMessageConverters(), this.asyncRequestTimeout));
 		handlers.add(new ResponseBodyEmitterReturnValueHandler(getMessageConverters(),
 				ReactiveAdapterRegistry.getSharedInstance(), this.taskExecutor, this.contentNegotiationManager));
-		handlers.add(new StreamingResponseBodyReturnValueHandler());
+		handlers.add(new PortletStreamingResponseBodyReturnValueHandler());
 		handlers.add(new HttpEntityMethodProcessor(getMessageConverters(), this.contentNegotiationManager,
 				this.requestResponseBodyAdvice));
 		handlers.add(new HttpHeadersReturnValueHandler());
@@ -842,25 +1155,60 @@ public class PortletRequestMappingHandlerAdapter extends AbstractPortletHandlerM
 	}
 
 	/**
-	 * Build a HandlerMethodResolver for the given handler type.
+	 * Return the invocation plan for the given handler method, creating it if necessary. Plans are cached per method
+	 * unless the method is invoked on different handler instances (e.g. prototype or request-scoped beans).
 	 */
-	private PortletHandlerMethodResolver getMethodResolver(Object handler) {
-		Class<?> handlerClass = ClassUtils.getUserClass(handler);
-		PortletHandlerMethodResolver resolver = this.methodResolverCache.get(handlerClass);
+	private InvocationPlan getInvocationPlan(Object handler, Method method, @Nullable HandlerMethod handlerMethod)
+		throws Exception {
+
+		InvocationPlan invocationPlan = this.invocationPlanCache.get(method);
 
-		if (resolver == null) {
+		if ((invocationPlan != null) && (invocationPlan.bean == handler)) {
+			return invocationPlan;
+		}
 
-			synchronized (this.methodResolverCache) {
-				resolver = this.methodResolverCache.get(handlerClass);
+		if (handlerMethod == null) {
+			handlerMethod = new HandlerMethod(handler, method);
+		}
 
-				if (resolver == null) {
-					resolver = new PortletHandlerMethodResolver(handlerClass);
-					this.methodResolverCache.put(handlerClass, resolver);
-				}
-			}
+		InvocationPlan newInvocationPlan = createInvocationPlan(handlerMethod);
+
+		if (invocationPlan != null) {
+
+			// Stop caching in favor of creating a plan for each request.
+			this.uncachedInvocationPlanMethods.add(method);
+			this.invocationPlanCache.remove(method);
+		}
+		else if (this.cacheInvocationPlans && !this.prototypeAdviceBeans &&
+				!this.uncachedInvocationPlanMethods.contains(method)) {
+			this.invocationPlanCache.putIfAbsent(method, newInvocationPlan);
 		}
 
-		return resolver;
+		return newInvocationPlan;
+	}
+
+	/**
+	 * Return the mapping metadata registry shared with the other components of the application context.
+	 */
+	private PortletMappingMetadataRegistry getMappingMetadataRegistry() {
+		PortletMappingMetadataRegistry registry = this.mappingMetadataRegistry;
+
+		if (registry == null) {
+			registry = PortletMappingMetadataRegistry.getRegistry(getApplicationContext());
+			this.mappingMetadataRegistry = registry;
+		}
+
+		return registry;
+	}
+
+	/**
+	 * Build a HandlerMethodResolver for the given handler type.
+	 */
+	private PortletHandlerMethodResolver getMethodResolver(Class<?> handlerClass) {
+
+		// Lock per handler class only, so that concurrent warm-up of distinct controllers does not serialize.
+		return this.methodResolverCache.computeIfAbsent(handlerClass,
+				type -> new PortletHandlerMethodResolver(type, getMappingMetadataRegistry()));
 	}
 
 	@Nullable
@@ -892,15 +1240,10 @@ public class PortletRequestMappingHandlerAdapter extends AbstractPortletHandlerM
 		return mav;
 	}
 
-	private ModelFactory getModelFactory(HandlerMethod handlerMethod, WebDataBinderFactory binderFactory) {
-		SessionAttributesHandler sessionAttrHandler = getSessionAttributesHandler(handlerMethod);
+	private List<InvocableHandlerMethod> getModelAttributeMethods(HandlerMethod handlerMethod,
+		WebDataBinderFactory binderFactory) {
 		Class<?> handlerType = handlerMethod.getBeanType();
-		Set<Method> methods = this.modelAttributeCache.get(handlerType);
-
-		if (methods == null) {
-			methods = MethodIntrospector.selectMethods(handlerType, MODEL_ATTRIBUTE_METHODS);
-			this.modelAttributeCache.put(handlerType, methods);
-		}
+		Set<Method> methods = selectModelAttributeMethods(handlerType);
 
 		List<InvocableHandlerMethod> attrMethods = new ArrayList<>();
 
@@ -921,29 +1264,73 @@ public class PortletRequestMappingHandlerAdapter extends AbstractPortletHandlerM
 			attrMethods.add(createModelAttributeMethod(binderFactory, bean, method));
 		}
 
-		return new ModelFactory(attrMethods, binderFactory, sessionAttrHandler);
+		return attrMethods;
 	}
 
 	/**
 	 * Return the {@link SessionAttributesHandler} instance for the given handler type (never {@code null}).
 	 */
-	private SessionAttributesHandler getSessionAttributesHandler(HandlerMethod handlerMethod) {
-		Class<?> handlerType = handlerMethod.getBeanType();
-		SessionAttributesHandler sessionAttrHandler = this.sessionAttributesHandlerCache.get(handlerType);
+	private SessionAttributesHandler getSessionAttributesHandler(Class<?> handlerType) {
+		return this.sessionAttributesHandlerCache.computeIfAbsent(handlerType,
+				type -> new SessionAttributesHandler(type, this.sessionAttributeStore));
+	}
+
+	/**
+	 * Bind the parameters of the handler methods, {@code @InitBinder} methods and {@code @ModelAttribute} methods of
+	 * all annotated handler beans in this adapter's application context to their argument resolvers at startup, rather
+	 * than probing the resolvers on first invocation. Parameters that no argument resolver supports are reported.
+	 */
+	private void initArgumentResolverBindings() {
+		ApplicationContext context = getApplicationContext();
 
-		if (sessionAttrHandler == null) {
+		if ((context == null) || (this.argumentResolvers == null) || (this.initBinderArgumentResolvers == null)) {
+			return;
+		}
 
-			synchronized (this.sessionAttributesHandlerCache) {
-				sessionAttrHandler = this.sessionAttributesHandlerCache.get(handlerType);
+		long startTime = System.currentTimeMillis();
+		int handlerCount = 0;
+		int parameterCount = 0;
+		List<String> unresolvedParameters = new ArrayList<>();
 
-				if (sessionAttrHandler == null) {
-					sessionAttrHandler = new SessionAttributesHandler(handlerType, this.sessionAttributeStore);
-					this.sessionAttributesHandlerCache.put(handlerType, sessionAttrHandler);
-				}
+		for (String beanName : context.getBeanNamesForType(Object.class)) {
+			Class<?> beanType = context.getType(beanName);
+
+			if ((beanType == null) ||
+					((context.findAnnotationOnBean(beanName, RequestMapping.class) == null) &&
+						(context.findAnnotationOnBean(beanName, Controller.class) == null))) {
+
+				continue;
+			}
+
+			Class<?> handlerType = ClassUtils.getUserClass(beanType);
+			PortletHandlerMethodResolver methodResolver = getMethodResolver(handlerType);
+
+			for (Method method : methodResolver.getHandlerMethods()) {
+				parameterCount += bindArgumentResolvers(beanName, method, this.argumentResolvers, null,
+						unresolvedParameters);
+			}
+
+			for (Method method : selectInitBinderMethods(handlerType)) {
+				parameterCount += bindArgumentResolvers(beanName, method, this.initBinderArgumentResolvers,
+						WebDataBinder.class, unresolvedParameters);
+			}
+
+			for (Method method : selectModelAttributeMethods(handlerType)) {
+				parameterCount += bindArgumentResolvers(beanName, method, this.argumentResolvers, null,
+						unresolvedParameters);
 			}
+
+			handlerCount++;
+		}
+
+		if (!unresolvedParameters.isEmpty() && logger.isWarnEnabled()) {
+			logger.warn("No suitable argument resolver for " + unresolvedParameters);
 		}
 
-		return sessionAttrHandler;
+		if (logger.isDebugEnabled()) {
+			logger.debug("Bound " + parameterCount + " parameters of " + handlerCount +
+				" handlers to argument resolvers in " + (System.currentTimeMillis() - startTime) + " ms");
+		}
 	}
 
 	private void initControllerAdviceCache() {
@@ -989,6 +1376,17 @@ public class PortletRequestMappingHandlerAdapter extends AbstractPortletHandlerM
 			this.requestResponseBodyAdvice.addAll(0, requestResponseBodyAdviceBeans);
 		}
 
+		// Invocation plans hold on to the resolved advice beans.
+		String[] adviceBeanNames = BeanFactoryUtils.beanNamesForAnnotationIncludingAncestors(getApplicationContext(),
+				ControllerAdvice.class);
+
+		for (String beanName : adviceBeanNames) {
+
+			if (!getApplicationContext().isSingleton(beanName)) {
+				this.prototypeAdviceBeans = true;
+			}
+		}
+
 		if (logger.isDebugEnabled()) {
 			int modelSize = this.modelAttributeAdviceCache.size();
 			int binderSize = this.initBinderAdviceCache.size();
@@ -1007,46 +1405,69 @@ public class PortletRequestMappingHandlerAdapter extends AbstractPortletHandlerM
 
 	@SuppressWarnings("unchecked")
 	private ModelAndView invokeHandlerMethod(PortletRequest request, PortletResponse response,
-		HandlerMethod handlerMethod, ModelMap implicitModel) throws Exception {
+		InvocationPlan invocationPlan, ModelMap implicitModel) throws Exception {
 
 		PortletWebRequest webRequest = new PortletWebRequest(request, response);
 
 		try {
-			WebDataBinderFactory binderFactory = getDataBinderFactory(handlerMethod);
-			ModelFactory modelFactory = getModelFactory(handlerMethod, binderFactory);
+			PortletInvocableHandlerMethod invocableMethod = invocationPlan.invocableMethod;
+			ModelFactory modelFactory = invocationPlan.createModelFactory();
+			WebAsyncManager asyncManager = null;
+
+			ModelAndViewContainer mavContainer = null;
+
+			if ((request instanceof ResourceRequest) && ((ResourceRequest) request).isAsyncSupported()) {
+				AsyncWebRequest asyncWebRequest = new PortletAsyncWebRequest((ResourceRequest) request,
+						(ResourceResponse) response);
+				asyncWebRequest.setTimeout(this.asyncRequestTimeout);
+
+				asyncManager = WebAsyncUtils.getAsyncManager(asyncWebRequest);
+				asyncManager.setTaskExecutor(this.taskExecutor);
+				asyncManager.setAsyncWebRequest(asyncWebRequest);
+
+				// Resume with the model of the initial dispatch rather than invoking the handler method again.
+				if (asyncManager.hasConcurrentResult()) {
+					Object result = asyncManager.getConcurrentResult();
+					mavContainer = (ModelAndViewContainer) asyncManager.getConcurrentResultContext()[0];
+					asyncManager.clearConcurrentResult();
+					invocableMethod = invocableMethod.wrapConcurrentResult(result);
+				}
+			}
 
-			PortletInvocableHandlerMethod invocableMethod = createInvocableHandlerMethod(handlerMethod);
+			if (mavContainer == null) {
 
-			if (this.argumentResolvers != null) {
-				invocableMethod.setHandlerMethodArgumentResolvers(this.argumentResolvers);
-			}
+				// Let the portlet container use its cached content if the validation token is unchanged.
+				if ((invocationPlan.cacheControl != null) && (response instanceof MimeResponse) &&
+						invocationPlan.cacheControl.apply(webRequest, request, (MimeResponse) response)) {
 
-			if (this.returnValueHandlers != null) {
-				invocableMethod.setHandlerMethodReturnValueHandlers(this.returnValueHandlers);
-			}
+					return null;
+				}
 
-			invocableMethod.setDataBinderFactory(binderFactory);
-			invocableMethod.setParameterNameDiscoverer(this.parameterNameDiscoverer);
+				mavContainer = new ModelAndViewContainer();
 
-			ModelAndViewContainer mavContainer = new ModelAndViewContainer();
-			ModelMap defaultModelMap = mavContainer.getModel();
+				if (implicitModel != null) {
+					mavContainer.getModel().putAll(implicitModel);
+				}
 
-			if (implicitModel != null) {
-				defaultModelMap.putAll(implicitModel);
-			}
+				RenderParameters renderParameters = request.getRenderParameters();
+				String sessionComplete = renderParameters.getValue(SESSION_COMPLETE_RENDER_PARAMETER);
 
-			RenderParameters renderParameters = request.getRenderParameters();
-			String sessionComplete = renderParameters.getValue(SESSION_COMPLETE_RENDER_PARAMETER);
+				if (Boolean.TRUE.toString().equals(sessionComplete)) {
+					mavContainer.getSessionStatus().setComplete();
+				}
 
-			if (Boolean.TRUE.toString().equals(sessionComplete)) {
-				mavContainer.getSessionStatus().setComplete();
+				invocationPlan.initModel(modelFactory, webRequest, mavContainer, invocableMethod);
+				mavContainer.setIgnoreDefaultModelOnRedirect(this.ignoreDefaultModelOnRedirect);
 			}
 
-			modelFactory.initModel(webRequest, mavContainer, invocableMethod);
-			mavContainer.setIgnoreDefaultModelOnRedirect(this.ignoreDefaultModelOnRedirect);
+			ModelMap defaultModelMap = mavContainer.getModel();
 
 			invocableMethod.invokeAndHandle(webRequest, mavContainer);
 
+			if ((asyncManager != null) && asyncManager.isConcurrentHandlingStarted()) {
+				return null;
+			}
+
 			SessionStatus sessionStatus = mavContainer.getSessionStatus();
 
 			if (sessionStatus.isComplete() && (response instanceof StateAwareResponse)) {
@@ -1090,62 +1511,444 @@ public class PortletRequestMappingHandlerAdapter extends AbstractPortletHandlerM
 		}
 	}
 
+	private Set<Method> selectInitBinderMethods(Class<?> handlerType) {
+		return this.initBinderCache.computeIfAbsent(handlerType,
+				type -> MethodIntrospector.selectMethods(type, INIT_BINDER_METHODS));
+	}
+
+	private Set<Method> selectModelAttributeMethods(Class<?> handlerType) {
+		return this.modelAttributeCache.computeIfAbsent(handlerType,
+				type -> MethodIntrospector.selectMethods(type, MODEL_ATTRIBUTE_METHODS));
+	}
+
 	/**
-	 * Portlet-specific subclass of {@code HandlerMethodResolver}.
+	 * A handler method together with its mapping and its position in declaration order.
 	 */
-	private static class PortletHandlerMethodResolver extends HandlerMethodResolver {
+	private static class IndexedHandlerMethod {
 
-		private final Map<Method, RequestMappingInfo> mappings = new HashMap<>();
+		public final Method duplicateOf;
 
-		public PortletHandlerMethodResolver(Class<?> handlerType) {
-			init(handlerType);
+		public final RequestMappingInfo mappingInfo;
+
+		public final Method method;
+
+		public final int position;
+
+		public final String valueKey;
+
+		public IndexedHandlerMethod(int position, Method method, RequestMappingInfo mappingInfo,
+			Method duplicateOf) {
+
+			this.position = position;
+			this.method = method;
+			this.mappingInfo = mappingInfo;
+			this.duplicateOf = duplicateOf;
+			this.valueKey = (StringUtils.hasLength(mappingInfo.value)
+					? PortletHandlerMethodIndex.toValueKey(mappingInfo.phase, mappingInfo.value) : null);
 		}
+	}
 
-		public Method resolveHandlerMethod(PortletRequest request) throws PortletException {
-			Map<RequestMappingInfo, Method> targetHandlerMethods = new LinkedHashMap<RequestMappingInfo, Method>();
+	/**
+	 * Everything needed to invoke a handler method that does not depend on the current request, created once per
+	 * handler method.
+	 */
+	private static class InvocationPlan {
 
-			for (Method handlerMethod : getHandlerMethods()) {
-				RequestMappingInfo mappingInfo = this.mappings.get(handlerMethod);
+		private final Object bean;
 
-				if (mappingInfo.match(request)) {
-					Method oldMappedMethod = targetHandlerMethods.put(mappingInfo, handlerMethod);
+		private final WebDataBinderFactory binderFactory;
 
-					if ((oldMappedMethod != null) && (oldMappedMethod != handlerMethod)) {
-						throw new IllegalStateException("Ambiguous handler methods mapped for portlet mode '" +
-							request.getPortletMode() + "': {" + oldMappedMethod + ", " + handlerMethod +
-							"}. If you intend to handle the same mode in multiple methods, then factor " +
-							"them out into a dedicated handler class with that mode mapped at the type level!");
+		@Nullable
+		private final MappedCacheControl cacheControl;
+
+		private final PortletInvocableHandlerMethod invocableMethod;
+
+		@Nullable
+		private final ConcurrentModelAttributeInvoker modelAttributeInvoker;
+
+		private final List<InvocableHandlerMethod> modelAttributeMethods;
+
+		private final boolean sessionAttributesAnnotated;
+
+		private final SessionAttributesHandler sessionAttributesHandler;
+
+		public InvocationPlan(Object bean, PortletInvocableHandlerMethod invocableMethod,
+			WebDataBinderFactory binderFactory, List<InvocableHandlerMethod> modelAttributeMethods,
+			@Nullable ConcurrentModelAttributeInvoker modelAttributeInvoker,
+			SessionAttributesHandler sessionAttributesHandler, boolean sessionAttributesAnnotated,
+			@Nullable MappedCacheControl cacheControl) {
+
+			this.bean = bean;
+			this.invocableMethod = invocableMethod;
+			this.binderFactory = binderFactory;
+			this.modelAttributeMethods = modelAttributeMethods;
+			this.modelAttributeInvoker = modelAttributeInvoker;
+			this.sessionAttributesHandler = sessionAttributesHandler;
+			this.sessionAttributesAnnotated = sessionAttributesAnnotated;
+			this.cacheControl = cacheControl;
+		}
+
+		/**
+		 * Create a ModelFactory for the current request, since it consumes its model attribute methods while
+		 * initializing the model.
+		 */
+		public ModelFactory createModelFactory() {
+
+			if (this.modelAttributeInvoker != null) {
+				return new ModelFactory(null, this.binderFactory, this.sessionAttributesHandler);
+			}
+
+			return new ModelFactory(this.modelAttributeMethods, this.binderFactory, this.sessionAttributesHandler);
+		}
+
+		/**
+		 * Populate the model with the session attributes and the return values of the model attribute methods. The
+		 * model attribute methods are invoked by the given ModelFactory unless they are invoked concurrently.
+		 */
+		public void initModel(ModelFactory modelFactory, NativeWebRequest webRequest,
+			ModelAndViewContainer mavContainer, HandlerMethod handlerMethod) throws Exception {
+
+			if (this.modelAttributeInvoker != null) {
+
+				// Merge the session attributes first, since they take precedence over model attribute methods.
+				mavContainer.mergeAttributes(this.sessionAttributesHandler.retrieveAttributes(webRequest));
+				this.modelAttributeInvoker.invokeModelAttributeMethods(webRequest, mavContainer);
+			}
+
+			modelFactory.initModel(webRequest, mavContainer, handlerMethod);
+		}
+	}
+
+	/**
+	 * The cache settings declared through the {@link RenderMapping} or {@link ResourceMapping} annotation of a handler
+	 * method.
+	 */
+	private static class MappedCacheControl {
+
+		@Nullable
+		private final PortletETagGenerator etagGenerator;
+
+		private final int expirationCache;
+
+		@Nullable
+		private final Boolean publicScope;
+
+		public MappedCacheControl(int expirationCache, @Nullable Boolean publicScope,
+			@Nullable PortletETagGenerator etagGenerator) {
+
+			this.expirationCache = expirationCache;
+			this.publicScope = publicScope;
+			this.etagGenerator = etagGenerator;
+		}
+
+		/**
+		 * Apply the cache settings to the given response, and check whether the content cached by the portlet
+		 * container is still valid.
+		 *
+		 * @return  {@code true} if the portlet container is to use its cached content
+		 */
+		public boolean apply(PortletWebRequest webRequest, PortletRequest request, MimeResponse response)
+			throws Exception {
+
+			CacheControl cacheControl = response.getCacheControl();
+
+			if (this.expirationCache != Integer.MIN_VALUE) {
+				cacheControl.setExpirationTime(this.expirationCache);
+			}
+
+			if (this.publicScope != null) {
+				cacheControl.setPublicScope(this.publicScope);
+			}
+
+			if (this.etagGenerator == null) {
+				return false;
+			}
+
+			String etag = this.etagGenerator.generateETag(request);
+
+			return (etag != null) && webRequest.checkNotModified(etag);
+		}
+	}
+
+	/**
+	 * Immutable dispatch index over the handler methods of a single handler type, built once when the corresponding
+	 * {@link PortletHandlerMethodResolver} is created. Handler methods are bucketed by lifecycle phase, then by portlet
+	 * mode, then by the phase-specific mapping value (action name, window state, resource ID or event name), so that
+	 * only the request method, parameter and header conditions of the remaining candidates need to be evaluated per
+	 * request. Every bucket preserves the declaration order of the handler methods, which keeps the best match
+	 * selection identical to a linear scan.
+	 */
+	private static class PortletHandlerMethodIndex {
+
+		private final PhaseEntry defaultPhaseEntry;
+
+		private final Map<String, PhaseEntry> phaseEntries = new HashMap<>();
+
+		public PortletHandlerMethodIndex(Set<Method> handlerMethods, Map<Method, RequestMappingInfo> mappings) {
+			List<IndexedHandlerMethod> indexedHandlerMethods = new ArrayList<>(handlerMethods.size());
+			Set<String> phases = new HashSet<>();
+
+			for (Method handlerMethod : handlerMethods) {
+				RequestMappingInfo mappingInfo = mappings.get(handlerMethod);
+				Method duplicateOf = null;
+
+				// Equal mappings always match together, so the ambiguity can be detected up-front.
+				for (IndexedHandlerMethod indexedHandlerMethod : indexedHandlerMethods) {
+
+					if (indexedHandlerMethod.mappingInfo.equals(mappingInfo)) {
+						duplicateOf = indexedHandlerMethod.method;
+
+						break;
 					}
 				}
+
+				indexedHandlerMethods.add(new IndexedHandlerMethod(indexedHandlerMethods.size(), handlerMethod,
+						mappingInfo, duplicateOf));
+
+				if (StringUtils.hasLength(mappingInfo.phase)) {
+					phases.add(mappingInfo.phase);
+				}
+			}
+
+			for (String phase : phases) {
+				this.phaseEntries.put(phase, new PhaseEntry(phase, indexedHandlerMethods));
 			}
 
-			if (!targetHandlerMethods.isEmpty()) {
+			this.defaultPhaseEntry = new PhaseEntry(null, indexedHandlerMethods);
+		}
+
+		/**
+		 * Return the handler methods that match the phase, portlet mode and phase-specific value of the given request,
+		 * in declaration order.
+		 */
+		public IndexedHandlerMethod[] getCandidates(PortletRequest request) {
+			PhaseEntry phaseEntry = this.phaseEntries.get(request.getAttribute(PortletRequest.LIFECYCLE_PHASE));
+
+			if (phaseEntry == null) {
+				phaseEntry = this.defaultPhaseEntry;
+			}
+
+			ModeEntry modeEntry = phaseEntry.modeEntries.get(request.getPortletMode());
+
+			if (modeEntry == null) {
+				modeEntry = phaseEntry.defaultModeEntry;
+			}
+
+			return modeEntry.getCandidates(request);
+		}
+
+		private static IndexedHandlerMethod[] merge(IndexedHandlerMethod[] candidates1,
+			IndexedHandlerMethod[] candidates2) {
 
-				if (targetHandlerMethods.size() == 1) {
-					return targetHandlerMethods.values().iterator().next();
+			List<IndexedHandlerMethod> merged = new ArrayList<>(candidates1.length + candidates2.length);
+			int i = 0;
+			int j = 0;
+
+			while ((i < candidates1.length) || (j < candidates2.length)) {
+
+				if (j == candidates2.length) {
+					merged.add(candidates1[i++]);
+				}
+				else if ((i == candidates1.length) || (candidates2[j].position < candidates1[i].position)) {
+					merged.add(candidates2[j++]);
 				}
 				else {
-					RequestMappingInfo bestMappingMatch = null;
 
-					for (RequestMappingInfo mapping : targetHandlerMethods.keySet()) {
+					if (candidates1[i].position == candidates2[j].position) {
+						j++;
+					}
+
+					merged.add(candidates1[i++]);
+				}
+			}
+
+			return merged.toArray(new IndexedHandlerMethod[0]);
+		}
+
+		private static String toValueKey(String phase, String value) {
+
+			if (PortletRequest.RENDER_PHASE.equals(phase)) {
+
+				// Normalize the same way as WindowState names.
+				return PortletStateRegistry.getWindowState(value).toString();
+			}
+
+			return value;
+		}
+
+		/**
+		 * Candidates for a single lifecycle phase and portlet mode, further keyed by the phase-specific mapping value.
+		 */
+		private static class ModeEntry {
 
-						if (bestMappingMatch == null) {
-							bestMappingMatch = mapping;
+			private final IndexedHandlerMethod[] defaultCandidates;
+
+			private final String phase;
+
+			private final Map<String, IndexedHandlerMethod[]> valueCandidates = new HashMap<>();
+
+			public ModeEntry(String phase, List<IndexedHandlerMethod> indexedHandlerMethods) {
+				this.phase = phase;
+
+				List<IndexedHandlerMethod> defaultCandidates = new ArrayList<>();
+				Set<String> valueKeys = new HashSet<>();
+
+				for (IndexedHandlerMethod indexedHandlerMethod : indexedHandlerMethods) {
+
+					if (indexedHandlerMethod.valueKey == null) {
+						defaultCandidates.add(indexedHandlerMethod);
+					}
+					else {
+						valueKeys.add(indexedHandlerMethod.valueKey);
+					}
+				}
+
+				for (String valueKey : valueKeys) {
+					List<IndexedHandlerMethod> candidates = new ArrayList<>();
+
+					for (IndexedHandlerMethod indexedHandlerMethod : indexedHandlerMethods) {
+
+						if ((indexedHandlerMethod.valueKey == null) || valueKey.equals(indexedHandlerMethod.valueKey)) {
+							candidates.add(indexedHandlerMethod);
 						}
-						else {
+					}
+
+					this.valueCandidates.put(valueKey, candidates.toArray(new IndexedHandlerMethod[0]));
+				}
+
+				this.defaultCandidates = defaultCandidates.toArray(new IndexedHandlerMethod[0]);
+			}
+
+			public IndexedHandlerMethod[] getCandidates(PortletRequest request) {
+
+				if (this.valueCandidates.isEmpty()) {
+					return this.defaultCandidates;
+				}
+
+				IndexedHandlerMethod[] candidates = null;
+
+				if (PortletRequest.ACTION_PHASE.equals(this.phase)) {
+					candidates = this.valueCandidates.get(request.getParameter(ActionRequest.ACTION_NAME));
+				}
+				else if (PortletRequest.RENDER_PHASE.equals(this.phase)) {
+					WindowState windowState = request.getWindowState();
+
+					if (windowState != null) {
+						candidates = this.valueCandidates.get(windowState.toString());
+					}
+				}
+				else if (PortletRequest.RESOURCE_PHASE.equals(this.phase)) {
+					candidates = this.valueCandidates.get(((ResourceRequest) request).getResourceID());
+				}
+				else if (PortletRequest.EVENT_PHASE.equals(this.phase)) {
+					Event event = ((EventRequest) request).getEvent();
+					IndexedHandlerMethod[] nameCandidates = this.valueCandidates.get(event.getName());
+					IndexedHandlerMethod[] qNameCandidates = this.valueCandidates.get(event.getQName().toString());
+
+					if ((nameCandidates != null) && (qNameCandidates != null) && (nameCandidates != qNameCandidates)) {
+						candidates = merge(nameCandidates, qNameCandidates);
+					}
+					else {
+						candidates = ((nameCandidates != null) ? nameCandidates : qNameCandidates);
+					}
+				}
+
+				return ((candidates != null) ? candidates : this.defaultCandidates);
+			}
+		}
+
+		/**
+		 * Candidates for a single lifecycle phase, keyed by portlet mode.
+		 */
+		private static class PhaseEntry {
+
+			private final ModeEntry defaultModeEntry;
+
+			private final Map<PortletMode, ModeEntry> modeEntries = new HashMap<>();
+
+			public PhaseEntry(String phase, List<IndexedHandlerMethod> indexedHandlerMethods) {
+				List<IndexedHandlerMethod> phaseCandidates = new ArrayList<>();
+				Set<PortletMode> modes = new HashSet<>();
+
+				for (IndexedHandlerMethod indexedHandlerMethod : indexedHandlerMethods) {
+					String mappedPhase = indexedHandlerMethod.mappingInfo.phase;
+
+					if (!StringUtils.hasLength(mappedPhase) || mappedPhase.equals(phase)) {
+						phaseCandidates.add(indexedHandlerMethod);
+						modes.addAll(indexedHandlerMethod.mappingInfo.modes);
+					}
+				}
+
+				for (PortletMode mode : modes) {
+					List<IndexedHandlerMethod> modeCandidates = new ArrayList<>();
 
-							if (mapping.isBetterMatchThan(bestMappingMatch)) {
-								bestMappingMatch = mapping;
-							}
+					for (IndexedHandlerMethod indexedHandlerMethod : phaseCandidates) {
+						Set<PortletMode> mappedModes = indexedHandlerMethod.mappingInfo.modes;
+
+						if (mappedModes.isEmpty() || mappedModes.contains(mode)) {
+							modeCandidates.add(indexedHandlerMethod);
 						}
 					}
 
-					return targetHandlerMethods.get(bestMappingMatch);
+					this.modeEntries.put(mode, new ModeEntry(phase, modeCandidates));
+				}
+
+				List<IndexedHandlerMethod> defaultModeCandidates = new ArrayList<>();
+
+				for (IndexedHandlerMethod indexedHandlerMethod : phaseCandidates) {
+
+					if (indexedHandlerMethod.mappingInfo.modes.isEmpty()) {
+						defaultModeCandidates.add(indexedHandlerMethod);
+					}
 				}
+
+				this.defaultModeEntry = new ModeEntry(phase, defaultModeCandidates);
 			}
-			else {
+		}
+	}
+
+	/**
+	 * Portlet-specific subclass of {@code HandlerMethodResolver}.
+	 */
+	private static class PortletHandlerMethodResolver extends HandlerMethodResolver {
+
+		private final PortletHandlerMethodIndex index;
+
+		private final Map<Method, RequestMappingInfo> mappings = new HashMap<>();
+
+		private final PortletMappingMetadataRegistry registry;
+
+		public PortletHandlerMethodResolver(Class<?> handlerType, PortletMappingMetadataRegistry registry) {
+			this.registry = registry;
+			init(handlerType);
+			this.index = new PortletHandlerMethodIndex(getHandlerMethods(), this.mappings);
+		}
+
+		public Method resolveHandlerMethod(PortletRequest request) throws PortletException {
+			IndexedHandlerMethod bestMatch = null;
+
+			for (IndexedHandlerMethod candidate : this.index.getCandidates(request)) {
+
+				if (candidate.mappingInfo.matchConditions(request)) {
+
+					if (candidate.duplicateOf != null) {
+						throw new IllegalStateException("Ambiguous handler methods mapped for portlet mode '" +
+							request.getPortletMode() + "': {" + candidate.duplicateOf + ", " + candidate.method +
+							"}. If you intend to handle the same mode in multiple methods, then factor " +
+							"them out into a dedicated handler class with that mode mapped at the type level!");
+					}
+
+					if ((bestMatch == null) || candidate.mappingInfo.isBetterMatchThan(bestMatch.mappingInfo)) {
+						bestMatch = candidate;
+					}
+				}
+			}
+
+			if (bestMatch == null) {
 				throw new NoHandlerFoundException("No matching handler method found for portlet request", request);
 			}
+
+			return bestMatch.method;
 		}
 
 		@Override
@@ -1156,11 +1959,12 @@ public class PortletRequestMappingHandlerAdapter extends AbstractPortletHandlerM
 			}
 
 			RequestMappingInfo mappingInfo = new RequestMappingInfo();
-			ActionMapping actionMapping = AnnotationUtils.findAnnotation(method, ActionMapping.class);
-			RenderMapping renderMapping = AnnotationUtils.findAnnotation(method, RenderMapping.class);
-			ResourceMapping resourceMapping = AnnotationUtils.findAnnotation(method, ResourceMapping.class);
-			EventMapping eventMapping = AnnotationUtils.findAnnotation(method, EventMapping.class);
-			RequestMapping requestMapping = AnnotationUtils.findAnnotation(method, RequestMapping.class);
+			MethodMappingMetadata metadata = this.registry.getMethodMetadata(method);
+			ActionMapping actionMapping = metadata.getActionMapping();
+			RenderMapping renderMapping = metadata.getRenderMapping();
+			ResourceMapping resourceMapping = metadata.getResourceMapping();
+			EventMapping eventMapping = metadata.getEventMapping();
+			RequestMapping requestMapping = metadata.getRequestMapping();
 
 			if (actionMapping != null) {
 				mappingInfo.initPhaseMapping(PortletRequest.ACTION_PHASE, actionMapping.name(), actionMapping.params());
@@ -1197,6 +2001,16 @@ public class PortletRequestMappingHandlerAdapter extends AbstractPortletHandlerM
 			return false;
 		}
 
+		@Override
+		protected boolean isInitBinderMethod(Method method) {
+			return this.registry.getMethodMetadata(method).getInitBinder() != null;
+		}
+
+		@Override
+		protected boolean isModelAttributeMethod(Method method) {
+			return this.registry.getMethodMetadata(method).getModelAttribute() != null;
+		}
+
 		private String determineDefaultPhase(Method handlerMethod) {
 
 			if (void.class != handlerMethod.getReturnType()) {
@@ -1245,6 +2059,10 @@ public class PortletRequestMappingHandlerAdapter extends AbstractPortletHandlerM
 
 		public String[] headers = new String[0];
 
+		private HeaderCondition[] headerConditions = new HeaderCondition[0];
+
+		private ParameterCondition[] parameterConditions = new ParameterCondition[0];
+
 		@Override
 		public boolean equals(Object obj) {
 			RequestMappingInfo other = (RequestMappingInfo) obj;
@@ -1269,12 +2087,13 @@ public class PortletRequestMappingHandlerAdapter extends AbstractPortletHandlerM
 			this.phase = phase;
 			this.value = value;
 			this.params = mergeStringArrays(this.params, params);
+			this.parameterConditions = PortletAnnotationMappingUtils.compileParameters(this.params);
 		}
 
 		public void initStandardMapping(String[] modes, RequestMethod[] methods, String[] params, String[] headers) {
 
 			for (String mode : modes) {
-				this.modes.add(new PortletMode(mode));
+				this.modes.add(PortletStateRegistry.getPortletMode(mode));
 			}
 
 			for (RequestMethod method : methods) {
@@ -1283,6 +2102,8 @@ public class PortletRequestMappingHandlerAdapter extends AbstractPortletHandlerM
 
 			this.params = mergeStringArrays(this.params, params);
 			this.headers = mergeStringArrays(this.headers, headers);
+			this.parameterConditions = PortletAnnotationMappingUtils.compileParameters(this.params);
+			this.headerConditions = PortletAnnotationMappingUtils.compileHeaders(this.headers);
 		}
 
 		public boolean isBetterMatchThan(RequestMappingInfo other) {
@@ -1292,43 +2113,14 @@ public class PortletRequestMappingHandlerAdapter extends AbstractPortletHandlerM
 					(!this.methods.isEmpty() && other.methods.isEmpty()) || (this.params.length > other.params.length));
 		}
 
-		public boolean match(PortletRequest request) {
-
-			if (!this.modes.isEmpty() && !this.modes.contains(request.getPortletMode())) {
-				return false;
-			}
-
-			if (StringUtils.hasLength(this.phase) &&
-					!this.phase.equals(request.getAttribute(PortletRequest.LIFECYCLE_PHASE))) {
-				return false;
-			}
-
-			if (StringUtils.hasLength(this.value)) {
-
-				if (this.phase.equals(PortletRequest.ACTION_PHASE) &&
-						!this.value.equals(request.getParameter(ActionRequest.ACTION_NAME))) {
-					return false;
-				}
-				else if (this.phase.equals(PortletRequest.RENDER_PHASE) &&
-						!(new WindowState(this.value)).equals(request.getWindowState())) {
-					return false;
-				}
-				else if (this.phase.equals(PortletRequest.RESOURCE_PHASE) &&
-						!this.value.equals(((ResourceRequest) request).getResourceID())) {
-					return false;
-				}
-				else if (this.phase.equals(PortletRequest.EVENT_PHASE)) {
-					Event event = ((EventRequest) request).getEvent();
-
-					if (!this.value.equals(event.getName()) && !this.value.equals(event.getQName().toString())) {
-						return false;
-					}
-				}
-			}
-
+		/**
+		 * Check the request method, parameter and header conditions of this mapping. The phase, portlet mode and
+		 * phase-specific value are matched by the {@link PortletHandlerMethodIndex}.
+		 */
+		public boolean matchConditions(PortletRequest request) {
 			return (PortletAnnotationMappingUtils.checkRequestMethod(this.methods, request) &&
-					PortletAnnotationMappingUtils.checkParameters(this.params, request) &&
-					PortletAnnotationMappingUtils.checkHeaders(this.headers, request));
+					PortletAnnotationMappingUtils.checkParameters(this.parameterConditions, request) &&
+					PortletAnnotationMappingUtils.checkHeaders(this.headerConditions, request));
 		}
 
 		private static String[] mergeStringArrays(String[] array1, String[] array2) {
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.mvc.method.annotation;
+
+import java.io.OutputStream;
+
+import jakarta.portlet.ResourceRequest;
+import jakarta.portlet.ResourceResponse;
+
+import org.springframework.core.MethodParameter;
+
+import org.springframework.util.Assert;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+
+/**
+ * Supports return values of type {@link StreamingResponseBody} in the resource phase, as an alternative to {@link
+ * org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBodyReturnValueHandler}, which requires a
+ * servlet response.
+ *
+ * <p>If the portlet supports async processing, the body is written to the output stream of the resource response by
+ * the {@link org.springframework.core.task.AsyncTaskExecutor} of the handler adapter, so that large responses do not
+ * block the thread of the portlet container. Otherwise, the body is written by the calling thread.
+ *
+ * @author  Neil Griffin
+ * @since   6.0
+ */
+public class PortletStreamingResponseBodyReturnValueHandler implements HandlerMethodReturnValueHandler {
+
+	@Override
+	public void handleReturnValue(Object returnValue, MethodParameter returnType, ModelAndViewContainer mavContainer,
+		NativeWebRequest webRequest) throws Exception {
+
+		mavContainer.setRequestHandled(true);
+
+		if (returnValue == null) {
+			return;
+		}
+
+		ResourceRequest request = webRequest.getNativeRequest(ResourceRequest.class);
+		ResourceResponse response = webRequest.getNativeResponse(ResourceResponse.class);
+		Assert.state((request != null) && (response != null),
+			"StreamingResponseBody return values are only supported in the resource phase");
+
+		StreamingResponseBody streamingBody = (StreamingResponseBody) returnValue;
+
+		if (!request.isAsyncSupported()) {
+			writeTo(streamingBody, response);
+
+			return;
+		}
+
+		WebAsyncUtils.getAsyncManager(webRequest).startCallableProcessing(() -> {
+				writeTo(streamingBody, response);
+
+				return null;
+			}, mavContainer);
+	}
+
+	@Override
+	public boolean supportsReturnType(MethodParameter returnType) {
+		return StreamingResponseBody.class.isAssignableFrom(returnType.getParameterType());
+	}
+
+	private static void writeTo(StreamingResponseBody streamingBody, ResourceResponse response) throws Exception {
+		OutputStream outputStream = response.getPortletOutputStream();
+		streamingBody.writeTo(outputStream);
+		outputStream.flush();
+	}
+
+}
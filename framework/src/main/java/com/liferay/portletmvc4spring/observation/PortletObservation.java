@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.observation;
+
+import jakarta.portlet.PortletRequest;
+
+
+/**
+ * Observation of the processing of a single portlet request, created by a {@link PortletObservationRegistry} when the
+ * request enters the {@link com.liferay.portletmvc4spring.FrameworkPortlet} and stopped when the request has been
+ * processed.
+ *
+ * <p>The {@link com.liferay.portletmvc4spring.DispatcherPortlet} measures the time spent in each {@link Stage} of the
+ * request processing with {@link #startTimer} and {@link #stopTimer}. Implementations read the clock with {@link
+ * System#nanoTime()} in these methods, so that the {@link #NOOP} observation avoids reading the clock at all. A stage
+ * may be timed several times per request (e.g. the interceptors before and after the handler invocation), in which case
+ * the elapsed times are meant to be added up.
+ *
+ * <p>Observations are used by a single thread at a time and need not be thread-safe.
+ *
+ * @author  Neil Griffin
+ * @since   6.0
+ * @see     PortletObservationRegistry
+ */
+public interface PortletObservation {
+
+	/**
+	 * Name of the request attribute that holds the current observation, unless observation is disabled.
+	 *
+	 * @see  #getObservation(PortletRequest)
+	 */
+	String OBSERVATION_ATTRIBUTE = PortletObservation.class.getName() + ".OBSERVATION";
+
+	/** Observation that records nothing. */
+	PortletObservation NOOP = new PortletObservation() {
+
+			@Override
+			public void setHandler(Object handler) {
+			}
+
+			@Override
+			public long startTimer(Stage stage) {
+				return 0;
+			}
+
+			@Override
+			public void stop(Throwable failureCause) {
+			}
+
+			@Override
+			public void stopTimer(Stage stage, long startTime, boolean failed) {
+			}
+
+			@Override
+			public String toString() {
+				return "PortletObservation.NOOP";
+			}
+		};
+
+	/**
+	 * Return the observation of the given request.
+	 *
+	 * @param   request  current portlet request
+	 *
+	 * @return  the observation exposed as {@link #OBSERVATION_ATTRIBUTE}, or {@link #NOOP} if none
+	 */
+	static PortletObservation getObservation(PortletRequest request) {
+		Object observation = request.getAttribute(OBSERVATION_ATTRIBUTE);
+
+		if (observation instanceof PortletObservation) {
+			return (PortletObservation) observation;
+		}
+
+		return NOOP;
+	}
+
+	/**
+	 * Set the handler of the request. Invoked by the {@link com.liferay.portletmvc4spring.DispatcherPortlet} with the
+	 * handler determined by the handler mappings, and again by handler adapters that resolve a handler method (with a
+	 * {@link org.springframework.web.method.HandlerMethod}).
+	 *
+	 * @param  handler  the handler object
+	 */
+	void setHandler(Object handler);
+
+	/**
+	 * Start timing the given stage.
+	 *
+	 * @param   stage  the stage of the request processing
+	 *
+	 * @return  the start time, to be passed to {@link #stopTimer}
+	 */
+	long startTimer(Stage stage);
+
+	/**
+	 * Stop this observation when the request has been processed.
+	 *
+	 * @param  failureCause  the cause of failure, or {@code null} if the request was processed successfully
+	 */
+	void stop(Throwable failureCause);
+
+	/**
+	 * Stop timing the given stage. Invoked in a {@code finally} block, so that a stage that fails is timed as well.
+	 *
+	 * @param  stage      the stage of the request processing
+	 * @param  startTime  the start time returned by {@link #startTimer}
+	 * @param  failed     whether the stage ended with an exception
+	 */
+	void stopTimer(Stage stage, long startTime, boolean failed);
+
+	/**
+	 * The stages of the request processing that are timed separately.
+	 */
+	enum Stage {
+
+		/** Resolution of an exception thrown by the handler or an interceptor into an error view. */
+		EXCEPTION_RESOLUTION,
+
+		/** Invocation of the handler by its handler adapter. */
+		HANDLER_INVOCATION,
+
+		/** Determination of the handler by the handler mappings. */
+		HANDLER_LOOKUP,
+
+		/** Invocation of the handler interceptors, before and after the handler. */
+		INTERCEPTORS,
+
+		/**
+		 * Waiting for the session lock of a handler that synchronizes on the session, as part of the {@link
+		 * #HANDLER_INVOCATION}.
+		 */
+		SESSION_LOCK,
+
+		/** Resolution and rendering of the view. */
+		VIEW_RENDERING
+	}
+
+}
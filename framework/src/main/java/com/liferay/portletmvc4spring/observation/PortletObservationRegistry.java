@@ -0,0 +1,49 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.observation;
+
+import jakarta.portlet.PortletRequest;
+
+
+/**
+ * Strategy for creating a {@link PortletObservation} for each portlet request processed by a {@link
+ * com.liferay.portletmvc4spring.FrameworkPortlet}, typically adapting a metrics library.
+ *
+ * <p>The {@link com.liferay.portletmvc4spring.DispatcherPortlet} detects a bean of this type with the name {@link
+ * com.liferay.portletmvc4spring.DispatcherPortlet#OBSERVATION_REGISTRY_BEAN_NAME}. Without such a bean, the {@link
+ * #NOOP} registry is used and no observation takes place.
+ *
+ * @author  Neil Griffin
+ * @since   6.0
+ * @see     SimplePortletObservationRegistry
+ */
+public interface PortletObservationRegistry {
+
+	/** Registry that disables observation. */
+	PortletObservationRegistry NOOP = (portletName, request) -> PortletObservation.NOOP;
+
+	/**
+	 * Start observing the given request.
+	 *
+	 * @param   portletName  the name of the portlet that processes the request
+	 * @param   request      current portlet request, exposing the lifecycle phase as {@link
+	 *                       PortletRequest#LIFECYCLE_PHASE} attribute
+	 *
+	 * @return  the observation of the request (never {@code null})
+	 */
+	PortletObservation start(String portletName, PortletRequest request);
+
+}
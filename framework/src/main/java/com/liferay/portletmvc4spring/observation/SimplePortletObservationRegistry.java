@@ -0,0 +1,324 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.observation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import jakarta.portlet.PortletRequest;
+
+import org.springframework.util.ClassUtils;
+
+import org.springframework.web.method.HandlerMethod;
+
+
+/**
+ * {@link PortletObservationRegistry} that aggregates the observations in memory, with a {@link PortletTimer} for each
+ * combination of portlet name, lifecycle phase, portlet mode, handler and {@link PortletObservation.Stage}, plus one
+ * timer per combination for the processing of the request as a whole.
+ *
+ * <p>Handler methods are identified as "ShortClassName#methodName", other handlers by their short class name. The
+ * timers are meant to be inspected with {@link #getTimers()} (e.g. exposed through JMX or a diagnostics page) in order
+ * to find out which portlet on a page is slow. For percentiles and histograms, adapt a metrics library instead.
+ *
+ * @author  Neil Griffin
+ * @since   6.0
+ */
+public class SimplePortletObservationRegistry implements PortletObservationRegistry {
+
+	private final ConcurrentMap<TimerKey, PortletTimer> timers = new ConcurrentHashMap<TimerKey, PortletTimer>();
+
+	/**
+	 * Return a snapshot of the timers recorded so far.
+	 *
+	 * @return  the timers, in no particular order
+	 */
+	public List<PortletTimer> getTimers() {
+		return Collections.unmodifiableList(new ArrayList<PortletTimer>(this.timers.values()));
+	}
+
+	/**
+	 * Remove all timers recorded so far.
+	 */
+	public void reset() {
+		this.timers.clear();
+	}
+
+	@Override
+	public PortletObservation start(String portletName, PortletRequest request) {
+		return new SimplePortletObservation(portletName, (String) request.getAttribute(PortletRequest.LIFECYCLE_PHASE),
+				String.valueOf(request.getPortletMode()));
+	}
+
+	private PortletTimer getTimer(String portletName, String phase, String portletMode, String handler,
+		PortletObservation.Stage stage) {
+
+		TimerKey timerKey = new TimerKey(portletName, phase, portletMode, handler, stage);
+		PortletTimer timer = this.timers.get(timerKey);
+
+		if (timer == null) {
+			timer = this.timers.computeIfAbsent(timerKey, key -> new PortletTimer(key));
+		}
+
+		return timer;
+	}
+
+	/**
+	 * Aggregated durations of one kind of observation.
+	 */
+	public static final class PortletTimer {
+
+		private final LongAdder count = new LongAdder();
+
+		private final LongAdder failureCount = new LongAdder();
+
+		private final TimerKey key;
+
+		private final LongAccumulator maxTime = new LongAccumulator(Math::max, 0);
+
+		private final LongAdder totalTime = new LongAdder();
+
+		private PortletTimer(TimerKey key) {
+			this.key = key;
+		}
+
+		/**
+		 * Return the number of recorded durations.
+		 */
+		public long getCount() {
+			return this.count.sum();
+		}
+
+		/**
+		 * Return the number of recorded requests that failed or, for the timer of a stage, the number of recorded
+		 * requests in which the stage ended with an exception.
+		 */
+		public long getFailureCount() {
+			return this.failureCount.sum();
+		}
+
+		/**
+		 * Return the handler, or "none" if no handler was found.
+		 */
+		public String getHandler() {
+			return this.key.handler;
+		}
+
+		/**
+		 * Return the longest recorded duration.
+		 *
+		 * @param  unit  the time unit of the result
+		 */
+		public long getMaxTime(TimeUnit unit) {
+			return unit.convert(this.maxTime.get(), TimeUnit.NANOSECONDS);
+		}
+
+		/**
+		 * Return the lifecycle phase, e.g. {@link PortletRequest#RENDER_PHASE}.
+		 */
+		public String getPhase() {
+			return this.key.phase;
+		}
+
+		/**
+		 * Return the name of the portlet.
+		 */
+		public String getPortletName() {
+			return this.key.portletName;
+		}
+
+		/**
+		 * Return the name of the portlet mode.
+		 */
+		public String getPortletMode() {
+			return this.key.portletMode;
+		}
+
+		/**
+		 * Return the stage, or {@code null} for the timer of the processing of the request as a whole.
+		 */
+		public PortletObservation.Stage getStage() {
+			return this.key.stage;
+		}
+
+		/**
+		 * Return the sum of the recorded durations.
+		 *
+		 * @param  unit  the time unit of the result
+		 */
+		public long getTotalTime(TimeUnit unit) {
+			return unit.convert(this.totalTime.sum(), TimeUnit.NANOSECONDS);
+		}
+
+		@Override
+		public String toString() {
+			return "PortletTimer [" + this.key + ", count=" + getCount() + ", failureCount=" + getFailureCount() +
+				", totalTime=" + getTotalTime(TimeUnit.MICROSECONDS) + "us, maxTime=" +
+				getMaxTime(TimeUnit.MICROSECONDS) + "us]";
+		}
+
+		private void record(long nanos, boolean failed) {
+			this.count.increment();
+			this.totalTime.add(nanos);
+			this.maxTime.accumulate(nanos);
+
+			if (failed) {
+				this.failureCount.increment();
+			}
+		}
+	}
+
+	private final class SimplePortletObservation implements PortletObservation {
+
+		private final boolean[] failedStages = new boolean[Stage.values().length];
+
+		private Object handler;
+
+		private final String phase;
+
+		private final String portletMode;
+
+		private final String portletName;
+
+		private final long startTime = System.nanoTime();
+
+		private final long[] stageTimes = new long[Stage.values().length];
+
+		private final boolean[] timedStages = new boolean[Stage.values().length];
+
+		public SimplePortletObservation(String portletName, String phase, String portletMode) {
+			this.portletName = portletName;
+			this.phase = phase;
+			this.portletMode = portletMode;
+		}
+
+		@Override
+		public void setHandler(Object handler) {
+			this.handler = handler;
+		}
+
+		@Override
+		public long startTimer(Stage stage) {
+			return System.nanoTime();
+		}
+
+		@Override
+		public void stop(Throwable failureCause) {
+			long elapsedTime = System.nanoTime() - this.startTime;
+			String handlerName = getHandlerName();
+
+			getTimer(this.portletName, this.phase, this.portletMode, handlerName, null).record(elapsedTime,
+				failureCause != null);
+
+			for (Stage stage : Stage.values()) {
+
+				if (this.timedStages[stage.ordinal()]) {
+					getTimer(this.portletName, this.phase, this.portletMode, handlerName, stage).record(
+						this.stageTimes[stage.ordinal()], this.failedStages[stage.ordinal()]);
+				}
+			}
+		}
+
+		@Override
+		public void stopTimer(Stage stage, long startTime, boolean failed) {
+			this.stageTimes[stage.ordinal()] += System.nanoTime() - startTime;
+			this.timedStages[stage.ordinal()] = true;
+
+			if (failed) {
+				this.failedStages[stage.ordinal()] = true;
+			}
+		}
+
+		private String getHandlerName() {
+
+			if (this.handler == null) {
+				return "none";
+			}
+
+			if (this.handler instanceof HandlerMethod) {
+				HandlerMethod handlerMethod = (HandlerMethod) this.handler;
+
+				return ClassUtils.getShortName(handlerMethod.getBeanType()) + "#" +
+					handlerMethod.getMethod().getName();
+			}
+
+			return ClassUtils.getShortName(ClassUtils.getUserClass(this.handler));
+		}
+	}
+
+	private static final class TimerKey {
+
+		private final String handler;
+
+		private final int hashCode;
+
+		private final String phase;
+
+		private final String portletMode;
+
+		private final String portletName;
+
+		private final PortletObservation.Stage stage;
+
+		public TimerKey(String portletName, String phase, String portletMode, String handler,
+			PortletObservation.Stage stage) {
+
+			this.portletName = portletName;
+			this.phase = phase;
+			this.portletMode = portletMode;
+			this.handler = handler;
+			this.stage = stage;
+			this.hashCode = Objects.hash(portletName, phase, portletMode, handler, stage);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+
+			if (this == other) {
+				return true;
+			}
+
+			if (!(other instanceof TimerKey)) {
+				return false;
+			}
+
+			TimerKey otherKey = (TimerKey) other;
+
+			return Objects.equals(this.portletName, otherKey.portletName) &&
+				Objects.equals(this.phase, otherKey.phase) && Objects.equals(this.portletMode, otherKey.portletMode) &&
+				Objects.equals(this.handler, otherKey.handler) && (this.stage == otherKey.stage);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+
+		@Override
+		public String toString() {
+			return "portletName=" + this.portletName + ", phase=" + this.phase + ", portletMode=" + this.portletMode +
+				", handler=" + this.handler + ", stage=" + this.stage;
+		}
+	}
+
+}
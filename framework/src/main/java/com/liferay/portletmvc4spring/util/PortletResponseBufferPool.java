@@ -0,0 +1,438 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+import jakarta.portlet.MimeResponse;
+import jakarta.portlet.RenderResponse;
+import jakarta.portlet.ResourceResponse;
+import jakarta.portlet.filter.RenderResponseWrapper;
+import jakarta.portlet.filter.ResourceResponseWrapper;
+
+import org.springframework.util.Assert;
+
+
+/**
+ * Pool of reusable buffers for the content of render and resource responses. A view that is rendered to a {@link
+ * Buffer#getResponse() buffered response} writes to an in-memory buffer rather than to the response of the portlet
+ * container, and the content is handed to the portlet container in a single write on {@link Buffer#commit()}, instead
+ * of being flushed in small chunks through the wrapper layers of the portlet container.
+ *
+ * <p>Character content is kept as characters, so that it is encoded only once by the writer of the portlet container.
+ * The pool retains up to the given number of idle buffers: further buffers are allocated on demand and discarded on
+ * release, and the arrays of a buffer that had to grow beyond the configured size are not retained either.
+ *
+ * @author  Neil Griffin
+ * @since   6.0
+ */
+public class PortletResponseBufferPool {
+
+	private final LongAdder acquireCount = new LongAdder();
+
+	private final int bufferSize;
+
+	private final LongAdder bytesWritten = new LongAdder();
+
+	private final BlockingQueue<Buffer> idleBuffers;
+
+	private final LongAdder reuseCount = new LongAdder();
+
+	/**
+	 * Create a new PortletResponseBufferPool.
+	 *
+	 * @param  bufferSize  the initial size of each buffer, in bytes or characters
+	 * @param  capacity    the maximum number of idle buffers to retain
+	 */
+	public PortletResponseBufferPool(int bufferSize, int capacity) {
+		Assert.isTrue(bufferSize > 0, "Buffer size must be greater than 0");
+		Assert.isTrue(capacity > 0, "Capacity must be greater than 0");
+		this.bufferSize = bufferSize;
+		this.idleBuffers = new ArrayBlockingQueue<Buffer>(capacity);
+	}
+
+	/**
+	 * Obtain a buffer for the given response, reusing an idle buffer if available. The buffer must be handed back
+	 * through {@link #release(Buffer)}.
+	 *
+	 * @param   response  the render or resource response to buffer
+	 *
+	 * @return  the buffer
+	 */
+	public Buffer acquire(MimeResponse response) {
+		this.acquireCount.increment();
+
+		Buffer buffer = this.idleBuffers.poll();
+
+		if (buffer != null) {
+			this.reuseCount.increment();
+		}
+		else {
+			buffer = new Buffer();
+		}
+
+		buffer.open(response);
+
+		return buffer;
+	}
+
+	/**
+	 * Return the number of buffers that have been acquired.
+	 */
+	public long getAcquireCount() {
+		return this.acquireCount.sum();
+	}
+
+	/**
+	 * Return the initial size of each buffer.
+	 */
+	public int getBufferSize() {
+		return this.bufferSize;
+	}
+
+	/**
+	 * Return the total amount of content that has been committed to the portlet container, counting bytes for output
+	 * stream content and characters for writer content.
+	 */
+	public long getBytesWritten() {
+		return this.bytesWritten.sum();
+	}
+
+	/**
+	 * Return the number of acquired buffers that have been taken from the pool rather than allocated.
+	 */
+	public long getReuseCount() {
+		return this.reuseCount.sum();
+	}
+
+	/**
+	 * Discard the uncommitted content of the given buffer, and return it to the pool if there is room.
+	 *
+	 * @param  buffer  the buffer obtained through {@link #acquire(MimeResponse)}
+	 */
+	public void release(Buffer buffer) {
+		buffer.close();
+		this.idleBuffers.offer(buffer);
+	}
+
+	/**
+	 * Buffer for the content of a single response. Not thread-safe.
+	 */
+	public final class Buffer {
+
+		private final Writer bufferWriter = new BufferWriter();
+
+		private byte[] bytes;
+
+		private char[] chars;
+
+		private int count;
+
+		private final OutputStream outputStream = new BufferOutputStream();
+
+		private boolean outputStreamUsed;
+
+		private MimeResponse response;
+
+		private MimeResponse wrappedResponse;
+
+		private PrintWriter writer;
+
+		private boolean writerUsed;
+
+		private Buffer() {
+		}
+
+		/**
+		 * Write the buffered content to the response of the portlet container in a single write, and empty the buffer.
+		 *
+		 * @throws  IOException  if writing to the response failed
+		 */
+		public void commit() throws IOException {
+
+			if (this.count == 0) {
+				return;
+			}
+
+			if (this.writerUsed) {
+				this.response.getWriter().write(this.chars, 0, this.count);
+			}
+			else {
+				this.response.getPortletOutputStream().write(this.bytes, 0, this.count);
+			}
+
+			bytesWritten.add(this.count);
+			this.count = 0;
+		}
+
+		/**
+		 * Return the wrapper of the response that writes to this buffer.
+		 */
+		public MimeResponse getResponse() {
+			return this.wrappedResponse;
+		}
+
+		private void close() {
+
+			if ((this.bytes != null) && (this.bytes.length > bufferSize)) {
+				this.bytes = null;
+			}
+
+			if ((this.chars != null) && (this.chars.length > bufferSize)) {
+				this.chars = null;
+			}
+
+			this.count = 0;
+			this.outputStreamUsed = false;
+			this.response = null;
+			this.wrappedResponse = null;
+
+			// A view may have closed the writer, so that it cannot be reused.
+			this.writer = null;
+			this.writerUsed = false;
+		}
+
+		private OutputStream getOutputStream() {
+
+			if (this.writerUsed) {
+				throw new IllegalStateException("getWriter() has already been called on this response");
+			}
+
+			this.outputStreamUsed = true;
+
+			return this.outputStream;
+		}
+
+		private int getSize() {
+
+			if (this.writerUsed && (this.chars != null)) {
+				return this.chars.length;
+			}
+
+			if (this.outputStreamUsed && (this.bytes != null)) {
+				return this.bytes.length;
+			}
+
+			return bufferSize;
+		}
+
+		private PrintWriter getWriter() {
+
+			if (this.outputStreamUsed) {
+				throw new IllegalStateException("getPortletOutputStream() has already been called on this response");
+			}
+
+			this.writerUsed = true;
+
+			if (this.writer == null) {
+				this.writer = new PrintWriter(this.bufferWriter);
+			}
+
+			return this.writer;
+		}
+
+		private int grow(int length, int minCapacity) {
+			return Math.max(length << 1, minCapacity);
+		}
+
+		private void open(MimeResponse response) {
+
+			if (response instanceof RenderResponse) {
+				this.wrappedResponse = new BufferedRenderResponse((RenderResponse) response, this);
+			}
+			else if (response instanceof ResourceResponse) {
+				this.wrappedResponse = new BufferedResourceResponse((ResourceResponse) response, this);
+			}
+			else {
+				throw new IllegalArgumentException("Response [" + response +
+					"] is neither a RenderResponse nor a ResourceResponse");
+			}
+
+			this.response = response;
+		}
+
+		private void reset() {
+			this.count = 0;
+		}
+
+		private class BufferOutputStream extends OutputStream {
+
+			@Override
+			public void write(int b) {
+				ensureCapacity(count + 1);
+				bytes[count++] = (byte) b;
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) {
+				ensureCapacity(count + len);
+				System.arraycopy(b, off, bytes, count, len);
+				count += len;
+			}
+
+			private void ensureCapacity(int minCapacity) {
+
+				if (bytes == null) {
+					bytes = new byte[Math.max(bufferSize, minCapacity)];
+				}
+				else if (minCapacity > bytes.length) {
+					bytes = Arrays.copyOf(bytes, grow(bytes.length, minCapacity));
+				}
+			}
+		}
+
+		private class BufferWriter extends Writer {
+
+			@Override
+			public void close() {
+			}
+
+			@Override
+			public void flush() {
+			}
+
+			@Override
+			public void write(char[] cbuf, int off, int len) {
+				ensureCapacity(count + len);
+				System.arraycopy(cbuf, off, chars, count, len);
+				count += len;
+			}
+
+			@Override
+			public void write(int c) {
+				ensureCapacity(count + 1);
+				chars[count++] = (char) c;
+			}
+
+			@Override
+			public void write(String str, int off, int len) {
+				ensureCapacity(count + len);
+				str.getChars(off, off + len, chars, count);
+				count += len;
+			}
+
+			private void ensureCapacity(int minCapacity) {
+
+				if (chars == null) {
+					chars = new char[Math.max(bufferSize, minCapacity)];
+				}
+				else if (minCapacity > chars.length) {
+					chars = Arrays.copyOf(chars, grow(chars.length, minCapacity));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Render response that writes its content to a {@link Buffer}.
+	 */
+	private static class BufferedRenderResponse extends RenderResponseWrapper {
+
+		private final Buffer buffer;
+
+		public BufferedRenderResponse(RenderResponse response, Buffer buffer) {
+			super(response);
+			this.buffer = buffer;
+		}
+
+		@Override
+		public void flushBuffer() {
+
+			// The content is committed in a single write after rendering.
+		}
+
+		@Override
+		public int getBufferSize() {
+			return this.buffer.getSize();
+		}
+
+		@Override
+		public OutputStream getPortletOutputStream() {
+			return this.buffer.getOutputStream();
+		}
+
+		@Override
+		public PrintWriter getWriter() {
+			return this.buffer.getWriter();
+		}
+
+		@Override
+		public void reset() {
+			super.reset();
+			this.buffer.reset();
+		}
+
+		@Override
+		public void resetBuffer() {
+			super.resetBuffer();
+			this.buffer.reset();
+		}
+	}
+
+	/**
+	 * Resource response that writes its content to a {@link Buffer}.
+	 */
+	private static class BufferedResourceResponse extends ResourceResponseWrapper {
+
+		private final Buffer buffer;
+
+		public BufferedResourceResponse(ResourceResponse response, Buffer buffer) {
+			super(response);
+			this.buffer = buffer;
+		}
+
+		@Override
+		public void flushBuffer() {
+
+			// The content is committed in a single write after rendering.
+		}
+
+		@Override
+		public int getBufferSize() {
+			return this.buffer.getSize();
+		}
+
+		@Override
+		public OutputStream getPortletOutputStream() {
+			return this.buffer.getOutputStream();
+		}
+
+		@Override
+		public PrintWriter getWriter() {
+			return this.buffer.getWriter();
+		}
+
+		@Override
+		public void reset() {
+			super.reset();
+			this.buffer.reset();
+		}
+
+		@Override
+		public void resetBuffer() {
+			super.resetBuffer();
+			this.buffer.reset();
+		}
+	}
+
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.util;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.portlet.PortletMode;
+import jakarta.portlet.WindowState;
+
+
+/**
+ * Canonicalizing registry of {@link PortletMode} and {@link WindowState} instances, used by the framework for the
+ * modes and window states named in mappings. The standard modes and window states resolve to the constants of the
+ * Portlet API, which are usually also the instances returned by the portlet container, so that comparisons and map
+ * lookups on the request path are satisfied by an identity check. Custom modes and window states resolve to a single
+ * shared instance per name.
+ *
+ * <p>Only intended for names from configuration (such as annotation attributes), since the registry is not bounded.
+ *
+ * @author  Neil Griffin
+ * @since   6.0
+ */
+public abstract class PortletStateRegistry {
+
+	private static final Map<String, PortletMode> portletModes = new ConcurrentHashMap<String, PortletMode>(16);
+
+	private static final Map<String, WindowState> windowStates = new ConcurrentHashMap<String, WindowState>(16);
+
+	static {
+
+		for (PortletMode portletMode : new PortletMode[] { PortletMode.EDIT, PortletMode.HELP, PortletMode.VIEW }) {
+			portletModes.put(portletMode.toString(), portletMode);
+		}
+
+		for (WindowState windowState :
+				new WindowState[] { WindowState.MAXIMIZED, WindowState.MINIMIZED, WindowState.NORMAL }) {
+
+			windowStates.put(windowState.toString(), windowState);
+		}
+	}
+
+	/**
+	 * Return the canonical portlet mode for the given name.
+	 *
+	 * @param   name  the portlet mode name (case-insensitive, like {@link PortletMode#PortletMode(String)})
+	 *
+	 * @return  the canonical portlet mode
+	 */
+	public static PortletMode getPortletMode(String name) {
+		PortletMode portletMode = portletModes.get(name);
+
+		if (portletMode == null) {
+			portletMode = portletModes.computeIfAbsent(name.toLowerCase(Locale.ENGLISH), PortletMode::new);
+
+			// Also register the name as given, so that the next lookup takes the fast path.
+			portletModes.putIfAbsent(name, portletMode);
+		}
+
+		return portletMode;
+	}
+
+	/**
+	 * Return the canonical window state for the given name.
+	 *
+	 * @param   name  the window state name (case-insensitive, like {@link WindowState#WindowState(String)})
+	 *
+	 * @return  the canonical window state
+	 */
+	public static WindowState getWindowState(String name) {
+		WindowState windowState = windowStates.get(name);
+
+		if (windowState == null) {
+			windowState = windowStates.computeIfAbsent(name.toLowerCase(Locale.ENGLISH), WindowState::new);
+
+			// Also register the name as given, so that the next lookup takes the fast path.
+			windowStates.putIfAbsent(name, windowState);
+		}
+
+		return windowState;
+	}
+
+}
@@ -18,6 +18,14 @@ package com.liferay.portletmvc4spring.util;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Map;
@@ -37,7 +45,10 @@ import jakarta.portlet.filter.PortletRequestWrapper;
 import jakarta.portlet.filter.PortletResponseWrapper;
 import jakarta.servlet.http.Cookie;
 
+import org.springframework.http.HttpHeaders;
+
 import org.springframework.util.Assert;
+import org.springframework.util.ResourceUtils;
 import org.springframework.util.StringUtils;
 
 import org.springframework.web.util.WebUtils;
@@ -53,6 +64,77 @@ import org.springframework.web.util.WebUtils;
  */
 public abstract class PortletUtils {
 
+	/**
+	 * Check whether the given resource request is a conditional GET or HEAD request that the client can answer from its
+	 * own cache, based on the given ETag and last-modified timestamp. The {@code ETag} and {@code Last-Modified}
+	 * headers are set on the response, and the {@code If-None-Match} and {@code If-Modified-Since} headers of the
+	 * request are evaluated as specified by HTTP, with {@code If-None-Match} taking precedence. If the content has not
+	 * been modified, the {@link ResourceResponse#HTTP_STATUS_CODE} is set to 304, and the caller should not write any
+	 * content.
+	 *
+	 * @param   request                current resource request
+	 * @param   response               current resource response
+	 * @param   etag                   the ETag of the current content (may be {@code null})
+	 * @param   lastModifiedTimestamp  the last-modified timestamp in milliseconds of the current content, or -1
+	 *
+	 * @return  {@code true} if the content has not been modified and no further processing is necessary
+	 *
+	 * @since   6.0
+	 */
+	public static boolean checkNotModified(ResourceRequest request, ResourceResponse response, String etag,
+		long lastModifiedTimestamp) {
+
+		String method = request.getMethod();
+
+		if (!"GET".equals(method) && !"HEAD".equals(method)) {
+			return false;
+		}
+
+		String ifNoneMatch = request.getProperty(HttpHeaders.IF_NONE_MATCH);
+		boolean notModified = false;
+
+		if (StringUtils.hasLength(etag)) {
+			String quotedETag = etag;
+
+			if (!quotedETag.startsWith("\"") && !quotedETag.startsWith("W/\"")) {
+				quotedETag = "\"" + quotedETag + "\"";
+			}
+
+			response.setProperty(HttpHeaders.ETAG, quotedETag);
+
+			if (ifNoneMatch != null) {
+				notModified = matchesETag(ifNoneMatch, quotedETag);
+			}
+		}
+
+		if (lastModifiedTimestamp >= 0) {
+			response.setProperty(HttpHeaders.LAST_MODIFIED,
+				DateTimeFormatter.RFC_1123_DATE_TIME.format(
+					Instant.ofEpochMilli(lastModifiedTimestamp).atOffset(ZoneOffset.UTC)));
+
+			String ifModifiedSince = request.getProperty(HttpHeaders.IF_MODIFIED_SINCE);
+
+			// If-Modified-Since is ignored in the presence of If-None-Match, and only has a precision of seconds.
+			if ((ifModifiedSince != null) && (ifNoneMatch == null)) {
+
+				try {
+					long ifModifiedSinceTimestamp = ZonedDateTime.parse(ifModifiedSince,
+							DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+					notModified = ((lastModifiedTimestamp / 1000) <= (ifModifiedSinceTimestamp / 1000));
+				}
+				catch (DateTimeParseException ex) {
+					// Ignore an invalid date, as if the header was absent.
+				}
+			}
+		}
+
+		if (notModified) {
+			response.setProperty(ResourceResponse.HTTP_STATUS_CODE, "304");
+		}
+
+		return notModified;
+	}
+
 	/**
 	 * Clear all the render parameters from the {@link jakarta.portlet.ActionResponse}. This may not be called when the
 	 * action will call {@link ActionResponse#sendRedirect sendRedirect}.
@@ -544,7 +626,10 @@ public abstract class PortletUtils {
 	 * Serve the resource as specified in the given request to the given response, using the PortletContext's request
 	 * dispatcher.
 	 *
-	 * <p>This is roughly equivalent to Portlet 2.0 GenericPortlet.
+	 * <p>This is roughly equivalent to Portlet 2.0 GenericPortlet, but answers conditional GET requests for static
+	 * resources with a 304 status code if the resource has not been modified since the time reported by the client.
+	 * JSP pages and paths that are mapped to servlets are always forwarded to, since the time that their source was
+	 * modified says nothing about the content that they generate.
 	 *
 	 * @param   request   the current resource request
 	 * @param   response  the current resource response
@@ -564,6 +649,14 @@ public abstract class PortletUtils {
 				PortletRequestDispatcher rd = context.getRequestDispatcher(id);
 
 				if (rd != null) {
+
+					// Paths that are mapped to servlets have no resource in the portlet context.
+					long lastModified = (isJspResource(id) ? -1 : getLastModified(context, id));
+
+					if ((lastModified > 0) && checkNotModified(request, response, null, lastModified)) {
+						return;
+					}
+
 					rd.forward(request, response);
 
 					return;
@@ -611,6 +704,62 @@ public abstract class PortletUtils {
 		}
 	}
 
+	private static long getLastModified(PortletContext context, String path) {
+
+		try {
+			URL url = context.getResource(path);
+
+			if (url == null) {
+				return -1;
+			}
+
+			long lastModified;
+
+			if (ResourceUtils.isFileURL(url)) {
+
+				// A file URL connection opens a stream to the file in order to read its modification time.
+				lastModified = ResourceUtils.getFile(url).lastModified();
+			}
+			else {
+				URLConnection connection = url.openConnection();
+				ResourceUtils.useCachesIfNecessary(connection);
+
+				try {
+					lastModified = connection.getLastModified();
+				}
+				finally {
+
+					if (connection instanceof HttpURLConnection) {
+						((HttpURLConnection) connection).disconnect();
+					}
+					else {
+						connection.getInputStream().close();
+					}
+				}
+			}
+
+			return ((lastModified > 0) ? lastModified : -1);
+		}
+		catch (IOException ex) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Check whether the specified path indicates a JSP page, ignoring a query string.
+	 *
+	 * @param  path  the path to check
+	 */
+	private static boolean isJspResource(String path) {
+		int queryIndex = path.indexOf('?');
+
+		if (queryIndex != -1) {
+			path = path.substring(0, queryIndex);
+		}
+
+		return (StringUtils.endsWithIgnoreCase(path, ".jsp") || StringUtils.endsWithIgnoreCase(path, ".jspx"));
+	}
+
 	/**
 	 * Check whether the specified path indicates a resource in the protected WEB-INF or META-INF directories.
 	 *
@@ -621,4 +770,24 @@ public abstract class PortletUtils {
 				StringUtils.startsWithIgnoreCase(path, "/META-INF"));
 	}
 
+	private static boolean matchesETag(String ifNoneMatch, String etag) {
+
+		// If-None-Match uses the weak comparison function.
+		String opaqueTag = (etag.startsWith("W/") ? etag.substring(2) : etag);
+
+		for (String candidate : StringUtils.commaDelimitedListToStringArray(ifNoneMatch)) {
+			candidate = candidate.trim();
+
+			if (candidate.startsWith("W/")) {
+				candidate = candidate.substring(2);
+			}
+
+			if (candidate.equals("*") || candidate.equals(opaqueTag)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
 }
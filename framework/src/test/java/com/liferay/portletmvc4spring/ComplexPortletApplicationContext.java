@@ -578,11 +578,14 @@ public class ComplexPortletApplicationContext extends StaticPortletApplicationCo
 
 		public int counter = 0;
 
+		public volatile String requestType;
+
 		@Override
 		public void onApplicationEvent(ApplicationEvent event) {
 
 			if (event instanceof PortletRequestHandledEvent) {
 				this.counter++;
+				this.requestType = ((PortletRequestHandledEvent) event).getRequestType();
 			}
 		}
 	}
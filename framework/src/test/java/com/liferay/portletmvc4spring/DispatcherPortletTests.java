@@ -15,13 +15,31 @@
  */
 package com.liferay.portletmvc4spring;
 
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
+import jakarta.portlet.MimeResponse;
 import jakarta.portlet.PortletContext;
 import jakarta.portlet.PortletException;
 import jakarta.portlet.PortletMode;
+import jakarta.portlet.PortletRequest;
+import jakarta.portlet.PortletRequestDispatcher;
+import jakarta.portlet.PortletResponse;
 import jakarta.portlet.PortletSecurityException;
+import jakarta.portlet.RenderRequest;
+import jakarta.portlet.RenderResponse;
+import jakarta.portlet.filter.RenderResponseWrapper;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 import static org.junit.Assert.*;
 
@@ -31,9 +49,16 @@ import org.junit.Test;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ConfigurableApplicationContext;
 
+import org.springframework.core.Ordered;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
 import org.springframework.web.context.WebApplicationContext;
 import org.springframework.web.context.support.StaticWebApplicationContext;
 import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
 import org.springframework.web.servlet.view.InternalResourceView;
 
 import com.liferay.portletmvc4spring.context.PortletApplicationContextUtils;
@@ -41,12 +66,18 @@ import com.liferay.portletmvc4spring.context.PortletConfigAwareBean;
 import com.liferay.portletmvc4spring.context.PortletContextAwareBean;
 import com.liferay.portletmvc4spring.multipart.MultipartActionRequest;
 import com.liferay.portletmvc4spring.multipart.PortletMultipartResolver;
+import com.liferay.portletmvc4spring.mvc.SimpleControllerHandlerAdapter;
 import com.liferay.portletmvc4spring.test.mock.web.portlet.MockActionRequest;
 import com.liferay.portletmvc4spring.test.mock.web.portlet.MockActionResponse;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockEvent;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockEventRequest;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockEventResponse;
 import com.liferay.portletmvc4spring.test.mock.web.portlet.MockPortletConfig;
 import com.liferay.portletmvc4spring.test.mock.web.portlet.MockPortletContext;
 import com.liferay.portletmvc4spring.test.mock.web.portlet.MockRenderRequest;
 import com.liferay.portletmvc4spring.test.mock.web.portlet.MockRenderResponse;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockResourceRequest;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockResourceResponse;
 
 
 /**
@@ -70,6 +101,29 @@ public class DispatcherPortletTests {
 			(ComplexPortletApplicationContext.TestApplicationListener)
 			complexDispatcherPortlet.getPortletApplicationContext().getBean("testListener");
 		assertEquals(1, listener.counter);
+		assertEquals("action", listener.requestType);
+	}
+
+	@Test
+	public void bufferedRequestHandledEvent() throws Exception {
+		DispatcherPortlet complexDispatcherPortlet = new DispatcherPortlet();
+		complexDispatcherPortlet.setContextClass(ComplexPortletApplicationContext.class);
+		complexDispatcherPortlet.setNamespace("test");
+		complexDispatcherPortlet.setEventBufferCapacity(16);
+		complexDispatcherPortlet.init(new MockPortletConfig(getPortletContext(), "complex"));
+
+		ComplexPortletApplicationContext.TestApplicationListener listener =
+			(ComplexPortletApplicationContext.TestApplicationListener)
+			complexDispatcherPortlet.getPortletApplicationContext().getBean("testListener");
+
+		for (int i = 0; i < 3; i++) {
+			complexDispatcherPortlet.processAction(new MockActionRequest(), new MockActionResponse());
+		}
+
+		// Destroying the portlet delivers the events that are still buffered.
+		complexDispatcherPortlet.destroy();
+		assertEquals(3, listener.counter);
+		assertEquals(0, complexDispatcherPortlet.getDroppedEventCount());
 	}
 
 	@Test
@@ -92,6 +146,67 @@ public class DispatcherPortletTests {
 		assertEquals("locale-ok", response.getContentAsString());
 	}
 
+	@Test
+	public void directRendering() throws Exception {
+		View view = new DirectRenderingView() {
+
+				@Override
+				public void render(Map<String, ?> model, PortletRequest request, MimeResponse response)
+					throws Exception {
+					response.getWriter().write("Hello " + model.get("name"));
+				}
+
+				@Override
+				public void render(Map<String, ?> model, HttpServletRequest request, HttpServletResponse response) {
+					throw new UnsupportedOperationException();
+				}
+			};
+
+		MockRenderRequest request = new MockRenderRequest();
+		MockRenderResponse response = new MockRenderResponse();
+		complexDispatcherPortlet.doRender(view, Collections.singletonMap("name", "World"), request, response);
+		assertEquals("Hello World", response.getContentAsString());
+		assertNull(response.getIncludedUrl());
+		assertNull(request.getAttribute(ViewRendererServlet.VIEW_ATTRIBUTE));
+
+		complexDispatcherPortlet.setDirectRendering(false);
+		request = new MockRenderRequest();
+		response = new MockRenderResponse();
+		complexDispatcherPortlet.doRender(view, Collections.singletonMap("name", "World"), request, response);
+		assertEquals("", response.getContentAsString());
+		assertEquals(DispatcherPortlet.DEFAULT_VIEW_RENDERER_URL, response.getIncludedUrl());
+		assertSame(view, request.getAttribute(ViewRendererServlet.VIEW_ATTRIBUTE));
+	}
+
+	@Test
+	public void directRenderingOfPortletInternalResourceView() throws Exception {
+		PortletInternalResourceView view = new PortletInternalResourceView("/WEB-INF/views/hello.jsp");
+		view.setAttributesMap(Collections.singletonMap("greeting", "Hello"));
+
+		Map<String, Object> model = new HashMap<String, Object>();
+		model.put("name", "World");
+		model.put("stale", null);
+
+		MockRenderRequest request = new MockRenderRequest();
+		request.setAttribute("stale", "value");
+
+		MockRenderResponse response = new MockRenderResponse();
+		complexDispatcherPortlet.doRender(view, model, request, response);
+		assertEquals("/WEB-INF/views/hello.jsp", response.getIncludedUrl());
+		assertEquals("Hello", request.getAttribute("greeting"));
+		assertEquals("World", request.getAttribute("name"));
+		assertNull(request.getAttribute("stale"));
+		assertNull(request.getAttribute(ViewRendererServlet.VIEW_ATTRIBUTE));
+
+		complexDispatcherPortlet.setDirectRendering(false);
+		request = new MockRenderRequest();
+		response = new MockRenderResponse();
+		complexDispatcherPortlet.doRender(view, model, request, response);
+		assertEquals(DispatcherPortlet.DEFAULT_VIEW_RENDERER_URL, response.getIncludedUrl());
+		assertSame(view, request.getAttribute(ViewRendererServlet.VIEW_ATTRIBUTE));
+		assertNull(request.getAttribute("name"));
+	}
+
 	@Test
 	public void dispatcherPortletContextRefresh() throws PortletException {
 		MockPortletContext portletContext = new MockPortletContext("com/liferay/portletmvc4spring/context");
@@ -178,6 +293,25 @@ public class DispatcherPortletTests {
 			getPortletContext().getAttribute(FrameworkPortlet.PORTLET_CONTEXT_PREFIX + "complex") == null);
 	}
 
+	@Test
+	public void eventRequestHandledEvent() throws Exception {
+		MockEventRequest request = new MockEventRequest(new MockEvent("event"));
+		MockEventResponse response = new MockEventResponse();
+
+		try {
+			complexDispatcherPortlet.processEvent(request, response);
+		}
+		catch (PortletException ex) {
+			// The event is published regardless of the outcome.
+		}
+
+		ComplexPortletApplicationContext.TestApplicationListener listener =
+			(ComplexPortletApplicationContext.TestApplicationListener)
+			complexDispatcherPortlet.getPortletApplicationContext().getBean("testListener");
+		assertEquals(1, listener.counter);
+		assertEquals("event", listener.requestType);
+	}
+
 	@Test
 	public void exceptionInMappedHandler() throws Exception {
 		MockRenderRequest request = new MockRenderRequest();
@@ -243,6 +377,121 @@ public class DispatcherPortletTests {
 		assertEquals("test this and that", message);
 	}
 
+	@Test
+	public void handlerAdapterCache() throws Exception {
+		DispatcherPortlet portlet = createHandlerAdapterPortlet();
+		portlet.init(new MockPortletConfig(getPortletContext(), "handlerAdapterCache"));
+
+		ApplicationContext wac = portlet.getPortletApplicationContext();
+		CountingHandlerAdapter statefulAdapter = wac.getBean("statefulAdapter", CountingHandlerAdapter.class);
+		CountingHandlerAdapter fallbackAdapter = wac.getBean("fallbackAdapter", CountingHandlerAdapter.class);
+
+		assertSame(statefulAdapter, portlet.getHandlerAdapter(new StatefulHandler(true)));
+		assertSame(statefulAdapter, portlet.getHandlerAdapter(new StatefulHandler(true)));
+		assertEquals(1, statefulAdapter.supportsCount);
+
+		// The adapter is cached per handler class, regardless of the state of the handler.
+		assertSame(statefulAdapter, portlet.getHandlerAdapter(new StatefulHandler(false)));
+		assertEquals(1, statefulAdapter.supportsCount);
+		assertEquals(0, fallbackAdapter.supportsCount);
+
+		assertSame(fallbackAdapter, portlet.getHandlerAdapter(new Object()));
+		assertSame(fallbackAdapter, portlet.getHandlerAdapter(new Object()));
+		assertEquals(2, statefulAdapter.supportsCount);
+		assertEquals(1, fallbackAdapter.supportsCount);
+
+		// Refreshing the HandlerAdapters clears the cache.
+		portlet.onRefresh(wac);
+		assertSame(fallbackAdapter, portlet.getHandlerAdapter(new StatefulHandler(false)));
+		assertSame(fallbackAdapter, portlet.getHandlerAdapter(new StatefulHandler(true)));
+		assertEquals(3, statefulAdapter.supportsCount);
+		assertEquals(2, fallbackAdapter.supportsCount);
+	}
+
+	@Test
+	public void handlerAdapterCacheTurnedOff() throws Exception {
+		DispatcherPortlet portlet = createHandlerAdapterPortlet();
+		portlet.setCacheHandlerAdapters(false);
+		portlet.init(new MockPortletConfig(getPortletContext(), "handlerAdapterCacheTurnedOff"));
+
+		ApplicationContext wac = portlet.getPortletApplicationContext();
+		CountingHandlerAdapter statefulAdapter = wac.getBean("statefulAdapter", CountingHandlerAdapter.class);
+		CountingHandlerAdapter fallbackAdapter = wac.getBean("fallbackAdapter", CountingHandlerAdapter.class);
+
+		// Each handler instance is checked, so that the adapters may decide based on the state of the handler.
+		assertSame(statefulAdapter, portlet.getHandlerAdapter(new StatefulHandler(true)));
+		assertSame(fallbackAdapter, portlet.getHandlerAdapter(new StatefulHandler(false)));
+		assertSame(statefulAdapter, portlet.getHandlerAdapter(new StatefulHandler(true)));
+		assertEquals(3, statefulAdapter.supportsCount);
+		assertEquals(1, fallbackAdapter.supportsCount);
+	}
+
+	@Test
+	public void handlerCache() throws Exception {
+		DispatcherPortlet complexDispatcherPortlet = new DispatcherPortlet();
+		complexDispatcherPortlet.setContextClass(ComplexPortletApplicationContext.class);
+		complexDispatcherPortlet.setNamespace("test");
+		complexDispatcherPortlet.setHandlerCacheLimit(1);
+		complexDispatcherPortlet.init(new MockPortletConfig(getPortletContext(), "complex"));
+
+		for (String myParam : new String[] { "test2", "test2", "test1", "test2" }) {
+			MockRenderRequest request = new MockRenderRequest();
+			MockRenderResponse response = new MockRenderResponse();
+			request.setPortletMode(PortletMode.VIEW);
+			request.setParameter("myParam", myParam);
+			complexDispatcherPortlet.doDispatch(request, response);
+			assertEquals(("test2".equals(myParam) ? "test2-view" : null), response.getProperty("result"));
+		}
+
+		// The second "test2" request is a hit; the last one is a miss since "test1" evicted "test2".
+		assertEquals(1, complexDispatcherPortlet.getHandlerCacheHitCount());
+		assertEquals(3, complexDispatcherPortlet.getHandlerCacheMissCount());
+
+		MockActionRequest request = new MockActionRequest();
+		MockActionResponse response = new MockActionResponse();
+		request.setPortletMode(PortletMode.EDIT);
+		request.setParameter("myParam", "test1");
+		complexDispatcherPortlet.processAction(request, response);
+		assertEquals("test1-action", response.getRenderParameter("result"));
+		assertEquals(4, complexDispatcherPortlet.getHandlerCacheMissCount());
+	}
+
+	@Test
+	public void handlerCacheWithUnmappedParameterValues() throws Exception {
+		DispatcherPortlet cachingPortlet = new DispatcherPortlet();
+		cachingPortlet.setContextClass(ComplexPortletApplicationContext.class);
+		cachingPortlet.setNamespace("test");
+		cachingPortlet.setHandlerCacheLimit(2);
+		cachingPortlet.init(new MockPortletConfig(getPortletContext(), "complex"));
+
+		for (int i = 0; i < 10; i++) {
+			MockRenderRequest request = new MockRenderRequest();
+			MockRenderResponse response = new MockRenderResponse();
+			request.setPortletMode(PortletMode.VIEW);
+			request.setParameter("myParam", "unmapped" + i);
+			cachingPortlet.doDispatch(request, response);
+
+			MockRenderRequest uncachedRequest = new MockRenderRequest();
+			MockRenderResponse uncachedResponse = new MockRenderResponse();
+			uncachedRequest.setPortletMode(PortletMode.VIEW);
+			uncachedRequest.setParameter("myParam", "unmapped" + i);
+			complexDispatcherPortlet.doDispatch(uncachedRequest, uncachedResponse);
+			assertEquals(uncachedResponse.getIncludedUrl(), response.getIncludedUrl());
+		}
+
+		// Values that no HandlerMapping compares with share the routing signature of a present parameter.
+		assertEquals(9, cachingPortlet.getHandlerCacheHitCount());
+		assertEquals(1, cachingPortlet.getHandlerCacheMissCount());
+
+		MockRenderRequest request = new MockRenderRequest();
+		MockRenderResponse response = new MockRenderResponse();
+		request.setPortletMode(PortletMode.VIEW);
+		request.setParameter("myParam", "test2");
+		cachingPortlet.doDispatch(request, response);
+		assertEquals("test2-view", response.getProperty("result"));
+		assertEquals(2, cachingPortlet.getHandlerCacheMissCount());
+	}
+
 	@Test
 	public void handlerInterceptorAbort() throws Exception {
 		MockRenderRequest request = new MockRenderRequest();
@@ -742,6 +991,143 @@ public class DispatcherPortletTests {
 		assertEquals(0, listener.counter);
 	}
 
+	@Test
+	public void renderBuffer() throws Exception {
+		View view = new DirectRenderingView() {
+
+				@Override
+				public void render(Map<String, ?> model, PortletRequest request, MimeResponse response)
+					throws Exception {
+					response.getWriter().write("Hello " + model.get("name"));
+					response.flushBuffer();
+					assertEquals("", ((MockRenderResponse) ((RenderResponseWrapper) response).getResponse())
+						.getContentAsString());
+
+					if (model.containsKey("fail")) {
+						throw new IllegalStateException("fail");
+					}
+				}
+
+				@Override
+				public void render(Map<String, ?> model, HttpServletRequest request, HttpServletResponse response) {
+					throw new UnsupportedOperationException();
+				}
+			};
+
+		DispatcherPortlet portlet = new DispatcherPortlet() {
+				@Override
+				protected ApplicationContext createPortletApplicationContext(ApplicationContext parent) {
+					StaticWebApplicationContext wac = new StaticWebApplicationContext();
+					wac.getBeanFactory().registerSingleton("viewResolver", (ViewResolver) (viewName, locale) -> view);
+					wac.refresh();
+
+					return wac;
+				}
+			};
+		portlet.setRenderBufferSize(4);
+		portlet.init(new MockPortletConfig(getPortletContext(), "renderBuffer"));
+
+		for (int i = 0; i < 2; i++) {
+			MockRenderResponse response = new MockRenderResponse();
+			portlet.render(new ModelAndView("hello", "name", "World"), new MockRenderRequest(), response);
+			assertEquals("Hello World", response.getContentAsString());
+		}
+
+		assertEquals(2, portlet.getRenderBufferAcquireCount());
+		assertEquals(1, portlet.getRenderBufferReuseCount());
+		assertEquals(22, portlet.getRenderBufferBytesWritten());
+
+		// The content of a failed view is discarded.
+		MockRenderResponse response = new MockRenderResponse();
+		ModelAndView mv = new ModelAndView("hello", "name", "World");
+		mv.addObject("fail", Boolean.TRUE);
+
+		try {
+			portlet.render(mv, new MockRenderRequest(), response);
+			fail("Should have thrown IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			assertEquals("", response.getContentAsString());
+		}
+
+		assertEquals(22, portlet.getRenderBufferBytesWritten());
+	}
+
+	@Test
+	public void renderBufferWithViewRendererServlet() throws Exception {
+		View view = (model, request, response) -> response.getWriter().write("Hello " + model.get("name"));
+
+		// Emulate the include of the ViewRendererServlet by the portlet container.
+		ViewRendererServlet viewRendererServlet = new ViewRendererServlet();
+		PortletRequestDispatcher requestDispatcher = new PortletRequestDispatcher() {
+
+				@Override
+				public void forward(PortletRequest request, PortletResponse response) {
+					throw new UnsupportedOperationException();
+				}
+
+				@Override
+				public void include(PortletRequest request, PortletResponse response) throws PortletException,
+					IOException {
+					MockHttpServletRequest httpRequest = new MockHttpServletRequest("GET",
+							DispatcherPortlet.DEFAULT_VIEW_RENDERER_URL);
+
+					for (String name : Collections.list(request.getAttributeNames())) {
+						httpRequest.setAttribute(name, request.getAttribute(name));
+					}
+
+					MockHttpServletResponse httpResponse = new MockHttpServletResponse();
+
+					try {
+						viewRendererServlet.service(httpRequest, httpResponse);
+					}
+					catch (ServletException ex) {
+						throw new PortletException(ex);
+					}
+
+					PrintWriter writer = ((MimeResponse) response).getWriter();
+					writer.write(httpResponse.getContentAsString());
+					writer.close();
+				}
+
+				@Override
+				public void include(RenderRequest request, RenderResponse response) throws PortletException,
+					IOException {
+					include((PortletRequest) request, (PortletResponse) response);
+				}
+			};
+
+		MockPortletContext portletContext = new MockPortletContext() {
+				@Override
+				public PortletRequestDispatcher getRequestDispatcher(String path) {
+					return requestDispatcher;
+				}
+			};
+
+		DispatcherPortlet portlet = new DispatcherPortlet() {
+				@Override
+				protected ApplicationContext createPortletApplicationContext(ApplicationContext parent) {
+					StaticWebApplicationContext wac = new StaticWebApplicationContext();
+					wac.getBeanFactory().registerSingleton("viewResolver", (ViewResolver) (viewName, locale) -> view);
+					wac.refresh();
+
+					return wac;
+				}
+			};
+		portlet.setRenderBufferSize(4);
+		portlet.init(new MockPortletConfig(portletContext, "renderBuffer"));
+
+		for (int i = 0; i < 2; i++) {
+			MockRenderResponse response = new MockRenderResponse();
+			portlet.render(new ModelAndView("hello", "name", "World"), new MockRenderRequest(portletContext), response);
+			assertEquals("Hello World", response.getContentAsString());
+		}
+
+		assertEquals(2, portlet.getRenderBufferAcquireCount());
+		assertEquals(1, portlet.getRenderBufferReuseCount());
+		assertEquals(22, portlet.getRenderBufferBytesWritten());
+	}
+
 	@Test
 	public void renderRequestHandledEvent() throws Exception {
 		MockRenderRequest request = new MockRenderRequest();
@@ -754,6 +1140,25 @@ public class DispatcherPortletTests {
 		assertEquals(1, listener.counter);
 	}
 
+	@Test
+	public void resourceRequestHandledEvent() throws Exception {
+		MockResourceRequest request = new MockResourceRequest();
+		MockResourceResponse response = new MockResourceResponse();
+
+		try {
+			complexDispatcherPortlet.serveResource(request, response);
+		}
+		catch (PortletException ex) {
+			// The event is published regardless of the outcome.
+		}
+
+		ComplexPortletApplicationContext.TestApplicationListener listener =
+			(ComplexPortletApplicationContext.TestApplicationListener)
+			complexDispatcherPortlet.getPortletApplicationContext().getBean("testListener");
+		assertEquals(1, listener.counter);
+		assertEquals("resource", listener.requestType);
+	}
+
 	@Test
 	public void runtimeExceptionInMappedHandler() throws Exception {
 		MockRenderRequest request = new MockRenderRequest();
@@ -821,8 +1226,109 @@ public class DispatcherPortletTests {
 		assertEquals("failed-default-1", view.getBeanName());
 	}
 
+	@Test
+	public void viewCache() throws Exception {
+		List<String> resolvedViewNames = new ArrayList<String>();
+
+		DispatcherPortlet portlet = new DispatcherPortlet() {
+				@Override
+				protected ApplicationContext createPortletApplicationContext(ApplicationContext parent) {
+					StaticWebApplicationContext wac = new StaticWebApplicationContext();
+					wac.getBeanFactory().registerSingleton("viewResolver", (ViewResolver) (viewName, locale) -> {
+							resolvedViewNames.add(viewName);
+
+							return "unknown".equals(viewName) ? null : new InternalResourceView(viewName);
+						});
+					wac.refresh();
+
+					return wac;
+				}
+			};
+		portlet.setViewCacheLimit(2);
+		portlet.init(new MockPortletConfig(getPortletContext(), "viewCache"));
+
+		MockRenderRequest request = new MockRenderRequest();
+		View view = portlet.resolveViewName("view1", null, request);
+		assertSame(view, portlet.resolveViewName("view1", null, request));
+		assertNull(portlet.resolveViewName("unknown", null, request));
+		assertNull(portlet.resolveViewName("unknown", null, request));
+		assertEquals(Arrays.asList("view1", "unknown"), resolvedViewNames);
+		assertEquals(2, portlet.getViewCacheHitCount());
+		assertEquals(2, portlet.getViewCacheMissCount());
+
+		// "view2" evicts the least recently used "view1".
+		portlet.resolveViewName("view2", null, request);
+		assertNotSame(view, portlet.resolveViewName("view1", null, request));
+
+		request.addPreferredLocale(Locale.GERMAN);
+		portlet.resolveViewName("view1", null, request);
+		assertEquals(Arrays.asList("view1", "unknown", "view2", "view1", "view1"), resolvedViewNames);
+
+		portlet.onRefresh(portlet.getPortletApplicationContext());
+		assertEquals(0, portlet.getViewCacheHitCount());
+		portlet.resolveViewName("view1", null, request);
+		assertEquals(6, resolvedViewNames.size());
+	}
+
+	private DispatcherPortlet createHandlerAdapterPortlet() {
+		return new DispatcherPortlet() {
+				@Override
+				protected ApplicationContext createPortletApplicationContext(ApplicationContext parent) {
+					StaticWebApplicationContext wac = new StaticWebApplicationContext();
+					wac.getBeanFactory().registerSingleton("statefulAdapter", new CountingHandlerAdapter(true, 1));
+					wac.getBeanFactory().registerSingleton("fallbackAdapter", new CountingHandlerAdapter(false, 2));
+					wac.refresh();
+
+					return wac;
+				}
+			};
+	}
+
 	private PortletContext getPortletContext() {
 		return complexPortletConfig.getPortletContext();
 	}
 
+	/**
+	 * HandlerAdapter that counts the calls of {@link #supports}, and either supports {@link StatefulHandler}s flagged
+	 * as supported or any handler.
+	 */
+	private static class CountingHandlerAdapter extends SimpleControllerHandlerAdapter implements Ordered {
+
+		private final boolean checkHandlerState;
+
+		private final int order;
+
+		private int supportsCount;
+
+		public CountingHandlerAdapter(boolean checkHandlerState, int order) {
+			this.checkHandlerState = checkHandlerState;
+			this.order = order;
+		}
+
+		@Override
+		public int getOrder() {
+			return this.order;
+		}
+
+		@Override
+		public boolean supports(Object handler) {
+			this.supportsCount++;
+
+			if (this.checkHandlerState) {
+				return ((handler instanceof StatefulHandler) && ((StatefulHandler) handler).supported);
+			}
+
+			return true;
+		}
+	}
+
+	private static class StatefulHandler {
+
+		private final boolean supported;
+
+		public StatefulHandler(boolean supported) {
+			this.supported = supported;
+		}
+	}
+
 }
@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.bind.annotation.support;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import static org.junit.Assert.*;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.core.annotation.AliasFor;
+
+import org.springframework.stereotype.Controller;
+
+import org.springframework.util.ReflectionUtils;
+
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import com.liferay.portletmvc4spring.bind.annotation.RenderMapping;
+
+
+/**
+ * @author  Neil Griffin
+ */
+public class PortletMappingIndexTests {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void generatedIndex() throws Exception {
+		File outputDir = compile("classes",
+				"  @com.liferay.portletmvc4spring.bind.annotation.RenderMapping(\n" +
+				"    params = { \"page=view\", \"detail\" })\n" +
+				"  public String render() { return helper(); }\n" +
+				"  @org.springframework.web.bind.annotation.RequestMapping(method = " +
+				"org.springframework.web.bind.annotation.RequestMethod.POST)\n" +
+				"  public void submit() {}\n" +
+				"  @org.springframework.web.bind.annotation.ModelAttribute(\"item\")\n" +
+				"  public Object item() { return null; }\n" +
+				"  private String helper() { Runnable r = () -> {}; return \"view\"; }\n");
+		PortletMappingIndex index = readIndex(outputDir);
+		assertFalse(index.isEmpty());
+
+		try (URLClassLoader classLoader = new URLClassLoader(new URL[] { outputDir.toURI().toURL() },
+						getClass().getClassLoader())) {
+
+			Class<?> controllerClass = classLoader.loadClass("IndexedController");
+			ReflectionUtils.MethodFilter methodFilter = index.getMethodFilter(controllerClass);
+			assertNotSame(ReflectionUtils.USER_DECLARED_METHODS, methodFilter);
+			assertTrue(methodFilter.matches(controllerClass.getMethod("render")));
+			assertTrue(methodFilter.matches(controllerClass.getMethod("submit")));
+			assertTrue(methodFilter.matches(controllerClass.getMethod("item")));
+			assertFalse(methodFilter.matches(controllerClass.getDeclaredMethod("helper")));
+		}
+	}
+
+	@Test
+	public void missingEntry() throws Exception {
+		PortletMappingIndex index = PortletMappingIndex.read(Collections.singletonList("com.example.Other=0,render"));
+
+		assertSame(ReflectionUtils.USER_DECLARED_METHODS, index.getMethodFilter(IndexedHandler.class));
+	}
+
+	@Test
+	public void entryFingerprint() throws Exception {
+		String typeName = IndexedHandler.class.getName();
+		int fingerprint = PortletMappingIndex.getFingerprint(IndexedHandler.class);
+
+		PortletMappingIndex index = PortletMappingIndex.read(Arrays.asList("# comment", typeName + "=" + fingerprint +
+					",render"));
+		ReflectionUtils.MethodFilter methodFilter = index.getMethodFilter(IndexedHandler.class);
+		assertTrue(methodFilter.matches(IndexedHandler.class.getMethod("render")));
+		assertFalse(methodFilter.matches(IndexedHandler.class.getMethod("other")));
+
+		index = PortletMappingIndex.read(Collections.singletonList(typeName + "=" + (fingerprint + 1) + ",render"));
+		methodFilter = index.getMethodFilter(IndexedHandler.class);
+		assertSame(ReflectionUtils.USER_DECLARED_METHODS, methodFilter);
+	}
+
+	@Test
+	public void staleGeneratedIndex() throws Exception {
+		PortletMappingIndex index = readIndex(compile("classes",
+					"  @com.liferay.portletmvc4spring.bind.annotation.RenderMapping(params = \"page=view\")\n" +
+					"  public String render() { return \"view\"; }\n" +
+					"  public String other() { return \"other\"; }\n"));
+
+		// The method names and parameter counts are unchanged, but the attribute values of the mapping annotation
+		// differ.
+		File outputDir = compile("changedAttributes",
+				"  @com.liferay.portletmvc4spring.bind.annotation.RenderMapping(params = \"page=edit\")\n" +
+				"  public String render() { return \"view\"; }\n" +
+				"  public String other() { return \"other\"; }\n");
+		assertStale(index, outputDir);
+
+		// The method names, parameter counts and annotation values are unchanged, but the mapping annotation moved to
+		// another method.
+		outputDir = compile("movedAnnotation",
+				"  public String render() { return \"view\"; }\n" +
+				"  @com.liferay.portletmvc4spring.bind.annotation.RenderMapping(params = \"page=view\")\n" +
+				"  public String other() { return \"other\"; }\n");
+		assertStale(index, outputDir);
+	}
+
+	private void assertStale(PortletMappingIndex index, File outputDir) throws Exception {
+
+		try (URLClassLoader classLoader = new URLClassLoader(new URL[] { outputDir.toURI().toURL() },
+						getClass().getClassLoader())) {
+
+			Class<?> controllerClass = classLoader.loadClass("IndexedController");
+			assertSame(ReflectionUtils.USER_DECLARED_METHODS, index.getMethodFilter(controllerClass));
+		}
+	}
+
+	private File compile(String outputDirName, String members) throws Exception {
+		File sourceDir = temporaryFolder.newFolder(outputDirName + "-src");
+		File outputDir = temporaryFolder.newFolder(outputDirName);
+		File sourceFile = new File(sourceDir, "IndexedController.java");
+
+		Files.write(sourceFile.toPath(),
+			("@org.springframework.stereotype.Controller\n" +
+				"@org.springframework.web.bind.annotation.RequestMapping(\"VIEW\")\n" +
+				"public class IndexedController {\n" + members + "}\n").getBytes(StandardCharsets.UTF_8));
+
+		String classPath = String.join(File.pathSeparator, getLocation(AliasFor.class), getLocation(Controller.class),
+				getLocation(RequestMapping.class), getLocation(RenderMapping.class));
+
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		int result = compiler.run(null, null, null, "-classpath", classPath, "-d", outputDir.getPath(), "-processor",
+				PortletMappingIndexProcessor.class.getName(), "-processorpath", getLocation(
+					PortletMappingIndexProcessor.class), sourceFile.getPath());
+		assertEquals(0, result);
+
+		return outputDir;
+	}
+
+	private static String getLocation(Class<?> type) throws Exception {
+		return new File(type.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+	}
+
+	private static PortletMappingIndex readIndex(File outputDir) throws Exception {
+		File indexFile = new File(outputDir, PortletMappingIndex.INDEX_LOCATION);
+		List<String> lines = Files.readAllLines(indexFile.toPath(), StandardCharsets.UTF_8);
+
+		return PortletMappingIndex.read(lines);
+	}
+
+	public static class IndexedHandler {
+
+		public void other() {
+		}
+
+		@RenderMapping
+		public void render() {
+		}
+	}
+
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.bind.annotation.support;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import org.springframework.context.support.StaticApplicationContext;
+
+import org.springframework.web.bind.annotation.InitBinder;
+
+import com.liferay.portletmvc4spring.bind.annotation.RenderMapping;
+import com.liferay.portletmvc4spring.bind.annotation.support.PortletMappingMetadataRegistry.MethodMappingMetadata;
+
+
+/**
+ * @author  Neil Griffin
+ */
+public class PortletMappingMetadataRegistryTests {
+
+	@Test
+	public void methodMetadata() throws Exception {
+		PortletMappingMetadataRegistry registry = new PortletMappingMetadataRegistry();
+
+		MethodMappingMetadata metadata = registry.getMethodMetadata(MyController.class.getMethod("render"));
+		assertNotNull(metadata.getRenderMapping());
+		assertEquals("maximized", metadata.getRenderMapping().windowState());
+		assertNull(metadata.getActionMapping());
+		assertSame(metadata, registry.getMethodMetadata(MyController.class.getMethod("render")));
+
+		metadata = registry.getMethodMetadata(MyController.class.getMethod("initBinder"));
+		assertNotNull(metadata.getInitBinder());
+		assertNull(metadata.getRenderMapping());
+
+		MethodMappingMetadata otherMetadata = registry.getMethodMetadata(MyController.class.getMethod("other"));
+		assertNull(otherMetadata.getRequestMapping());
+		assertSame(otherMetadata, registry.getMethodMetadata(Object.class.getMethod("toString")));
+	}
+
+	@Test
+	public void registryPerApplicationContext() {
+		StaticApplicationContext context = new StaticApplicationContext();
+		context.refresh();
+
+		PortletMappingMetadataRegistry registry = PortletMappingMetadataRegistry.getRegistry(context);
+		assertSame(registry, PortletMappingMetadataRegistry.getRegistry(context));
+		assertSame(registry, context.getBean(PortletMappingMetadataRegistry.BEAN_NAME));
+
+		StaticApplicationContext otherContext = new StaticApplicationContext();
+		otherContext.refresh();
+		assertNotSame(registry, PortletMappingMetadataRegistry.getRegistry(otherContext));
+		assertNotNull(PortletMappingMetadataRegistry.getRegistry(null));
+	}
+
+	public static class MyController {
+
+		@InitBinder
+		public void initBinder() {
+		}
+
+		public void other() {
+		}
+
+		@RenderMapping(windowState = "maximized")
+		public void render() {
+		}
+	}
+
+}
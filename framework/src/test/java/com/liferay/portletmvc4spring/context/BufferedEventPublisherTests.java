@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.context;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+
+
+/**
+ * @author  Neil Griffin
+ */
+public class BufferedEventPublisherTests {
+
+	@Test
+	public void dropsEventsWhenFull() throws Exception {
+		CountDownLatch delivering = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		List<Object> delivered = new CopyOnWriteArrayList<Object>();
+
+		BufferedEventPublisher publisher = new BufferedEventPublisher(event -> {
+					delivering.countDown();
+
+					try {
+						release.await();
+					}
+					catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+					}
+
+					delivered.add(event);
+				}, 2, "test-publisher");
+
+		// The first event blocks the background thread, the next two fill the buffer.
+		assertTrue(publisher.publishEvent(new TestEvent("1")));
+		assertTrue(delivering.await(5, TimeUnit.SECONDS));
+		assertTrue(publisher.publishEvent(new TestEvent("2")));
+		assertTrue(publisher.publishEvent(new TestEvent("3")));
+		assertFalse(publisher.publishEvent(new TestEvent("4")));
+		assertEquals(1, publisher.getDroppedEventCount());
+
+		release.countDown();
+		publisher.destroy();
+		assertEquals(3, delivered.size());
+		assertFalse(publisher.publishEvent(new TestEvent("5")));
+		assertEquals(2, publisher.getDroppedEventCount());
+	}
+
+	@Test
+	public void publishesEventsInOrder() throws Exception {
+		List<Object> delivered = new CopyOnWriteArrayList<Object>();
+		ApplicationEventPublisher target = event -> {
+				delivered.add(((ApplicationEvent) event).getSource());
+
+				if ("2".equals(((ApplicationEvent) event).getSource())) {
+					throw new IllegalStateException("listener failure");
+				}
+			};
+
+		BufferedEventPublisher publisher = new BufferedEventPublisher(target, 16, "test-publisher");
+
+		for (int i = 1; i <= 10; i++) {
+			assertTrue(publisher.publishEvent(new TestEvent(String.valueOf(i))));
+		}
+
+		publisher.destroy();
+
+		assertEquals(10, delivered.size());
+
+		for (int i = 1; i <= 10; i++) {
+			assertEquals(String.valueOf(i), delivered.get(i - 1));
+		}
+
+		assertEquals(0, publisher.getDroppedEventCount());
+	}
+
+	@SuppressWarnings("serial")
+	private static class TestEvent extends ApplicationEvent {
+
+		public TestEvent(String source) {
+			super(source);
+		}
+	}
+
+}
@@ -0,0 +1,214 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.handler;
+
+import java.util.Locale;
+
+import jakarta.portlet.PortletMode;
+import jakarta.portlet.RenderResponse;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockMutableRenderParameters;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockPortletConfig;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockRenderRequest;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockRenderResponse;
+
+
+/**
+ * @author  Neil Griffin
+ */
+public class RenderFragmentCacheInterceptorTests {
+
+	private final Object handler = new Object();
+
+	private final RenderFragmentCacheInterceptor interceptor = new RenderFragmentCacheInterceptor();
+
+	@Test
+	public void failedRenderIsNotCached() throws Exception {
+		interceptor.setPublicScope(true);
+
+		MockRenderRequest request = new MockRenderRequest();
+		MockRenderResponse response = new MockRenderResponse();
+		assertTrue(interceptor.preHandleRender(request, response, handler));
+
+		RenderResponse capturingResponse = interceptor.wrapRenderResponse(request, response, handler);
+		capturingResponse.getWriter().write("partial");
+		interceptor.afterRenderCompletion(request, capturingResponse, handler, new IllegalStateException());
+
+		assertEquals("full", render(new MockRenderRequest(), "full"));
+	}
+
+	@Test
+	public void handlerExceptionIsNotCached() throws Exception {
+		interceptor.setPublicScope(true);
+
+		// An exception resolver renders the error view after the handler threw, so that the render completes without
+		// an exception but postHandleRender is never called.
+		MockRenderRequest request = new MockRenderRequest();
+		MockRenderResponse response = new MockRenderResponse();
+		assertTrue(interceptor.preHandleRender(request, response, handler));
+
+		RenderResponse capturingResponse = interceptor.wrapRenderResponse(request, response, handler);
+		capturingResponse.getWriter().write("error");
+		interceptor.afterRenderCompletion(request, capturingResponse, handler, null);
+		assertEquals("error", response.getContentAsString());
+
+		assertEquals("full", render(new MockRenderRequest(), "full"));
+		assertEquals("full", render(new MockRenderRequest(), "other"));
+		assertEquals(1, interceptor.getHitCount());
+		assertEquals(2, interceptor.getMissCount());
+	}
+
+	@Test
+	public void invalidate() throws Exception {
+		assertEquals("alice1", render(createRequest("alice"), "alice1"));
+		assertEquals("bob1", render(createRequest("bob"), "bob1"));
+
+		interceptor.invalidate(createRequest("alice"));
+		assertEquals("alice2", render(createRequest("alice"), "alice2"));
+		assertEquals("bob1", render(createRequest("bob"), "bob2"));
+
+		interceptor.invalidate();
+		assertEquals("bob3", render(createRequest("bob"), "bob3"));
+	}
+
+	@Test
+	public void maxEntries() throws Exception {
+		interceptor.setPublicScope(true);
+		interceptor.setMaxEntries(1);
+
+		assertEquals("view", render(new MockRenderRequest(PortletMode.VIEW), "view"));
+		assertEquals("edit", render(new MockRenderRequest(PortletMode.EDIT), "edit"));
+		assertEquals("view2", render(new MockRenderRequest(PortletMode.VIEW), "view2"));
+		assertEquals(0, interceptor.getHitCount());
+	}
+
+	@Test
+	public void portletWindows() throws Exception {
+		interceptor.setPublicScope(true);
+
+		MockRenderRequest request = new MockRenderRequest();
+		request.setWindowID("window1");
+		assertEquals("window1", render(request, "window1"));
+
+		request = new MockRenderRequest();
+		request.setWindowID("window2");
+		assertEquals("window2", render(request, "window2"));
+
+		request = new MockRenderRequest();
+		request.setWindowID("window1");
+		assertEquals("window1", render(request, "other"));
+		assertEquals(1, interceptor.getHitCount());
+		assertEquals(2, interceptor.getMissCount());
+	}
+
+	@Test
+	public void privateScope() throws Exception {
+
+		// Unauthenticated requests without a session are not cached.
+		assertEquals("anonymous1", render(new MockRenderRequest(), "anonymous1"));
+		assertEquals("anonymous2", render(new MockRenderRequest(), "anonymous2"));
+
+		assertEquals("alice1", render(createRequest("alice"), "alice1"));
+		assertEquals("alice1", render(createRequest("alice"), "alice2"));
+		assertEquals("bob1", render(createRequest("bob"), "bob1"));
+		assertEquals(1, interceptor.getHitCount());
+		assertEquals(2, interceptor.getMissCount());
+	}
+
+	@Test
+	public void publicScope() throws Exception {
+		interceptor.setPublicScope(true);
+		interceptor.setPortletConfig(new MockPortletConfig("fragments"));
+
+		assertEquals("first", render(createRequest("alice"), "first"));
+		assertEquals("first", render(createRequest("bob"), "second"));
+		assertEquals(1, interceptor.getHitCount());
+		assertEquals(1, interceptor.getMissCount());
+
+		// The render parameters, the portlet mode and the locale are part of the key.
+		MockMutableRenderParameters renderParameters = new MockMutableRenderParameters();
+		renderParameters.setValue("page", "2");
+		assertEquals("page2", render(new MockRenderRequest(PortletMode.VIEW, renderParameters), "page2"));
+		assertEquals("edit", render(new MockRenderRequest(PortletMode.EDIT), "edit"));
+
+		MockRenderRequest request = new MockRenderRequest();
+		request.addPreferredLocale(Locale.GERMAN);
+		assertEquals("german", render(request, "german"));
+		assertEquals(1, interceptor.getHitCount());
+	}
+
+	@Test
+	public void roles() throws Exception {
+		interceptor.setPublicScope(true);
+		interceptor.setRoles("admin");
+
+		MockRenderRequest request = createRequest("alice");
+		request.addUserRole("admin");
+		assertEquals("admin", render(request, "admin"));
+		assertEquals("user", render(createRequest("bob"), "user"));
+
+		request = createRequest("carol");
+		request.addUserRole("admin");
+		assertEquals("admin", render(request, "other"));
+	}
+
+	@Test
+	public void titleAndContentType() throws Exception {
+		interceptor.setPublicScope(true);
+
+		MockRenderRequest request = new MockRenderRequest();
+		MockRenderResponse response = new MockRenderResponse();
+		assertTrue(interceptor.preHandleRender(request, response, handler));
+
+		RenderResponse capturingResponse = interceptor.wrapRenderResponse(request, response, handler);
+		capturingResponse.setContentType("text/html");
+		capturingResponse.setTitle("Title");
+		capturingResponse.getPortletOutputStream().write(new byte[] { 1, 2, 3 });
+		interceptor.postHandleRender(request, capturingResponse, handler, null);
+		interceptor.afterRenderCompletion(request, capturingResponse, handler, null);
+
+		response = new MockRenderResponse();
+		assertFalse(interceptor.preHandleRender(new MockRenderRequest(), response, handler));
+		assertEquals("text/html", response.getContentType());
+		assertEquals("Title", response.getTitle());
+		assertArrayEquals(new byte[] { 1, 2, 3 }, response.getContentAsByteArray());
+	}
+
+	private MockRenderRequest createRequest(String remoteUser) {
+		MockRenderRequest request = new MockRenderRequest();
+		request.setRemoteUser(remoteUser);
+
+		return request;
+	}
+
+	private String render(MockRenderRequest request, String markup) throws Exception {
+		MockRenderResponse response = new MockRenderResponse();
+
+		if (interceptor.preHandleRender(request, response, handler)) {
+			RenderResponse capturingResponse = interceptor.wrapRenderResponse(request, response, handler);
+			interceptor.postHandleRender(request, capturingResponse, handler, null);
+			capturingResponse.getWriter().write(markup);
+			interceptor.afterRenderCompletion(request, capturingResponse, handler, null);
+		}
+
+		return response.getContentAsString();
+	}
+
+}
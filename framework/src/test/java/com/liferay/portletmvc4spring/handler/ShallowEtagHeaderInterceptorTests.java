@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.handler;
+
+import jakarta.portlet.ResourceResponse;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import org.springframework.http.HttpHeaders;
+
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockResourceRequest;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockResourceResponse;
+
+
+/**
+ * @author  Neil Griffin
+ */
+public class ShallowEtagHeaderInterceptorTests {
+
+	private final Object handler = new Object();
+
+	private final ShallowEtagHeaderInterceptor interceptor = new ShallowEtagHeaderInterceptor();
+
+	@Test
+	public void asyncProcessingStopsBuffering() throws Exception {
+		MockResourceRequest request = createRequest("GET");
+		MockResourceResponse response = new MockResourceResponse();
+		ResourceResponse bufferingResponse = interceptor.wrapResourceResponse(request, response, handler);
+		bufferingResponse.getWriter().write("first");
+		assertEquals("", response.getContentAsString());
+
+		interceptor.afterConcurrentResourceHandlingStarted(request, bufferingResponse, handler);
+		assertEquals("first", response.getContentAsString());
+
+		bufferingResponse.getWriter().write(" second");
+		bufferingResponse.getWriter().flush();
+		assertEquals("first second", response.getContentAsString());
+		assertNull(response.getProperty(HttpHeaders.ETAG));
+	}
+
+	@Test
+	public void errorStatusAndExceptionAreNotTagged() throws Exception {
+		MockResourceRequest request = createRequest("GET");
+		MockResourceResponse response = new MockResourceResponse();
+		ResourceResponse bufferingResponse = interceptor.wrapResourceResponse(request, response, handler);
+		bufferingResponse.setProperty(ResourceResponse.HTTP_STATUS_CODE, "404");
+		bufferingResponse.getWriter().write("Not Found");
+		interceptor.afterResourceCompletion(request, bufferingResponse, handler, null);
+		assertEquals("Not Found", response.getContentAsString());
+		assertNull(response.getProperty(HttpHeaders.ETAG));
+
+		response = new MockResourceResponse();
+		bufferingResponse = interceptor.wrapResourceResponse(request, response, handler);
+		bufferingResponse.getWriter().write("partial");
+		interceptor.afterResourceCompletion(request, bufferingResponse, handler, new IllegalStateException());
+		assertEquals("partial", response.getContentAsString());
+		assertNull(response.getProperty(HttpHeaders.ETAG));
+	}
+
+	@Test
+	public void etag() throws Exception {
+		MockResourceResponse response = serveResource(createRequest("GET"), "content");
+		String etag = response.getProperty(HttpHeaders.ETAG);
+		assertNotNull(etag);
+		assertTrue(etag.startsWith("\"0"));
+		assertEquals("content", response.getContentAsString());
+
+		// The same content yields the same ETag.
+		assertEquals(etag, serveResource(createRequest("GET"), "content").getProperty(HttpHeaders.ETAG));
+		assertNotEquals(etag, serveResource(createRequest("GET"), "other").getProperty(HttpHeaders.ETAG));
+
+		// Conditional requests with a matching ETag are answered with a 304 status code and no content.
+		MockResourceRequest request = createRequest("GET");
+		request.addProperty(HttpHeaders.IF_NONE_MATCH, etag);
+		response = serveResource(request, "content");
+		assertEquals("304", response.getProperty(ResourceResponse.HTTP_STATUS_CODE));
+		assertEquals("", response.getContentAsString());
+
+		request = createRequest("GET");
+		request.addProperty(HttpHeaders.IF_NONE_MATCH, etag);
+		response = serveResource(request, "changed");
+		assertNull(response.getProperty(ResourceResponse.HTTP_STATUS_CODE));
+		assertEquals("changed", response.getContentAsString());
+	}
+
+	@Test
+	public void nonGetRequestsAreNotBuffered() throws Exception {
+		MockResourceRequest request = createRequest("POST");
+		MockResourceResponse response = new MockResourceResponse();
+		assertSame(response, interceptor.wrapResourceResponse(request, response, handler));
+	}
+
+	@Test
+	public void portletOutputStream() throws Exception {
+		MockResourceRequest request = createRequest("GET");
+		MockResourceResponse response = new MockResourceResponse();
+		ResourceResponse bufferingResponse = interceptor.wrapResourceResponse(request, response, handler);
+		bufferingResponse.setContentLength(3);
+		bufferingResponse.getPortletOutputStream().write(new byte[] { 1, 2, 3 });
+		bufferingResponse.flushBuffer();
+		assertEquals(0, response.getContentAsByteArray().length);
+
+		interceptor.afterResourceCompletion(request, bufferingResponse, handler, null);
+		assertArrayEquals(new byte[] { 1, 2, 3 }, response.getContentAsByteArray());
+		assertEquals(3, response.getContentLength());
+		assertNotNull(response.getProperty(HttpHeaders.ETAG));
+	}
+
+	@Test
+	public void weakETag() throws Exception {
+		interceptor.setWriteWeakETag(true);
+
+		MockResourceResponse response = serveResource(createRequest("GET"), "content");
+		String etag = response.getProperty(HttpHeaders.ETAG);
+		assertTrue(etag.startsWith("W/\"0"));
+
+		// Weak comparison also matches the strong form of the ETag.
+		MockResourceRequest request = createRequest("GET");
+		request.addProperty(HttpHeaders.IF_NONE_MATCH, etag.substring(2));
+		assertEquals("304", serveResource(request, "content").getProperty(ResourceResponse.HTTP_STATUS_CODE));
+	}
+
+	private MockResourceRequest createRequest(String method) {
+		MockResourceRequest request = new MockResourceRequest();
+		request.setMethod(method);
+
+		return request;
+	}
+
+	private MockResourceResponse serveResource(MockResourceRequest request, String content) throws Exception {
+		MockResourceResponse response = new MockResourceResponse();
+
+		if (interceptor.preHandleResource(request, response, handler)) {
+			ResourceResponse bufferingResponse = interceptor.wrapResourceResponse(request, response, handler);
+			bufferingResponse.getWriter().write(content);
+			interceptor.afterResourceCompletion(request, bufferingResponse, handler, null);
+		}
+
+		return response;
+	}
+
+}
@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.handler;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.portlet.PortletException;
+import jakarta.portlet.PortletRequest;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockActionRequest;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockPortletRequest;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockPortletSession;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockRenderRequest;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockResourceRequest;
+
+
+/**
+ * @author  Neil Griffin
+ */
+public class StripedPortletSessionLockStrategyTests {
+
+	private final MockPortletSession session = new MockPortletSession();
+
+	@Test
+	public void exclusiveLockForActionRequests() throws Exception {
+		StripedPortletSessionLockStrategy strategy = new StripedPortletSessionLockStrategy();
+		strategy.setLockTimeout(50);
+
+		PortletSessionLockStrategy.SessionLock lock = strategy.lock(createRequest(new MockActionRequest(), "window1"),
+				this.session);
+
+		try {
+			assertFalse(lockInOtherThread(strategy, createRequest(new MockRenderRequest(), "window1")));
+			assertFalse(lockInOtherThread(strategy, createRequest(new MockActionRequest(), "window1")));
+		}
+		finally {
+			lock.close();
+		}
+
+		assertTrue(lockInOtherThread(strategy, createRequest(new MockActionRequest(), "window1")));
+		assertEquals(2, strategy.getTimeoutCount());
+		assertTrue(strategy.getWaitTimeNanos() >= TimeUnit.MILLISECONDS.toNanos(100));
+	}
+
+	@Test
+	public void separateLocksForPortletWindows() throws Exception {
+		StripedPortletSessionLockStrategy strategy = new StripedPortletSessionLockStrategy();
+		strategy.setLockTimeout(50);
+
+		PortletSessionLockStrategy.SessionLock lock = strategy.lock(createRequest(new MockActionRequest(), "window1"),
+				this.session);
+
+		try {
+			assertTrue(lockInOtherThread(strategy, createRequest(new MockActionRequest(), "window2")));
+		}
+		finally {
+			lock.close();
+		}
+
+		assertEquals(0, strategy.getTimeoutCount());
+	}
+
+	@Test
+	public void sharedLockForRenderAndResourceGetRequests() throws Exception {
+		StripedPortletSessionLockStrategy strategy = new StripedPortletSessionLockStrategy(1);
+		strategy.setLockTimeout(50);
+
+		PortletSessionLockStrategy.SessionLock lock = strategy.lock(createRequest(new MockRenderRequest(), "window1"),
+				this.session);
+
+		try {
+			MockResourceRequest resourceRequest = new MockResourceRequest();
+			resourceRequest.setMethod("GET");
+			assertTrue(lockInOtherThread(strategy, createRequest(new MockRenderRequest(), "window2")));
+			assertTrue(lockInOtherThread(strategy, createRequest(resourceRequest, "window1")));
+
+			resourceRequest.setMethod("POST");
+			assertFalse(lockInOtherThread(strategy, createRequest(resourceRequest, "window1")));
+		}
+		finally {
+			lock.close();
+		}
+
+		assertEquals(1, strategy.getTimeoutCount());
+	}
+
+	private PortletRequest createRequest(MockPortletRequest request, String windowID) {
+		request.setSession(this.session);
+		request.setWindowID(windowID);
+
+		return request;
+	}
+
+	private boolean lockInOtherThread(PortletSessionLockStrategy strategy, PortletRequest request) throws Exception {
+		CompletableFuture<Boolean> acquired = new CompletableFuture<Boolean>();
+
+		new Thread(() -> {
+
+				try {
+					strategy.lock(request, this.session).close();
+					acquired.complete(true);
+				}
+				catch (PortletException ex) {
+					acquired.complete(false);
+				}
+			}).start();
+
+		return acquired.get(5, TimeUnit.SECONDS);
+	}
+
+}
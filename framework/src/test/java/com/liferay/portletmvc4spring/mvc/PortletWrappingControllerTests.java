@@ -16,14 +16,21 @@
 package com.liferay.portletmvc4spring.mvc;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import jakarta.portlet.ActionRequest;
 import jakarta.portlet.ActionResponse;
 import jakarta.portlet.Portlet;
 import jakarta.portlet.PortletConfig;
 import jakarta.portlet.PortletException;
+import jakarta.portlet.PortletRequest;
 import jakarta.portlet.RenderRequest;
 import jakarta.portlet.RenderResponse;
+import jakarta.portlet.ResourceRequest;
+import jakarta.portlet.ResourceResponse;
+import jakarta.portlet.ResourceServingPortlet;
 
 import static org.junit.Assert.*;
 
@@ -35,12 +42,18 @@ import org.springframework.beans.MutablePropertyValues;
 
 import com.liferay.portletmvc4spring.context.ConfigurablePortletApplicationContext;
 import com.liferay.portletmvc4spring.context.StaticPortletApplicationContext;
+import com.liferay.portletmvc4spring.handler.PortletSessionLockStrategy;
+import com.liferay.portletmvc4spring.handler.StripedPortletSessionLockStrategy;
 import com.liferay.portletmvc4spring.test.mock.web.portlet.MockActionRequest;
 import com.liferay.portletmvc4spring.test.mock.web.portlet.MockActionResponse;
 import com.liferay.portletmvc4spring.test.mock.web.portlet.MockPortletConfig;
 import com.liferay.portletmvc4spring.test.mock.web.portlet.MockPortletContext;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockPortletRequest;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockPortletSession;
 import com.liferay.portletmvc4spring.test.mock.web.portlet.MockRenderRequest;
 import com.liferay.portletmvc4spring.test.mock.web.portlet.MockRenderResponse;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockResourceRequest;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockResourceResponse;
 
 
 /**
@@ -57,9 +70,12 @@ public final class PortletWrappingControllerTests {
 	private static final String PORTLET_WRAPPING_CONTROLLER_BEAN_NAME = "controller";
 	private static final String RENDERED_RESPONSE_CONTENT = "myPortlet-view";
 	private static final String PORTLET_NAME_ACTION_REQUEST_PARAMETER_NAME = "portletName";
+	private static final String SESSION_LOCK_STRATEGY_ATTRIBUTE_NAME = "sessionLockStrategy";
 
 	private PortletWrappingController controller;
 
+	private final MockPortletSession session = new MockPortletSession();
+
 	@Test
 	public void actionRequest() throws Exception {
 		MockActionRequest request = new MockActionRequest();
@@ -137,6 +153,66 @@ public final class PortletWrappingControllerTests {
 		assertEquals(RENDERED_RESPONSE_CONTENT, response.getContentAsString());
 	}
 
+	@Test
+	public void sessionLockStrategyReadLockForRenderAndResourceGetRequests() throws Exception {
+		StripedPortletSessionLockStrategy strategy = new StripedPortletSessionLockStrategy();
+		strategy.setLockTimeout(50);
+
+		PortletWrappingController controller = createLockingController(strategy);
+
+		MockRenderResponse renderResponse = new MockRenderResponse();
+		controller.handleRenderRequest(createRequest(new MockRenderRequest()), renderResponse);
+		assertEquals("read", renderResponse.getContentAsString());
+
+		MockResourceRequest resourceRequest = new MockResourceRequest();
+		resourceRequest.setMethod("GET");
+
+		MockResourceResponse resourceResponse = new MockResourceResponse();
+		controller.handleResourceRequest(createRequest(resourceRequest), resourceResponse);
+		assertEquals("read", resourceResponse.getContentAsString());
+
+		resourceRequest = new MockResourceRequest();
+		resourceRequest.setMethod("POST");
+		resourceResponse = new MockResourceResponse();
+		controller.handleResourceRequest(createRequest(resourceRequest), resourceResponse);
+		assertEquals("write", resourceResponse.getContentAsString());
+	}
+
+	@Test
+	public void sessionLockStrategyTimeout() throws Exception {
+		StripedPortletSessionLockStrategy strategy = new StripedPortletSessionLockStrategy();
+		strategy.setLockTimeout(50);
+
+		PortletWrappingController controller = createLockingController(strategy);
+		CountDownLatch release = holdLockInOtherThread(strategy, createRequest(new MockActionRequest()));
+		MockRenderResponse response = new MockRenderResponse();
+
+		try {
+			controller.handleRenderRequest(createRequest(new MockRenderRequest()), response);
+			fail("Should have thrown PortletException");
+		}
+		catch (PortletException ex) {
+			assertEquals("Timed out after 50 ms waiting for the session lock of portlet window [window1]",
+				ex.getMessage());
+		}
+		finally {
+			release.countDown();
+		}
+
+		assertEquals("", response.getContentAsString());
+		assertEquals(1, strategy.getTimeoutCount());
+	}
+
+	@Test
+	public void sessionLockStrategyWriteLockForActionRequests() throws Exception {
+		StripedPortletSessionLockStrategy strategy = new StripedPortletSessionLockStrategy();
+		strategy.setLockTimeout(50);
+
+		MockActionResponse response = new MockActionResponse();
+		createLockingController(strategy).handleActionRequest(createRequest(new MockActionRequest()), response);
+		assertEquals("write", response.getRenderParameter(RESULT_RENDER_PARAMETER_NAME));
+	}
+
 	@Before
 	@SuppressWarnings("resource")
 	public void setUp() {
@@ -147,6 +223,142 @@ public final class PortletWrappingControllerTests {
 		controller = (PortletWrappingController) applicationContext.getBean(PORTLET_WRAPPING_CONTROLLER_BEAN_NAME);
 	}
 
+	private PortletWrappingController createLockingController(PortletSessionLockStrategy strategy) throws Exception {
+		MockPortletContext portletContext = new MockPortletContext();
+		portletContext.setAttribute(SESSION_LOCK_STRATEGY_ATTRIBUTE_NAME, strategy);
+
+		PortletWrappingController controller = new PortletWrappingController();
+		controller.setPortletClass(LockProbePortlet.class);
+		controller.setPortletConfig(new MockPortletConfig(portletContext));
+		controller.setSessionLockStrategy(strategy);
+		controller.setSynchronizeOnSession(true);
+		controller.afterPropertiesSet();
+
+		return controller;
+	}
+
+	private <T extends MockPortletRequest> T createRequest(T request) {
+		request.setSession(this.session);
+		request.setWindowID("window1");
+
+		return request;
+	}
+
+	private CountDownLatch holdLockInOtherThread(PortletSessionLockStrategy strategy, PortletRequest request)
+		throws Exception {
+
+		CountDownLatch locked = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		new Thread(() -> {
+
+				try {
+					PortletSessionLockStrategy.SessionLock lock = strategy.lock(request, this.session);
+
+					try {
+						locked.countDown();
+						release.await();
+					}
+					finally {
+						lock.close();
+					}
+				}
+				catch (Exception ex) {
+					throw new IllegalStateException(ex);
+				}
+			}).start();
+
+		assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+		return release;
+	}
+
+	private static boolean lockInOtherThread(PortletSessionLockStrategy strategy, PortletRequest request)
+		throws PortletException {
+
+		CompletableFuture<Boolean> acquired = new CompletableFuture<Boolean>();
+
+		new Thread(() -> {
+
+				try {
+					strategy.lock(request, request.getPortletSession()).close();
+					acquired.complete(true);
+				}
+				catch (PortletException ex) {
+					acquired.complete(false);
+				}
+			}).start();
+
+		try {
+			return acquired.get(5, TimeUnit.SECONDS);
+		}
+		catch (Exception ex) {
+			throw new PortletException(ex);
+		}
+	}
+
+	/**
+	 * Determine the session lock that the current thread holds for the given request, by requesting a shared and an
+	 * exclusive lock for the same session and portlet window in another thread.
+	 */
+	private static String probeSessionLock(PortletSessionLockStrategy strategy, PortletRequest request)
+		throws PortletException {
+
+		MockRenderRequest renderRequest = new MockRenderRequest();
+		renderRequest.setSession(request.getPortletSession());
+		renderRequest.setWindowID(request.getWindowID());
+
+		if (!lockInOtherThread(strategy, renderRequest)) {
+			return "write";
+		}
+
+		MockActionRequest actionRequest = new MockActionRequest();
+		actionRequest.setSession(request.getPortletSession());
+		actionRequest.setWindowID(request.getWindowID());
+
+		if (!lockInOtherThread(strategy, actionRequest)) {
+			return "read";
+		}
+
+		return "none";
+	}
+
+	/**
+	 * Portlet that reports the session lock held while it handles a request: "read", "write" or "none".
+	 */
+	public static final class LockProbePortlet implements Portlet, ResourceServingPortlet {
+
+		private PortletSessionLockStrategy sessionLockStrategy;
+
+		@Override
+		public void destroy() {
+		}
+
+		@Override
+		public void init(PortletConfig portletConfig) {
+			this.sessionLockStrategy = (PortletSessionLockStrategy) portletConfig.getPortletContext().getAttribute(
+					SESSION_LOCK_STRATEGY_ATTRIBUTE_NAME);
+		}
+
+		@Override
+		public void processAction(ActionRequest request, ActionResponse response) throws PortletException {
+			response.setRenderParameter(RESULT_RENDER_PARAMETER_NAME, probeSessionLock(this.sessionLockStrategy,
+					request));
+		}
+
+		@Override
+		public void render(RenderRequest request, RenderResponse response) throws IOException, PortletException {
+			response.getWriter().write(probeSessionLock(this.sessionLockStrategy, request));
+		}
+
+		@Override
+		public void serveResource(ResourceRequest request, ResourceResponse response) throws IOException,
+			PortletException {
+			response.getWriter().write(probeSessionLock(this.sessionLockStrategy, request));
+		}
+
+	}
+
 	public static final class MyPortlet implements Portlet {
 
 		private PortletConfig portletConfig;
@@ -0,0 +1,162 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.mvc.annotation;
+
+import jakarta.portlet.PortletRequest;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import org.springframework.stereotype.Controller;
+
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import com.liferay.portletmvc4spring.bind.annotation.ActionMapping;
+import com.liferay.portletmvc4spring.bind.annotation.EventMapping;
+import com.liferay.portletmvc4spring.bind.annotation.RenderMapping;
+import com.liferay.portletmvc4spring.bind.annotation.ResourceMapping;
+import com.liferay.portletmvc4spring.context.StaticPortletApplicationContext;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockActionRequest;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockEvent;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockEventRequest;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockPortletContext;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockPortletRequest;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockRenderRequest;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockResourceRequest;
+
+
+/**
+ * @author  Neil Griffin
+ */
+public class DefaultAnnotationHandlerMappingTests {
+
+	@Test
+	public void largeMixedPredicateBucket() throws Exception {
+
+		// 12 copies of each controller register 84 predicates under the VIEW mode, so that sorting them goes beyond the
+		// binary insertion sort of TimSort, which detects an inconsistent order for this registration order.
+		assertPrecedence(12, PhaseController.class, MethodLevelController.class, TypeLevelController.class);
+	}
+
+	@Test
+	public void mixedTypeLevelAndMethodLevelPredicates() throws Exception {
+		assertPrecedence(1, TypeLevelController.class, MethodLevelController.class, PhaseController.class);
+	}
+
+	private void assertPrecedence(int copies, Class<?>... controllerTypes) throws Exception {
+		StaticPortletApplicationContext wac = new StaticPortletApplicationContext();
+		wac.setPortletContext(new MockPortletContext());
+
+		for (int i = 0; i < copies; i++) {
+
+			for (Class<?> controllerType : controllerTypes) {
+				wac.registerSingleton(controllerType.getSimpleName() + i, controllerType);
+			}
+		}
+
+		wac.registerSingleton("handlerMapping", DefaultAnnotationHandlerMapping.class);
+		wac.refresh();
+
+		DefaultAnnotationHandlerMapping hm = wac.getBean(DefaultAnnotationHandlerMapping.class);
+		Object methodLevel = wac.getBean("MethodLevelController0");
+		Object phase = wac.getBean("PhaseController0");
+		Object typeLevel = wac.getBean("TypeLevelController0");
+
+		// Mappings of the special request types take precedence over method-level mappings.
+		MockRenderRequest renderRequest = new MockRenderRequest();
+		renderRequest.setParameter("page", "render");
+		assertSame(phase, getHandler(hm, renderRequest));
+
+		renderRequest = new MockRenderRequest();
+		renderRequest.setParameter("page", "method");
+		assertSame(methodLevel, getHandler(hm, renderRequest));
+
+		// Type-level mappings take precedence over the mappings of all special request types.
+		renderRequest = new MockRenderRequest();
+		renderRequest.setParameter("page", "type");
+		assertSame(typeLevel, getHandler(hm, renderRequest));
+
+		MockActionRequest actionRequest = new MockActionRequest("save");
+		assertSame(phase, getHandler(hm, actionRequest));
+		actionRequest.setParameter("page", "type");
+		assertSame(typeLevel, getHandler(hm, actionRequest));
+
+		MockResourceRequest resourceRequest = new MockResourceRequest("data");
+		assertSame(phase, getHandler(hm, resourceRequest));
+		resourceRequest.setParameter("page", "type");
+		assertSame(typeLevel, getHandler(hm, resourceRequest));
+
+		MockEventRequest eventRequest = new MockEventRequest(new MockEvent("refresh"));
+		assertSame(phase, getHandler(hm, eventRequest));
+		eventRequest.setParameter("page", "type");
+		assertSame(typeLevel, getHandler(hm, eventRequest));
+
+		// Type-level mappings take precedence over method-level mappings as well, regardless of the parameter count.
+		renderRequest = new MockRenderRequest();
+		renderRequest.setParameter("page", "type");
+		renderRequest.setParameter("detail", "1");
+		assertSame(typeLevel, getHandler(hm, renderRequest));
+
+		actionRequest = new MockActionRequest();
+		actionRequest.setParameter("page", "method");
+		assertSame(methodLevel, getHandler(hm, actionRequest));
+	}
+
+	private Object getHandler(DefaultAnnotationHandlerMapping hm, MockPortletRequest request) throws Exception {
+		return hm.getHandler((PortletRequest) request).getHandler();
+	}
+
+	@Controller
+	@RequestMapping("VIEW")
+	public static class MethodLevelController {
+
+		@RequestMapping(params = "page=method")
+		public void method() {
+		}
+
+		@RequestMapping(params = { "page=type", "detail" })
+		public void typeDetail() {
+		}
+	}
+
+	@Controller
+	@RequestMapping("VIEW")
+	public static class PhaseController {
+
+		@ActionMapping("save")
+		public void action() {
+		}
+
+		@EventMapping("refresh")
+		public void event() {
+		}
+
+		@RenderMapping(params = "page=render")
+		public String render() {
+			return "view";
+		}
+
+		@ResourceMapping("data")
+		public void resource() {
+		}
+	}
+
+	@RequestMapping(value = "VIEW", params = "page=type")
+	public static class TypeLevelController {
+	}
+
+}
@@ -17,28 +17,46 @@ package com.liferay.portletmvc4spring.mvc.annotation;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
 
 import jakarta.portlet.ActionRequest;
 import jakarta.portlet.ActionResponse;
 import jakarta.portlet.EventResponse;
 import jakarta.portlet.MimeResponse;
 import jakarta.portlet.PortletContext;
+import jakarta.portlet.PortletException;
 import jakarta.portlet.PortletMode;
 import jakarta.portlet.PortletRequest;
 import jakarta.portlet.PortletResponse;
 import jakarta.portlet.PortletSession;
 import jakarta.portlet.RenderRequest;
 import jakarta.portlet.RenderResponse;
+import jakarta.portlet.ResourceRequest;
 import jakarta.portlet.ResourceResponse;
 import jakarta.portlet.StateAwareResponse;
 import jakarta.portlet.WindowState;
 import jakarta.servlet.http.Cookie;
+import javax.xml.namespace.QName;
 
 import static org.junit.Assert.*;
 
@@ -46,6 +64,7 @@ import org.junit.Test;
 
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
 import org.springframework.beans.factory.support.RootBeanDefinition;
 import org.springframework.beans.propertyeditors.CustomDateEditor;
 
@@ -54,10 +73,14 @@ import org.springframework.context.annotation.AnnotationConfigUtils;
 
 import org.springframework.core.MethodParameter;
 
+import org.springframework.http.HttpHeaders;
+
 import org.springframework.lang.Nullable;
 
 import org.springframework.stereotype.Controller;
 
+import org.springframework.test.util.ReflectionTestUtils;
+
 import org.springframework.ui.ExtendedModelMap;
 import org.springframework.ui.Model;
 import org.springframework.ui.ModelMap;
@@ -81,10 +104,13 @@ import org.springframework.web.bind.support.WebDataBinderFactory;
 import org.springframework.web.context.WebApplicationContext;
 import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.context.support.GenericWebApplicationContext;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.liferay.portletmvc4spring.AsyncHandlerInterceptor;
 import com.liferay.portletmvc4spring.DispatcherPortlet;
 import com.liferay.portletmvc4spring.ModelAndView;
 import com.liferay.portletmvc4spring.NoHandlerFoundException;
@@ -93,6 +119,10 @@ import com.liferay.portletmvc4spring.bind.annotation.EventMapping;
 import com.liferay.portletmvc4spring.bind.annotation.RenderMapping;
 import com.liferay.portletmvc4spring.bind.annotation.ResourceMapping;
 import com.liferay.portletmvc4spring.context.StaticPortletApplicationContext;
+import com.liferay.portletmvc4spring.handler.HandlerInterceptorAdapter;
+import com.liferay.portletmvc4spring.handler.PortletETagGenerator;
+import com.liferay.portletmvc4spring.handler.PortletSessionLockStrategy;
+import com.liferay.portletmvc4spring.handler.StripedPortletSessionLockStrategy;
 import com.liferay.portletmvc4spring.mvc.AbstractController;
 import com.liferay.portletmvc4spring.mvc.method.annotation.PortletRequestMappingHandlerAdapter;
 import com.liferay.portletmvc4spring.test.mock.web.portlet.MockActionRequest;
@@ -102,6 +132,7 @@ import com.liferay.portletmvc4spring.test.mock.web.portlet.MockEventRequest;
 import com.liferay.portletmvc4spring.test.mock.web.portlet.MockEventResponse;
 import com.liferay.portletmvc4spring.test.mock.web.portlet.MockPortletConfig;
 import com.liferay.portletmvc4spring.test.mock.web.portlet.MockPortletContext;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockPortletSession;
 import com.liferay.portletmvc4spring.test.mock.web.portlet.MockRenderRequest;
 import com.liferay.portletmvc4spring.test.mock.web.portlet.MockRenderResponse;
 import com.liferay.portletmvc4spring.test.mock.web.portlet.MockResourceRequest;
@@ -139,6 +170,243 @@ public class Portlet20AnnotationControllerTests {
 		doTestAdaptedHandleMethods(MyAdaptedController4.class);
 	}
 
+	@Test
+	public void argumentResolverBindingAtStartup() throws Exception {
+		MyCountingArgumentResolver argumentResolver = new MyCountingArgumentResolver();
+		DispatcherPortlet portlet = new DispatcherPortlet() {
+				@Override
+				protected ApplicationContext createPortletApplicationContext(ApplicationContext parent)
+					throws BeansException {
+					GenericWebApplicationContext wac = new GenericWebApplicationContext();
+					wac.registerBeanDefinition("controller",
+						new RootBeanDefinition(MyArgumentResolverBindingController.class));
+
+					RootBeanDefinition adapterDef = new RootBeanDefinition(PortletRequestMappingHandlerAdapter.class);
+					List<HandlerMethodArgumentResolver> customArgumentResolvers = new ArrayList<>();
+					customArgumentResolvers.add(argumentResolver);
+					adapterDef.getPropertyValues().add("customArgumentResolvers", customArgumentResolvers);
+					wac.registerBeanDefinition("handlerAdapter", adapterDef);
+					wac.refresh();
+
+					return wac;
+				}
+			};
+		portlet.init(new MockPortletConfig());
+
+		// The MySpecialArg parameters of the handler method, the @InitBinder method and the @ModelAttribute method are
+		// bound to the custom argument resolver before the first request.
+		List<String> boundMethods = new ArrayList<>();
+
+		for (MethodParameter methodParameter : argumentResolver.supportedParameters) {
+			assertEquals(MySpecialArg.class, methodParameter.getParameterType());
+			boundMethods.add(methodParameter.getMethod().getName());
+		}
+
+		boundMethods.sort(null);
+		assertEquals(Arrays.asList("initBinder", "myHandle", "mySpecialArg"), boundMethods);
+
+		MockRenderRequest request = new MockRenderRequest(PortletMode.VIEW);
+		MockRenderResponse response = new MockRenderResponse();
+		portlet.render(request, response);
+		assertEquals("special-special", response.getContentAsString());
+
+		// The first request is served from the bindings, without probing the argument resolvers again.
+		assertEquals(3, argumentResolver.supportedParameters.size());
+	}
+
+	@Test
+	public void argumentResolverBindingWarnsOfUnresolvedParameters() throws Exception {
+		Logger logger = Logger.getLogger(PortletRequestMappingHandlerAdapter.class.getName());
+		MyWarningHandler warningHandler = new MyWarningHandler();
+		logger.addHandler(warningHandler);
+
+		try {
+			GenericWebApplicationContext wac = new GenericWebApplicationContext();
+			wac.registerBeanDefinition("controller", new RootBeanDefinition(MyArgumentResolverBindingController.class));
+
+			RootBeanDefinition adapterDef = new RootBeanDefinition(PortletRequestMappingHandlerAdapter.class);
+			List<HandlerMethodArgumentResolver> argumentResolvers = new ArrayList<>();
+			argumentResolvers.add(new MySpecialArgumentResolver());
+			adapterDef.getPropertyValues().add("argumentResolvers", argumentResolvers);
+			wac.registerBeanDefinition("handlerAdapter", adapterDef);
+			wac.refresh();
+		}
+		finally {
+			logger.removeHandler(warningHandler);
+		}
+
+		assertEquals(1, warningHandler.messages.size());
+
+		String message = warningHandler.messages.get(0);
+		assertTrue(message, message.startsWith("No suitable argument resolver for "));
+
+		// The Writer of the handler method and the MySpecialArg of the @InitBinder method are unresolved, while the
+		// WebDataBinder of the @InitBinder method is provided by the data binder factory.
+		String controllerName = MyArgumentResolverBindingController.class.getName();
+		assertTrue(message, message.contains("parameter 1 of public void " + controllerName + ".myHandle("));
+		assertTrue(message, message.contains("parameter 1 of public void " + controllerName + ".initBinder("));
+		assertFalse(message, message.contains("parameter 0 of"));
+		assertFalse(message, message.contains(".mySpecialArg("));
+	}
+
+	@Test
+	public void asyncCallableResource() throws Exception {
+		DispatcherPortlet portlet = createAsyncPortlet();
+
+		MockResourceRequest request = new MockResourceRequest("callable");
+		request.setAsyncSupported(true);
+
+		MockResourceResponse response = new MockResourceResponse();
+		portlet.serveResource(request, response);
+		assertTrue(request.isAsyncStarted());
+		assertEquals("", response.getContentAsString());
+
+		CountDownLatch dispatched = new CountDownLatch(1);
+		request.getMockPortletAsyncContext().addDispatchHandler(dispatched::countDown);
+		portlet.getPortletApplicationContext().getBean(MyAsyncController.class).proceed.countDown();
+		assertTrue(dispatched.await(5, TimeUnit.SECONDS));
+
+		// Simulate the async dispatch of the portlet container.
+		portlet.serveResource(request, response);
+		assertFalse(request.isAsyncStarted());
+		request.getMockPortletAsyncContext().complete();
+		assertEquals("callableView-true", response.getContentAsString());
+	}
+
+	@Test
+	public void asyncCompletionStageResource() throws Exception {
+		DispatcherPortlet portlet = createAsyncPortlet();
+
+		MockResourceRequest request = new MockResourceRequest("completionStage");
+		request.setAsyncSupported(true);
+
+		MockResourceResponse response = new MockResourceResponse();
+		portlet.serveResource(request, response);
+		assertTrue(request.isAsyncStarted());
+
+		request.getMockPortletAsyncContext().addDispatchHandler(() -> {
+				try {
+					portlet.serveResource(request, response);
+				}
+				catch (Exception ex) {
+					throw new IllegalStateException(ex);
+				}
+			});
+		portlet.getPortletApplicationContext().getBean(MyAsyncController.class).completableFuture.complete(
+			"completionStageView");
+		request.getMockPortletAsyncContext().complete();
+		assertEquals("completionStageView-pending", response.getContentAsString());
+	}
+
+	@Test
+	public void asyncDeferredResultResource() throws Exception {
+		DispatcherPortlet portlet = createAsyncPortlet();
+
+		MockResourceRequest request = new MockResourceRequest("deferredResult");
+		request.setAsyncSupported(true);
+
+		MockResourceResponse response = new MockResourceResponse();
+		portlet.serveResource(request, response);
+		assertTrue(request.isAsyncStarted());
+		assertEquals("", response.getContentAsString());
+
+		request.getMockPortletAsyncContext().addDispatchHandler(() -> {
+				try {
+					portlet.serveResource(request, response);
+				}
+				catch (Exception ex) {
+					throw new IllegalStateException(ex);
+				}
+			});
+		portlet.getPortletApplicationContext().getBean(MyAsyncController.class).deferredResult.setResult(
+			"deferredView");
+		request.getMockPortletAsyncContext().complete();
+		assertEquals("deferredView-pending", response.getContentAsString());
+	}
+
+	@Test
+	public void asyncPublisherResource() throws Exception {
+		DispatcherPortlet portlet = createAsyncPortlet();
+
+		MockResourceRequest request = new MockResourceRequest("publisher");
+		request.setAsyncSupported(true);
+
+		MockResourceResponse response = new MockResourceResponse();
+		portlet.serveResource(request, response);
+		assertTrue(request.isAsyncStarted());
+
+		CountDownLatch dispatched = new CountDownLatch(1);
+		request.getMockPortletAsyncContext().addDispatchHandler(dispatched::countDown);
+		portlet.getPortletApplicationContext().getBean(MyAsyncController.class).proceed.countDown();
+		assertTrue(dispatched.await(5, TimeUnit.SECONDS));
+		assertEquals("[1,2]-3", response.getContentAsString());
+
+		portlet.serveResource(request, response);
+		request.getMockPortletAsyncContext().complete();
+		assertEquals("[1,2]-3", response.getContentAsString());
+	}
+
+	@Test
+	public void asyncStreamingResponseBodyResource() throws Exception {
+		DispatcherPortlet portlet = createAsyncPortlet();
+		MyAsyncInterceptor interceptor = portlet.getPortletApplicationContext().getBean(MyAsyncInterceptor.class);
+
+		MockResourceRequest request = new MockResourceRequest("streamingResponseBody");
+		request.setAsyncSupported(true);
+
+		MockResourceResponse response = new MockResourceResponse();
+		portlet.serveResource(request, response);
+		assertTrue(request.isAsyncStarted());
+		assertEquals(Arrays.asList("preHandleResource", "afterConcurrentResourceHandlingStarted"),
+			interceptor.invocations);
+
+		CountDownLatch dispatched = new CountDownLatch(1);
+		request.getMockPortletAsyncContext().addDispatchHandler(dispatched::countDown);
+		portlet.getPortletApplicationContext().getBean(MyAsyncController.class).proceed.countDown();
+		assertTrue(dispatched.await(5, TimeUnit.SECONDS));
+
+		portlet.serveResource(request, response);
+		request.getMockPortletAsyncContext().complete();
+		assertEquals("streamed", response.getContentAsString());
+		assertEquals(Arrays.asList("preHandleResource", "afterConcurrentResourceHandlingStarted", "preHandleResource",
+				"postHandleResource", "afterResourceCompletion"), interceptor.invocations);
+	}
+
+	@Test
+	public void asyncUnsupportedPublisherResource() throws Exception {
+		DispatcherPortlet portlet = createAsyncPortlet();
+		portlet.getPortletApplicationContext().getBean(MyAsyncController.class).proceed.countDown();
+
+		MockResourceRequest request = new MockResourceRequest("publisher");
+		MockResourceResponse response = new MockResourceResponse();
+		portlet.serveResource(request, response);
+		assertFalse(request.isAsyncStarted());
+		assertEquals("[1,2]-3", response.getContentAsString());
+	}
+
+	@Test
+	public void asyncUnsupportedPublisherResourceTimeout() throws Exception {
+		DispatcherPortlet portlet = createAsyncPortlet(100L);
+		MyAsyncController controller = portlet.getPortletApplicationContext().getBean(MyAsyncController.class);
+
+		MockResourceRequest request = new MockResourceRequest("publisher");
+		MockResourceResponse response = new MockResourceResponse();
+
+		try {
+			portlet.serveResource(request, response);
+			fail("Should have thrown PortletException");
+		}
+		catch (PortletException ex) {
+			assertTrue(ex.getMessage(), ex.getMessage().startsWith("Timed out after 100 ms"));
+		}
+		finally {
+			controller.proceed.countDown();
+		}
+
+		assertFalse(request.isAsyncStarted());
+		assertEquals("", response.getContentAsString());
+	}
+
 	@Test
 	public void binderInitializingCommandProvidingFormController() throws Exception {
 		DispatcherPortlet portlet = new DispatcherPortlet() {
@@ -205,6 +473,65 @@ public class Portlet20AnnotationControllerTests {
 		assertEquals("myView-String:myDefaultName-typeMismatch-tb1-myOriginalValue", response.getContentAsString());
 	}
 
+	@Test
+	public void contentValidation() throws Exception {
+		DispatcherPortlet portlet = new DispatcherPortlet() {
+				@Override
+				protected ApplicationContext createPortletApplicationContext(ApplicationContext parent)
+					throws BeansException {
+					GenericWebApplicationContext wac = new GenericWebApplicationContext();
+					wac.registerBeanDefinition("controller", new RootBeanDefinition(MyCachingController.class));
+					wac.refresh();
+
+					return wac;
+				}
+			};
+		portlet.init(new MockPortletConfig());
+
+		MyCachingController controller = portlet.getPortletApplicationContext().getBean(MyCachingController.class);
+
+		MockRenderRequest request = new MockRenderRequest(PortletMode.VIEW);
+		MockRenderResponse response = new MockRenderResponse();
+		portlet.render(request, response);
+		assertEquals("myView", response.getContentAsString());
+		assertEquals(60, response.getCacheControl().getExpirationTime());
+		assertTrue(response.getCacheControl().isPublicScope());
+		assertEquals("v1", response.getCacheControl().getETag());
+		assertFalse(response.getCacheControl().useCachedContent());
+
+		// The handler method is skipped if the cached content has the same validation token.
+		request = new MockRenderRequest(PortletMode.VIEW);
+		request.setProperty(RenderRequest.ETAG, "v1");
+		response = new MockRenderResponse();
+		portlet.render(request, response);
+		assertEquals("", response.getContentAsString());
+		assertTrue(response.getCacheControl().useCachedContent());
+		assertEquals(1, controller.renderCount);
+
+		MockResourceRequest resourceRequest = new MockResourceRequest("resource");
+		MockResourceResponse resourceResponse = new MockResourceResponse();
+		portlet.serveResource(resourceRequest, resourceResponse);
+		assertEquals("myResource", resourceResponse.getContentAsString());
+		assertEquals("42", resourceResponse.getCacheControl().getETag());
+
+		resourceRequest = new MockResourceRequest("resource");
+		resourceRequest.setProperty(RenderRequest.ETAG, "42");
+		resourceResponse = new MockResourceResponse();
+		portlet.serveResource(resourceRequest, resourceResponse);
+		assertEquals("", resourceResponse.getContentAsString());
+		assertTrue(resourceResponse.getCacheControl().useCachedContent());
+
+		// Conditional GET requests of the client are answered with a 304 status code.
+		resourceRequest = new MockResourceRequest("resource");
+		resourceRequest.setMethod("GET");
+		resourceRequest.addProperty(HttpHeaders.IF_MODIFIED_SINCE, "Thu, 01 Jan 1970 00:00:00 GMT");
+		resourceResponse = new MockResourceResponse();
+		portlet.serveResource(resourceRequest, resourceResponse);
+		assertEquals("", resourceResponse.getContentAsString());
+		assertEquals("304", resourceResponse.getProperty(ResourceResponse.HTTP_STATUS_CODE));
+		assertEquals("Thu, 1 Jan 1970 00:00:00 GMT", resourceResponse.getProperty(HttpHeaders.LAST_MODIFIED));
+	}
+
 	@Test
 	public void eventDispatchingController() throws Exception {
 		DispatcherPortlet portlet = new DispatcherPortlet() {
@@ -323,6 +650,76 @@ public class Portlet20AnnotationControllerTests {
 		assertEquals("myView-name1-typeMismatch-tb1-myValue", response.getContentAsString());
 	}
 
+	@Test
+	public void indexedDispatchingController() throws Exception {
+		DispatcherPortlet portlet = new DispatcherPortlet() {
+				@Override
+				protected ApplicationContext createPortletApplicationContext(ApplicationContext parent)
+					throws BeansException {
+					StaticPortletApplicationContext wac = new StaticPortletApplicationContext();
+					wac.setPortletContext(new MockPortletContext());
+					wac.registerSingleton("controller", MyIndexedDispatchingController.class);
+					wac.refresh();
+
+					return wac;
+				}
+			};
+		portlet.init(new MockPortletConfig());
+
+		MockRenderRequest request = new MockRenderRequest(PortletMode.VIEW, WindowState.NORMAL);
+		MockRenderResponse response = new MockRenderResponse();
+		portlet.render(request, response);
+		assertEquals("myView", response.getContentAsString());
+
+		request = new MockRenderRequest(PortletMode.VIEW, WindowState.MAXIMIZED);
+		response = new MockRenderResponse();
+		portlet.render(request, response);
+		assertEquals("myLargeView", response.getContentAsString());
+
+		request = new MockRenderRequest(PortletMode.VIEW, WindowState.MAXIMIZED);
+		request.addParameter("report", "details");
+		response = new MockRenderResponse();
+		portlet.render(request, response);
+		assertEquals("myLargeDetailsView", response.getContentAsString());
+
+		request = new MockRenderRequest(PortletMode.EDIT, WindowState.MAXIMIZED);
+		response = new MockRenderResponse();
+		portlet.render(request, response);
+		assertEquals("myEditView", response.getContentAsString());
+
+		MockEventRequest eventRequest = new MockEventRequest(new MockEvent(new QName("http://example.com/ns",
+						"event3")));
+		MockEventResponse eventResponse = new MockEventResponse();
+		portlet.processEvent(eventRequest, eventResponse);
+		assertEquals("qualified", eventResponse.getRenderParameter("event"));
+
+		eventRequest = new MockEventRequest(new MockEvent("event1"));
+		eventResponse = new MockEventResponse();
+		portlet.processEvent(eventRequest, eventResponse);
+		assertEquals("local", eventResponse.getRenderParameter("event"));
+
+		eventRequest = new MockEventRequest(new MockEvent("event2"));
+		eventResponse = new MockEventResponse();
+		portlet.processEvent(eventRequest, eventResponse);
+		assertEquals("default", eventResponse.getRenderParameter("event"));
+
+		MockResourceRequest resourceRequest = new MockResourceRequest("resource1");
+		MockResourceResponse resourceResponse = new MockResourceResponse();
+		portlet.serveResource(resourceRequest, resourceResponse);
+		assertEquals("myResource", resourceResponse.getContentAsString());
+
+		resourceRequest = new MockResourceRequest("unknown");
+		resourceResponse = new MockResourceResponse();
+
+		try {
+			portlet.serveResource(resourceRequest, resourceResponse);
+			fail("Should have thrown NoHandlerFoundException");
+		}
+		catch (NoHandlerFoundException ex) {
+			// expected
+		}
+	}
+
 	@Test
 	public void modelFormController() throws Exception {
 		DispatcherPortlet portlet = new DispatcherPortlet() {
@@ -588,6 +985,144 @@ public class Portlet20AnnotationControllerTests {
 		assertEquals("404", resourceResponse.getProperty(ResourceResponse.HTTP_STATUS_CODE));
 	}
 
+	@Test
+	public void standardHandleMethodWithWarmUp() throws Exception {
+		DispatcherPortlet portlet = new DispatcherPortlet() {
+				@Override
+				protected ApplicationContext createPortletApplicationContext(ApplicationContext parent)
+					throws BeansException {
+					GenericWebApplicationContext wac = new GenericWebApplicationContext();
+					wac.registerBeanDefinition("controller", new RootBeanDefinition(MyController.class));
+					wac.registerBeanDefinition("warmUpController", new RootBeanDefinition(MyWarmUpController.class));
+					wac.refresh();
+
+					return wac;
+				}
+			};
+		portlet.setWarmUpHandlerAdapters(true);
+		portlet.setWarmUpParallelism(2);
+		portlet.init(new MockPortletConfig());
+
+		// The metadata of the annotated handler is computed before the first request.
+		PortletRequestMappingHandlerAdapter adapter = null;
+
+		for (Object handlerAdapter : (List<?>) ReflectionTestUtils.getField(portlet, "handlerAdapters")) {
+
+			if (handlerAdapter instanceof PortletRequestMappingHandlerAdapter) {
+				adapter = (PortletRequestMappingHandlerAdapter) handlerAdapter;
+			}
+		}
+
+		assertNotNull(adapter);
+
+		List<String> cacheNames = Arrays.asList("methodResolverCache", "sessionAttributesHandlerCache",
+				"initBinderCache", "modelAttributeCache");
+
+		for (String cacheName : cacheNames) {
+			Map<?, ?> cache = (Map<?, ?>) ReflectionTestUtils.getField(adapter, cacheName);
+			assertTrue(cacheName, cache.containsKey(MyWarmUpController.class));
+		}
+
+		MockRenderRequest request = new MockRenderRequest(PortletMode.VIEW);
+		MockRenderResponse response = new MockRenderResponse();
+		portlet.render(request, response);
+		assertEquals("test", response.getContentAsString());
+
+		request = new MockRenderRequest(PortletMode.HELP);
+		response = new MockRenderResponse();
+		portlet.render(request, response);
+		assertEquals("warm-tb", response.getContentAsString());
+	}
+
+	@Test
+	public void synchronizeOnSessionWithSessionLockStrategy() throws Exception {
+		StripedPortletSessionLockStrategy strategy = new StripedPortletSessionLockStrategy();
+		strategy.setLockTimeout(50);
+
+		DispatcherPortlet portlet = createSessionLockingPortlet(strategy);
+
+		MockActionRequest actionRequest = new MockActionRequest(PortletMode.VIEW);
+		actionRequest.setSession(new MockPortletSession());
+		actionRequest.setWindowID("window1");
+
+		MockActionResponse actionResponse = new MockActionResponse();
+		portlet.processAction(actionRequest, actionResponse);
+		assertEquals("write", actionResponse.getRenderParameter("lock"));
+
+		MockRenderRequest request = new MockRenderRequest(PortletMode.VIEW);
+		request.setSession(actionRequest.getPortletSession());
+		request.setWindowID("window1");
+
+		MockRenderResponse response = new MockRenderResponse();
+		portlet.render(request, response);
+		assertEquals("read", response.getContentAsString());
+
+		MockResourceRequest resourceRequest = new MockResourceRequest("resource");
+		resourceRequest.setMethod("GET");
+		resourceRequest.setSession(actionRequest.getPortletSession());
+		resourceRequest.setWindowID("window1");
+
+		MockResourceResponse resourceResponse = new MockResourceResponse();
+		portlet.serveResource(resourceRequest, resourceResponse);
+		assertEquals("read", resourceResponse.getContentAsString());
+	}
+
+	@Test
+	public void synchronizeOnSessionWithSessionLockStrategyTimeout() throws Exception {
+		StripedPortletSessionLockStrategy strategy = new StripedPortletSessionLockStrategy();
+		strategy.setLockTimeout(50);
+
+		DispatcherPortlet portlet = createSessionLockingPortlet(strategy);
+
+		MockActionRequest actionRequest = new MockActionRequest(PortletMode.VIEW);
+		actionRequest.setWindowID("window1");
+
+		CountDownLatch locked = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		new Thread(() -> {
+
+				try {
+					PortletSessionLockStrategy.SessionLock lock = strategy.lock(actionRequest,
+							actionRequest.getPortletSession());
+
+					try {
+						locked.countDown();
+						release.await();
+					}
+					finally {
+						lock.close();
+					}
+				}
+				catch (Exception ex) {
+					throw new IllegalStateException(ex);
+				}
+			}).start();
+
+		assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+		MockRenderRequest request = new MockRenderRequest(PortletMode.VIEW);
+		request.setSession(actionRequest.getPortletSession());
+		request.setWindowID("window1");
+
+		MockRenderResponse response = new MockRenderResponse();
+
+		try {
+			portlet.render(request, response);
+			fail("Should have thrown PortletException");
+		}
+		catch (PortletException ex) {
+			assertEquals("Timed out after 50 ms waiting for the session lock of portlet window [window1]",
+				ex.getMessage());
+		}
+		finally {
+			release.countDown();
+		}
+
+		assertEquals("", response.getContentAsString());
+		assertEquals(1, strategy.getTimeoutCount());
+	}
+
 	@Test
 	public void testPredicatePriorityComparisonAcrossControllers() throws Exception {
 		DispatcherPortlet portlet = new DispatcherPortlet() {
@@ -652,6 +1187,49 @@ public class Portlet20AnnotationControllerTests {
 		assertArrayEquals(new String[] { "resourceThird" }, resourceResponse.getProperties("RESPONSE"));
 	}
 
+	@Test
+	public void testPredicatePriorityComparisonWithParallelIntrospection() throws Exception {
+		DispatcherPortlet portlet = new DispatcherPortlet() {
+				@Override
+				protected ApplicationContext createPortletApplicationContext(ApplicationContext parent)
+					throws BeansException {
+					StaticPortletApplicationContext wac = new StaticPortletApplicationContext();
+					wac.registerSingleton("firstController", FirstController.class);
+					wac.registerSingleton("secondController", SecondController.class);
+					wac.registerSingleton("thirdController", ThirdController.class);
+
+					RootBeanDefinition mappingDef = new RootBeanDefinition(DefaultAnnotationHandlerMapping.class);
+					mappingDef.getPropertyValues().add("parallelIntrospection", Boolean.TRUE);
+					wac.registerBeanDefinition("handlerMapping", mappingDef);
+					wac.registerSingleton("handlerAdapter", PortletRequestMappingHandlerAdapter.class);
+					wac.setPortletContext(new MockPortletContext());
+					AnnotationConfigUtils.registerAnnotationConfigProcessors(wac);
+					wac.refresh();
+
+					return wac;
+				}
+			};
+		portlet.init(new MockPortletConfig());
+
+		MockRenderRequest request = new MockRenderRequest(PortletMode.VIEW);
+		MockRenderResponse response = new MockRenderResponse();
+		portlet.render(request, response);
+		assertArrayEquals(new String[] { "renderFirst" }, response.getProperties("RESPONSE"));
+
+		request.setWindowState(WindowState.MAXIMIZED);
+		request.setParameter("report", "second");
+		portlet.render(request, response);
+		assertArrayEquals(new String[] { "renderSecond" }, response.getProperties("RESPONSE"));
+
+		request.setParameter("report", "third");
+		portlet.render(request, response);
+		assertArrayEquals(new String[] { "renderThird" }, response.getProperties("RESPONSE"));
+
+		MockResourceResponse resourceResponse = new MockResourceResponse();
+		portlet.serveResource(new MockResourceRequest("second"), resourceResponse);
+		assertArrayEquals(new String[] { "resourceSecond" }, resourceResponse.getProperties("RESPONSE"));
+	}
+
 	@Test
 	public void typedCommandProvidingFormController() throws Exception {
 		DispatcherPortlet portlet = new DispatcherPortlet() {
@@ -810,6 +1388,73 @@ public class Portlet20AnnotationControllerTests {
 		assertEquals("mySurpriseView", response.getContentAsString());
 	}
 
+	private DispatcherPortlet createAsyncPortlet() throws Exception {
+		return createAsyncPortlet(null);
+	}
+
+	private DispatcherPortlet createAsyncPortlet(final Long asyncRequestTimeout) throws Exception {
+		DispatcherPortlet portlet = new DispatcherPortlet() {
+				@Override
+				protected ApplicationContext createPortletApplicationContext(ApplicationContext parent)
+					throws BeansException {
+					GenericWebApplicationContext wac = new GenericWebApplicationContext();
+					wac.registerBeanDefinition("controller", new RootBeanDefinition(MyAsyncController.class));
+					wac.registerBeanDefinition("interceptor", new RootBeanDefinition(MyAsyncInterceptor.class));
+
+					RootBeanDefinition mappingDef = new RootBeanDefinition(DefaultAnnotationHandlerMapping.class);
+					mappingDef.getPropertyValues().add("interceptors", new RuntimeBeanReference("interceptor"));
+					wac.registerBeanDefinition("handlerMapping", mappingDef);
+
+					if (asyncRequestTimeout != null) {
+						RootBeanDefinition adapterDef = new RootBeanDefinition(
+								PortletRequestMappingHandlerAdapter.class);
+						adapterDef.getPropertyValues().add("asyncRequestTimeout", asyncRequestTimeout);
+						wac.registerBeanDefinition("handlerAdapter", adapterDef);
+					}
+
+					wac.refresh();
+
+					return wac;
+				}
+
+				@Override
+				protected void render(ModelAndView mv, PortletRequest request, MimeResponse response) throws Exception {
+					response.getWriter().write(mv.getViewName() + "-" + mv.getModel().get("async"));
+				}
+			};
+		portlet.init(new MockPortletConfig());
+
+		return portlet;
+	}
+
+	private DispatcherPortlet createSessionLockingPortlet(final PortletSessionLockStrategy strategy) throws Exception {
+		DispatcherPortlet portlet = new DispatcherPortlet() {
+				@Override
+				protected ApplicationContext createPortletApplicationContext(ApplicationContext parent)
+					throws BeansException {
+					GenericWebApplicationContext wac = new GenericWebApplicationContext();
+					wac.getBeanFactory().registerSingleton("sessionLockStrategy", strategy);
+
+					RootBeanDefinition controllerDef = new RootBeanDefinition(MySessionLockingController.class);
+					controllerDef.getPropertyValues().add("sessionLockStrategy",
+						new RuntimeBeanReference("sessionLockStrategy"));
+					wac.registerBeanDefinition("controller", controllerDef);
+
+					RootBeanDefinition adapterDef = new RootBeanDefinition(PortletRequestMappingHandlerAdapter.class);
+					adapterDef.getPropertyValues().add("sessionLockStrategy",
+						new RuntimeBeanReference("sessionLockStrategy"));
+					adapterDef.getPropertyValues().add("synchronizeOnSession", Boolean.TRUE);
+					wac.registerBeanDefinition("handlerAdapter", adapterDef);
+					wac.refresh();
+
+					return wac;
+				}
+			};
+		portlet.init(new MockPortletConfig());
+
+		return portlet;
+	}
+
 	private void doTestAdaptedHandleMethods(final Class<?> controllerClass) throws Exception {
 		DispatcherPortlet portlet = new DispatcherPortlet() {
 				@Override
@@ -1063,6 +1708,140 @@ public class Portlet20AnnotationControllerTests {
 		}
 	}
 
+	@Controller
+	@RequestMapping("VIEW")
+	private static class MyArgumentResolverBindingController {
+
+		@InitBinder
+		public void initBinder(WebDataBinder binder, MySpecialArg arg) {
+		}
+
+		@RenderMapping
+		public void myHandle(MySpecialArg arg, Writer writer) throws IOException {
+			writer.write(arg.value + "-" + arg.value);
+		}
+
+		@ModelAttribute("special")
+		public MySpecialArg mySpecialArg(MySpecialArg arg) {
+			return arg;
+		}
+	}
+
+	@Controller
+	@RequestMapping("VIEW")
+	private static class MyAsyncController {
+
+		private final CompletableFuture<String> completableFuture = new CompletableFuture<String>();
+
+		private DeferredResult<String> deferredResult;
+
+		private final CountDownLatch proceed = new CountDownLatch(1);
+
+		@ResourceMapping("callable")
+		public Callable<String> callable(Model model) {
+			Thread requestThread = Thread.currentThread();
+
+			return () -> {
+					proceed.await(5, TimeUnit.SECONDS);
+					model.addAttribute("async", Thread.currentThread() != requestThread);
+
+					return "callableView";
+				};
+		}
+
+		@ResourceMapping("completionStage")
+		public CompletionStage<String> completionStage(Model model) {
+			model.addAttribute("async", "pending");
+
+			return this.completableFuture;
+		}
+
+		@ResourceMapping("deferredResult")
+		public DeferredResult<String> deferredResult(Model model) {
+			model.addAttribute("async", "pending");
+			this.deferredResult = new DeferredResult<String>();
+
+			return this.deferredResult;
+		}
+
+		@ResourceMapping("publisher")
+		public Flow.Publisher<Object> publisher(ResourceResponse response) {
+			response.setCharacterEncoding("UTF-8");
+
+			SubmissionPublisher<Object> publisher = new SubmissionPublisher<Object>();
+			new Thread(() -> {
+					try {
+						proceed.await(5, TimeUnit.SECONDS);
+					}
+					catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+					}
+
+					// A SubmissionPublisher drops the elements that are submitted before the subscription.
+					long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+					while (!publisher.hasSubscribers() && (System.nanoTime() < deadline)) {
+						Thread.yield();
+					}
+
+					// Elements are only written on demand, so no element is dropped.
+					publisher.submit("[1,2]");
+					publisher.submit("-".getBytes(StandardCharsets.UTF_8));
+					publisher.submit(ByteBuffer.wrap("3".getBytes(StandardCharsets.UTF_8)));
+					publisher.close();
+				}).start();
+
+			return publisher;
+		}
+
+		@ResourceMapping("streamingResponseBody")
+		public StreamingResponseBody streamingResponseBody() {
+			return outputStream -> {
+					try {
+						proceed.await(5, TimeUnit.SECONDS);
+					}
+					catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+					}
+
+					outputStream.write("streamed".getBytes(StandardCharsets.UTF_8));
+				};
+		}
+	}
+
+	private static class MyAsyncInterceptor extends HandlerInterceptorAdapter implements AsyncHandlerInterceptor {
+
+		private final List<String> invocations = new CopyOnWriteArrayList<String>();
+
+		@Override
+		public void afterConcurrentResourceHandlingStarted(ResourceRequest request, ResourceResponse response,
+			Object handler) {
+
+			this.invocations.add("afterConcurrentResourceHandlingStarted");
+		}
+
+		@Override
+		public void afterResourceCompletion(ResourceRequest request, ResourceResponse response, Object handler,
+			Exception ex) {
+
+			this.invocations.add("afterResourceCompletion");
+		}
+
+		@Override
+		public void postHandleResource(ResourceRequest request, ResourceResponse response, Object handler,
+			ModelAndView modelAndView) {
+
+			this.invocations.add("postHandleResource");
+		}
+
+		@Override
+		public boolean preHandleResource(ResourceRequest request, ResourceResponse response, Object handler) {
+			this.invocations.add("preHandleResource");
+
+			return true;
+		}
+	}
+
 	@Controller
 	@SuppressWarnings("rawtypes")
 	private static class MyBinderInitializingCommandProvidingFormController extends MyCommandProvidingFormController {
@@ -1075,6 +1854,27 @@ public class Portlet20AnnotationControllerTests {
 		}
 	}
 
+	@Controller
+	@RequestMapping("VIEW")
+	private static class MyCachingController {
+
+		private int renderCount;
+
+		@RenderMapping(expirationCache = 60, cacheScope = "PUBLIC", etagGenerator = MyETagGenerator.class)
+		public void myHandle(Writer writer) throws IOException {
+			renderCount++;
+			writer.write("myView");
+		}
+
+		@ResourceMapping("resource")
+		public void myResource(WebRequest webRequest, ResourceResponse response) throws IOException {
+
+			if (!webRequest.checkNotModified(42L)) {
+				response.getWriter().write("myResource");
+			}
+		}
+	}
+
 	@Controller
 	private static class MyCommandProvidingFormController<T, TB, TB2> extends MyFormController {
 
@@ -1132,6 +1932,38 @@ public class Portlet20AnnotationControllerTests {
 		}
 	}
 
+	private static class MyCountingArgumentResolver implements HandlerMethodArgumentResolver {
+
+		private final List<MethodParameter> supportedParameters = new CopyOnWriteArrayList<>();
+
+		@Override
+		public Object resolveArgument(MethodParameter methodParameter,
+			@Nullable ModelAndViewContainer modelAndViewContainer, NativeWebRequest nativeWebRequest,
+			@Nullable WebDataBinderFactory webDataBinderFactory) throws Exception {
+			return new MySpecialArg("special");
+		}
+
+		@Override
+		public boolean supportsParameter(MethodParameter methodParameter) {
+
+			if (MySpecialArg.class.isAssignableFrom(methodParameter.getParameterType())) {
+				supportedParameters.add(methodParameter);
+
+				return true;
+			}
+
+			return false;
+		}
+	}
+
+	private static class MyETagGenerator implements PortletETagGenerator {
+
+		@Override
+		public String generateETag(PortletRequest request) {
+			return "v1";
+		}
+	}
+
 	@Controller
 	private static class MyFormController {
 
@@ -1156,6 +1988,55 @@ public class Portlet20AnnotationControllerTests {
 		}
 	}
 
+	@Controller
+	@RequestMapping({ "VIEW", "EDIT" })
+	private static class MyIndexedDispatchingController {
+
+		@RequestMapping("EDIT")
+		@RenderMapping
+		public void myEditHandle(Writer writer) throws IOException {
+			writer.write("myEditView");
+		}
+
+		@EventMapping("{http://example.com/ns}event3")
+		public void myQualifiedEvent(EventResponse response) {
+			response.setRenderParameter("event", "qualified");
+		}
+
+		@EventMapping
+		public void myDefaultEvent(EventResponse response) {
+			response.setRenderParameter("event", "default");
+		}
+
+		@RequestMapping("VIEW")
+		@RenderMapping
+		public void myHandle(Writer writer) throws IOException {
+			writer.write("myView");
+		}
+
+		@RequestMapping("VIEW")
+		@RenderMapping(windowState = "maximized", params = "report=details")
+		public void myLargeDetailsHandle(Writer writer) throws IOException {
+			writer.write("myLargeDetailsView");
+		}
+
+		@RequestMapping("VIEW")
+		@RenderMapping(windowState = "MAXIMIZED")
+		public void myLargeHandle(Writer writer) throws IOException {
+			writer.write("myLargeView");
+		}
+
+		@EventMapping("event1")
+		public void myLocalEvent(EventResponse response) {
+			response.setRenderParameter("event", "local");
+		}
+
+		@ResourceMapping("resource1")
+		public void myResource(Writer writer) throws IOException {
+			writer.write("myResource");
+		}
+	}
+
 	@Controller
 	private static class MyModelFormController {
 
@@ -1305,9 +2186,87 @@ public class Portlet20AnnotationControllerTests {
 		}
 	}
 
+	/**
+	 * Controller that reports the session lock held while it handles a request: "read", "write" or "none".
+	 */
+	@Controller
+	@RequestMapping("VIEW")
+	private static class MySessionLockingController {
+
+		private PortletSessionLockStrategy sessionLockStrategy;
+
+		@ActionMapping
+		public void myAction(ActionRequest request, ActionResponse response) throws PortletException {
+			response.setRenderParameter("lock", probeSessionLock(request));
+		}
+
+		@RenderMapping
+		public void myRender(RenderRequest request, Writer writer) throws IOException, PortletException {
+			writer.write(probeSessionLock(request));
+		}
+
+		@ResourceMapping("resource")
+		public void myResource(ResourceRequest request, Writer writer) throws IOException, PortletException {
+			writer.write(probeSessionLock(request));
+		}
+
+		public void setSessionLockStrategy(PortletSessionLockStrategy sessionLockStrategy) {
+			this.sessionLockStrategy = sessionLockStrategy;
+		}
+
+		private boolean lockInOtherThread(PortletRequest request) throws PortletException {
+			CompletableFuture<Boolean> acquired = new CompletableFuture<Boolean>();
+
+			new Thread(() -> {
+
+					try {
+						this.sessionLockStrategy.lock(request, request.getPortletSession()).close();
+						acquired.complete(true);
+					}
+					catch (PortletException ex) {
+						acquired.complete(false);
+					}
+				}).start();
+
+			try {
+				return acquired.get(5, TimeUnit.SECONDS);
+			}
+			catch (Exception ex) {
+				throw new PortletException(ex);
+			}
+		}
+
+		/**
+		 * Request a shared and an exclusive lock for the session and portlet window of the given request in another
+		 * thread.
+		 */
+		private String probeSessionLock(PortletRequest request) throws PortletException {
+			MockRenderRequest renderRequest = new MockRenderRequest();
+			renderRequest.setSession(request.getPortletSession());
+			renderRequest.setWindowID(request.getWindowID());
+
+			if (!lockInOtherThread(renderRequest)) {
+				return "write";
+			}
+
+			MockActionRequest actionRequest = new MockActionRequest();
+			actionRequest.setSession(request.getPortletSession());
+			actionRequest.setWindowID(request.getWindowID());
+
+			if (!lockInOtherThread(actionRequest)) {
+				return "read";
+			}
+
+			return "none";
+		}
+	}
+
 	private static class MySpecialArg {
 
+		private final String value;
+
 		public MySpecialArg(String value) {
+			this.value = value;
 		}
 	}
 
@@ -1372,6 +2331,48 @@ public class Portlet20AnnotationControllerTests {
 
 	}
 
+	@Controller
+	@RequestMapping("HELP")
+	@SessionAttributes("testBean")
+	private static class MyWarmUpController {
+
+		@InitBinder
+		public void initBinder(WebDataBinder binder) {
+			binder.setDisallowedFields("age");
+		}
+
+		@RenderMapping
+		public void myHandle(@ModelAttribute("testBean") TestBean tb, Writer writer) throws IOException {
+			writer.write("warm-" + tb.getName());
+		}
+
+		@ModelAttribute("testBean")
+		public TestBean testBean() {
+			return new TestBean("tb");
+		}
+	}
+
+	private static class MyWarningHandler extends Handler {
+
+		private final List<String> messages = new CopyOnWriteArrayList<>();
+
+		@Override
+		public void close() {
+		}
+
+		@Override
+		public void flush() {
+		}
+
+		@Override
+		public void publish(LogRecord record) {
+
+			if (record.getLevel() == Level.WARNING) {
+				messages.add(record.getMessage());
+			}
+		}
+	}
+
 	private static class MyWebBindingInitializer implements WebBindingInitializer {
 
 		@Override
@@ -22,6 +22,8 @@ import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import jakarta.portlet.ActionRequest;
 import jakarta.portlet.ActionResponse;
@@ -177,6 +179,38 @@ public class PortletAnnotationControllerTests {
 		assertEquals("myView-String:myDefaultName-typeMismatch-tb1-myOriginalValue", response.getContentAsString());
 	}
 
+	@Test
+	public void concurrentModelAttributeMethods() throws Exception {
+		DispatcherPortlet portlet = new DispatcherPortlet() {
+				@Override
+				protected ApplicationContext createPortletApplicationContext(ApplicationContext parent)
+					throws BeansException {
+					GenericWebApplicationContext wac = new GenericWebApplicationContext();
+					wac.registerBeanDefinition("controller",
+						new RootBeanDefinition(MyConcurrentModelAttributeController.class));
+
+					RootBeanDefinition adapterDef = new RootBeanDefinition(PortletRequestMappingHandlerAdapter.class);
+					adapterDef.getPropertyValues().add("concurrentModelAttributeMethods", true);
+					wac.registerBeanDefinition("handlerAdapter", adapterDef);
+					wac.refresh();
+
+					return wac;
+				}
+
+				@Override
+				protected void render(ModelAndView mv, PortletRequest request, MimeResponse response) throws Exception {
+					response.getWriter().write(mv.getViewName() + "-" + mv.getModel().get("combined") + "-" +
+						mv.getModel().get("callingThread"));
+				}
+			};
+		portlet.init(new MockPortletConfig());
+
+		MockRenderRequest request = new MockRenderRequest(PortletMode.VIEW);
+		MockRenderResponse response = new MockRenderResponse();
+		portlet.render(request, response);
+		assertEquals("myView-first+second-true", response.getContentAsString());
+	}
+
 	public void doTestAdaptedHandleMethods(final Class<?> controllerClass) throws Exception {
 		DispatcherPortlet portlet = new DispatcherPortlet() {
 				@Override
@@ -676,6 +710,47 @@ public class PortletAnnotationControllerTests {
 		}
 	}
 
+	@Controller
+	private static class MyConcurrentModelAttributeController {
+
+		private final CountDownLatch started = new CountDownLatch(2);
+
+		@ModelAttribute
+		public void addThread(Model model) {
+			model.addAttribute("thread", Thread.currentThread());
+		}
+
+		@ModelAttribute("combined")
+		public String combined(@ModelAttribute(name = "first", binding = false) String first,
+			@ModelAttribute(name = "second", binding = false) String second) {
+			return first + "+" + second;
+		}
+
+		@ModelAttribute("first")
+		public String first() throws InterruptedException {
+			return awaitOther("first");
+		}
+
+		@RequestMapping("VIEW")
+		public String myHandle(Model model) {
+			model.addAttribute("callingThread", model.getAttribute("thread") == Thread.currentThread());
+
+			return "myView";
+		}
+
+		@ModelAttribute("second")
+		public String second() throws InterruptedException {
+			return awaitOther("second");
+		}
+
+		private String awaitOther(String value) throws InterruptedException {
+			this.started.countDown();
+
+			// Only succeeds if the other independent method is invoked at the same time.
+			return this.started.await(5, TimeUnit.SECONDS) ? value : "timeout";
+		}
+	}
+
 	@Controller
 	private static class MyFormController {
 
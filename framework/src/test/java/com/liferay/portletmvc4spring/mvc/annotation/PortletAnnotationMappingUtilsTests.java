@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.mvc.annotation;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import org.springframework.http.MediaType;
+
+import com.liferay.portletmvc4spring.mvc.annotation.PortletAnnotationMappingUtils.HeaderCondition;
+import com.liferay.portletmvc4spring.mvc.annotation.PortletAnnotationMappingUtils.ParameterCondition;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockPortletRequest;
+
+
+/**
+ * @author  Neil Griffin
+ */
+public class PortletAnnotationMappingUtilsTests {
+
+	@Test
+	public void headerConditions() {
+		HeaderCondition[] headerConditions = PortletAnnotationMappingUtils.compileHeaders(
+				new String[] { "Accept=text/*", "X-Custom=value", "!X-Excluded" });
+
+		MockPortletRequest request = new MockPortletRequest();
+		request.addProperty("Accept", "text/html");
+		request.addProperty("X-Custom", "value");
+		assertTrue(PortletAnnotationMappingUtils.checkHeaders(headerConditions, request));
+
+		// The Accept header of the request has been parsed once and is reused.
+		List<MediaType> mediaTypes = Collections.singletonList(MediaType.APPLICATION_JSON);
+		String attributeName = null;
+
+		for (String name : Collections.list(request.getAttributeNames())) {
+			attributeName = name;
+		}
+
+		assertNotNull(attributeName);
+		request.setAttribute(attributeName, mediaTypes);
+		assertFalse(PortletAnnotationMappingUtils.checkHeaders(headerConditions, request));
+
+		request = new MockPortletRequest();
+		request.addProperty("Accept", "text/html");
+		request.addProperty("X-Custom", "value");
+		request.addProperty("X-Excluded", "true");
+		assertFalse(PortletAnnotationMappingUtils.checkHeaders(headerConditions, request));
+		assertTrue(PortletAnnotationMappingUtils.checkHeaders((String[]) null, request));
+	}
+
+	@Test
+	public void parameterConditions() {
+		ParameterCondition[] parameterConditions = PortletAnnotationMappingUtils.compileParameters(
+				new String[] { "action=save", "submit", "!cancel" });
+		assertEquals("action", parameterConditions[0].getName());
+		assertEquals("submit", parameterConditions[1].getName());
+		assertEquals("cancel", parameterConditions[2].getName());
+
+		MockPortletRequest request = new MockPortletRequest();
+		request.addParameter("action", "save");
+		request.addParameter("submit.x", "10");
+		assertTrue(PortletAnnotationMappingUtils.checkParameters(parameterConditions, request));
+
+		request.addParameter("cancel", "");
+		assertFalse(PortletAnnotationMappingUtils.checkParameters(parameterConditions, request));
+
+		request = new MockPortletRequest();
+		request.addParameter("action", "delete");
+		request.addParameter("submit", "");
+		assertFalse(PortletAnnotationMappingUtils.checkParameters(parameterConditions, request));
+		assertTrue(PortletAnnotationMappingUtils.checkParameters(new String[0], request));
+	}
+
+}
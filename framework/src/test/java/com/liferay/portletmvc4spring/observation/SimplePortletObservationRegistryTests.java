@@ -0,0 +1,207 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.observation;
+
+import java.util.concurrent.TimeUnit;
+
+import jakarta.portlet.PortletException;
+import jakarta.portlet.PortletMode;
+import jakarta.portlet.PortletRequest;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import org.springframework.beans.BeansException;
+
+import org.springframework.context.ApplicationContext;
+
+import org.springframework.stereotype.Controller;
+
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import com.liferay.portletmvc4spring.DispatcherPortlet;
+import com.liferay.portletmvc4spring.bind.annotation.ActionMapping;
+import com.liferay.portletmvc4spring.bind.annotation.RenderMapping;
+import com.liferay.portletmvc4spring.context.StaticPortletApplicationContext;
+import com.liferay.portletmvc4spring.observation.SimplePortletObservationRegistry.PortletTimer;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockActionRequest;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockActionResponse;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockPortletConfig;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockRenderRequest;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockRenderResponse;
+
+
+/**
+ * @author  Neil Griffin
+ */
+public class SimplePortletObservationRegistryTests {
+
+	@Test
+	public void failedRequest() throws Exception {
+		SimplePortletObservationRegistry registry = new SimplePortletObservationRegistry();
+		DispatcherPortlet portlet = createPortlet(registry);
+
+		MockRenderRequest request = new MockRenderRequest(PortletMode.VIEW);
+		request.setParameter("fail", "true");
+
+		try {
+			portlet.render(request, new MockRenderResponse());
+			fail("Should have thrown PortletException");
+		}
+		catch (PortletException ex) {
+			// expected
+		}
+
+		PortletTimer requestTimer = getTimer(registry, PortletRequest.RENDER_PHASE, null);
+		assertEquals("view", requestTimer.getPortletMode());
+		assertEquals("SimplePortletObservationRegistryTests.ObservedController#fail", requestTimer.getHandler());
+		assertEquals(1, requestTimer.getCount());
+		assertEquals(1, requestTimer.getFailureCount());
+		assertNull(findTimer(registry, PortletRequest.RENDER_PHASE, PortletObservation.Stage.VIEW_RENDERING));
+
+		// The stage that threw the exception is timed and tagged as failed.
+		PortletTimer invocationTimer = getTimer(registry, PortletRequest.RENDER_PHASE,
+				PortletObservation.Stage.HANDLER_INVOCATION);
+		assertEquals(1, invocationTimer.getCount());
+		assertEquals(1, invocationTimer.getFailureCount());
+
+		PortletTimer lookupTimer = getTimer(registry, PortletRequest.RENDER_PHASE,
+				PortletObservation.Stage.HANDLER_LOOKUP);
+		assertEquals(1, lookupTimer.getCount());
+		assertEquals(0, lookupTimer.getFailureCount());
+	}
+
+	@Test
+	public void noObservationWithoutRegistry() throws Exception {
+		DispatcherPortlet portlet = createPortlet(null);
+		assertSame(PortletObservationRegistry.NOOP, portlet.getObservationRegistry());
+
+		MockRenderRequest request = new MockRenderRequest(PortletMode.VIEW);
+		portlet.render(request, new MockRenderResponse());
+		assertSame(PortletObservation.NOOP, request.getAttribute("observation"));
+	}
+
+	@Test
+	public void stageTimers() throws Exception {
+		SimplePortletObservationRegistry registry = new SimplePortletObservationRegistry();
+		DispatcherPortlet portlet = createPortlet(registry);
+		assertSame(registry, portlet.getObservationRegistry());
+
+		MockRenderRequest request = new MockRenderRequest(PortletMode.VIEW);
+		portlet.render(request, new MockRenderResponse());
+		portlet.render(new MockRenderRequest(PortletMode.VIEW), new MockRenderResponse());
+		portlet.processAction(new MockActionRequest("submit"), new MockActionResponse());
+
+		assertNull(request.getAttribute(PortletObservation.OBSERVATION_ATTRIBUTE));
+		assertNotSame(PortletObservation.NOOP, request.getAttribute("observation"));
+
+		PortletTimer requestTimer = getTimer(registry, PortletRequest.RENDER_PHASE, null);
+		assertEquals("portlet", requestTimer.getPortletName());
+		assertEquals("view", requestTimer.getPortletMode());
+		assertEquals("SimplePortletObservationRegistryTests.ObservedController#render", requestTimer.getHandler());
+		assertEquals(2, requestTimer.getCount());
+		assertEquals(0, requestTimer.getFailureCount());
+		assertTrue(requestTimer.getMaxTime(TimeUnit.NANOSECONDS) > 0);
+		assertTrue(requestTimer.getTotalTime(TimeUnit.NANOSECONDS) >= requestTimer.getMaxTime(TimeUnit.NANOSECONDS));
+
+		for (PortletObservation.Stage stage : new PortletObservation.Stage[] {
+					PortletObservation.Stage.HANDLER_LOOKUP, PortletObservation.Stage.HANDLER_INVOCATION,
+					PortletObservation.Stage.VIEW_RENDERING
+				}) {
+			PortletTimer stageTimer = getTimer(registry, PortletRequest.RENDER_PHASE, stage);
+			assertEquals("SimplePortletObservationRegistryTests.ObservedController#render", stageTimer.getHandler());
+			assertEquals(2, stageTimer.getCount());
+			assertEquals(0, stageTimer.getFailureCount());
+		}
+
+		assertNull(findTimer(registry, PortletRequest.RENDER_PHASE, PortletObservation.Stage.EXCEPTION_RESOLUTION));
+
+		PortletTimer actionTimer = getTimer(registry, PortletRequest.ACTION_PHASE, null);
+		assertEquals("SimplePortletObservationRegistryTests.ObservedController#submit", actionTimer.getHandler());
+		assertEquals(1, actionTimer.getCount());
+
+		registry.reset();
+		assertTrue(registry.getTimers().isEmpty());
+	}
+
+	private DispatcherPortlet createPortlet(final PortletObservationRegistry registry) throws Exception {
+		DispatcherPortlet portlet = new DispatcherPortlet() {
+				@Override
+				protected ApplicationContext createPortletApplicationContext(ApplicationContext parent)
+					throws BeansException {
+					StaticPortletApplicationContext wac = new StaticPortletApplicationContext();
+					wac.setPortletConfig(getPortletConfig());
+					wac.registerSingleton("controller", ObservedController.class);
+
+					if (registry != null) {
+						wac.getBeanFactory().registerSingleton(OBSERVATION_REGISTRY_BEAN_NAME, registry);
+					}
+
+					wac.refresh();
+
+					return wac;
+				}
+			};
+		portlet.init(new MockPortletConfig("portlet"));
+
+		return portlet;
+	}
+
+	private PortletTimer findTimer(SimplePortletObservationRegistry registry, String phase,
+		PortletObservation.Stage stage) {
+
+		for (PortletTimer timer : registry.getTimers()) {
+
+			if (phase.equals(timer.getPhase()) && (timer.getStage() == stage)) {
+				return timer;
+			}
+		}
+
+		return null;
+	}
+
+	private PortletTimer getTimer(SimplePortletObservationRegistry registry, String phase,
+		PortletObservation.Stage stage) {
+
+		PortletTimer timer = findTimer(registry, phase, stage);
+		assertNotNull("No timer for phase " + phase + " and stage " + stage + " in " + registry.getTimers(), timer);
+
+		return timer;
+	}
+
+	@Controller
+	@RequestMapping("VIEW")
+	public static class ObservedController {
+
+		@RenderMapping(params = "fail")
+		public void fail() {
+			throw new IllegalStateException("Failed");
+		}
+
+		@RenderMapping
+		public String render(PortletRequest request) {
+			request.setAttribute("observation", PortletObservation.getObservation(request));
+
+			return "view";
+		}
+
+		@ActionMapping("submit")
+		public void submit() {
+		}
+	}
+
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.util;
+
+import java.io.PrintWriter;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockRenderResponse;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockResourceResponse;
+
+
+/**
+ * @author  Neil Griffin
+ */
+public class PortletResponseBufferPoolTests {
+
+	@Test
+	public void outputStreamContent() throws Exception {
+		PortletResponseBufferPool pool = new PortletResponseBufferPool(4, 1);
+		MockResourceResponse response = new MockResourceResponse();
+		PortletResponseBufferPool.Buffer buffer = pool.acquire(response);
+
+		try {
+			buffer.getResponse().getPortletOutputStream().write("Hello World".getBytes("UTF-8"));
+			assertEquals(0, response.getContentAsByteArray().length);
+
+			buffer.commit();
+		}
+		finally {
+			pool.release(buffer);
+		}
+
+		assertEquals("Hello World", response.getContentAsString());
+		assertEquals(11, pool.getBytesWritten());
+	}
+
+	@Test
+	public void writerClosedByView() throws Exception {
+		PortletResponseBufferPool pool = new PortletResponseBufferPool(16, 1);
+
+		for (int i = 0; i < 2; i++) {
+			MockRenderResponse response = new MockRenderResponse();
+			PortletResponseBufferPool.Buffer buffer = pool.acquire(response);
+
+			try {
+				PrintWriter writer = buffer.getResponse().getWriter();
+				writer.write("Hello World");
+				writer.close();
+				buffer.commit();
+			}
+			finally {
+				pool.release(buffer);
+			}
+
+			assertEquals("Hello World", response.getContentAsString());
+		}
+
+		assertEquals(2, pool.getAcquireCount());
+		assertEquals(1, pool.getReuseCount());
+		assertEquals(22, pool.getBytesWritten());
+	}
+
+}
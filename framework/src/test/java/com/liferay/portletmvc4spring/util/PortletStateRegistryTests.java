@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.util;
+
+import jakarta.portlet.PortletMode;
+import jakarta.portlet.WindowState;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+
+/**
+ * @author  Neil Griffin
+ */
+public class PortletStateRegistryTests {
+
+	@Test
+	public void portletModes() {
+		assertSame(PortletMode.VIEW, PortletStateRegistry.getPortletMode("view"));
+		assertSame(PortletMode.EDIT, PortletStateRegistry.getPortletMode("EDIT"));
+
+		PortletMode portletMode = PortletStateRegistry.getPortletMode("config");
+		assertEquals(new PortletMode("config"), portletMode);
+		assertSame(portletMode, PortletStateRegistry.getPortletMode("config"));
+		assertSame(portletMode, PortletStateRegistry.getPortletMode("Config"));
+	}
+
+	@Test
+	public void windowStates() {
+		assertSame(WindowState.MAXIMIZED, PortletStateRegistry.getWindowState("maximized"));
+		assertSame(WindowState.NORMAL, PortletStateRegistry.getWindowState("Normal"));
+
+		WindowState windowState = PortletStateRegistry.getWindowState("exclusive");
+		assertEquals(new WindowState("exclusive"), windowState);
+		assertSame(windowState, PortletStateRegistry.getWindowState("EXCLUSIVE"));
+	}
+
+}
@@ -17,13 +17,16 @@ package com.liferay.portletmvc4spring.util;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.net.URL;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 import jakarta.portlet.PortletContext;
 import jakarta.portlet.PortletRequest;
+import jakarta.portlet.PortletRequestDispatcher;
 import jakarta.portlet.PortletSession;
+import jakarta.portlet.ResourceResponse;
 
 import static org.junit.Assert.*;
 
@@ -31,6 +34,8 @@ import org.junit.Test;
 
 import static org.mockito.BDDMockito.*;
 
+import org.springframework.http.HttpHeaders;
+
 import org.springframework.web.util.WebUtils;
 
 import com.liferay.portletmvc4spring.test.mock.web.portlet.MockActionRequest;
@@ -38,6 +43,8 @@ import com.liferay.portletmvc4spring.test.mock.web.portlet.MockActionResponse;
 import com.liferay.portletmvc4spring.test.mock.web.portlet.MockPortletContext;
 import com.liferay.portletmvc4spring.test.mock.web.portlet.MockPortletRequest;
 import com.liferay.portletmvc4spring.test.mock.web.portlet.MockPortletSession;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockResourceRequest;
+import com.liferay.portletmvc4spring.test.mock.web.portlet.MockResourceResponse;
 
 import com.liferay.spring.tests.sample.beans.ITestBean;
 import com.liferay.spring.tests.sample.beans.TestBean;
@@ -49,6 +56,54 @@ import com.liferay.spring.tests.sample.beans.TestBean;
  */
 public final class PortletUtilsTests {
 
+	@Test
+	public void testCheckNotModifiedIgnoresNonGetRequests() throws Exception {
+		MockResourceRequest request = new MockResourceRequest();
+		request.setMethod("POST");
+		request.addProperty(HttpHeaders.IF_NONE_MATCH, "\"v1\"");
+
+		MockResourceResponse response = new MockResourceResponse();
+		assertFalse(PortletUtils.checkNotModified(request, response, "v1", -1));
+		assertNull(response.getProperty(HttpHeaders.ETAG));
+		assertNull(response.getProperty(ResourceResponse.HTTP_STATUS_CODE));
+	}
+
+	@Test
+	public void testCheckNotModifiedWithIfModifiedSince() throws Exception {
+		MockResourceRequest request = new MockResourceRequest();
+		request.setMethod("GET");
+		request.addProperty(HttpHeaders.IF_MODIFIED_SINCE, "Sun, 09 Sep 2001 01:46:40 GMT");
+
+		MockResourceResponse response = new MockResourceResponse();
+		assertTrue(PortletUtils.checkNotModified(request, response, null, 1000000000500L));
+		assertEquals("Sun, 9 Sep 2001 01:46:40 GMT", response.getProperty(HttpHeaders.LAST_MODIFIED));
+		assertEquals("304", response.getProperty(ResourceResponse.HTTP_STATUS_CODE));
+
+		response = new MockResourceResponse();
+		assertFalse(PortletUtils.checkNotModified(request, response, null, 1000001000000L));
+		assertNull(response.getProperty(ResourceResponse.HTTP_STATUS_CODE));
+	}
+
+	@Test
+	public void testCheckNotModifiedWithIfNoneMatch() throws Exception {
+		MockResourceRequest request = new MockResourceRequest();
+		request.setMethod("GET");
+		request.addProperty(HttpHeaders.IF_NONE_MATCH, "\"v0\", W/\"v1\"");
+
+		// If-Modified-Since is ignored in the presence of If-None-Match.
+		request.addProperty(HttpHeaders.IF_MODIFIED_SINCE, "Sun, 09 Sep 2001 01:46:40 GMT");
+
+		MockResourceResponse response = new MockResourceResponse();
+		assertTrue(PortletUtils.checkNotModified(request, response, "v1", -1));
+		assertEquals("\"v1\"", response.getProperty(HttpHeaders.ETAG));
+		assertEquals("304", response.getProperty(ResourceResponse.HTTP_STATUS_CODE));
+
+		response = new MockResourceResponse();
+		assertFalse(PortletUtils.checkNotModified(request, response, "v2", 1000000000000L));
+		assertEquals("\"v2\"", response.getProperty(HttpHeaders.ETAG));
+		assertNull(response.getProperty(ResourceResponse.HTTP_STATUS_CODE));
+	}
+
 	@Test
 	public void testClearAllRenderParameters() throws Exception {
 		MockActionResponse response = new MockActionResponse();
@@ -494,6 +549,46 @@ public final class PortletUtilsTests {
 			0, response.getRenderParameterMap().size());
 	}
 
+	@Test
+	public void testServeResourceWithIfModifiedSince() throws Exception {
+		String path = "/" + PortletUtilsTests.class.getName().replace('.', '/') + ".class";
+		MockResourceRequest request = new MockResourceRequest(path);
+		request.setMethod("GET");
+		request.addProperty(HttpHeaders.IF_MODIFIED_SINCE, "Sun, 09 Sep 2001 01:46:40 GMT");
+
+		MockResourceResponse response = new MockResourceResponse();
+		PortletUtils.serveResource(request, response, new MockPortletContext());
+		assertEquals(path, response.getForwardedUrl());
+		assertNotNull(response.getProperty(HttpHeaders.LAST_MODIFIED));
+
+		request.setProperty(HttpHeaders.IF_MODIFIED_SINCE, response.getProperty(HttpHeaders.LAST_MODIFIED));
+		response = new MockResourceResponse();
+		PortletUtils.serveResource(request, response, new MockPortletContext());
+		assertNull(response.getForwardedUrl());
+		assertEquals("304", response.getProperty(ResourceResponse.HTTP_STATUS_CODE));
+	}
+
+	@Test
+	public void testServeResourceWithIfModifiedSinceForJsp() throws Exception {
+
+		// The JSP source has not been modified since, but the content that it generates may have been.
+		PortletContext context = mock(PortletContext.class);
+		PortletRequestDispatcher dispatcher = mock(PortletRequestDispatcher.class);
+		given(context.getRequestDispatcher("/view.jsp")).willReturn(dispatcher);
+		URL url = PortletUtilsTests.class.getResource("PortletUtilsTests.class");
+		given(context.getResource("/view.jsp")).willReturn(url);
+
+		MockResourceRequest request = new MockResourceRequest("/view.jsp");
+		request.setMethod("GET");
+		request.addProperty(HttpHeaders.IF_MODIFIED_SINCE, "Fri, 01 Jan 2100 00:00:00 GMT");
+
+		MockResourceResponse response = new MockResourceResponse();
+		PortletUtils.serveResource(request, response, context);
+		verify(dispatcher).forward(request, response);
+		assertNull(response.getProperty(HttpHeaders.LAST_MODIFIED));
+		assertNull(response.getProperty(ResourceResponse.HTTP_STATUS_CODE));
+	}
+
 	@Test
 	public void testSetSessionAttributeWithExistingSessionAndNullValue() throws Exception {
 		PortletSession session = mock(PortletSession.class);
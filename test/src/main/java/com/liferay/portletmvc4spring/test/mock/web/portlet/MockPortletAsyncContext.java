@@ -0,0 +1,178 @@
+/**
+ * Copyright (c) 2000-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.portletmvc4spring.test.mock.web.portlet;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.portlet.PortletAsyncContext;
+import jakarta.portlet.PortletAsyncEvent;
+import jakarta.portlet.PortletAsyncListener;
+import jakarta.portlet.PortletException;
+import jakarta.portlet.ResourceRequest;
+import jakarta.portlet.ResourceResponse;
+
+import org.springframework.beans.BeanUtils;
+
+
+/**
+ * Mock implementation of the {@link jakarta.portlet.PortletAsyncContext} interface.
+ *
+ * <p>Dispatching does not re-invoke the portlet by itself: register a dispatch handler via {@link
+ * #addDispatchHandler(Runnable)} in order to simulate the dispatch of the portlet container.
+ *
+ * @author  Neil Griffin
+ * @since   6.0
+ */
+public class MockPortletAsyncContext implements PortletAsyncContext {
+
+	private final List<Runnable> dispatchHandlers = new ArrayList<Runnable>();
+
+	private boolean dispatched;
+
+	private String dispatchedPath;
+
+	private final List<PortletAsyncListener> listeners = new ArrayList<PortletAsyncListener>();
+
+	private final ResourceRequest request;
+
+	private final ResourceResponse response;
+
+	private long timeout = 10 * 1000L;
+
+	/**
+	 * Create a new MockPortletAsyncContext for the given request/response pair.
+	 *
+	 * @param  request   the resource request that was put into asynchronous mode
+	 * @param  response  the resource response
+	 */
+	public MockPortletAsyncContext(ResourceRequest request, ResourceResponse response) {
+		this.request = request;
+		this.response = response;
+	}
+
+	/**
+	 * Add a handler that is invoked when the request is dispatched, e.g. for invoking the portlet again.
+	 */
+	public void addDispatchHandler(Runnable handler) {
+		this.dispatchHandlers.add(handler);
+	}
+
+	@Override
+	public void addListener(PortletAsyncListener listener) {
+		this.listeners.add(listener);
+	}
+
+	@Override
+	public void addListener(PortletAsyncListener listener, ResourceRequest request, ResourceResponse response) {
+		this.listeners.add(listener);
+	}
+
+	@Override
+	public void complete() {
+
+		if (this.request instanceof MockResourceRequest) {
+			((MockResourceRequest) this.request).setAsyncStarted(false);
+		}
+
+		for (PortletAsyncListener listener : this.listeners) {
+
+			try {
+				listener.onComplete(new PortletAsyncEvent(this, this.request, this.response));
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("PortletAsyncListener failure", ex);
+			}
+		}
+	}
+
+	@Override
+	public <T extends PortletAsyncListener> T createPortletAsyncListener(Class<T> clazz) throws PortletException {
+		return BeanUtils.instantiateClass(clazz);
+	}
+
+	@Override
+	public void dispatch() {
+		dispatch(null);
+	}
+
+	@Override
+	public void dispatch(String path) {
+		this.dispatched = true;
+		this.dispatchedPath = path;
+
+		if (this.request instanceof MockResourceRequest) {
+			((MockResourceRequest) this.request).setAsyncStarted(false);
+		}
+
+		for (Runnable handler : this.dispatchHandlers) {
+			handler.run();
+		}
+	}
+
+	/**
+	 * Return the path that the request was dispatched to, or {@code null} if dispatched to the original portlet.
+	 */
+	public String getDispatchedPath() {
+		return this.dispatchedPath;
+	}
+
+	public List<PortletAsyncListener> getListeners() {
+		return this.listeners;
+	}
+
+	@Override
+	public ResourceRequest getResourceRequest() {
+		return this.request;
+	}
+
+	@Override
+	public ResourceResponse getResourceResponse() {
+		return this.response;
+	}
+
+	@Override
+	public long getTimeout() {
+		return this.timeout;
+	}
+
+	@Override
+	public boolean hasOriginalRequestAndResponse() {
+		return true;
+	}
+
+	/**
+	 * Return whether the request was dispatched via {@link #dispatch()} or {@link #dispatch(String)}.
+	 */
+	public boolean isDispatched() {
+		return this.dispatched;
+	}
+
+	@Override
+	public void setTimeout(long timeout) {
+		this.timeout = timeout;
+	}
+
+	/**
+	 * Runs the given task on the calling thread.
+	 */
+	@Override
+	public void start(Runnable runnable) {
+		runnable.run();
+	}
+
+}
@@ -45,6 +45,12 @@ public class MockResourceRequest extends MockClientDataRequest implements Resour
 
 	private ResourceParameters resourceParameters;
 
+	private boolean asyncSupported = false;
+
+	private boolean asyncStarted = false;
+
+	private MockPortletAsyncContext asyncContext;
+
 	/**
 	 * Create a new MockResourceRequest with a default {@link MockPortalContext} and a default {@link
 	 * MockPortletContext}.
@@ -121,9 +127,21 @@ public class MockResourceRequest extends MockClientDataRequest implements Resour
 		return getProperty(RenderRequest.ETAG);
 	}
 
+	/**
+	 * Return the async context that was created by the last call of {@code startPortletAsync}, if any.
+	 */
+	public MockPortletAsyncContext getMockPortletAsyncContext() {
+		return this.asyncContext;
+	}
+
 	@Override
 	public PortletAsyncContext getPortletAsyncContext() {
-		throw new UnsupportedOperationException();
+
+		if (!this.asyncStarted) {
+			throw new IllegalStateException("Async not started");
+		}
+
+		return this.asyncContext;
 	}
 
 	@Override
@@ -148,12 +166,20 @@ public class MockResourceRequest extends MockClientDataRequest implements Resour
 
 	@Override
 	public boolean isAsyncStarted() {
-		return false;
+		return this.asyncStarted;
 	}
 
 	@Override
 	public boolean isAsyncSupported() {
-		return false;
+		return this.asyncSupported;
+	}
+
+	public void setAsyncStarted(boolean asyncStarted) {
+		this.asyncStarted = asyncStarted;
+	}
+
+	public void setAsyncSupported(boolean asyncSupported) {
+		this.asyncSupported = asyncSupported;
 	}
 
 	public void setCacheability(String cacheLevel) {
@@ -166,13 +192,21 @@ public class MockResourceRequest extends MockClientDataRequest implements Resour
 
 	@Override
 	public PortletAsyncContext startPortletAsync() throws IllegalStateException {
-		throw new UnsupportedOperationException();
+		return startPortletAsync(this, null);
 	}
 
 	@Override
 	public PortletAsyncContext startPortletAsync(ResourceRequest resourceRequest, ResourceResponse resourceResponse)
 		throws IllegalStateException {
-		throw new UnsupportedOperationException();
+
+		if (!this.asyncSupported) {
+			throw new IllegalStateException("Async not supported");
+		}
+
+		this.asyncStarted = true;
+		this.asyncContext = new MockPortletAsyncContext(resourceRequest, resourceResponse);
+
+		return this.asyncContext;
 	}
 
 	@Override
@@ -27,6 +27,7 @@ import org.springframework.webflow.context.ExternalContext;
 import org.springframework.webflow.execution.RequestContext;
 import org.springframework.webflow.mvc.view.AbstractMvcView;
 
+import com.liferay.portletmvc4spring.DirectRenderingView;
 import com.liferay.portletmvc4spring.DispatcherPortlet;
 import com.liferay.portletmvc4spring.ViewRendererServlet;
 
@@ -39,6 +40,8 @@ import com.liferay.portletmvc4spring.ViewRendererServlet;
  */
 public class PortletMvcView extends AbstractMvcView {
 
+	private boolean directRendering = true;
+
 	/**
 	 * Creates a new Portlet MVC view.
 	 *
@@ -49,6 +52,16 @@ public class PortletMvcView extends AbstractMvcView {
 		super(view, context);
 	}
 
+	/**
+	 * Set whether to render a view that implements {@link DirectRenderingView} directly to the portlet response,
+	 * rather than by including the {@link ViewRendererServlet}. Default is "true".
+	 *
+	 * @see  DispatcherPortlet#setDirectRendering
+	 */
+	public void setDirectRendering(boolean directRendering) {
+		this.directRendering = directRendering;
+	}
+
 	protected void doRender(Map<String, ?> model) throws Exception {
 		RequestContext context = getRequestContext();
 		ExternalContext externalContext = context.getExternalContext();
@@ -68,10 +81,17 @@ public class PortletMvcView extends AbstractMvcView {
 			}
 		}
 
-		request.setAttribute(ViewRendererServlet.VIEW_ATTRIBUTE, view);
-		request.setAttribute(ViewRendererServlet.MODEL_ATTRIBUTE, model);
 		request.setAttribute(org.springframework.web.servlet.support.RequestContext.WEB_APPLICATION_CONTEXT_ATTRIBUTE,
 			context.getActiveFlow().getApplicationContext());
+
+		if (this.directRendering && (view instanceof DirectRenderingView)) {
+			((DirectRenderingView) view).render(model, request, response);
+
+			return;
+		}
+
+		request.setAttribute(ViewRendererServlet.VIEW_ATTRIBUTE, view);
+		request.setAttribute(ViewRendererServlet.MODEL_ATTRIBUTE, model);
 		portletContext.getRequestDispatcher(DispatcherPortlet.DEFAULT_VIEW_RENDERER_URL).include(request, response);
 	}
 
@@ -38,6 +38,8 @@ import org.springframework.webflow.mvc.view.FlowViewResolver;
  */
 public class PortletMvcViewFactory extends AbstractMvcViewFactory {
 
+	private boolean directRendering = true;
+
 	/**
 	 * Creates a new portlet-based MVC view factory.
 	 *
@@ -54,8 +56,21 @@ public class PortletMvcViewFactory extends AbstractMvcViewFactory {
 		super(viewId, viewResolver, expressionParser, conversionService, binderConfiguration, messageCodesResolver);
 	}
 
+	/**
+	 * Set whether the created views render a {@link com.liferay.portletmvc4spring.DirectRenderingView} directly to the
+	 * portlet response. Default is "true".
+	 *
+	 * @see  PortletMvcView#setDirectRendering
+	 */
+	public void setDirectRendering(boolean directRendering) {
+		this.directRendering = directRendering;
+	}
+
 	protected AbstractMvcView createMvcView(View view, RequestContext context) {
-		return new PortletMvcView(view, context);
+		PortletMvcView mvcView = new PortletMvcView(view, context);
+		mvcView.setDirectRendering(this.directRendering);
+
+		return mvcView;
 	}
 
 }
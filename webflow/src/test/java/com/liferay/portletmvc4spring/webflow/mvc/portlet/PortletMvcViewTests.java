@@ -34,6 +34,8 @@ import org.springframework.webflow.test.MockFlowExecutionKey;
 import org.springframework.webflow.test.MockRequestContext;
 import org.springframework.webflow.validation.WebFlowMessageCodesResolver;
 
+import com.liferay.portletmvc4spring.DispatcherPortlet;
+import com.liferay.portletmvc4spring.PortletInternalResourceView;
 import com.liferay.portletmvc4spring.ViewRendererServlet;
 import com.liferay.portletmvc4spring.test.mock.web.portlet.MockPortletContext;
 import com.liferay.portletmvc4spring.test.mock.web.portlet.MockRenderRequest;
@@ -63,6 +65,41 @@ public class PortletMvcViewTests extends TestCase {
 		assertNotNull(request.getAttribute(ViewRendererServlet.MODEL_ATTRIBUTE));
 	}
 
+	public void testRenderDirectRenderingView() throws Exception {
+		MockRenderRequest request = new MockRenderRequest();
+		MockRenderResponse response = new MockRenderResponse();
+		MockRequestContext context = new MockRequestContext();
+		context.getMockExternalContext().setNativeContext(new MockPortletContext());
+		context.getMockExternalContext().setNativeRequest(request);
+		context.getMockExternalContext().setNativeResponse(response);
+		context.getMockFlowExecutionContext().setKey(new MockFlowExecutionKey("c1v1"));
+
+		AbstractMvcView view = new PortletMvcView(new PortletInternalResourceView("/WEB-INF/flows/view.jsp"), context);
+		view.render();
+		assertEquals("/WEB-INF/flows/view.jsp", response.getIncludedUrl());
+		assertEquals("c1v1", request.getAttribute("flowExecutionKey"));
+		assertNull(request.getAttribute(ViewRendererServlet.VIEW_ATTRIBUTE));
+	}
+
+	public void testRenderDirectRenderingViewTurnedOff() throws Exception {
+		MockRenderRequest request = new MockRenderRequest();
+		MockRenderResponse response = new MockRenderResponse();
+		MockRequestContext context = new MockRequestContext();
+		context.getMockExternalContext().setNativeContext(new MockPortletContext());
+		context.getMockExternalContext().setNativeRequest(request);
+		context.getMockExternalContext().setNativeResponse(response);
+		context.getMockFlowExecutionContext().setKey(new MockFlowExecutionKey("c1v1"));
+
+		PortletMvcViewFactory viewFactory = new PortletMvcViewFactory(null, null, null, null, null, null);
+		viewFactory.setDirectRendering(false);
+
+		PortletInternalResourceView mvcView = new PortletInternalResourceView("/WEB-INF/flows/view.jsp");
+		AbstractMvcView view = viewFactory.createMvcView(mvcView, context);
+		view.render();
+		assertEquals(DispatcherPortlet.DEFAULT_VIEW_RENDERER_URL, response.getIncludedUrl());
+		assertSame(mvcView, request.getAttribute(ViewRendererServlet.VIEW_ATTRIBUTE));
+	}
+
 	public void testResumeEvent() throws Exception {
 		MockRequestContext context = new MockRequestContext();
 		context.putRequestParameter("_eventId", "submit");